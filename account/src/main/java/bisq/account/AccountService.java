@@ -30,6 +30,7 @@ import bisq.persistence.DbSubDirectory;
 import bisq.persistence.Persistence;
 import bisq.persistence.PersistenceClient;
 import bisq.persistence.PersistenceService;
+import bisq.persistence.ReadPriority;
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 
@@ -51,6 +52,11 @@ public class AccountService implements PersistenceClient<AccountStore>, Service
         persistence = persistenceService.getOrCreatePersistence(this, DbSubDirectory.PRIVATE, persistableStore);
     }
 
+    @Override
+    public ReadPriority getReadPriority() {
+        return ReadPriority.HIGH;
+    }
+
     @Override
     public void onPersistedApplied(AccountStore persisted) {
         accounts.setAll(persisted.getAccountByName().values());
@@ -26,8 +26,10 @@ import bisq.common.locale.LanguageRepository;
 import bisq.common.locale.LocaleRepository;
 import bisq.common.logging.AsciiLogo;
 import bisq.common.logging.LogSetup;
+import bisq.common.timer.Scheduler;
 import bisq.common.util.*;
 import bisq.i18n.Res;
+import bisq.network.NetworkService;
 import bisq.persistence.PersistenceService;
 import com.typesafe.config.ConfigFactory;
 import lombok.EqualsAndHashCode;
@@ -79,7 +81,9 @@ public abstract class ApplicationService implements Service {
                     config.getBoolean("devMode"),
                     config.getString("keyIds"),
                     config.getBoolean("ignoreSigningKeyInResourcesCheck"),
-                    config.getBoolean("ignoreSignatureVerification"));
+                    config.getBoolean("ignoreSignatureVerification"),
+                    config.getInt("numPersistenceReadThreads"),
+                    config.getBoolean("useVirtualThreads"));
         }
 
         private final Path baseDir;
@@ -88,13 +92,17 @@ public abstract class ApplicationService implements Service {
         private final List<String> keyIds;
         private final boolean ignoreSigningKeyInResourcesCheck;
         private final boolean ignoreSignatureVerification;
+        private final int numPersistenceReadThreads;
+        private final boolean useVirtualThreads;
 
         public Config(Path baseDir,
                       String appName,
                       boolean devMode,
                       String keyIds,
                       boolean ignoreSigningKeyInResourcesCheck,
-                      boolean ignoreSignatureVerification) {
+                      boolean ignoreSignatureVerification,
+                      int numPersistenceReadThreads,
+                      boolean useVirtualThreads) {
             this.baseDir = baseDir;
             this.appName = appName;
             this.devMode = devMode;
@@ -104,6 +112,10 @@ public abstract class ApplicationService implements Service {
             this.keyIds = List.of(keyIds.split(","));
             this.ignoreSigningKeyInResourcesCheck = ignoreSigningKeyInResourcesCheck;
             this.ignoreSignatureVerification = ignoreSignatureVerification;
+            this.numPersistenceReadThreads = numPersistenceReadThreads > 0
+                    ? numPersistenceReadThreads
+                    : OsUtils.availableProcessors();
+            this.useVirtualThreads = useVirtualThreads;
         }
     }
 
@@ -159,6 +171,10 @@ public abstract class ApplicationService implements Service {
         MemoryReport.printPeriodically();
 
         DevMode.setDevMode(config.isDevMode());
+        if (config.isUseVirtualThreads()) {
+            Scheduler.useVirtualThreads();
+        }
+        NetworkService.useVirtualThreads(config.isUseVirtualThreads());
 
         Locale locale = LocaleRepository.getDefaultLocale();
         CountryRepository.applyDefaultLocale(locale);
@@ -168,7 +184,7 @@ public abstract class ApplicationService implements Service {
         ResolverConfig.config();
 
         String absoluteDataDirPath = dataDir.toAbsolutePath().toString();
-        persistenceService = new PersistenceService(absoluteDataDirPath);
+        persistenceService = new PersistenceService(absoluteDataDirPath, config.getNumPersistenceReadThreads());
     }
 
     private void checkInstanceLock() {
@@ -19,7 +19,6 @@ package bisq.desktop.main.content.bisq_easy;
 
 import bisq.account.payment_method.BitcoinPaymentMethod;
 import bisq.account.payment_method.FiatPaymentMethod;
-import bisq.bisq_easy.BisqEasyService;
 import bisq.bonded_roles.market_price.MarketPriceService;
 import bisq.chat.bisqeasy.open_trades.BisqEasyOpenTradeChannel;
 import bisq.common.currency.Market;
@@ -32,7 +31,6 @@ import bisq.offer.amount.OfferAmountFormatter;
 import bisq.offer.amount.spec.AmountSpec;
 import bisq.offer.amount.spec.RangeAmountSpec;
 import bisq.offer.bisq_easy.BisqEasyOffer;
-import bisq.offer.options.OfferOptionUtil;
 import bisq.offer.payment_method.PaymentMethodSpecFormatter;
 import bisq.offer.price.spec.FixPriceSpec;
 import bisq.offer.price.spec.FloatPriceSpec;
@@ -42,10 +40,7 @@ import bisq.presentation.formatters.PriceFormatter;
 import bisq.trade.Trade;
 import bisq.trade.bisq_easy.BisqEasyTrade;
 import bisq.user.identity.UserIdentity;
-import bisq.user.identity.UserIdentityService;
 import bisq.user.profile.UserProfile;
-import bisq.user.profile.UserProfileService;
-import bisq.user.reputation.ReputationService;
 
 import java.util.List;
 import java.util.Optional;
@@ -65,28 +60,6 @@ public class BisqEasyServiceUtil {
         return serviceProvider.getTradeService().getBisqEasyTradeService().findTrade(tradeId);
     }
 
-    public static boolean offerMatchesMinRequiredReputationScore(ReputationService reputationService,
-                                                                 BisqEasyService bisqEasyService,
-                                                                 UserIdentityService userIdentityService,
-                                                                 UserProfileService userProfileService,
-                                                                 BisqEasyOffer peersOffer) {
-        if (peersOffer.getDirection().isSell()) {
-            Optional<UserProfile> optionalMakersUserProfile = userProfileService.findUserProfile(peersOffer.getMakersUserProfileId());
-            if (optionalMakersUserProfile.isEmpty()) {
-                return false;
-            }
-            long makerAsSellersScore = reputationService.getReputationScore(optionalMakersUserProfile.get()).getTotalScore();
-            long myMinRequiredScore = bisqEasyService.getMinRequiredReputationScore().get();
-            // Maker as seller's score must be > than my required score (as buyer)
-            return makerAsSellersScore >= myMinRequiredScore;
-        } else {
-            // My score (as offer is a buy offer, I am the seller) must be > as offers required score
-            long myScoreAsSeller = reputationService.getReputationScore(userIdentityService.getSelectedUserIdentity().getUserProfile()).getTotalScore();
-            long offersRequiredScore = OfferOptionUtil.findRequiredTotalReputationScore(peersOffer).orElse(0L);
-            return myScoreAsSeller >= offersRequiredScore;
-        }
-    }
-
     public static String createBasicOfferBookMessage(MarketPriceService marketPriceService,
                                                      Market market,
                                                      String bitcoinPaymentMethodNames,
@@ -30,7 +30,6 @@ import bisq.desktop.ServiceProvider;
 import bisq.desktop.common.threading.UIThread;
 import bisq.desktop.common.view.Controller;
 import bisq.desktop.components.overlay.Popup;
-import bisq.desktop.main.content.bisq_easy.BisqEasyServiceUtil;
 import bisq.desktop.main.content.bisq_easy.components.AmountComponent;
 import bisq.i18n.Res;
 import bisq.offer.Direction;
@@ -53,7 +52,6 @@ import bisq.settings.SettingsService;
 import bisq.user.identity.UserIdentityService;
 import bisq.user.profile.UserProfile;
 import bisq.user.profile.UserProfileService;
-import bisq.user.reputation.ReputationService;
 import javafx.beans.property.ReadOnlyBooleanProperty;
 import javafx.beans.property.ReadOnlyObjectProperty;
 import javafx.scene.layout.Region;
@@ -83,7 +81,6 @@ public class TradeWizardAmountController implements Controller {
     private final BisqEasyOfferbookChannelService bisqEasyOfferbookChannelService;
     private final Region owner;
     private final UserProfileService userProfileService;
-    private final ReputationService reputationService;
     private final UserIdentityService userIdentityService;
     private final BisqEasyService bisqEasyService;
     private Subscription isMinAmountEnabledPin, maxOrFixAmountCompBaseSideAmountPin, minAmountCompBaseSideAmountPin,
@@ -95,7 +92,6 @@ public class TradeWizardAmountController implements Controller {
         marketPriceService = serviceProvider.getBondedRolesService().getMarketPriceService();
         userProfileService = serviceProvider.getUserService().getUserProfileService();
         userIdentityService = serviceProvider.getUserService().getUserIdentityService();
-        reputationService = serviceProvider.getUserService().getReputationService();
         bisqEasyOfferbookChannelService = serviceProvider.getChatService().getBisqEasyOfferbookChannelService();
         this.owner = owner;
         model = new TradeWizardAmountModel();
@@ -472,11 +468,7 @@ public class TradeWizardAmountController implements Controller {
                 return false;
             }
 
-            return BisqEasyServiceUtil.offerMatchesMinRequiredReputationScore(reputationService,
-                    bisqEasyService,
-                    userIdentityService,
-                    userProfileService,
-                    peersOffer);
+            return bisqEasyService.getBisqEasyOfferMatchingService().offerMatchesMinRequiredReputationScore(peersOffer);
         } catch (Throwable t) {
             log.error("Error at TakeOfferPredicate", t);
             return false;
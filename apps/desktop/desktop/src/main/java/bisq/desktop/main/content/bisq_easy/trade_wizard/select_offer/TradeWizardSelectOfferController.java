@@ -26,27 +26,16 @@ import bisq.chat.ChatService;
 import bisq.chat.bisqeasy.offerbook.BisqEasyOfferbookChannel;
 import bisq.chat.bisqeasy.offerbook.BisqEasyOfferbookChannelService;
 import bisq.common.currency.Market;
-import bisq.common.monetary.Monetary;
 import bisq.desktop.ServiceProvider;
 import bisq.desktop.common.view.Controller;
-import bisq.desktop.main.content.bisq_easy.BisqEasyServiceUtil;
 import bisq.i18n.Res;
-import bisq.network.identity.NetworkId;
 import bisq.offer.Direction;
 import bisq.offer.amount.OfferAmountFormatter;
-import bisq.offer.amount.OfferAmountUtil;
 import bisq.offer.amount.spec.QuoteSideAmountSpec;
 import bisq.offer.amount.spec.RangeAmountSpec;
 import bisq.offer.bisq_easy.BisqEasyOffer;
-import bisq.offer.payment_method.PaymentMethodSpec;
-import bisq.offer.payment_method.PaymentMethodSpecUtil;
 import bisq.offer.price.spec.PriceSpec;
 import bisq.settings.SettingsService;
-import bisq.trade.Trade;
-import bisq.trade.bisq_easy.BisqEasyTradeService;
-import bisq.user.banned.BannedUserService;
-import bisq.user.identity.UserIdentityService;
-import bisq.user.profile.UserProfile;
 import bisq.user.profile.UserProfileService;
 import bisq.user.reputation.ReputationService;
 import javafx.beans.property.ReadOnlyBooleanProperty;
@@ -54,7 +43,6 @@ import javafx.beans.property.ReadOnlyObjectProperty;
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 
-import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
@@ -69,15 +57,12 @@ public class TradeWizardSelectOfferController implements Controller {
     private final TradeWizardSelectOfferView view;
     private final ReputationService reputationService;
     private final SettingsService settingsService;
-    private final UserIdentityService userIdentityService;
     private final BisqEasyOfferbookChannelService bisqEasyOfferbookChannelService;
     private final UserProfileService userProfileService;
     private final Runnable onBackHandler;
     private final Runnable onNextHandler;
     private final Consumer<NavigationTarget> closeAndNavigateToHandler;
     private final MarketPriceService marketPriceService;
-    private final BannedUserService bannedUserService;
-    private final BisqEasyTradeService bisqEasyTradeService;
     private final BisqEasyService bisqEasyService;
 
     public TradeWizardSelectOfferController(ServiceProvider serviceProvider,
@@ -92,11 +77,8 @@ public class TradeWizardSelectOfferController implements Controller {
         reputationService = serviceProvider.getUserService().getReputationService();
         settingsService = serviceProvider.getSettingsService();
         bisqEasyService = serviceProvider.getBisqEasyService();
-        userIdentityService = serviceProvider.getUserService().getUserIdentityService();
         userProfileService = serviceProvider.getUserService().getUserProfileService();
         marketPriceService = serviceProvider.getBondedRolesService().getMarketPriceService();
-        bannedUserService = serviceProvider.getUserService().getBannedUserService();
-        bisqEasyTradeService = serviceProvider.getTradeService().getBisqEasyTradeService();
 
         model = new TradeWizardSelectOfferModel();
         view = new TradeWizardSelectOfferView(model, this);
@@ -236,99 +218,16 @@ public class TradeWizardSelectOfferController implements Controller {
         model.getSelectedBisqEasyOffer().set(listItem.getBisqEasyOffer());
     }
 
-    @SuppressWarnings("RedundantIfStatement")
     private Predicate<? super TradeWizardSelectOfferView.ListItem> getPredicate() {
-        return item ->
-        {
-            try {
-                BisqEasyOffer peersOffer = item.getBisqEasyOffer();
-
-                if (model.getMatchingOffers().isEmpty()) {
-                    return false;
-                }
-                if (model.getDirection().equals(peersOffer.getDirection())) {
-                    return false;
-                }
-                if (!model.getMarket().equals(peersOffer.getMarket())) {
-                    return false;
-                }
-                if (item.getAuthorUserProfile().isEmpty()) {
-                    return false;
-                }
-                UserProfile makerUserProfile = item.getAuthorUserProfile().get();
-                if (userProfileService.isChatUserIgnored(makerUserProfile)) {
-                    return false;
-                }
-                // Ignore own offers
-                if (userIdentityService.getUserIdentities().stream()
-                        .map(userIdentity -> userIdentity.getUserProfile().getId())
-                        .anyMatch(userProfileId -> userProfileId.equals(makerUserProfile.getId()))) {
-                    return false;
-                }
-
-                if (bannedUserService.isUserProfileBanned(userIdentityService.getSelectedUserIdentity().getUserProfile()) ||
-                        bannedUserService.isNetworkIdBanned(makerUserProfile.getNetworkId()) ||
-                        bannedUserService.isUserProfileBanned(makerUserProfile)) {
-                    return false;
-                }
-
-                UserProfile myUserProfile = userIdentityService.getSelectedUserIdentity().getUserProfile();
-                NetworkId myNetworkId = myUserProfile.getNetworkId();
-                String tradeId = Trade.createId(peersOffer.getId(), myNetworkId.getId());
-                if (bisqEasyTradeService.tradeExists(tradeId)) {
-                    return false;
-                }
-
-                Monetary myQuoteSideMinOrFixedAmount = OfferAmountUtil.findQuoteSideMinOrFixedAmount(marketPriceService, model.getQuoteSideAmountSpec(), model.getPriceSpec(), model.getMarket()).orElseThrow();
-                Monetary peersQuoteSideMaxOrFixedAmount = OfferAmountUtil.findQuoteSideMaxOrFixedAmount(marketPriceService, peersOffer).orElseThrow();
-                if (myQuoteSideMinOrFixedAmount.isGreaterThan(peersQuoteSideMaxOrFixedAmount, myQuoteSideMinOrFixedAmount.getLowPrecision())) {
-                    return false;
-                }
-
-                Monetary myQuoteSideMaxOrFixedAmount = OfferAmountUtil.findQuoteSideMaxOrFixedAmount(marketPriceService, model.getQuoteSideAmountSpec(), model.getPriceSpec(), model.getMarket()).orElseThrow();
-                Monetary peersQuoteSideMinOrFixedAmount = OfferAmountUtil.findQuoteSideMinOrFixedAmount(marketPriceService, peersOffer).orElseThrow();
-                if (myQuoteSideMaxOrFixedAmount.isLessThan(peersQuoteSideMinOrFixedAmount, myQuoteSideMaxOrFixedAmount.getLowPrecision())) {
-                    return false;
-                }
-
-                List<String> paymentMethodNames = PaymentMethodSpecUtil.getPaymentMethodNames(peersOffer.getQuoteSidePaymentMethodSpecs());
-                List<String> quoteSidePaymentMethodNames = PaymentMethodSpecUtil.getPaymentMethodNames(peersOffer.getQuoteSidePaymentMethodSpecs());
-                if (quoteSidePaymentMethodNames.stream().noneMatch(paymentMethodNames::contains)) {
-                    return false;
-                }
-
-                Set<BitcoinPaymentMethod> takersBitcoinPaymentMethodSet = new HashSet<>(model.getBitcoinPaymentMethods());
-                List<BitcoinPaymentMethod> matchingBitcoinPaymentMethods = peersOffer.getBaseSidePaymentMethodSpecs().stream()
-                        .filter(e -> takersBitcoinPaymentMethodSet.contains(e.getPaymentMethod()))
-                        .map(PaymentMethodSpec::getPaymentMethod)
-                        .collect(Collectors.toList());
-                if (matchingBitcoinPaymentMethods.isEmpty()) {
-                    return false;
-                }
-
-                Set<FiatPaymentMethod> takersFiatPaymentMethodSet = new HashSet<>(model.getFiatPaymentMethods());
-                List<FiatPaymentMethod> matchingFiatPaymentMethods = peersOffer.getQuoteSidePaymentMethodSpecs().stream()
-                        .filter(e -> takersFiatPaymentMethodSet.contains(e.getPaymentMethod()))
-                        .map(PaymentMethodSpec::getPaymentMethod)
-                        .collect(Collectors.toList());
-                if (matchingFiatPaymentMethods.isEmpty()) {
-                    return false;
-                }
-
-                if (!BisqEasyServiceUtil.offerMatchesMinRequiredReputationScore(reputationService,
-                        bisqEasyService,
-                        userIdentityService,
-                        userProfileService,
-                        peersOffer)) {
-                    return false;
-                }
-
-                return true;
-            } catch (Throwable t) {
-                log.error("Error at getPredicate", t);
-                return false;
-            }
-        };
+        Set<String> matchingOfferIds = bisqEasyService.getBisqEasyOfferMatchingService().findMatchingOffers(model.getDirection(),
+                        model.getMarket(),
+                        model.getBitcoinPaymentMethods(),
+                        model.getFiatPaymentMethods(),
+                        model.getQuoteSideAmountSpec(),
+                        model.getPriceSpec()).stream()
+                .map(BisqEasyOffer::getId)
+                .collect(Collectors.toSet());
+        return item -> matchingOfferIds.contains(item.getBisqEasyOffer().getId());
     }
 
     private void resetSelectedOffer() {
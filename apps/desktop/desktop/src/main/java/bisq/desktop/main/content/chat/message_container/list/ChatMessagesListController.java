@@ -30,7 +30,6 @@ import bisq.desktop.common.threading.UIThread;
 import bisq.desktop.common.utils.ClipboardUtil;
 import bisq.desktop.common.view.Navigation;
 import bisq.desktop.components.overlay.Popup;
-import bisq.desktop.main.content.bisq_easy.BisqEasyServiceUtil;
 import bisq.desktop.main.content.bisq_easy.take_offer.TakeOfferController;
 import bisq.desktop.main.content.components.ReportToModeratorWindow;
 import bisq.i18n.Res;
@@ -284,11 +283,7 @@ public class ChatMessagesListController implements bisq.desktop.common.view.Cont
             return;
         }
 
-        if (!BisqEasyServiceUtil.offerMatchesMinRequiredReputationScore(reputationService,
-                bisqEasyService,
-                userIdentityService,
-                userProfileService,
-                bisqEasyOffer)) {
+        if (!bisqEasyService.getBisqEasyOfferMatchingService().offerMatchesMinRequiredReputationScore(bisqEasyOffer)) {
             if (bisqEasyOffer.getDirection().isSell()) {
                 long makerAsSellersScore = userProfileService.findUserProfile(bisqEasyOffer.getMakersUserProfileId())
                         .map(reputationService::getReputationScore)
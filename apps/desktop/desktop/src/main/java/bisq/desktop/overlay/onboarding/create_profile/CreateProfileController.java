@@ -96,8 +96,7 @@ public class CreateProfileController implements Controller {
         if (nickNameSubscription != null) {
             nickNameSubscription.unsubscribe();
         }
-        // Does only cancel downstream calls not actual running task
-        // We pass the isCanceled flag to stop the running task
+        // Cancelling the minting future stops the running task
         mintNymProofOfWorkFuture.ifPresent(future -> future.cancel(true));
     }
 
@@ -144,29 +143,32 @@ public class CreateProfileController implements Controller {
         model.setKeyPair(Optional.of(keyPair));
         byte[] pubKeyHash = DigestUtil.hash(keyPair.getPublic().getEncoded());
         model.setPubKeyHash(Optional.of(pubKeyHash));
+        // A still running minting for the previous key pair is not needed anymore
+        mintNymProofOfWorkFuture.ifPresent(future -> future.cancel(true));
         mintNymProofOfWorkFuture = Optional.of(createProofOfWork(pubKeyHash));
     }
 
     private CompletableFuture<ProofOfWork> createProofOfWork(byte[] pubKeyHash) {
         long ts = System.currentTimeMillis();
-        return CompletableFuture.supplyAsync(() -> userIdentityService.mintNymProofOfWork(pubKeyHash))
-                .thenApply(proofOfWork -> {
-                    long powDuration = System.currentTimeMillis() - ts;
-                    log.info("Proof of work creation completed after {} ms", powDuration);
-                    createSimulatedDelay(powDuration);
-                    UIThread.run(() -> {
-                        model.setProofOfWork(Optional.of(proofOfWork));
-                        byte[] powSolution = proofOfWork.getSolution();
-                        String nym = NymIdGenerator.generate(pubKeyHash, powSolution);
-                        Image image = CatHash.getImage(pubKeyHash, powSolution, CURRENT_AVATARS_VERSION);
-                        model.getNym().set(nym);
-                        model.getCatHashImage().set(image);
-                        model.getPowProgress().set(0);
-                        model.getCatHashIconVisible().set(true);
-                        model.getReGenerateButtonDisabled().set(false);
-                    });
-                    return proofOfWork;
-                });
+        // We return the minting future, as cancelling a dependent stage would not stop the minting
+        CompletableFuture<ProofOfWork> future = userIdentityService.mintNymProofOfWorkAsync(pubKeyHash);
+        future.thenAccept(proofOfWork -> {
+            long powDuration = System.currentTimeMillis() - ts;
+            log.info("Proof of work creation completed after {} ms", powDuration);
+            createSimulatedDelay(powDuration);
+            UIThread.run(() -> {
+                model.setProofOfWork(Optional.of(proofOfWork));
+                byte[] powSolution = proofOfWork.getSolution();
+                String nym = NymIdGenerator.generate(pubKeyHash, powSolution);
+                Image image = CatHash.getImage(pubKeyHash, powSolution, CURRENT_AVATARS_VERSION);
+                model.getNym().set(nym);
+                model.getCatHashImage().set(image);
+                model.getPowProgress().set(0);
+                model.getCatHashIconVisible().set(true);
+                model.getReGenerateButtonDisabled().set(false);
+            });
+        });
+        return future;
     }
 
     private void next() {
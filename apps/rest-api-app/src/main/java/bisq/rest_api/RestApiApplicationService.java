@@ -248,6 +248,7 @@ public class RestApiApplicationService extends ApplicationService {
                             .orElse(CompletableFuture.completedFuture(true));
                 })
                 .thenCompose(result -> securityService.shutdown())
+                .thenCompose(result -> persistenceService.shutdown())
                 .orTimeout(10, TimeUnit.SECONDS)
                 .handle((result, throwable) -> throwable == null)
                 .join());
@@ -0,0 +1,295 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.bisq_easy;
+
+import bisq.account.payment_method.BitcoinPaymentMethod;
+import bisq.account.payment_method.FiatPaymentMethod;
+import bisq.bonded_roles.market_price.MarketPriceService;
+import bisq.chat.bisqeasy.offerbook.BisqEasyOfferbookChannel;
+import bisq.chat.bisqeasy.offerbook.BisqEasyOfferbookChannelService;
+import bisq.chat.bisqeasy.offerbook.BisqEasyOfferbookMessage;
+import bisq.common.application.Service;
+import bisq.common.currency.Market;
+import bisq.common.monetary.Monetary;
+import bisq.common.observable.Observable;
+import bisq.common.observable.Pin;
+import bisq.common.observable.collection.CollectionObserver;
+import bisq.offer.Direction;
+import bisq.offer.amount.OfferAmountUtil;
+import bisq.offer.amount.spec.QuoteSideAmountSpec;
+import bisq.offer.bisq_easy.BisqEasyOffer;
+import bisq.offer.bisq_easy.BisqEasyOfferIndex;
+import bisq.offer.options.OfferOptionUtil;
+import bisq.offer.price.spec.PriceSpec;
+import bisq.trade.Trade;
+import bisq.trade.bisq_easy.BisqEasyTradeService;
+import bisq.user.banned.BannedUserService;
+import bisq.user.identity.UserIdentity;
+import bisq.user.identity.UserIdentityService;
+import bisq.user.profile.UserProfile;
+import bisq.user.profile.UserProfileService;
+import bisq.user.reputation.ReputationService;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
+
+/**
+ * Finds the offers from the BisqEasy offerbook channels which match the taker's criteria.
+ * The offers are kept in an index which gets updated when offerbook messages are added or removed. Queries only
+ * apply the user specific checks (e.g. reputation, banned or ignored users) to the candidates from the index.
+ */
+@Slf4j
+public class BisqEasyOfferMatchingService implements Service {
+    private final BisqEasyOfferbookChannelService bisqEasyOfferbookChannelService;
+    private final UserIdentityService userIdentityService;
+    private final UserProfileService userProfileService;
+    private final BannedUserService bannedUserService;
+    private final ReputationService reputationService;
+    private final BisqEasyTradeService bisqEasyTradeService;
+    private final MarketPriceService marketPriceService;
+    private final Observable<Long> minRequiredReputationScore;
+    @Getter
+    private final BisqEasyOfferIndex offerIndex = new BisqEasyOfferIndex();
+    private final Map<String, Pin> chatMessagesPinByChannelId = new HashMap<>();
+    private Pin channelsPin;
+
+    public BisqEasyOfferMatchingService(BisqEasyOfferbookChannelService bisqEasyOfferbookChannelService,
+                                        UserIdentityService userIdentityService,
+                                        UserProfileService userProfileService,
+                                        BannedUserService bannedUserService,
+                                        ReputationService reputationService,
+                                        BisqEasyTradeService bisqEasyTradeService,
+                                        MarketPriceService marketPriceService,
+                                        Observable<Long> minRequiredReputationScore) {
+        this.bisqEasyOfferbookChannelService = bisqEasyOfferbookChannelService;
+        this.userIdentityService = userIdentityService;
+        this.userProfileService = userProfileService;
+        this.bannedUserService = bannedUserService;
+        this.reputationService = reputationService;
+        this.bisqEasyTradeService = bisqEasyTradeService;
+        this.marketPriceService = marketPriceService;
+        this.minRequiredReputationScore = minRequiredReputationScore;
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////////////
+    // Service
+    ///////////////////////////////////////////////////////////////////////////////////////////////////
+
+    public CompletableFuture<Boolean> initialize() {
+        log.info("initialize");
+        channelsPin = bisqEasyOfferbookChannelService.getChannels().addObserver(new CollectionObserver<>() {
+            @Override
+            public void add(BisqEasyOfferbookChannel channel) {
+                onChannelAdded(channel);
+            }
+
+            @Override
+            public void remove(Object element) {
+                if (element instanceof BisqEasyOfferbookChannel) {
+                    onChannelRemoved((BisqEasyOfferbookChannel) element);
+                }
+            }
+
+            @Override
+            public void clear() {
+                synchronized (chatMessagesPinByChannelId) {
+                    chatMessagesPinByChannelId.values().forEach(Pin::unbind);
+                    chatMessagesPinByChannelId.clear();
+                }
+                offerIndex.clear();
+            }
+        });
+        return CompletableFuture.completedFuture(true);
+    }
+
+    public CompletableFuture<Boolean> shutdown() {
+        if (channelsPin != null) {
+            channelsPin.unbind();
+        }
+        synchronized (chatMessagesPinByChannelId) {
+            chatMessagesPinByChannelId.values().forEach(Pin::unbind);
+            chatMessagesPinByChannelId.clear();
+        }
+        offerIndex.clear();
+        return CompletableFuture.completedFuture(true);
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////////////
+    // API
+    ///////////////////////////////////////////////////////////////////////////////////////////////////
+
+    public List<BisqEasyOffer> findMatchingOffers(Direction takersDirection,
+                                                  Market market,
+                                                  List<BitcoinPaymentMethod> bitcoinPaymentMethods,
+                                                  List<FiatPaymentMethod> fiatPaymentMethods,
+                                                  QuoteSideAmountSpec quoteSideAmountSpec,
+                                                  PriceSpec priceSpec) {
+        Optional<Monetary> myQuoteSideMinOrFixedAmount = OfferAmountUtil.findQuoteSideMinOrFixedAmount(marketPriceService, quoteSideAmountSpec, priceSpec, market);
+        Optional<Monetary> myQuoteSideMaxOrFixedAmount = OfferAmountUtil.findQuoteSideMaxOrFixedAmount(marketPriceService, quoteSideAmountSpec, priceSpec, market);
+        if (myQuoteSideMinOrFixedAmount.isEmpty() || myQuoteSideMaxOrFixedAmount.isEmpty()) {
+            return List.of();
+        }
+
+        UserProfile myUserProfile = userIdentityService.getSelectedUserIdentity().getUserProfile();
+        if (bannedUserService.isUserProfileBanned(myUserProfile)) {
+            return List.of();
+        }
+
+        Set<String> myUserProfileIds = userIdentityService.getUserIdentities().stream()
+                .map(UserIdentity::getUserProfile)
+                .map(UserProfile::getId)
+                .collect(Collectors.toSet());
+        return offerIndex.findCandidates(market,
+                        takersDirection.mirror(),
+                        bitcoinPaymentMethods,
+                        fiatPaymentMethods,
+                        myQuoteSideMinOrFixedAmount.get(),
+                        myQuoteSideMaxOrFixedAmount.get()).stream()
+                .filter(peersOffer -> {
+                    try {
+                        return isMatching(peersOffer,
+                                myUserProfile,
+                                myUserProfileIds,
+                                myQuoteSideMinOrFixedAmount.get(),
+                                myQuoteSideMaxOrFixedAmount.get());
+                    } catch (Exception e) {
+                        log.error("Error at matching offer {}", peersOffer.getShortId(), e);
+                        return false;
+                    }
+                })
+                .collect(Collectors.toList());
+    }
+
+    public boolean offerMatchesMinRequiredReputationScore(BisqEasyOffer peersOffer) {
+        if (peersOffer.getDirection().isSell()) {
+            Optional<UserProfile> optionalMakersUserProfile = userProfileService.findUserProfile(peersOffer.getMakersUserProfileId());
+            if (optionalMakersUserProfile.isEmpty()) {
+                return false;
+            }
+            long makerAsSellersScore = reputationService.getReputationScore(optionalMakersUserProfile.get()).getTotalScore();
+            long myMinRequiredScore = minRequiredReputationScore.get();
+            // Maker as seller's score must be > than my required score (as buyer)
+            return makerAsSellersScore >= myMinRequiredScore;
+        } else {
+            // My score (as offer is a buy offer, I am the seller) must be > as offers required score
+            long myScoreAsSeller = reputationService.getReputationScore(userIdentityService.getSelectedUserIdentity().getUserProfile()).getTotalScore();
+            long offersRequiredScore = OfferOptionUtil.findRequiredTotalReputationScore(peersOffer).orElse(0L);
+            return myScoreAsSeller >= offersRequiredScore;
+        }
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////////////
+    // Private
+    ///////////////////////////////////////////////////////////////////////////////////////////////////
+
+    @SuppressWarnings("RedundantIfStatement")
+    private boolean isMatching(BisqEasyOffer peersOffer,
+                               UserProfile myUserProfile,
+                               Set<String> myUserProfileIds,
+                               Monetary myQuoteSideMinOrFixedAmount,
+                               Monetary myQuoteSideMaxOrFixedAmount) {
+        Optional<UserProfile> optionalMakersUserProfile = userProfileService.findUserProfile(peersOffer.getMakersUserProfileId());
+        if (optionalMakersUserProfile.isEmpty()) {
+            return false;
+        }
+        UserProfile makerUserProfile = optionalMakersUserProfile.get();
+        if (userProfileService.isChatUserIgnored(makerUserProfile)) {
+            return false;
+        }
+        // Ignore own offers
+        if (myUserProfileIds.contains(makerUserProfile.getId())) {
+            return false;
+        }
+        if (bannedUserService.isNetworkIdBanned(makerUserProfile.getNetworkId()) ||
+                bannedUserService.isUserProfileBanned(makerUserProfile)) {
+            return false;
+        }
+
+        String tradeId = Trade.createId(peersOffer.getId(), myUserProfile.getNetworkId().getId());
+        if (bisqEasyTradeService.tradeExists(tradeId)) {
+            return false;
+        }
+
+        // The index compares the amounts only roughly and not for offers with a base side amount
+        Monetary peersQuoteSideMaxOrFixedAmount = OfferAmountUtil.findQuoteSideMaxOrFixedAmount(marketPriceService, peersOffer).orElseThrow();
+        if (myQuoteSideMinOrFixedAmount.isGreaterThan(peersQuoteSideMaxOrFixedAmount, myQuoteSideMinOrFixedAmount.getLowPrecision())) {
+            return false;
+        }
+        Monetary peersQuoteSideMinOrFixedAmount = OfferAmountUtil.findQuoteSideMinOrFixedAmount(marketPriceService, peersOffer).orElseThrow();
+        if (myQuoteSideMaxOrFixedAmount.isLessThan(peersQuoteSideMinOrFixedAmount, myQuoteSideMaxOrFixedAmount.getLowPrecision())) {
+            return false;
+        }
+
+        // Most expensive check at the end
+        if (!offerMatchesMinRequiredReputationScore(peersOffer)) {
+            return false;
+        }
+
+        return true;
+    }
+
+    private void onChannelAdded(BisqEasyOfferbookChannel channel) {
+        Pin pin = channel.getChatMessages().addObserver(new CollectionObserver<>() {
+            @Override
+            public void add(BisqEasyOfferbookMessage message) {
+                message.getBisqEasyOffer().ifPresent(offerIndex::add);
+            }
+
+            @Override
+            public void remove(Object element) {
+                if (element instanceof BisqEasyOfferbookMessage) {
+                    ((BisqEasyOfferbookMessage) element).getBisqEasyOffer()
+                            .ifPresent(offer -> offerIndex.remove(offer.getId()));
+                }
+            }
+
+            @Override
+            public void clear() {
+                offerIndex.removeIf(offer -> offer.getMarket().equals(channel.getMarket()));
+            }
+        });
+        Pin previous;
+        synchronized (chatMessagesPinByChannelId) {
+            previous = chatMessagesPinByChannelId.put(channel.getId(), pin);
+        }
+        if (previous != null) {
+            previous.unbind();
+        }
+    }
+
+    private void onChannelRemoved(BisqEasyOfferbookChannel channel) {
+        Pin pin;
+        synchronized (chatMessagesPinByChannelId) {
+            pin = chatMessagesPinByChannelId.remove(channel.getId());
+        }
+        if (pin != null) {
+            pin.unbind();
+        }
+        offerIndex.removeIf(offer -> offer.getMarket().equals(channel.getMarket()));
+    }
+}
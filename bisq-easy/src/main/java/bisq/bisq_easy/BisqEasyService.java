@@ -67,6 +67,7 @@ public class BisqEasyService implements Service {
     private final TradeService tradeService;
     private final UserIdentityService userIdentityService;
     private final BisqEasyNotificationsService bisqEasyNotificationsService;
+    private final BisqEasyOfferMatchingService bisqEasyOfferMatchingService;
     private final Observable<Long> minRequiredReputationScore = new Observable<>();
     private final MarketPriceService marketPriceService;
     private Pin difficultyAdjustmentFactorPin, ignoreDiffAdjustmentFromSecManagerPin,
@@ -109,6 +110,14 @@ public class BisqEasyService implements Service {
 
         bisqEasyNotificationsService = new BisqEasyNotificationsService(chatService.getChatNotificationService(),
                 supportService.getMediatorService());
+        bisqEasyOfferMatchingService = new BisqEasyOfferMatchingService(chatService.getBisqEasyOfferbookChannelService(),
+                userIdentityService,
+                userService.getUserProfileService(),
+                userService.getBannedUserService(),
+                userService.getReputationService(),
+                tradeService.getBisqEasyTradeService(),
+                marketPriceService,
+                minRequiredReputationScore);
     }
 
 
@@ -137,6 +146,8 @@ public class BisqEasyService implements Service {
             }
         });
 
+        bisqEasyOfferMatchingService.initialize();
+
         return bisqEasyNotificationsService.initialize();
     }
 
@@ -150,6 +161,7 @@ public class BisqEasyService implements Service {
             mostRecentMinRequiredReputationScoreOrDefaultPin.unbind();
             selectedMarketPin.unbind();
         }
+        bisqEasyOfferMatchingService.shutdown();
         return bisqEasyNotificationsService.shutdown();
     }
 
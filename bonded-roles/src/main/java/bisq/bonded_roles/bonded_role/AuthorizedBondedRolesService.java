@@ -143,7 +143,7 @@ public class AuthorizedBondedRolesService implements Service, DataService.Listen
         // Start with the AuthorizedOracleNode
         networkService.getDataService()
                 .ifPresent(dataService -> {
-                    dataService.getAuthorizedData()
+                    dataService.getAuthorizedData(AuthorizedOracleNode.class)
                             .filter(e -> e.getAuthorizedDistributedData() instanceof AuthorizedOracleNode)
                             .forEach(this::onAuthorizedDataAdded);
                 });
@@ -151,7 +151,7 @@ public class AuthorizedBondedRolesService implements Service, DataService.Listen
         // Then we process the AuthorizedBondedRole of type ORACLE_NODE
         networkService.getDataService()
                 .ifPresent(dataService -> {
-                    dataService.getAuthorizedData()
+                    dataService.getAuthorizedData(AuthorizedBondedRole.class)
                             .filter(e -> e.getAuthorizedDistributedData() instanceof AuthorizedBondedRole)
                             .filter(e -> ((AuthorizedBondedRole) e.getAuthorizedDistributedData()).getBondedRoleType() == BondedRoleType.ORACLE_NODE)
                             .forEach(this::onAuthorizedDataAdded);
@@ -160,7 +160,7 @@ public class AuthorizedBondedRolesService implements Service, DataService.Listen
         // Then we process the other AuthorizedBondedRoles
         networkService.getDataService()
                 .ifPresent(dataService -> {
-                    dataService.getAuthorizedData()
+                    dataService.getAuthorizedData(AuthorizedBondedRole.class)
                             .filter(e -> e.getAuthorizedDistributedData() instanceof AuthorizedBondedRole)
                             .filter(e -> ((AuthorizedBondedRole) e.getAuthorizedDistributedData()).getBondedRoleType() != BondedRoleType.ORACLE_NODE)
                             .forEach(this::onAuthorizedDataAdded);
@@ -22,11 +22,11 @@ import bisq.common.application.ApplicationVersion;
 import bisq.common.data.Pair;
 import bisq.common.observable.Observable;
 import bisq.common.threading.ExecutorFactory;
-import bisq.common.util.CollectionUtil;
 import bisq.common.util.ExceptionUtil;
 import bisq.network.NetworkService;
 import bisq.network.common.TransportType;
-import bisq.network.http.BaseHttpClient;
+import bisq.network.http.HttpClientPool;
+import bisq.network.http.ProviderSelection;
 import bisq.network.http.utils.HttpException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.EqualsAndHashCode;
@@ -34,8 +34,6 @@ import lombok.Getter;
 import lombok.ToString;
 import lombok.extern.slf4j.Slf4j;
 
-import java.util.HashSet;
-import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutorService;
@@ -51,6 +49,9 @@ import static java.util.concurrent.TimeUnit.SECONDS;
 @Slf4j
 public class ExplorerService {
     public static final ExecutorService POOL = ExecutorFactory.newCachedThreadPool("BlockExplorerService.pool", 2, 6, 60);
+    private static final long HEDGE_DELAY_IN_SECONDS = 10;
+    // ObjectMapper is thread safe and expensive to create
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
 
     @Getter
     @ToString
@@ -128,11 +129,8 @@ public class ExplorerService {
     private final ExplorerService.Config conf;
     private final NetworkService networkService;
     private final String userAgent;
-    private final Set<Provider> candidates = new HashSet<>();
-    private final Set<Provider> providersFromConfig = new HashSet<>();
-    private final Set<Provider> fallbackProviders = new HashSet<>();
-    private final Set<Provider> failedProviders = new HashSet<>();
-    private Optional<BaseHttpClient> httpClient = Optional.empty();
+    private final ProviderSelection<Provider> providerSelection;
+    private final HttpClientPool httpClientPool;
     private final int numTotalCandidates;
     private final boolean noProviderAvailable;
     private volatile boolean shutdownStarted;
@@ -140,27 +138,23 @@ public class ExplorerService {
     public ExplorerService(Config conf, NetworkService networkService) {
         this.conf = conf;
         this.networkService = networkService;
+        httpClientPool = networkService.getHttpClientPool();
         userAgent = "bisq-v2/" + ApplicationVersion.getVersion().toString();
 
         Set<TransportType> supportedTransportTypes = networkService.getSupportedTransportTypes();
-        conf.providers.stream()
+        Set<Provider> providersFromConfig = conf.providers.stream()
                 .filter(provider -> supportedTransportTypes.contains(provider.getTransportType()))
-                .forEach(providersFromConfig::add);
-        conf.getFallbackProviders().stream()
+                .collect(Collectors.toSet());
+        Set<Provider> fallbackProviders = conf.getFallbackProviders().stream()
                 .filter(provider -> supportedTransportTypes.contains(provider.getTransportType()))
-                .forEach(fallbackProviders::add);
-
-        if (providersFromConfig.isEmpty()) {
-            candidates.addAll(fallbackProviders);
-        } else {
-            candidates.addAll(providersFromConfig);
-        }
-        noProviderAvailable = candidates.isEmpty();
-        numTotalCandidates = providersFromConfig.size() + fallbackProviders.size();
+                .collect(Collectors.toSet());
+        providerSelection = new ProviderSelection<>(providersFromConfig, fallbackProviders);
+        noProviderAvailable = providerSelection.isNoProviderAvailable();
+        numTotalCandidates = providerSelection.getNumTotalProviders();
         if (noProviderAvailable) {
             log.warn("We do not have any matching provider setup for supportedTransportTypes {}", supportedTransportTypes);
         } else {
-            selectedProvider.set(selectNextProvider());
+            selectedProvider.set(providerSelection.selectNextProvider());
         }
     }
 
@@ -170,8 +164,8 @@ public class ExplorerService {
 
     public CompletableFuture<Boolean> shutdown() {
         shutdownStarted = true;
-        return httpClient.map(BaseHttpClient::shutdown)
-                .orElse(CompletableFuture.completedFuture(true));
+        // The pooled http clients get shut down by the NetworkService
+        return CompletableFuture.completedFuture(true);
     }
 
     public CompletableFuture<Tx> requestTx(String txId) {
@@ -192,27 +186,29 @@ public class ExplorerService {
 
         return CompletableFuture.supplyAsync(() -> {
             Provider provider = checkNotNull(selectedProvider.get(), "Selected provider must not be null.");
-            BaseHttpClient client = networkService.getHttpClient(provider.baseUrl, userAgent, provider.transportType);
-            httpClient = Optional.of(client);
             long ts = System.currentTimeMillis();
-            String param = provider.getApiPath() + provider.getTxPath() + txId;
             try {
-                log.info("Request tx with ID {} from {}", txId, client.getBaseUrl() + "/" + param);
-                String json = client.get(param, Optional.of(new Pair<>("User-Agent", userAgent)));
-                log.info("Received tx lookup response from {} after {} ms", client.getBaseUrl() + param, System.currentTimeMillis() - ts);
-                selectedProvider.set(selectNextProvider());
-                shutdownHttpClient(client);
-                return new ObjectMapper().readValue(json, Tx.class);
+                Pair<Provider, String> providerAndJson = httpClientPool.getHedged(providerSelection.getProvidersForHedgedRequest(provider),
+                                candidate -> {
+                                    String param = candidate.getApiPath() + candidate.getTxPath() + txId;
+                                    log.info("Request tx with ID {} from {}", txId, candidate.getBaseUrl() + "/" + param);
+                                    return httpClientPool.get(candidate.getBaseUrl(), userAgent, candidate.getTransportType(), param);
+                                },
+                                HEDGE_DELAY_IN_SECONDS,
+                                SECONDS,
+                                (failedProvider, throwable) -> providerSelection.onFailed(failedProvider))
+                        .join();
+                log.info("Received tx lookup response from {} after {} ms", providerAndJson.getFirst().getBaseUrl(), System.currentTimeMillis() - ts);
+                selectedProvider.set(providerSelection.selectNextProvider());
+                return OBJECT_MAPPER.readValue(providerAndJson.getSecond(), Tx.class);
             } catch (Exception e) {
-                shutdownHttpClient(client);
                 if (shutdownStarted) {
                     throw new RuntimeException("Shutdown has already started");
                 }
 
                 Throwable rootCause = ExceptionUtil.getRootCause(e);
                 log.warn("{} at requestTx: {}", rootCause.getClass().getSimpleName(), ExceptionUtil.getRootCauseMessage(e));
-                failedProviders.add(provider);
-                selectedProvider.set(selectNextProvider());
+                selectedProvider.set(providerSelection.selectNextProvider());
 
                 if (rootCause instanceof HttpException) {
                     HttpException httpException = (HttpException) rootCause;
@@ -223,7 +219,7 @@ public class ExplorerService {
                     }
                 }
                 int numRecursions = recursionDepth.incrementAndGet();
-                if (numRecursions < numTotalCandidates && failedProviders.size() < numTotalCandidates) {
+                if (numRecursions < numTotalCandidates && providerSelection.getNumFailedProviders() < numTotalCandidates) {
                     log.warn("We retry the request with new provider {}", selectedProvider.get().getBaseUrl());
                     return requestTx(txId, recursionDepth).join();
                 } else {
@@ -233,41 +229,4 @@ public class ExplorerService {
             }
         }, POOL).orTimeout(conf.getTimeoutInSeconds(), SECONDS);
     }
-
-    private Provider selectNextProvider() {
-        if (candidates.isEmpty()) {
-            fillCandidates(0);
-        }
-        Provider selected = CollectionUtil.getRandomElement(candidates);
-        candidates.remove(selected);
-        return selected;
-    }
-
-    private void fillCandidates(int recursionDepth) {
-        providersFromConfig.stream()
-                .filter(provider -> !failedProviders.contains(provider))
-                .forEach(candidates::add);
-        if (candidates.isEmpty()) {
-            log.info("We do not have any provider which has not already failed. We add the fall back providers to our candidates list.");
-            fallbackProviders.stream()
-                    .filter(provider -> !failedProviders.contains(provider))
-                    .forEach(candidates::add);
-        }
-        if (candidates.isEmpty()) {
-            log.info("All our providers from config and fallback have failed. We reset the failedProviders and fill from scratch.");
-            failedProviders.clear();
-            if (recursionDepth == 0) {
-                fillCandidates(1);
-            } else {
-                log.error("recursion at fillCandidates");
-            }
-        }
-    }
-
-    private void shutdownHttpClient(BaseHttpClient client) {
-        try {
-            client.shutdown();
-        } catch (Exception ignore) {
-        }
-    }
 }
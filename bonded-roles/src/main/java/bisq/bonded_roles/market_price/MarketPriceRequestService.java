@@ -26,12 +26,12 @@ import bisq.common.monetary.PriceQuote;
 import bisq.common.observable.map.ObservableHashMap;
 import bisq.common.threading.ExecutorFactory;
 import bisq.common.timer.Scheduler;
-import bisq.common.util.CollectionUtil;
 import bisq.common.util.ExceptionUtil;
 import bisq.common.util.MathUtils;
 import bisq.network.NetworkService;
 import bisq.network.common.TransportType;
-import bisq.network.http.BaseHttpClient;
+import bisq.network.http.HttpClientPool;
+import bisq.network.http.ProviderSelection;
 import bisq.network.http.utils.HttpException;
 import com.google.gson.Gson;
 import lombok.EqualsAndHashCode;
@@ -56,6 +56,8 @@ import static java.util.concurrent.TimeUnit.SECONDS;
 @Slf4j
 public class MarketPriceRequestService {
     private static final ExecutorService POOL = ExecutorFactory.newFixedThreadPool("MarketPriceService.pool", 3);
+    private static final long HEDGE_DELAY_IN_SECONDS = 10;
+    private static final Gson GSON = new Gson();
 
     @Getter
     @ToString
@@ -127,17 +129,14 @@ public class MarketPriceRequestService {
     @Getter
     private final ObservableHashMap<Market, MarketPrice> marketPriceByCurrencyMap = new ObservableHashMap<>();
     private final String userAgent;
-    private Optional<BaseHttpClient> httpClient = Optional.empty();
+    private final HttpClientPool httpClientPool;
     @Nullable
     private Scheduler scheduler;
     private long initialDelay = 0;
     @Getter
     private Optional<Provider> mostRecentProvider = Optional.empty();
     private final AtomicReference<Provider> selectedProvider = new AtomicReference<>();
-    private final Set<Provider> candidates = new HashSet<>();
-    private final Set<Provider> providersFromConfig = new HashSet<>();
-    private final Set<Provider> fallbackProviders = new HashSet<>();
-    private final Set<Provider> failedProviders = new HashSet<>();
+    private final ProviderSelection<Provider> providerSelection;
     private final int numTotalCandidates;
     private long timeSinceLastResponse;
     private final boolean noProviderAvailable;
@@ -147,27 +146,23 @@ public class MarketPriceRequestService {
                                      NetworkService networkService) {
         this.conf = conf;
         this.networkService = networkService;
+        httpClientPool = networkService.getHttpClientPool();
         userAgent = "bisq-v2/" + ApplicationVersion.getVersion().toString();
 
         Set<TransportType> supportedTransportTypes = networkService.getSupportedTransportTypes();
-        conf.providers.stream()
+        Set<Provider> providersFromConfig = conf.providers.stream()
                 .filter(provider -> supportedTransportTypes.contains(provider.getTransportType()))
-                .forEach(providersFromConfig::add);
-        conf.getFallbackProviders().stream()
+                .collect(Collectors.toSet());
+        Set<Provider> fallbackProviders = conf.getFallbackProviders().stream()
                 .filter(provider -> supportedTransportTypes.contains(provider.getTransportType()))
-                .forEach(fallbackProviders::add);
-
-        if (providersFromConfig.isEmpty()) {
-            candidates.addAll(fallbackProviders);
-        } else {
-            candidates.addAll(providersFromConfig);
-        }
-        noProviderAvailable = candidates.isEmpty();
-        numTotalCandidates = providersFromConfig.size() + fallbackProviders.size();
+                .collect(Collectors.toSet());
+        providerSelection = new ProviderSelection<>(providersFromConfig, fallbackProviders);
+        noProviderAvailable = providerSelection.isNoProviderAvailable();
+        numTotalCandidates = providerSelection.getNumTotalProviders();
         if (noProviderAvailable) {
             log.warn("We do not have any matching provider setup for supportedTransportTypes {}", supportedTransportTypes);
         } else {
-            selectedProvider.set(selectNextProvider());
+            selectedProvider.set(providerSelection.selectNextProvider());
         }
     }
 
@@ -182,8 +177,8 @@ public class MarketPriceRequestService {
         if (scheduler != null) {
             scheduler.stop();
         }
-        return httpClient.map(BaseHttpClient::shutdown)
-                .orElse(CompletableFuture.completedFuture(true));
+        // The pooled http clients get shut down by the NetworkService
+        return CompletableFuture.completedFuture(true);
     }
 
     private void startRequesting() {
@@ -225,32 +220,26 @@ public class MarketPriceRequestService {
 
         return CompletableFuture.runAsync(() -> {
                     Provider provider = checkNotNull(selectedProvider.get(), "Selected provider must not be null.");
-                    BaseHttpClient client = networkService.getHttpClient(provider.baseUrl, userAgent, provider.transportType);
-                    httpClient = Optional.of(client);
-                    if (client.hasPendingRequest()) {
-                        selectedProvider.set(selectNextProvider());
-                        int numRecursions = recursionDepth.incrementAndGet();
-                        if (numRecursions < numTotalCandidates && failedProviders.size() < numTotalCandidates) {
-                            log.warn("We retry the request with new provider {}", selectedProvider.get().getBaseUrl());
-                            request(recursionDepth).join();
-                        } else {
-                            log.warn("We exhausted all possible providers and give up");
-                            throw new RuntimeException("We failed at all possible providers and give up");
-                        }
-                        return;
-                    }
-
                     long ts = System.currentTimeMillis();
                     String param = "getAllMarketPrices";
-                    log.info("Request market price from {}", client.getBaseUrl() + "/" + param);
                     try {
-                        String json = client.get(param, Optional.of(new Pair<>("User-Agent", userAgent)));
-                        log.info("Received market price from {} after {} ms", client.getBaseUrl() + param, System.currentTimeMillis() - ts);
+                        Pair<Provider, String> providerAndJson = httpClientPool.getHedged(providerSelection.getProvidersForHedgedRequest(provider),
+                                        candidate -> {
+                                            log.info("Request market price from {}", candidate.getBaseUrl() + "/" + param);
+                                            return httpClientPool.get(candidate.getBaseUrl(), userAgent, candidate.getTransportType(), param);
+                                        },
+                                        HEDGE_DELAY_IN_SECONDS,
+                                        SECONDS,
+                                        (failedProvider, throwable) -> providerSelection.onFailed(failedProvider))
+                                .join();
+                        Provider respondingProvider = providerAndJson.getFirst();
+                        String json = providerAndJson.getSecond();
+                        log.info("Received market price from {} after {} ms", respondingProvider.getBaseUrl() + param, System.currentTimeMillis() - ts);
                         Map<Market, MarketPrice> map = parseResponse(json);
                         long now = System.currentTimeMillis();
                         String sinceLastResponse = timeSinceLastResponse == 0 ? "" : "Time since last response: " + (now - timeSinceLastResponse) / 1000 + " sec";
                         log.info("Market price request from {} resulted in {} items took {} ms. {}",
-                                client.getBaseUrl(), map.size(), now - ts, sinceLastResponse);
+                                respondingProvider.getBaseUrl(), map.size(), now - ts, sinceLastResponse);
                         timeSinceLastResponse = now;
 
                         // We only use those market prices for which we have a market in the repository
@@ -261,19 +250,16 @@ public class MarketPriceRequestService {
                                         Map.Entry::getValue));
                         marketPriceByCurrencyMap.clear();
                         marketPriceByCurrencyMap.putAll(filtered);
-                        mostRecentProvider = Optional.of(selectedProvider.get());
-                        selectedProvider.set(selectNextProvider());
-                        shutdownHttpClient(client);
+                        mostRecentProvider = Optional.of(respondingProvider);
+                        selectedProvider.set(providerSelection.selectNextProvider());
                     } catch (Exception e) {
-                        shutdownHttpClient(client);
                         if (shutdownStarted) {
                             throw new RuntimeException("Shutdown has already started");
                         }
 
                         Throwable rootCause = ExceptionUtil.getRootCause(e);
                         log.warn("{} at request: {}", rootCause.getClass().getSimpleName(), ExceptionUtil.getRootCauseMessage(e));
-                        failedProviders.add(provider);
-                        selectedProvider.set(selectNextProvider());
+                        selectedProvider.set(providerSelection.selectNextProvider());
 
                         if (rootCause instanceof HttpException) {
                             HttpException httpException = (HttpException) rootCause;
@@ -284,7 +270,7 @@ public class MarketPriceRequestService {
                             }
                         }
                         int numRecursions = recursionDepth.incrementAndGet();
-                        if (numRecursions < numTotalCandidates && failedProviders.size() < numTotalCandidates) {
+                        if (numRecursions < numTotalCandidates && providerSelection.getNumFailedProviders() < numTotalCandidates) {
                             log.warn("We retry the request with new provider {}", selectedProvider.get().getBaseUrl());
                             request(recursionDepth).join();
                         } else {
@@ -296,10 +282,11 @@ public class MarketPriceRequestService {
                 .orTimeout(conf.getTimeoutInSeconds(), SECONDS);
     }
 
+
     private Map<Market, MarketPrice> parseResponse(String json) {
         // size of json is about 8kb
         Map<Market, MarketPrice> map = new HashMap<>();
-        Map<?, ?> linkedTreeMap = new Gson().fromJson(json, Map.class);
+        Map<?, ?> linkedTreeMap = GSON.fromJson(json, Map.class);
         List<?> list = (ArrayList<?>) linkedTreeMap.get("data");
         list.forEach(obj -> {
             try {
@@ -337,41 +324,4 @@ public class MarketPriceRequestService {
         });
         return map;
     }
-
-    private Provider selectNextProvider() {
-        if (candidates.isEmpty()) {
-            fillCandidates(0);
-        }
-        Provider selected = CollectionUtil.getRandomElement(candidates);
-        candidates.remove(selected);
-        return selected;
-    }
-
-    private void fillCandidates(int recursionDepth) {
-        providersFromConfig.stream()
-                .filter(provider -> !failedProviders.contains(provider))
-                .forEach(candidates::add);
-        if (candidates.isEmpty()) {
-            log.info("We do not have any provider which has not already failed. We add the fall back providers to our candidates list.");
-            fallbackProviders.stream()
-                    .filter(provider -> !failedProviders.contains(provider))
-                    .forEach(candidates::add);
-        }
-        if (candidates.isEmpty()) {
-            log.info("All our providers from config and fallback have failed. We reset the failedProviders and fill from scratch.");
-            failedProviders.clear();
-            if (recursionDepth == 0) {
-                fillCandidates(1);
-            } else {
-                log.error("recursion at fillCandidates");
-            }
-        }
-    }
-
-    private void shutdownHttpClient(BaseHttpClient client) {
-        try {
-            client.shutdown();
-        } catch (Exception ignore) {
-        }
-    }
 }
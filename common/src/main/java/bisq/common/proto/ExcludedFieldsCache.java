@@ -0,0 +1,65 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.common.proto;
+
+import bisq.common.annotation.ExcludeForHash;
+
+import java.lang.reflect.Field;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Caches the names of the fields annotated with ExcludeForHash per class and version, so that we do not need to
+ * reflect over the declared fields at each serializeForHash call.
+ */
+final class ExcludedFieldsCache {
+    private static final ClassValue<ExcludedFieldsCache> CACHE = new ClassValue<>() {
+        @Override
+        protected ExcludedFieldsCache computeValue(Class<?> type) {
+            return new ExcludedFieldsCache(type);
+        }
+    };
+
+    static Set<String> getExcludedFields(Class<?> type, int version) {
+        return CACHE.get(type).getExcludedFields(version);
+    }
+
+    private final List<Field> annotatedFields;
+    private final Map<Integer, Set<String>> excludedFieldsByVersion = new ConcurrentHashMap<>();
+
+    private ExcludedFieldsCache(Class<?> type) {
+        annotatedFields = Arrays.stream(type.getDeclaredFields())
+                .filter(field -> field.isAnnotationPresent(ExcludeForHash.class))
+                .collect(Collectors.toList());
+    }
+
+    private Set<String> getExcludedFields(int version) {
+        return excludedFieldsByVersion.computeIfAbsent(version, key -> annotatedFields.stream()
+                .filter(field -> {
+                    int[] excludeOnlyInVersions = field.getAnnotation(ExcludeForHash.class).excludeOnlyInVersions();
+                    return excludeOnlyInVersions.length == 0 ||
+                            Arrays.stream(excludeOnlyInVersions).anyMatch(excludedVersion -> excludedVersion == version);
+                })
+                .map(Field::getName)
+                .collect(Collectors.toUnmodifiableSet()));
+    }
+}
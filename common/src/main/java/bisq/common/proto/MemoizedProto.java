@@ -0,0 +1,47 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.common.proto;
+
+import com.google.protobuf.Message;
+
+/**
+ * Opt-in for immutable Proto implementations which get serialized repeatedly within a short time (e.g. data which
+ * gets hashed and sent to multiple peers). While the instance is in the bounded SerializationCache, the protobuf
+ * message is only built once per serializeForHash mode and the serialized bytes are computed only once. The
+ * serialized size is memoized by the protobuf message itself.
+ * <p>
+ * Only to be used if the object and all its fields are deeply immutable. The returned byte arrays are shared and
+ * must not be modified.
+ */
+public interface MemoizedProto extends Proto {
+    @Override
+    default <T extends Message> T resolveProto(boolean serializeForHash) {
+        //noinspection unchecked
+        return (T) SerializationCache.get(this).getProto(serializeForHash, () -> Proto.super.resolveProto(serializeForHash));
+    }
+
+    @Override
+    default byte[] serialize() {
+        return SerializationCache.get(this).getSerialized(false, () -> resolveProto(false).toByteArray());
+    }
+
+    @Override
+    default byte[] serializeForHash() {
+        return SerializationCache.get(this).getSerialized(true, () -> resolveProto(true).toByteArray());
+    }
+}
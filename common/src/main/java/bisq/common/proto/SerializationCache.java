@@ -0,0 +1,95 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.common.proto;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.protobuf.Message;
+
+import java.util.function.Supplier;
+
+/**
+ * Holds the lazily created protobuf messages and serialized bytes of recently serialized MemoizedProto instances.
+ * <p>
+ * The cache is bounded and uses weak keys (compared by identity), so that long-lived objects like the entries of the
+ * network data stores do not keep their serialized forms on the heap. It only helps with repeated serialization of
+ * the same instance within a short time, like hashing and sending a message to multiple peers.
+ * <p>
+ * The values are only computed when requested. Concurrent first calls might compute a value more than once, but as
+ * the owner is immutable all results are equal, so we do not need to synchronize.
+ */
+public final class SerializationCache {
+    static final int MAX_SIZE = 1000;
+
+    private static final Cache<MemoizedProto, SerializationCache> CACHE = CacheBuilder.newBuilder()
+            .weakKeys()
+            .maximumSize(MAX_SIZE)
+            .build();
+
+    public static SerializationCache get(MemoizedProto owner) {
+        return CACHE.asMap().computeIfAbsent(owner, key -> new SerializationCache());
+    }
+
+    static long size() {
+        return CACHE.size();
+    }
+
+    private volatile Message proto;
+    private volatile Message protoForHash;
+    private volatile byte[] serialized;
+    private volatile byte[] serializedForHash;
+
+    private SerializationCache() {
+    }
+
+    public Message getProto(boolean serializeForHash, Supplier<Message> supplier) {
+        if (serializeForHash) {
+            Message result = protoForHash;
+            if (result == null) {
+                result = supplier.get();
+                protoForHash = result;
+            }
+            return result;
+        } else {
+            Message result = proto;
+            if (result == null) {
+                result = supplier.get();
+                proto = result;
+            }
+            return result;
+        }
+    }
+
+    public byte[] getSerialized(boolean serializeForHash, Supplier<byte[]> supplier) {
+        if (serializeForHash) {
+            byte[] result = serializedForHash;
+            if (result == null) {
+                result = supplier.get();
+                serializedForHash = result;
+            }
+            return result;
+        } else {
+            byte[] result = serialized;
+            if (result == null) {
+                result = supplier.get();
+                serialized = result;
+            }
+            return result;
+        }
+    }
+}
@@ -102,6 +102,24 @@ public class ExecutorFactory {
         return Executors.newFixedThreadPool(numThreads, threadFactory);
     }
 
+    /**
+     * Creates a new virtual thread for each task. As we compile with release 11 we have to access the API by
+     * reflection. If the runtime does not support virtual threads we fall back to a cached thread pool.
+     */
+    public static ExecutorService newVirtualThreadPerTaskExecutor(String name) {
+        try {
+            Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            Class<?> builderClass = Class.forName("java.lang.Thread$Builder");
+            builder = builderClass.getMethod("name", String.class, long.class).invoke(builder, name + "-", 0L);
+            ThreadFactory threadFactory = (ThreadFactory) builderClass.getMethod("factory").invoke(builder);
+            return (ExecutorService) Executors.class.getMethod("newThreadPerTaskExecutor", ThreadFactory.class)
+                    .invoke(null, threadFactory);
+        } catch (ReflectiveOperationException e) {
+            log.warn("Virtual threads are not supported by the runtime. We use a cached thread pool instead.");
+            return newCachedThreadPool(name);
+        }
+    }
+
     public static ThreadPoolExecutor getThreadPoolExecutor(String name,
                                                            int corePoolSize,
                                                            int maximumPoolSize,
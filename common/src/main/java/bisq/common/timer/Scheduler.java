@@ -22,25 +22,75 @@ import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 
 import java.util.Optional;
-import java.util.Random;
-import java.util.concurrent.ScheduledExecutorService;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
-
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * All Scheduler instances share one timer wheel for the timing and a thread pool for executing the tasks. Before,
+ * each instance used its own ScheduledExecutorService thread, which resulted in hundreds of mostly idle threads.
+ * <p>
+ * As with the previous per instance executor a periodic task is never executed concurrently with itself, the next
+ * execution gets scheduled after the previous has completed (fixed delay). If a periodic task throws an exception no
+ * further executions will happen.
+ */
 @Slf4j
 public class Scheduler implements TaskScheduler {
-    // We do not use a ScheduledThreadPoolExecutor as the queue cannot be customized. It would cause undesired behaviour 
-    // in case we would use a static executor for all Scheduler instances and multiple schedule calls would get 
-    // queued up instead of starting a new scheduler.
-    private final ScheduledExecutorService executor;
+    // Tick duration of 10 ms and 512 buckets covers delays up to about 5 sec. in one round.
+    private static final TimerWheel TIMER_WHEEL = new TimerWheel("Scheduler.timerWheel", 10, TimeUnit.MILLISECONDS, 512);
+    private static final AtomicInteger numActiveSchedulers = new AtomicInteger();
+    private static volatile ExecutorService executor = ExecutorFactory.newCachedThreadPool("Scheduler");
+
+    /**
+     * Runs the tasks of all Schedulers on virtual threads if supported by the runtime.
+     */
+    public static void useVirtualThreads() {
+        ExecutorService previous = executor;
+        executor = ExecutorFactory.newVirtualThreadPerTaskExecutor("Scheduler");
+        // Already submitted tasks will still be executed
+        previous.shutdown();
+    }
+
+    public static int getNumActiveSchedulers() {
+        return numActiveSchedulers.get();
+    }
+
+    /**
+     * @return The number of threads used for executing the scheduled tasks or -1 if we use virtual threads.
+     */
+    public static int getNumThreads() {
+        ExecutorService executorService = executor;
+        return executorService instanceof ThreadPoolExecutor ? ((ThreadPoolExecutor) executorService).getPoolSize() : -1;
+    }
+
+    public static double getAverageTimerDriftInMs() {
+        return TIMER_WHEEL.getAverageDriftInMs();
+    }
+
+    public static double getMaxTimerDriftInMs() {
+        return TIMER_WHEEL.getMaxDriftInMs();
+    }
+
+    public static String getMetricsAsString() {
+        return String.format("Active schedulers: %d; scheduler threads: %d; executed timers: %d; average timer drift: %.1f ms; max timer drift: %.1f ms",
+                getNumActiveSchedulers(), getNumThreads(), TIMER_WHEEL.getNumExpired(),
+                getAverageTimerDriftInMs(), getMaxTimerDriftInMs());
+    }
+
     private final Runnable task;
+    private final Set<TimerWheel.Timeout> timeouts = ConcurrentHashMap.newKeySet();
     private volatile boolean stopped;
+    private volatile boolean started;
     @Getter
-    private long counter;
+    private volatile long counter;
     private Optional<String> threadName = Optional.empty();
 
     private Scheduler(Runnable task) {
         this.task = task;
-        executor = ExecutorFactory.newSingleThreadScheduledExecutor("Scheduler-" + new Random().nextInt(1000));
     }
 
     public static Scheduler run(Runnable task) {
@@ -89,43 +139,94 @@ public class Scheduler implements TaskScheduler {
 
     @Override
     public Scheduler repeated(long initialDelay, long delay, TimeUnit timeUnit, long cycles) {
-        if (stopped) {
-            return this;
+        synchronized (this) {
+            if (stopped) {
+                return this;
+            }
+            if (!started) {
+                started = true;
+                numActiveSchedulers.incrementAndGet();
+            }
         }
         if (cycles == 1) {
-            executor.schedule(() -> {
-                if (stopped) {
-                    return;
-                }
-                threadName.ifPresent(name -> Thread.currentThread().setName(name));
+            schedule(delay, timeUnit, () -> {
                 try {
-                    task.run();
+                    runTask();
                 } finally {
                     stop();
                 }
-            }, delay, timeUnit);
+            });
         } else {
-            executor.scheduleWithFixedDelay(() -> {
-                if (stopped) {
-                    return;
-                }
-                threadName.ifPresent(name -> Thread.currentThread().setName(name));
-                try {
-                    task.run();
-                } finally {
-                    counter++;
-                    if (counter >= cycles) {
-                        stop();
+            schedule(initialDelay, timeUnit, new Runnable() {
+                @Override
+                public void run() {
+                    boolean completed = false;
+                    try {
+                        runTask();
+                        completed = true;
+                    } finally {
+                        counter++;
+                        if (counter >= cycles || !completed) {
+                            stop();
+                        } else {
+                            schedule(delay, timeUnit, this);
+                        }
                     }
                 }
-            }, initialDelay, delay, timeUnit);
+            });
         }
         return this;
     }
 
     @Override
     public void stop() {
-        stopped = true;
-        ExecutorFactory.shutdownAndAwaitTermination(executor);
+        synchronized (this) {
+            if (stopped) {
+                return;
+            }
+            stopped = true;
+            if (started) {
+                numActiveSchedulers.decrementAndGet();
+            }
+        }
+        timeouts.forEach(TimerWheel.Timeout::cancel);
+        timeouts.clear();
+    }
+
+    private void schedule(long delay, TimeUnit timeUnit, Runnable runnable) {
+        TimerWheel.Timeout timeout = TIMER_WHEEL.schedule(() -> {
+            timeouts.removeIf(TimerWheel.Timeout::isExpired);
+            if (stopped) {
+                return;
+            }
+            try {
+                executor.execute(() -> {
+                    if (!stopped) {
+                        runnable.run();
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                log.error("Scheduled task got rejected", e);
+            }
+        }, delay, timeUnit);
+        timeouts.add(timeout);
+        // The timeout might have expired before we added it, or stop was called concurrently
+        if (timeout.isExpired()) {
+            timeouts.remove(timeout);
+        }
+        if (stopped) {
+            timeout.cancel();
+        }
+    }
+
+    private void runTask() {
+        Thread currentThread = Thread.currentThread();
+        String previousName = currentThread.getName();
+        threadName.ifPresent(currentThread::setName);
+        try {
+            task.run();
+        } finally {
+            currentThread.setName(previousName);
+        }
     }
 }
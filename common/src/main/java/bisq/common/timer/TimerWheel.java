@@ -0,0 +1,178 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.common.timer;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Hashed timer wheel (see Varghese and Lauck: Hashed and Hierarchical Timing Wheels) with a single worker thread.
+ * Scheduling and cancelling are O(1). The precision is limited by the tick duration.
+ * <p>
+ * Expired tasks are executed on the worker thread, so they must not block. Callers are expected to hand off the
+ * actual work to an executor.
+ */
+@Slf4j
+final class TimerWheel {
+    static final class Timeout {
+        private final Runnable task;
+        // Nanos since start time of the timer wheel
+        private final long deadline;
+        // Only accessed by the worker thread
+        private long remainingRounds;
+        private volatile boolean cancelled;
+        private volatile boolean expired;
+
+        private Timeout(Runnable task, long deadline) {
+            this.task = task;
+            this.deadline = deadline;
+        }
+
+        void cancel() {
+            cancelled = true;
+        }
+
+        boolean isExpired() {
+            return expired;
+        }
+    }
+
+    private final long tickDurationInNanos;
+    private final List<List<Timeout>> buckets;
+    private final int mask;
+    private final Queue<Timeout> newTimeouts = new ConcurrentLinkedQueue<>();
+    private final long startTime = System.nanoTime();
+    // Only accessed by the worker thread
+    private long tick;
+
+    private final LongAdder numExpired = new LongAdder();
+    private final LongAdder accumulatedDriftInNanos = new LongAdder();
+    private final AtomicLong maxDriftInNanos = new AtomicLong();
+
+    TimerWheel(String name, long tickDuration, TimeUnit timeUnit, int numBuckets) {
+        if (Integer.bitCount(numBuckets) != 1) {
+            throw new IllegalArgumentException("numBuckets must be a power of 2. numBuckets=" + numBuckets);
+        }
+        tickDurationInNanos = timeUnit.toNanos(tickDuration);
+        mask = numBuckets - 1;
+        buckets = new ArrayList<>(numBuckets);
+        for (int i = 0; i < numBuckets; i++) {
+            buckets.add(new ArrayList<>());
+        }
+
+        Thread workerThread = new Thread(this::run, name);
+        workerThread.setDaemon(true);
+        workerThread.start();
+    }
+
+    Timeout schedule(Runnable task, long delay, TimeUnit timeUnit) {
+        long deadline = System.nanoTime() - startTime + timeUnit.toNanos(Math.max(0, delay));
+        Timeout timeout = new Timeout(task, deadline);
+        newTimeouts.add(timeout);
+        return timeout;
+    }
+
+    long getNumExpired() {
+        return numExpired.sum();
+    }
+
+    double getAverageDriftInMs() {
+        long numExpired = getNumExpired();
+        return numExpired == 0 ? 0 : accumulatedDriftInNanos.sum() / (double) numExpired / 1_000_000;
+    }
+
+    double getMaxDriftInMs() {
+        return maxDriftInNanos.get() / 1_000_000d;
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////////////
+    // Private
+    ///////////////////////////////////////////////////////////////////////////////////////////////////
+
+    private void run() {
+        //noinspection InfiniteLoopStatement
+        while (true) {
+            long currentTime = waitForNextTick();
+            transferNewTimeouts();
+            expireTimeouts(buckets.get((int) (tick & mask)), currentTime);
+            tick++;
+        }
+    }
+
+    private long waitForNextTick() {
+        long deadline = tickDurationInNanos * (tick + 1);
+        while (true) {
+            long currentTime = System.nanoTime() - startTime;
+            long sleepTimeInMs = (deadline - currentTime + 999_999) / 1_000_000;
+            if (sleepTimeInMs <= 0) {
+                return currentTime;
+            }
+            try {
+                //noinspection BusyWait
+                Thread.sleep(sleepTimeInMs);
+            } catch (InterruptedException ignore) {
+            }
+        }
+    }
+
+    private void transferNewTimeouts() {
+        Timeout timeout;
+        while ((timeout = newTimeouts.poll()) != null) {
+            if (timeout.cancelled) {
+                continue;
+            }
+            long targetTick = timeout.deadline / tickDurationInNanos;
+            timeout.remainingRounds = (targetTick - tick) / buckets.size();
+            // If the deadline is already passed we use the current tick
+            buckets.get((int) (Math.max(targetTick, tick) & mask)).add(timeout);
+        }
+    }
+
+    private void expireTimeouts(List<Timeout> bucket, long currentTime) {
+        Iterator<Timeout> iterator = bucket.iterator();
+        while (iterator.hasNext()) {
+            Timeout timeout = iterator.next();
+            if (timeout.cancelled) {
+                iterator.remove();
+            } else if (timeout.remainingRounds <= 0) {
+                iterator.remove();
+                timeout.expired = true;
+                long drift = Math.max(0, currentTime - timeout.deadline);
+                numExpired.increment();
+                accumulatedDriftInNanos.add(drift);
+                maxDriftInNanos.accumulateAndGet(drift, Math::max);
+                try {
+                    timeout.task.run();
+                } catch (Throwable throwable) {
+                    log.error("Running expired timeout task failed", throwable);
+                }
+            } else {
+                timeout.remainingRounds--;
+            }
+        }
+    }
+}
@@ -46,12 +46,14 @@ public class MemoryReport {
 
         log.info("\n************************************************************************************************************************\n" +
                         "Total memory: {}; Used memory: {}; Free memory: {}; Max memory: {}; No. of threads: {}\n" +
+                        "{}\n" +
                         "************************************************************************************************************************",
                 StringUtils.formatBytes(total),
                 StringUtils.formatBytes(used),
                 StringUtils.formatBytes(free),
                 StringUtils.formatBytes(runtime.maxMemory()),
-                Thread.activeCount());
+                Thread.activeCount(),
+                Scheduler.getMetricsAsString());
     }
 
     public static long getUsedMemoryInBytes() {
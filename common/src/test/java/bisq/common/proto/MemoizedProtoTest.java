@@ -0,0 +1,135 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.common.proto;
+
+import bisq.common.proto.mocks.ChildMock;
+import bisq.common.proto.mocks.MemoizedParentMockWithExcludedValue;
+import bisq.common.proto.mocks.ParentMockWithExcludedValue;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@Slf4j
+public class MemoizedProtoTest {
+
+    @Test
+    void testSameResultAsNotMemoized() {
+        ParentMockWithExcludedValue parent = new ParentMockWithExcludedValue("parentValue", new ChildMock("childValue"));
+        MemoizedParentMockWithExcludedValue memoizedParent = new MemoizedParentMockWithExcludedValue("parentValue", new ChildMock("childValue"));
+
+        assertArrayEquals(parent.serialize(), memoizedParent.serialize());
+        assertArrayEquals(parent.serializeForHash(), memoizedParent.serializeForHash());
+        assertEquals(parent.getSerializedSize(), memoizedParent.getSerializedSize());
+        assertEquals(parent.toProto(false), memoizedParent.toProto(false));
+        assertEquals(parent.toProto(true), memoizedParent.toProto(true));
+    }
+
+    @Test
+    void testBuildOncePerMode() {
+        MemoizedParentMockWithExcludedValue parent = new MemoizedParentMockWithExcludedValue("parentValue", new ChildMock("childValue"));
+        for (int i = 0; i < 10; i++) {
+            parent.serialize();
+            parent.getSerializedSize();
+            parent.completeProto();
+        }
+        assertEquals(1, parent.getNumBuilderCalls().get());
+
+        for (int i = 0; i < 10; i++) {
+            parent.serializeForHash();
+            parent.toProto(true);
+        }
+        assertEquals(2, parent.getNumBuilderCalls().get());
+
+        assertSame(parent.serializeForHash(), parent.serializeForHash());
+        assertSame(parent.toProto(false), parent.toProto(false));
+    }
+
+    @Test
+    void testCacheIsBounded() {
+        List<MemoizedParentMockWithExcludedValue> parents = new ArrayList<>();
+        for (int i = 0; i < 3 * SerializationCache.MAX_SIZE; i++) {
+            MemoizedParentMockWithExcludedValue parent = new MemoizedParentMockWithExcludedValue("parentValue" + i, new ChildMock("childValue"));
+            parent.serializeForHash();
+            parents.add(parent);
+        }
+        // We keep strong references to all instances, so only the size limit removes entries
+        assertTrue(SerializationCache.size() <= SerializationCache.MAX_SIZE);
+
+        // An evicted instance gets serialized again with the same result
+        MemoizedParentMockWithExcludedValue first = parents.get(0);
+        ParentMockWithExcludedValue notMemoized = new ParentMockWithExcludedValue("parentValue0", new ChildMock("childValue"));
+        assertArrayEquals(notMemoized.serializeForHash(), first.serializeForHash());
+        assertEquals(2, first.getNumBuilderCalls().get());
+    }
+
+    @Test
+    void testExcludedFieldsAreCached() {
+        ParentMockWithExcludedValue parent = new ParentMockWithExcludedValue("parentValue", new ChildMock("childValue"));
+        assertEquals(1, parent.getExcludedFields().size());
+        assertTrue(parent.getExcludedFields().contains("parentValue"));
+        assertSame(parent.getExcludedFields(), parent.getExcludedFields());
+    }
+
+    @Test
+    void testAllocations() {
+        ParentMockWithExcludedValue parent = new ParentMockWithExcludedValue("parentValue", new ChildMock("childValue"));
+        MemoizedParentMockWithExcludedValue memoizedParent = new MemoizedParentMockWithExcludedValue("parentValue", new ChildMock("childValue"));
+        int iterations = 100_000;
+
+        // Warm up
+        getAllocatedBytes(() -> serializeRepeatedly(parent, iterations));
+        getAllocatedBytes(() -> serializeRepeatedly(memoizedParent, iterations));
+
+        long allocatedBytes = getAllocatedBytes(() -> serializeRepeatedly(parent, iterations));
+        long allocatedBytesMemoized = getAllocatedBytes(() -> serializeRepeatedly(memoizedParent, iterations));
+        log.info("Allocated bytes per serializeForHash and getSerializedSize call: not memoized: {}; memoized: {}",
+                allocatedBytes / iterations, allocatedBytesMemoized / iterations);
+        if (allocatedBytes >= 0 && allocatedBytesMemoized >= 0) {
+            assertTrue(allocatedBytesMemoized < allocatedBytes / 10);
+        }
+    }
+
+    private static long serializeRepeatedly(Proto proto, int iterations) {
+        long sum = 0;
+        for (int i = 0; i < iterations; i++) {
+            sum += proto.serializeForHash().length + proto.getSerializedSize();
+        }
+        return sum;
+    }
+
+    // Returns -1 if the JVM does not support measuring thread allocations
+    private static long getAllocatedBytes(Supplier<Long> task) {
+        if (!(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean)) {
+            return -1;
+        }
+        com.sun.management.ThreadMXBean threadMXBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+        long before = threadMXBean.getThreadAllocatedBytes(threadId);
+        task.get();
+        return threadMXBean.getThreadAllocatedBytes(threadId) - before;
+    }
+}
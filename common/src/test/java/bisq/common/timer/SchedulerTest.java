@@ -0,0 +1,91 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.common.timer;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class SchedulerTest {
+
+    @Test
+    void testAfter() throws InterruptedException {
+        CountDownLatch latch = new CountDownLatch(1);
+        long ts = System.currentTimeMillis();
+        Scheduler.run(latch::countDown).after(100);
+        assertTrue(latch.await(5, TimeUnit.SECONDS));
+        assertTrue(System.currentTimeMillis() - ts >= 90);
+    }
+
+    @Test
+    void testRepeated() throws InterruptedException {
+        CountDownLatch latch = new CountDownLatch(3);
+        AtomicInteger numRuns = new AtomicInteger();
+        Scheduler scheduler = Scheduler.run(() -> {
+            numRuns.incrementAndGet();
+            latch.countDown();
+        }).repeated(20, 3);
+        assertTrue(latch.await(5, TimeUnit.SECONDS));
+        Thread.sleep(200);
+        assertEquals(3, numRuns.get());
+        assertEquals(3, scheduler.getCounter());
+    }
+
+    @Test
+    void testStop() throws InterruptedException {
+        CountDownLatch latch = new CountDownLatch(1);
+        Scheduler scheduler = Scheduler.run(latch::countDown).after(200);
+        scheduler.stop();
+        assertFalse(latch.await(500, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    void testStopPeriodic() throws InterruptedException {
+        CountDownLatch latch = new CountDownLatch(2);
+        AtomicInteger numRuns = new AtomicInteger();
+        Scheduler scheduler = Scheduler.run(() -> {
+            numRuns.incrementAndGet();
+            latch.countDown();
+        }).periodically(20);
+        assertTrue(latch.await(5, TimeUnit.SECONDS));
+        scheduler.stop();
+        // A task might be in execution while we stop
+        Thread.sleep(100);
+        int numRunsAfterStop = numRuns.get();
+        Thread.sleep(200);
+        assertEquals(numRunsAfterStop, numRuns.get());
+    }
+
+    @Test
+    void testThreadName() throws InterruptedException {
+        CountDownLatch latch = new CountDownLatch(1);
+        String[] threadName = new String[1];
+        Scheduler.run(() -> {
+            threadName[0] = Thread.currentThread().getName();
+            latch.countDown();
+        }).name("SchedulerTest").after(10);
+        assertTrue(latch.await(5, TimeUnit.SECONDS));
+        assertEquals("SchedulerTest", threadName[0]);
+    }
+}
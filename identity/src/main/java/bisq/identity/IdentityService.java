@@ -27,6 +27,7 @@ import bisq.persistence.DbSubDirectory;
 import bisq.persistence.Persistence;
 import bisq.persistence.PersistenceClient;
 import bisq.persistence.PersistenceService;
+import bisq.persistence.ReadPriority;
 import bisq.security.keys.KeyBundle;
 import bisq.security.keys.KeyBundleService;
 import com.google.common.annotations.VisibleForTesting;
@@ -61,6 +62,11 @@ public class IdentityService implements PersistenceClient<IdentityStore>, Servic
         this.networkService = networkService;
     }
 
+    @Override
+    public ReadPriority getReadPriority() {
+        return ReadPriority.HIGH;
+    }
+
 
     ///////////////////////////////////////////////////////////////////////////////////////////////////
     // Service
@@ -35,4 +35,9 @@ public interface TransportConfig {
     int getSendMessageThrottleTime(); // in ms
 
     int getReceiveMessageThrottleTime(); // in ms
+
+    // Only supported by the clearnet transport. 0 means one blocking reader thread per connection.
+    default int getNumSelectorThreads() {
+        return 0;
+    }
 }
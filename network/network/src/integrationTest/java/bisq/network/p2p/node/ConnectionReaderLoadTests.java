@@ -0,0 +1,238 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.network.p2p.node;
+
+import bisq.common.util.NetworkUtils;
+import bisq.common.util.StringUtils;
+import bisq.network.NetworkService;
+import bisq.network.common.Address;
+import bisq.network.common.AddressByTransportTypeMap;
+import bisq.network.common.TransportType;
+import bisq.network.identity.NetworkId;
+import bisq.network.p2p.message.EnvelopePayloadMessage;
+import bisq.network.p2p.node.authorization.AuthorizationService;
+import bisq.network.p2p.node.authorization.AuthorizationTokenType;
+import bisq.network.p2p.node.network_load.NetworkLoadSnapshot;
+import bisq.network.p2p.node.transport.ClearNetTransportService;
+import bisq.network.p2p.services.peer_group.BanList;
+import bisq.network.p2p.services.peer_group.keep_alive.Ping;
+import bisq.security.keys.KeyBundle;
+import bisq.security.keys.KeyBundleService;
+import bisq.security.keys.KeyGeneration;
+import bisq.security.keys.PubKey;
+import bisq.security.keys.TorKeyGeneration;
+import bisq.security.pow.equihash.EquihashProofOfWorkService;
+import bisq.security.pow.hashcash.HashCashProofOfWorkService;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.lang.management.ManagementFactory;
+import java.nio.file.Path;
+import java.security.GeneralSecurityException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Runs clearnet nodes on localhost in the virtual thread mode of the network IO. The nodes use the blocking mode,
+ * so each connection blocks a reader on both sides. With platform threads that would require a platform thread per
+ * reader, with virtual threads the number of platform threads must not grow with the number of connections.
+ */
+@Slf4j
+public class ConnectionReaderLoadTests {
+    private static final int NUM_MESSAGES = 5000;
+
+    private final AuthorizationService authorizationService = createAuthorizationService();
+    private final List<Node> nodes = new ArrayList<>();
+    @TempDir
+    private Path dataDir;
+
+    @BeforeAll
+    static void setUpVirtualThreads() {
+        NetworkService.useVirtualThreads(true);
+    }
+
+    @AfterAll
+    static void tearDownVirtualThreads() {
+        NetworkService.useVirtualThreads(false);
+    }
+
+    @BeforeEach
+    void setUp() {
+        assumeTrue(NetworkService.isUsingVirtualThreads(), "Virtual threads not supported by the runtime");
+    }
+
+    @AfterEach
+    void tearDown() {
+        CompletableFuture.allOf(nodes.stream()
+                        .map(Node::shutdown)
+                        .toArray(CompletableFuture[]::new))
+                .join();
+        nodes.clear();
+    }
+
+    @Test
+    void nodePairMessageLoad() throws Exception {
+        Node node = createAndInitializeNode();
+        CountDownLatch allReceived = new CountDownLatch(NUM_MESSAGES);
+        node.addListener(new CountingListener(allReceived));
+        Node peer = createAndInitializeNode();
+
+        long ts = System.currentTimeMillis();
+        Connection connection = peer.getConnection(node.findMyAddress().orElseThrow());
+        List<CompletableFuture<Connection>> futures = new ArrayList<>();
+        for (int i = 0; i < NUM_MESSAGES; i++) {
+            futures.add(peer.sendAsync(new Ping(i), connection));
+        }
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).get(120, TimeUnit.SECONDS);
+        assertThat(allReceived.await(120, TimeUnit.SECONDS)).isTrue();
+        log.info("{} messages sent from a node to its peer in {} ms", NUM_MESSAGES, System.currentTimeMillis() - ts);
+    }
+
+    @Test
+    void virtualThreads500Peers() throws Exception {
+        int numAddedThreads = simulatePeers(500);
+        // Without virtual threads we would need a platform thread for the reader of each side of a connection
+        assertThat(numAddedThreads).isLessThan(500);
+    }
+
+    @Test
+    void virtualThreads2000Peers() throws Exception {
+        // The platform thread mode cannot serve that many peers, as the network IO pool is limited to 1000 threads
+        int numAddedThreads = simulatePeers(2000);
+        assertThat(numAddedThreads).isLessThan(1000);
+    }
+
+    // Returns the number of platform threads added while all connections are idle
+    private int simulatePeers(int numPeers) throws Exception {
+        System.gc();
+        int numThreadsBefore = ManagementFactory.getThreadMXBean().getThreadCount();
+        long usedMemoryBefore = getUsedMemory();
+
+        Node node = createAndInitializeNode();
+        CountDownLatch allReceived = new CountDownLatch(numPeers);
+        node.addListener(new CountingListener(allReceived));
+        Address nodeAddress = node.findMyAddress().orElseThrow();
+
+        long ts = System.currentTimeMillis();
+        List<CompletableFuture<Connection>> futures = new ArrayList<>();
+        for (int i = 0; i < numPeers; i++) {
+            Node peer = createAndInitializeNode();
+            futures.add(CompletableFuture.supplyAsync(() -> peer.send(new Ping(0), nodeAddress),
+                    NetworkService.NETWORK_IO_POOL));
+        }
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).get(120, TimeUnit.SECONDS);
+        assertThat(allReceived.await(120, TimeUnit.SECONDS)).isTrue();
+        assertThat(node.getNumConnections()).isEqualTo(numPeers);
+
+        // All readers are blocked in the next read now
+        int numAddedThreads = ManagementFactory.getThreadMXBean().getThreadCount() - numThreadsBefore;
+        System.gc();
+        long addedMemory = getUsedMemory() - usedMemoryBefore;
+        log.info("{} peers connected in {} ms: {} platform threads added; heap increased by {}",
+                numPeers, System.currentTimeMillis() - ts, numAddedThreads, StringUtils.formatBytes(addedMemory));
+        return numAddedThreads;
+    }
+
+    private Node createAndInitializeNode() throws GeneralSecurityException {
+        int port = NetworkUtils.findFreeSystemPort();
+        ClearNetTransportService.Config transportConfig = new ClearNetTransportService.Config(dataDir,
+                port,
+                120_000,
+                120_000,
+                0,
+                0,
+                0,
+                0);
+        Node.Config config = new Node.Config(TransportType.CLEAR,
+                Set.of(TransportType.CLEAR),
+                Set.of(Feature.AUTHORIZATION_HASH_CASH),
+                transportConfig,
+                transportConfig.getDefaultNodeSocketTimeout(),
+                transportConfig.getUserNodeSocketTimeout(),
+                0,
+                0,
+                0);
+        KeyBundle keyBundle = new KeyBundle("node-" + port, KeyGeneration.generateKeyPair(), TorKeyGeneration.generateKeyPair());
+        KeyBundleService keyBundleService = mock(KeyBundleService.class);
+        when(keyBundleService.getOrCreateKeyBundle(anyString())).thenReturn(keyBundle);
+        NetworkId networkId = new NetworkId(new AddressByTransportTypeMap(Map.of(TransportType.CLEAR, Address.localHost(port))),
+                new PubKey(keyBundle.getKeyPair().getPublic(), keyBundle.getKeyId()));
+        Node node = new Node(networkId,
+                true,
+                config,
+                new BanList(),
+                keyBundleService,
+                new ClearNetTransportService(transportConfig),
+                new NetworkLoadSnapshot(),
+                authorizationService);
+        nodes.add(node);
+        node.initialize();
+        return node;
+    }
+
+    private static long getUsedMemory() {
+        Runtime runtime = Runtime.getRuntime();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    private static AuthorizationService createAuthorizationService() {
+        return new AuthorizationService(new AuthorizationService.Config(List.of(AuthorizationTokenType.HASH_CASH)),
+                new HashCashProofOfWorkService(),
+                new EquihashProofOfWorkService(),
+                Set.of(Feature.AUTHORIZATION_HASH_CASH));
+    }
+
+    private static final class CountingListener implements Node.Listener {
+        private final CountDownLatch latch;
+
+        private CountingListener(CountDownLatch latch) {
+            this.latch = latch;
+        }
+
+        @Override
+        public void onMessage(EnvelopePayloadMessage envelopePayloadMessage, Connection connection, NetworkId networkId) {
+            if (envelopePayloadMessage instanceof Ping) {
+                latch.countDown();
+            }
+        }
+
+        @Override
+        public void onConnection(Connection connection) {
+        }
+
+        @Override
+        public void onDisconnect(Connection connection, CloseReason closeReason) {
+        }
+    }
+}
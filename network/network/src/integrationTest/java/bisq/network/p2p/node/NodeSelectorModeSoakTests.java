@@ -0,0 +1,221 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.network.p2p.node;
+
+import bisq.common.util.NetworkUtils;
+import bisq.network.common.Address;
+import bisq.network.common.AddressByTransportTypeMap;
+import bisq.network.common.DefaultPeerSocket;
+import bisq.network.common.TransportType;
+import bisq.network.identity.NetworkId;
+import bisq.network.p2p.message.EnvelopePayloadMessage;
+import bisq.network.p2p.message.NetworkEnvelope;
+import bisq.network.p2p.node.authorization.AuthorizationService;
+import bisq.network.p2p.node.authorization.AuthorizationToken;
+import bisq.network.p2p.node.authorization.AuthorizationTokenType;
+import bisq.network.p2p.node.envelope.NetworkEnvelopeSocket;
+import bisq.network.p2p.node.handshake.ConnectionHandshake;
+import bisq.network.p2p.node.network_load.NetworkLoad;
+import bisq.network.p2p.node.network_load.NetworkLoadSnapshot;
+import bisq.network.p2p.node.transport.ClearNetTransportService;
+import bisq.network.p2p.services.peer_group.BanList;
+import bisq.network.p2p.services.peer_group.keep_alive.Ping;
+import bisq.security.keys.KeyBundle;
+import bisq.security.keys.KeyBundleService;
+import bisq.security.keys.KeyGeneration;
+import bisq.security.keys.PubKey;
+import bisq.security.keys.TorKeyGeneration;
+import bisq.security.pow.equihash.EquihashProofOfWorkService;
+import bisq.security.pow.hashcash.HashCashProofOfWorkService;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.file.Path;
+import java.security.GeneralSecurityException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Connects many clearnet peers to a node and lets each peer send a few messages after the handshake. We compare the
+ * number of threads used by the node in the blocking mode (one reader thread per connection) and in the selector mode.
+ */
+@Slf4j
+public class NodeSelectorModeSoakTests {
+    private static final int NUM_MESSAGES_PER_PEER = 3;
+
+    private final AuthorizationService authorizationService = createAuthorizationService();
+    private final List<Socket> sockets = new ArrayList<>();
+    @TempDir
+    private Path dataDir;
+    private Node node;
+
+    @AfterEach
+    void tearDown() throws IOException {
+        for (Socket socket : sockets) {
+            socket.close();
+        }
+        sockets.clear();
+        if (node != null) {
+            node.shutdown().join();
+        }
+    }
+
+    @Test
+    void blockingMode500Peers() throws Exception {
+        int numAddedThreads = simulatePeers(0, 500);
+        // Each connection blocks a reader thread
+        assertThat(ManagementFactory.getThreadMXBean().getThreadCount()).isGreaterThanOrEqualTo(500);
+        log.info("Blocking mode added {} threads", numAddedThreads);
+    }
+
+    @Test
+    void selectorMode500Peers() throws Exception {
+        int numAddedThreads = simulatePeers(2, 500);
+        assertThat(numAddedThreads).isLessThan(50);
+    }
+
+    @Test
+    void selectorMode2000Peers() throws Exception {
+        // The blocking mode cannot serve that many peers, as the network IO pool is limited to 1000 threads
+        int numAddedThreads = simulatePeers(2, 2000);
+        assertThat(numAddedThreads).isLessThan(50);
+    }
+
+    // Returns the number of threads added while all connections are idle
+    private int simulatePeers(int numSelectorThreads, int numPeers) throws Exception {
+        int port = NetworkUtils.findFreeSystemPort();
+        Address nodeAddress = Address.localHost(port);
+
+        System.gc();
+        int numThreadsBefore = ManagementFactory.getThreadMXBean().getThreadCount();
+
+        node = createNode(port, numSelectorThreads);
+        CountDownLatch allReceived = new CountDownLatch(numPeers * NUM_MESSAGES_PER_PEER);
+        node.addListener(new Node.Listener() {
+            @Override
+            public void onMessage(EnvelopePayloadMessage envelopePayloadMessage, Connection connection, NetworkId networkId) {
+                allReceived.countDown();
+            }
+
+            @Override
+            public void onConnection(Connection connection) {
+            }
+
+            @Override
+            public void onDisconnect(Connection connection, CloseReason closeReason) {
+            }
+        });
+        node.initialize();
+
+        KeyBundle peersKeyBundle = createKeyBundle("peer");
+        long ts = System.currentTimeMillis();
+        for (int i = 0; i < numPeers; i++) {
+            Socket socket = new Socket(InetAddress.getLoopbackAddress(), port);
+            sockets.add(socket);
+            // The peers do not run a server, we only need distinct addresses
+            Capability peersCapability = Capability.myCapability(Address.localHost(10_000 + i),
+                    List.of(TransportType.CLEAR),
+                    List.of(Feature.AUTHORIZATION_HASH_CASH));
+            ConnectionHandshake connectionHandshake = new ConnectionHandshake(socket,
+                    new BanList(),
+                    120_000,
+                    peersCapability,
+                    authorizationService,
+                    peersKeyBundle);
+            ConnectionHandshake.Result result = connectionHandshake.start(new NetworkLoad(), nodeAddress);
+
+            NetworkEnvelopeSocket networkEnvelopeSocket = new NetworkEnvelopeSocket(new DefaultPeerSocket(socket));
+            for (int messageCounter = 1; messageCounter <= NUM_MESSAGES_PER_PEER; messageCounter++) {
+                Ping ping = new Ping(messageCounter);
+                AuthorizationToken token = authorizationService.createToken(ping,
+                        result.getPeersNetworkLoad(),
+                        nodeAddress.getFullAddress(),
+                        messageCounter,
+                        result.getPeersCapability().getFeatures());
+                networkEnvelopeSocket.send(new NetworkEnvelope(token, ping));
+            }
+        }
+        assertThat(allReceived.await(120, TimeUnit.SECONDS)).isTrue();
+        assertThat(node.getNumConnections()).isEqualTo(numPeers);
+
+        int numAddedThreads = ManagementFactory.getThreadMXBean().getThreadCount() - numThreadsBefore;
+        log.info("{} peers with {} selector threads: {} messages received in {} ms; {} threads added",
+                numPeers, numSelectorThreads, numPeers * NUM_MESSAGES_PER_PEER, System.currentTimeMillis() - ts,
+                numAddedThreads);
+        return numAddedThreads;
+    }
+
+    private Node createNode(int port, int numSelectorThreads) throws GeneralSecurityException {
+        ClearNetTransportService.Config transportConfig = new ClearNetTransportService.Config(dataDir,
+                port,
+                120_000,
+                120_000,
+                0,
+                0,
+                0,
+                numSelectorThreads);
+        Node.Config config = new Node.Config(TransportType.CLEAR,
+                Set.of(TransportType.CLEAR),
+                Set.of(Feature.AUTHORIZATION_HASH_CASH),
+                transportConfig,
+                transportConfig.getDefaultNodeSocketTimeout(),
+                transportConfig.getUserNodeSocketTimeout(),
+                0,
+                0,
+                0);
+        KeyBundle keyBundle = createKeyBundle("node");
+        KeyBundleService keyBundleService = mock(KeyBundleService.class);
+        when(keyBundleService.getOrCreateKeyBundle(anyString())).thenReturn(keyBundle);
+        NetworkId networkId = new NetworkId(new AddressByTransportTypeMap(Map.of(TransportType.CLEAR, Address.localHost(port))),
+                new PubKey(keyBundle.getKeyPair().getPublic(), keyBundle.getKeyId()));
+        return new Node(networkId,
+                true,
+                config,
+                new BanList(),
+                keyBundleService,
+                new ClearNetTransportService(transportConfig),
+                new NetworkLoadSnapshot(),
+                authorizationService);
+    }
+
+    private static KeyBundle createKeyBundle(String keyId) throws GeneralSecurityException {
+        return new KeyBundle(keyId, KeyGeneration.generateKeyPair(), TorKeyGeneration.generateKeyPair());
+    }
+
+    private static AuthorizationService createAuthorizationService() {
+        return new AuthorizationService(new AuthorizationService.Config(List.of(AuthorizationTokenType.HASH_CASH)),
+                new HashCashProofOfWorkService(),
+                new EquihashProofOfWorkService(),
+                Set.of(Feature.AUTHORIZATION_HASH_CASH));
+    }
+}
@@ -28,6 +28,7 @@ import bisq.network.common.Address;
 import bisq.network.common.AddressByTransportTypeMap;
 import bisq.network.common.TransportType;
 import bisq.network.http.BaseHttpClient;
+import bisq.network.http.HttpClientPool;
 import bisq.network.http.HttpClientsByTransport;
 import bisq.network.identity.NetworkId;
 import bisq.network.identity.NetworkIdWithKeyPair;
@@ -63,6 +64,7 @@ import bisq.security.keys.KeyBundleService;
 import bisq.security.keys.PubKey;
 import bisq.security.pow.equihash.EquihashProofOfWorkService;
 import bisq.security.pow.hashcash.HashCashProofOfWorkService;
+import com.google.common.util.concurrent.ForwardingExecutorService;
 import com.runjva.sourceforge.jsocks.protocol.Socks5Proxy;
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
@@ -74,6 +76,7 @@ import java.security.PublicKey;
 import java.util.*;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
 import java.util.function.Predicate;
 
 import static bisq.network.common.TransportType.TOR;
@@ -88,9 +91,37 @@ import static java.util.concurrent.CompletableFuture.supplyAsync;
  */
 @Slf4j
 public class NetworkService implements PersistenceClient<NetworkServiceStore>, Service {
-    public static final ExecutorService NETWORK_IO_POOL = ExecutorFactory.newCachedThreadPool("NetworkService.network-IO-pool");
+    private static volatile ExecutorService networkIoPool = ExecutorFactory.newCachedThreadPool("NetworkService.network-IO-pool");
+    // Delegates to the current pool, so that we can switch to virtual threads at startup.
+    public static final ExecutorService NETWORK_IO_POOL = new ForwardingExecutorService() {
+        @Override
+        protected ExecutorService delegate() {
+            return networkIoPool;
+        }
+    };
     public static final ExecutorService DISPATCHER = ExecutorFactory.newSingleThreadExecutor("NetworkService.dispatcher");
 
+    /**
+     * Runs the network IO tasks (connection readers, sending, broadcasting) on virtual threads if supported by the
+     * runtime, otherwise on the platform thread pool. Each connection blocks one thread in its read loop, so with
+     * platform threads the number of connections is limited by the maximum pool size. Must be called before the
+     * network service gets initialized.
+     */
+    public static void useVirtualThreads(boolean useVirtualThreads) {
+        if (useVirtualThreads == isUsingVirtualThreads()) {
+            return;
+        }
+        ExecutorService previous = networkIoPool;
+        networkIoPool = useVirtualThreads ?
+                ExecutorFactory.newVirtualThreadPerTaskExecutor("NetworkService.network-IO") :
+                ExecutorFactory.newCachedThreadPool("NetworkService.network-IO-pool");
+        previous.shutdown();
+    }
+
+    public static boolean isUsingVirtualThreads() {
+        return !(networkIoPool instanceof ThreadPoolExecutor);
+    }
+
     @Getter
     private final NetworkServiceStore persistableStore = new NetworkServiceStore();
     private final Optional<String> socks5ProxyAddress; // Optional proxy address of external tor instance
@@ -101,6 +132,8 @@ public class NetworkService implements PersistenceClient<NetworkServiceStore>, S
     private final KeyBundleService keyBundleService;
     private final HttpClientsByTransport httpClientsByTransport;
     @Getter
+    private final HttpClientPool httpClientPool;
+    @Getter
     private final Optional<DataService> dataService;
     @Getter
     private final ServiceNodesByTransport serviceNodesByTransport;
@@ -129,12 +162,15 @@ public class NetworkService implements PersistenceClient<NetworkServiceStore>, S
         NetworkEnvelope.setNetworkVersion(config.getVersion());
 
         httpClientsByTransport = new HttpClientsByTransport();
+        httpClientPool = new HttpClientPool(this::getHttpClient);
 
         Set<ServiceNode.SupportedService> supportedServices = config.getServiceNodeConfig().getSupportedServices();
 
         dataService = supportedServices.contains(ServiceNode.SupportedService.DATA) ?
                 Optional.of(new DataService(persistenceService)) :
                 Optional.empty();
+        // Mailbox data addressed to other users are not passed to the listeners
+        dataService.ifPresent(service -> service.getStorageService().setMailboxReceiverKeyIdFilter(keyBundleService::hasKeyBundle));
 
         messageDeliveryStatusService = supportedServices.contains(ServiceNode.SupportedService.ACK) &&
                 supportedServices.contains(ServiceNode.SupportedService.CONFIDENTIAL) ?
@@ -213,6 +249,7 @@ public class NetworkService implements PersistenceClient<NetworkServiceStore>, S
                     resendMessageService.ifPresent(ResendMessageService::shutdown);
                     networkLoadService.ifPresent(NetworkLoadService::shutdown);
                     dataService.ifPresent(DataService::shutdown);
+                    httpClientPool.shutdown();
                     return true;
                 })
                 .thenCompose(result -> serviceNodesByTransport.shutdown()
@@ -375,6 +412,14 @@ public class NetworkService implements PersistenceClient<NetworkServiceStore>, S
         dataService.orElseThrow().removeListener(listener);
     }
 
+    public void addDataServiceListener(Class<? extends DistributedData> distributedDataClass, Listener listener) {
+        dataService.orElseThrow().addListener(distributedDataClass, listener);
+    }
+
+    public void removeDataServiceListener(Class<? extends DistributedData> distributedDataClass, Listener listener) {
+        dataService.orElseThrow().removeListener(distributedDataClass, listener);
+    }
+
     public void addConfidentialMessageListener(ConfidentialMessageService.Listener listener) {
         serviceNodesByTransport.addConfidentialMessageListener(listener);
     }
@@ -20,22 +20,56 @@ package bisq.network.http;
 import bisq.common.data.Pair;
 import bisq.common.util.StringUtils;
 import bisq.network.http.utils.HttpMethod;
+import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 
+import javax.annotation.Nullable;
 import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.BiConsumer;
 
 @Slf4j
 public abstract class BaseHttpClient implements HttpClient {
+    protected static final int NOT_MODIFIED = 304;
+    private static final int MAX_CACHED_RESPONSES = 100;
+
+    @Getter
+    protected static final class CachedResponse {
+        @Nullable
+        private final String eTag;
+        @Nullable
+        private final String lastModified;
+        private final String body;
+
+        private CachedResponse(@Nullable String eTag, @Nullable String lastModified, String body) {
+            this.eTag = eTag;
+            this.lastModified = lastModified;
+            this.body = body;
+        }
+    }
+
     public final String baseUrl;
     public final String userAgent;
     protected final String uid;
 
     public boolean hasPendingRequest;
 
+    // GET responses which carry a validator, so that we can repeat the request as conditional request and the server
+    // can answer with 304 (Not Modified) instead of sending the same data again.
+    private final Map<String, CachedResponse> cachedResponseByParam = Collections.synchronizedMap(
+            new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, CachedResponse> eldest) {
+                    return size() > MAX_CACHED_RESPONSES;
+                }
+            });
+
     public BaseHttpClient(String baseUrl, String userAgent) {
         this.baseUrl = baseUrl;
         this.userAgent = userAgent;
@@ -67,6 +101,36 @@ public abstract class BaseHttpClient implements HttpClient {
                                         HttpMethod httpMethod,
                                         Optional<Pair<String, String>> optionalHeader) throws IOException;
 
+    protected Optional<CachedResponse> findCachedResponse(String param, HttpMethod httpMethod) {
+        return httpMethod == HttpMethod.GET ?
+                Optional.ofNullable(cachedResponseByParam.get(param)) :
+                Optional.empty();
+    }
+
+    protected void addConditionalRequestHeaders(CachedResponse cachedResponse, BiConsumer<String, String> headerSetter) {
+        if (cachedResponse.getETag() != null) {
+            headerSetter.accept("If-None-Match", cachedResponse.getETag());
+        }
+        if (cachedResponse.getLastModified() != null) {
+            headerSetter.accept("If-Modified-Since", cachedResponse.getLastModified());
+        }
+    }
+
+    protected void cacheResponse(String param,
+                                 HttpMethod httpMethod,
+                                 @Nullable String eTag,
+                                 @Nullable String lastModified,
+                                 String body) {
+        if (httpMethod != HttpMethod.GET) {
+            return;
+        }
+        if (eTag != null || lastModified != null) {
+            cachedResponseByParam.put(param, new CachedResponse(eTag, lastModified, body));
+        } else {
+            cachedResponseByParam.remove(param);
+        }
+    }
+
     protected String inputStreamToString(InputStream inputStream) throws IOException {
         try (BufferedReader bufferedReader = new BufferedReader(new InputStreamReader(inputStream))) {
             StringBuilder stringBuilder = new StringBuilder();
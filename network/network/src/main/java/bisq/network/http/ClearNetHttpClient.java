@@ -92,6 +92,7 @@ public class ClearNetHttpClient extends BaseHttpClient {
         long ts = System.currentTimeMillis();
         log.debug("requestWithoutProxy: URL={}, param={}, httpMethod={}", baseUrl, param, httpMethod);
         String spec = httpMethod == HttpMethod.GET ? baseUrl + "/" + param : baseUrl;
+        Optional<CachedResponse> cachedResponse = findCachedResponse(param, httpMethod);
         try {
             URL url = new URL(spec);
             if (proxy == null) {
@@ -108,6 +109,7 @@ public class ClearNetHttpClient extends BaseHttpClient {
             optionalHeader.ifPresent(header -> {
                 connection.setRequestProperty(header.getFirst(), header.getSecond());
             });
+            cachedResponse.ifPresent(cached -> addConditionalRequestHeaders(cached, connection::setRequestProperty));
 
             if (httpMethod == HttpMethod.POST) {
                 connection.setDoOutput(true);
@@ -115,8 +117,20 @@ public class ClearNetHttpClient extends BaseHttpClient {
             }
 
             int responseCode = connection.getResponseCode();
+            if (responseCode == NOT_MODIFIED && cachedResponse.isPresent()) {
+                log.debug("Response from {} with param {} took {} ms. Not modified since last request.",
+                        baseUrl,
+                        param,
+                        System.currentTimeMillis() - ts);
+                return cachedResponse.get().getBody();
+            }
             if (isSuccess(responseCode)) {
                 String response = inputStreamToString(connection.getInputStream());
+                cacheResponse(param,
+                        httpMethod,
+                        connection.getHeaderField("ETag"),
+                        connection.getHeaderField("Last-Modified"),
+                        response);
                 log.debug("Response from {} with param {} took {} ms. Data size:{}, response: {}",
                         baseUrl,
                         param,
@@ -149,11 +163,13 @@ public class ClearNetHttpClient extends BaseHttpClient {
             String message = "Request to " + baseUrl + "/" + param + " failed with error: " + ExceptionUtil.getRootCauseMessage(e);
             throw new IOException(message, e);
         } finally {
+            // We only close the stream but do not disconnect, so that the JDK keeps the connection alive and reuses it
+            // for the next request to the same host.
+            HttpURLConnection completedConnection = connection;
+            connection = null;
             try {
-                if (connection != null) {
-                    connection.getInputStream().close();
-                    connection.disconnect();
-                    connection = null;
+                if (completedConnection != null) {
+                    completedConnection.getInputStream().close();
                 }
             } catch (Throwable ignore) {
             }
@@ -0,0 +1,231 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.network.http;
+
+import bisq.common.data.Pair;
+import bisq.common.threading.ExecutorFactory;
+import bisq.common.util.ExceptionUtil;
+import bisq.network.common.TransportType;
+import lombok.EqualsAndHashCode;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * Keeps idle http clients per base URL for reuse, so that consecutive requests to the same provider can use the
+ * kept alive connections of the client instead of setting up a new connection (and Tor circuit) each time.
+ * A BaseHttpClient supports only one request at a time, thus concurrent requests to the same base URL use different
+ * clients.
+ */
+@Slf4j
+public class HttpClientPool {
+    private static final int MAX_IDLE_CLIENTS_PER_KEY = 2;
+
+    public interface HttpClientFactory {
+        BaseHttpClient create(String url, String userAgent, TransportType transportType);
+    }
+
+    public interface Request<P> {
+        String apply(P provider) throws IOException;
+    }
+
+    @EqualsAndHashCode
+    private static final class Key {
+        private final String baseUrl;
+        private final String userAgent;
+        private final TransportType transportType;
+
+        private Key(String baseUrl, String userAgent, TransportType transportType) {
+            this.baseUrl = baseUrl;
+            this.userAgent = userAgent;
+            this.transportType = transportType;
+        }
+    }
+
+    private final HttpClientFactory httpClientFactory;
+    private final ExecutorService executor = ExecutorFactory.newCachedThreadPool("HttpClientPool", 1, 12, 60);
+    private final Map<Key, Deque<BaseHttpClient>> idleClientsByKey = new HashMap<>();
+    private final Map<BaseHttpClient, Key> keyByBorrowedClient = new HashMap<>();
+    private volatile boolean shutdownStarted;
+
+    public HttpClientPool(HttpClientFactory httpClientFactory) {
+        this.httpClientFactory = httpClientFactory;
+    }
+
+    public CompletableFuture<Boolean> shutdown() {
+        List<BaseHttpClient> clients;
+        synchronized (this) {
+            shutdownStarted = true;
+            clients = new ArrayList<>(keyByBorrowedClient.keySet());
+            idleClientsByKey.values().forEach(clients::addAll);
+            idleClientsByKey.clear();
+            keyByBorrowedClient.clear();
+        }
+        executor.shutdownNow();
+        return CompletableFuture.allOf(clients.stream()
+                        .map(BaseHttpClient::shutdown)
+                        .toArray(CompletableFuture[]::new))
+                .handle((nil, throwable) -> throwable == null);
+    }
+
+    /**
+     * Sends a GET request with a pooled client.
+     */
+    public String get(String baseUrl, String userAgent, TransportType transportType, String param) throws IOException {
+        BaseHttpClient client = borrow(baseUrl, userAgent, transportType);
+        try {
+            return client.get(param, Optional.of(new Pair<>("User-Agent", userAgent)));
+        } finally {
+            release(client);
+        }
+    }
+
+    /**
+     * Sends the request to the first provider. If it did not respond within hedgeDelay or if it failed, the request
+     * is sent to the next provider as well, and so on. The first successful response wins. Slower requests are not
+     * aborted, but their responses get ignored.
+     *
+     * @param failureHandler Gets called for each provider whose request failed
+     * @return Future with the provider which responded first and its response. If all requests failed, it completes
+     * exceptionally with the failure of the first provider.
+     */
+    public <P> CompletableFuture<Pair<P, String>> getHedged(List<P> providers,
+                                                            Request<P> request,
+                                                            long hedgeDelay,
+                                                            TimeUnit timeUnit,
+                                                            BiConsumer<P, Throwable> failureHandler) {
+        checkArgument(!providers.isEmpty(), "providers must not be empty");
+        var hedgedRequest = new HedgedRequest<>(providers, request, timeUnit.toMillis(hedgeDelay), failureHandler);
+        hedgedRequest.send(0);
+        return hedgedRequest.result;
+    }
+
+    public synchronized BaseHttpClient borrow(String baseUrl, String userAgent, TransportType transportType) {
+        checkArgument(!shutdownStarted, "Shutdown has already started");
+        Key key = new Key(baseUrl, userAgent, transportType);
+        Deque<BaseHttpClient> idleClients = idleClientsByKey.get(key);
+        BaseHttpClient client = idleClients != null && !idleClients.isEmpty() ?
+                idleClients.pop() :
+                httpClientFactory.create(baseUrl, userAgent, transportType);
+        keyByBorrowedClient.put(client, key);
+        return client;
+    }
+
+    public void release(BaseHttpClient client) {
+        synchronized (this) {
+            Key key = keyByBorrowedClient.remove(client);
+            if (key != null && !shutdownStarted) {
+                Deque<BaseHttpClient> idleClients = idleClientsByKey.computeIfAbsent(key, k -> new ArrayDeque<>());
+                if (idleClients.size() < MAX_IDLE_CLIENTS_PER_KEY) {
+                    idleClients.push(client);
+                    return;
+                }
+            }
+        }
+        client.shutdown();
+    }
+
+    private final class HedgedRequest<P> {
+        private final List<P> providers;
+        private final Request<P> request;
+        private final long hedgeDelayMs;
+        private final BiConsumer<P, Throwable> failureHandler;
+        private final CompletableFuture<Pair<P, String>> result = new CompletableFuture<>();
+        private final Set<Integer> sentIndices = ConcurrentHashMap.newKeySet();
+        private final Map<Integer, Throwable> failureByIndex = new ConcurrentHashMap<>();
+        private final AtomicInteger numFailed = new AtomicInteger();
+
+        private HedgedRequest(List<P> providers,
+                              Request<P> request,
+                              long hedgeDelayMs,
+                              BiConsumer<P, Throwable> failureHandler) {
+            this.providers = providers;
+            this.request = request;
+            this.hedgeDelayMs = hedgeDelayMs;
+            this.failureHandler = failureHandler;
+        }
+
+        private void send(int index) {
+            if (index >= providers.size() || result.isDone() || !sentIndices.add(index)) {
+                return;
+            }
+            if (shutdownStarted) {
+                result.completeExceptionally(new IllegalStateException("Shutdown has already started"));
+                return;
+            }
+
+            P provider = providers.get(index);
+            if (index > 0) {
+                log.info("Send hedged request to {}", provider);
+            }
+            if (index + 1 < providers.size()) {
+                CompletableFuture.delayedExecutor(hedgeDelayMs, TimeUnit.MILLISECONDS, executor)
+                        .execute(() -> send(index + 1));
+            }
+            try {
+                CompletableFuture.supplyAsync(() -> {
+                            try {
+                                return request.apply(provider);
+                            } catch (IOException e) {
+                                throw new CompletionException(e);
+                            }
+                        }, executor)
+                        .whenComplete((response, throwable) -> {
+                            if (throwable == null) {
+                                result.complete(new Pair<>(provider, response));
+                            } else {
+                                onFailure(index, provider, throwable);
+                            }
+                        });
+            } catch (RejectedExecutionException e) {
+                result.completeExceptionally(e);
+            }
+        }
+
+        private void onFailure(int index, P provider, Throwable throwable) {
+            if (!result.isDone()) {
+                log.info("Request to {} failed: {}", provider, ExceptionUtil.getRootCauseMessage(throwable));
+            }
+            failureByIndex.put(index, throwable);
+            failureHandler.accept(provider, throwable);
+            if (numFailed.incrementAndGet() == providers.size()) {
+                result.completeExceptionally(failureByIndex.get(0));
+            } else {
+                send(index + 1);
+            }
+        }
+    }
+}
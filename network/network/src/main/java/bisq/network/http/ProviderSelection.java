@@ -0,0 +1,117 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.network.http;
+
+import bisq.common.util.CollectionUtil;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * Rotates through the providers from config and the fallback providers. Providers which failed are skipped until
+ * all providers have failed.
+ * <p>
+ * The failures of hedged requests are reported from the http client threads, while the selection is done from the
+ * request threads, thus all access is synchronized.
+ */
+@Slf4j
+public class ProviderSelection<P> {
+    private final Set<P> providersFromConfig;
+    private final Set<P> fallbackProviders;
+    private final Set<P> candidates = new HashSet<>();
+    private final Set<P> failedProviders = new HashSet<>();
+
+    public ProviderSelection(Set<P> providersFromConfig, Set<P> fallbackProviders) {
+        this.providersFromConfig = Set.copyOf(providersFromConfig);
+        this.fallbackProviders = Set.copyOf(fallbackProviders);
+
+        if (providersFromConfig.isEmpty()) {
+            candidates.addAll(fallbackProviders);
+        } else {
+            candidates.addAll(providersFromConfig);
+        }
+    }
+
+    public boolean isNoProviderAvailable() {
+        return providersFromConfig.isEmpty() && fallbackProviders.isEmpty();
+    }
+
+    public int getNumTotalProviders() {
+        return providersFromConfig.size() + fallbackProviders.size();
+    }
+
+    public synchronized int getNumFailedProviders() {
+        return failedProviders.size();
+    }
+
+    public synchronized void onFailed(P provider) {
+        failedProviders.add(provider);
+    }
+
+    public synchronized P selectNextProvider() {
+        if (candidates.isEmpty()) {
+            fillCandidates(0);
+        }
+        P selected = CollectionUtil.getRandomElement(candidates);
+        candidates.remove(selected);
+        return selected;
+    }
+
+    /**
+     * @return The given provider and, if available, a backup provider for a hedged request. The backup provider is
+     * not removed from the candidates, as the hedged request to it is only sent if the given provider is slow or fails.
+     */
+    public List<P> getProvidersForHedgedRequest(P provider) {
+        return peekNextProvider(provider)
+                .map(backupProvider -> List.of(provider, backupProvider))
+                .orElse(List.of(provider));
+    }
+
+    private synchronized Optional<P> peekNextProvider(P provider) {
+        Stream<P> notFailedProviders = Stream.concat(providersFromConfig.stream(), fallbackProviders.stream())
+                .filter(candidate -> !failedProviders.contains(candidate));
+        return Stream.concat(candidates.stream(), notFailedProviders)
+                .filter(candidate -> !candidate.equals(provider))
+                .findFirst();
+    }
+
+    private void fillCandidates(int recursionDepth) {
+        providersFromConfig.stream()
+                .filter(provider -> !failedProviders.contains(provider))
+                .forEach(candidates::add);
+        if (candidates.isEmpty()) {
+            log.info("We do not have any provider which has not already failed. We add the fall back providers to our candidates list.");
+            fallbackProviders.stream()
+                    .filter(provider -> !failedProviders.contains(provider))
+                    .forEach(candidates::add);
+        }
+        if (candidates.isEmpty()) {
+            log.info("All our providers from config and fallback have failed. We reset the failedProviders and fill from scratch.");
+            failedProviders.clear();
+            if (recursionDepth == 0) {
+                fillCandidates(1);
+            } else {
+                log.error("recursion at fillCandidates");
+            }
+        }
+    }
+}
@@ -23,7 +23,9 @@ import bisq.common.util.StringUtils;
 import bisq.network.http.utils.*;
 import com.runjva.sourceforge.jsocks.protocol.Socks5Proxy;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.http.Header;
 import org.apache.http.HttpEntity;
+import org.apache.http.HttpResponse;
 import org.apache.http.client.methods.CloseableHttpResponse;
 import org.apache.http.client.methods.HttpGet;
 import org.apache.http.client.methods.HttpPost;
@@ -38,6 +40,7 @@ import org.apache.http.impl.client.HttpClients;
 import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
 import org.apache.http.ssl.SSLContexts;
 
+import javax.annotation.Nullable;
 import java.io.IOException;
 import java.io.UnsupportedEncodingException;
 import java.net.InetSocketAddress;
@@ -48,7 +51,6 @@ import java.util.concurrent.TimeUnit;
 import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkNotNull;
 
-// TODO (Critical) close connection if failing
 @Slf4j
 public class TorHttpClient extends BaseHttpClient {
     private final Socks5ProxyProvider socks5ProxyProvider;
@@ -70,13 +72,7 @@ public class TorHttpClient extends BaseHttpClient {
 
         CompletableFuture<Boolean> future = CompletableFuture.supplyAsync(() -> {
                     try {
-                        try {
-                            if (closeableHttpClient != null) {
-                                closeableHttpClient.close();
-                                closeableHttpClient = null;
-                            }
-                        } catch (IOException ignore) {
-                        }
+                        closeHttpClient();
                         return true;
                     } catch (Exception e) {
                         log.error("Error at shutdown", e);
@@ -100,22 +96,8 @@ public class TorHttpClient extends BaseHttpClient {
 
         long ts = System.currentTimeMillis();
         log.debug("doRequestWithProxy: baseUrl={}, param={}, httpMethod={}", baseUrl, param, httpMethod);
-        // This code is adapted from:
-        //  http://stackoverflow.com/a/25203021/5616248
-
-        // Register our own SocketFactories to override createSocket() and connectSocket().
-        // connectSocket does NOT resolve hostname before passing it to proxy.
-        Registry<ConnectionSocketFactory> reg = RegistryBuilder.<ConnectionSocketFactory>create()
-                .register("http", new SocksConnectionSocketFactory())
-                .register("https", new SocksSSLConnectionSocketFactory(SSLContexts.createSystemDefault())).build();
-
-        // Use FakeDNSResolver if not resolving DNS locally.
-        // This prevents a local DNS lookup (which would be ignored anyway)
-        PoolingHttpClientConnectionManager cm = socks5Proxy.resolveAddrLocally() ?
-                new PoolingHttpClientConnectionManager(reg) :
-                new PoolingHttpClientConnectionManager(reg, new FakeDnsResolver());
+        Optional<CachedResponse> cachedResponse = findCachedResponse(param, httpMethod);
         try {
-            closeableHttpClient = checkNotNull(HttpClients.custom().setConnectionManager(cm).build());
             InetSocketAddress socksAddress = new InetSocketAddress(socks5Proxy.getInetAddress(), socks5Proxy.getPort());
 
             // Use this to test with system-wide Tor proxy, or change port for another proxy.
@@ -128,10 +110,21 @@ public class TorHttpClient extends BaseHttpClient {
             optionalHeader.ifPresent(header -> {
                 request.setHeader(header.getFirst(), header.getSecond());
             });
+            cachedResponse.ifPresent(cached -> addConditionalRequestHeaders(cached, request::setHeader));
 
-            try (CloseableHttpResponse httpResponse = closeableHttpClient.execute(request, context)) {
-                String response = inputStreamToString(httpResponse.getEntity().getContent());
+            try (CloseableHttpResponse httpResponse = getOrCreateCloseableHttpClient(socks5Proxy).execute(request, context)) {
                 int statusCode = httpResponse.getStatusLine().getStatusCode();
+                if (statusCode == NOT_MODIFIED && cachedResponse.isPresent()) {
+                    log.debug("Response from {} took {} ms. Not modified since last request. param: {}",
+                            baseUrl,
+                            System.currentTimeMillis() - ts,
+                            param);
+                    return cachedResponse.get().getBody();
+                }
+
+                // The entity must be fully consumed so that the connection can be reused
+                HttpEntity entity = httpResponse.getEntity();
+                String response = entity != null ? inputStreamToString(entity.getContent()) : "";
                 if (isSuccess(statusCode)) {
                     log.debug("Response from {} took {} ms. Data size:{}, response: {}, param: {}",
                             baseUrl,
@@ -139,6 +132,11 @@ public class TorHttpClient extends BaseHttpClient {
                             StringUtils.fromBytes(response.getBytes().length),
                             StringUtils.truncate(response, 2000),
                             param);
+                    cacheResponse(param,
+                            httpMethod,
+                            getHeaderValue(httpResponse, "ETag"),
+                            getHeaderValue(httpResponse, "Last-Modified"),
+                            response);
                     return response;
                 }
 
@@ -151,18 +149,57 @@ public class TorHttpClient extends BaseHttpClient {
                 throw new HttpException(response, statusCode);
             }
         } catch (Throwable t) {
+            // An HTTP error status leaves the connection intact, other failures might have broken the circuit
+            if (!(t instanceof HttpException)) {
+                closeHttpClient();
+            }
             String message = "Error at doRequestWithProxy with url " + baseUrl + " and param " + param +
                     ". Throwable=" + t.getMessage();
             throw new IOException(message, t);
         } finally {
-            if (closeableHttpClient != null) {
+            hasPendingRequest = false;
+        }
+    }
+
+    // The client is kept open between requests, so that its connection manager can reuse the connections
+    // and we avoid the Tor circuit setup and TLS handshake for each request.
+    private synchronized CloseableHttpClient getOrCreateCloseableHttpClient(Socks5Proxy socks5Proxy) {
+        if (closeableHttpClient == null) {
+            // This code is adapted from:
+            //  http://stackoverflow.com/a/25203021/5616248
+
+            // Register our own SocketFactories to override createSocket() and connectSocket().
+            // connectSocket does NOT resolve hostname before passing it to proxy.
+            Registry<ConnectionSocketFactory> reg = RegistryBuilder.<ConnectionSocketFactory>create()
+                    .register("http", new SocksConnectionSocketFactory())
+                    .register("https", new SocksSSLConnectionSocketFactory(SSLContexts.createSystemDefault())).build();
+
+            // Use FakeDNSResolver if not resolving DNS locally.
+            // This prevents a local DNS lookup (which would be ignored anyway)
+            PoolingHttpClientConnectionManager cm = socks5Proxy.resolveAddrLocally() ?
+                    new PoolingHttpClientConnectionManager(reg) :
+                    new PoolingHttpClientConnectionManager(reg, new FakeDnsResolver());
+            closeableHttpClient = checkNotNull(HttpClients.custom().setConnectionManager(cm).build());
+        }
+        return closeableHttpClient;
+    }
+
+    private synchronized void closeHttpClient() {
+        if (closeableHttpClient != null) {
+            try {
                 closeableHttpClient.close();
-                closeableHttpClient = null;
+            } catch (IOException ignore) {
             }
-            hasPendingRequest = false;
+            closeableHttpClient = null;
         }
     }
 
+    @Nullable
+    private static String getHeaderValue(HttpResponse httpResponse, String name) {
+        Header header = httpResponse.getFirstHeader(name);
+        return header != null ? header.getValue() : null;
+    }
+
     protected HttpUriRequest getHttpUriRequest(HttpMethod httpMethod, String baseUrl, String param)
             throws UnsupportedEncodingException {
         switch (httpMethod) {
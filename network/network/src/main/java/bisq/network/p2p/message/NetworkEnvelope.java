@@ -17,6 +17,7 @@
 
 package bisq.network.p2p.message;
 
+import bisq.common.proto.MemoizedProto;
 import bisq.common.proto.NetworkProto;
 import bisq.network.p2p.node.ConnectionException;
 import bisq.network.p2p.node.authorization.AuthorizationToken;
@@ -35,11 +36,14 @@ import static bisq.network.p2p.node.ConnectionException.Reason.INVALID_NETWORK_V
 @EqualsAndHashCode
 @Getter
 @Slf4j
-public final class NetworkEnvelope implements NetworkProto {
+public final class NetworkEnvelope implements NetworkProto, MemoizedProto {
     // For live network we use networkVersion=1
     // For dev testing networkVersion=0
     @Setter
     public static int networkVersion;
+    // Max. size of a serialized envelope. The largest messages are inventory responses, which are limited to 2 MB by
+    // default. We check the size before allocating the receive buffer.
+    public static final int MAX_SIZE = 10 * 1024 * 1024;
 
     private final int version;
     private final AuthorizationToken authorizationToken;
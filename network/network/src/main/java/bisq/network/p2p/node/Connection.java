@@ -17,6 +17,7 @@
 
 package bisq.network.p2p.node;
 
+import bisq.common.timer.Scheduler;
 import bisq.common.util.ExceptionUtil;
 import bisq.common.util.StringUtils;
 import bisq.network.NetworkService;
@@ -28,6 +29,7 @@ import bisq.network.p2p.message.NetworkEnvelope;
 import bisq.network.p2p.node.authorization.AuthorizationToken;
 import bisq.network.p2p.node.envelope.NetworkEnvelopeSocket;
 import bisq.network.p2p.node.network_load.ConnectionMetrics;
+import bisq.network.p2p.node.network_load.DelayHistogram;
 import bisq.network.p2p.node.network_load.NetworkLoadSnapshot;
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
@@ -38,10 +40,14 @@ import java.io.IOException;
 import java.net.Socket;
 import java.util.Comparator;
 import java.util.Date;
+import java.util.List;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CopyOnWriteArraySet;
 import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
 import java.util.function.BiConsumer;
 
 import static com.google.common.base.Preconditions.checkNotNull;
@@ -55,6 +61,10 @@ import static com.google.common.base.Preconditions.checkNotNull;
  */
 @Slf4j
 public abstract class Connection {
+    // Max. number of received messages which wait for being dispatched before we stop reading from the peer
+    private static final int MAX_QUEUED_RECEIVED_MESSAGES = 100;
+    private static final long MAX_RECEIVE_BLOCKING_TIME = TimeUnit.MINUTES.toMillis(2);
+
     public static Comparator<Connection> comparingDate() {
         return Comparator.comparingLong(Connection::getCreated);
     }
@@ -77,6 +87,17 @@ public abstract class Connection {
         void onConnectionClosed(CloseReason closeReason);
     }
 
+    private static final class QueuedMessage {
+        private final EnvelopePayloadMessage envelopePayloadMessage;
+        private final AuthorizationToken authorizationToken;
+        private final CompletableFuture<Connection> future = new CompletableFuture<>();
+
+        private QueuedMessage(EnvelopePayloadMessage envelopePayloadMessage, AuthorizationToken authorizationToken) {
+            this.envelopePayloadMessage = envelopePayloadMessage;
+            this.authorizationToken = authorizationToken;
+        }
+    }
+
     @Getter
     private final String id = StringUtils.createUid();
     @Getter
@@ -88,14 +109,23 @@ public abstract class Connection {
     @Getter
     private final RequestResponseManager requestResponseManager;
 
+    @Nullable
     private NetworkEnvelopeSocket networkEnvelopeSocket;
+    // Only set in selector mode
+    @Nullable
+    private final SelectableSocket selectableSocket;
     private final ConnectionThrottle connectionThrottle;
     private final Handler handler;
+    private final BiConsumer<Connection, Exception> errorHandler;
+    // Messages which got delayed by the connectionThrottle
+    private final ThrottleQueue<QueuedMessage> sendQueue;
+    private final ThrottleQueue<NetworkEnvelope> receiveQueue;
     private final Set<Listener> listeners = new CopyOnWriteArraySet<>();
     @Nullable
     private Future<?> inputHandlerFuture;
     private final AtomicInteger sentMessageCounter = new AtomicInteger(0);
-    private final Object writeLock = new Object();
+    // We use a lock instead of synchronized, as a virtual thread blocked in a synchronized block pins its carrier thread
+    private final ReentrantLock writeLock = new ReentrantLock();
     private volatile boolean shutdownStarted;
     private volatile boolean listeningStopped;
 
@@ -106,12 +136,13 @@ public abstract class Connection {
                          ConnectionThrottle connectionThrottle,
                          Handler handler,
                          BiConsumer<Connection, Exception> errorHandler) {
-        this.peersCapability = peersCapability;
-        this.peersNetworkLoadSnapshot = peersNetworkLoadSnapshot;
-        this.connectionThrottle = connectionThrottle;
-        this.handler = handler;
-        this.connectionMetrics = connectionMetrics;
-        requestResponseManager = new RequestResponseManager(connectionMetrics);
+        this(peersCapability,
+                peersNetworkLoadSnapshot,
+                connectionMetrics,
+                connectionThrottle,
+                handler,
+                errorHandler,
+                null);
 
         try {
             PeerSocket peerSocket = new DefaultPeerSocket(socket);
@@ -132,36 +163,114 @@ public abstract class Connection {
                     if (isInputStreamActive()) {
                         checkNotNull(proto, "Proto from NetworkEnvelope.parseDelimitedFrom(inputStream) must not be null");
 
-                        connectionThrottle.throttleReceiveMessage();
-
                         long ts = System.currentTimeMillis();
                         NetworkEnvelope networkEnvelope = NetworkEnvelope.fromProto(proto);
                         long deserializeTime = System.currentTimeMillis() - ts;
                         networkEnvelope.verifyVersion();
                         connectionMetrics.onReceived(networkEnvelope, deserializeTime);
+                        onReceived(networkEnvelope);
 
-                        EnvelopePayloadMessage envelopePayloadMessage = networkEnvelope.getEnvelopePayloadMessage();
-                        log.debug("Received message: {} at: {}",
-                                StringUtils.truncate(envelopePayloadMessage.toString(), 200), this);
-                        requestResponseManager.onReceived(envelopePayloadMessage);
-                        NetworkService.DISPATCHER.submit(() -> handler.handleNetworkMessage(envelopePayloadMessage,
-                                networkEnvelope.getAuthorizationToken(),
-                                this));
+                        // The reader thread is owned by this connection, so we can block it to stop reading from a
+                        // peer which sends faster than the throttle permits.
+                        if (!receiveQueue.awaitSizeBelow(MAX_QUEUED_RECEIVED_MESSAGES, MAX_RECEIVE_BLOCKING_TIME)) {
+                            throw new ConnectionException("Received messages have not been processed in time");
+                        }
                     }
                 }
             } catch (Exception exception) {
-                //todo (deferred) StreamCorruptedException from i2p at shutdown. prob it send some text data at shut down
-                if (isInputStreamActive()) {
-                    log.debug("Exception at input handler on {}", this, exception);
-                    shutdown(CloseReason.EXCEPTION.exception(exception));
-
-                    // EOFException expected if connection got closed (Socket closed message)
-                    if (!(exception instanceof EOFException)) {
-                        errorHandler.accept(this, exception);
-                    }
+                handleInputException(exception);
+            }
+        });
+    }
+
+    // Selector mode: The selector thread reads from the socket and no thread is blocked while waiting for messages.
+    // At inbound connections the socket is already registered for the handshake and reading got paused until we have
+    // set our listener.
+    Connection(SelectableSocket selectableSocket,
+               Capability peersCapability,
+               NetworkLoadSnapshot peersNetworkLoadSnapshot,
+               ConnectionMetrics connectionMetrics,
+               ConnectionThrottle connectionThrottle,
+               Handler handler,
+               BiConsumer<Connection, Exception> errorHandler) {
+        this(peersCapability,
+                peersNetworkLoadSnapshot,
+                connectionMetrics,
+                connectionThrottle,
+                handler,
+                errorHandler,
+                selectableSocket);
+
+        selectableSocket.register(new SelectableSocket.Listener() {
+            @Override
+            public void onNetworkEnvelopes(List<NetworkEnvelope> networkEnvelopes, long deserializeTime) {
+                for (NetworkEnvelope networkEnvelope : networkEnvelopes) {
+                    connectionMetrics.onReceived(networkEnvelope, deserializeTime);
+                    onReceived(networkEnvelope);
                 }
+                // We stop reading from a peer which sends faster than the throttle permits. The selector thread
+                // resumes reading once enough messages have been dispatched.
+                if (receiveQueue.size() >= MAX_QUEUED_RECEIVED_MESSAGES) {
+                    selectableSocket.pauseReading();
+                }
+            }
+
+            @Override
+            public void onClosed(Exception exception) {
+                handleInputException(exception);
             }
         });
+        selectableSocket.getSelectorLoop().execute(selectableSocket::resumeReading);
+    }
+
+    private Connection(Capability peersCapability,
+                       NetworkLoadSnapshot peersNetworkLoadSnapshot,
+                       ConnectionMetrics connectionMetrics,
+                       ConnectionThrottle connectionThrottle,
+                       Handler handler,
+                       BiConsumer<Connection, Exception> errorHandler,
+                       @Nullable SelectableSocket selectableSocket) {
+        this.peersCapability = peersCapability;
+        this.peersNetworkLoadSnapshot = peersNetworkLoadSnapshot;
+        this.connectionThrottle = connectionThrottle;
+        this.handler = handler;
+        this.errorHandler = errorHandler;
+        this.connectionMetrics = connectionMetrics;
+        this.selectableSocket = selectableSocket;
+        requestResponseManager = new RequestResponseManager(connectionMetrics);
+
+        ThrottleQueue.DelayScheduler scheduler = (task, delay) -> Scheduler.run(task).after(delay);
+        sendQueue = new ThrottleQueue<>(queuedMessage -> {
+            if (isStopped()) {
+                queuedMessage.future.completeExceptionally(new ConnectionClosedException(this));
+                return;
+            }
+            try {
+                doSend(queuedMessage.envelopePayloadMessage, queuedMessage.authorizationToken)
+                        .whenComplete((nil, throwable) -> {
+                            if (throwable == null) {
+                                queuedMessage.future.complete(this);
+                            } else {
+                                queuedMessage.future.completeExceptionally(throwable);
+                            }
+                        });
+            } catch (Exception exception) {
+                // Connection got closed at doSend
+                queuedMessage.future.completeExceptionally(exception);
+            }
+        }, scheduler);
+        if (selectableSocket != null) {
+            // In selector mode the received messages are dispatched from the selector thread
+            receiveQueue = new ThrottleQueue<>(networkEnvelope -> {
+                        dispatchIfActive(networkEnvelope);
+                        if (this.receiveQueue.size() < MAX_QUEUED_RECEIVED_MESSAGES / 2) {
+                            selectableSocket.resumeReading();
+                        }
+                    },
+                    (task, delay) -> selectableSocket.getSelectorLoop().schedule(task, delay));
+        } else {
+            receiveQueue = new ThrottleQueue<>(this::dispatchIfActive, scheduler);
+        }
     }
 
     ///////////////////////////////////////////////////////////////////////////////////////////////////
@@ -201,6 +310,28 @@ public abstract class Connection {
         return getCreated() < date;
     }
 
+    /**
+     * @return The number of messages which got delayed by the throttle and wait to be sent.
+     */
+    public int getNumQueuedSendMessages() {
+        return sendQueue.size();
+    }
+
+    /**
+     * @return The number of received messages which got delayed by the throttle and wait to be dispatched.
+     */
+    public int getNumQueuedReceivedMessages() {
+        return receiveQueue.size();
+    }
+
+    public DelayHistogram getSendDelayHistogram() {
+        return connectionThrottle.getSendDelayHistogram();
+    }
+
+    public DelayHistogram getReceiveDelayHistogram() {
+        return connectionThrottle.getReceiveDelayHistogram();
+    }
+
     @Override
     public String toString() {
         return "'" + getClass().getSimpleName() + " [peerAddress=" + getPeerAddress() +
@@ -213,32 +344,86 @@ public abstract class Connection {
     ///////////////////////////////////////////////////////////////////////////////////////////////////
 
     Connection send(EnvelopePayloadMessage envelopePayloadMessage, AuthorizationToken authorizationToken) {
+        sendAsync(envelopePayloadMessage, authorizationToken);
+        return this;
+    }
+
+    /**
+     * Messages which are not delayed by the throttle are sent at the calling thread and a failure is thrown as before.
+     *
+     * @return A future which completes once the message has been sent. In selector mode that is once it has been
+     * written to the socket. If a message fails to be written, or a message delayed by the throttle fails to be sent or
+     * gets dropped because the connection got closed, the future completes exceptionally.
+     */
+    CompletableFuture<Connection> sendAsync(EnvelopePayloadMessage envelopePayloadMessage,
+                                            AuthorizationToken authorizationToken) {
         if (isStopped()) {
             log.warn("Message not sent as connection has been shut down already. Message={}, Connection={}",
                     StringUtils.truncate(envelopePayloadMessage.toString(), 200), this);
             // We do not throw a ConnectionClosedException here
-            return this;
+            return CompletableFuture.completedFuture(this);
         }
 
-        connectionThrottle.throttleSendMessage();
+        long delay = connectionThrottle.reserveSendSlot(envelopePayloadMessage);
+        if (!connectionThrottle.isPriorityMessage(envelopePayloadMessage)) {
+            QueuedMessage queuedMessage = new QueuedMessage(envelopePayloadMessage, authorizationToken);
+            if (sendQueue.offer(queuedMessage, delay)) {
+                return queuedMessage.future;
+            }
+        }
+        return doSend(envelopePayloadMessage, authorizationToken).thenApply(nil -> this);
+    }
+
+    /**
+     * Blocks the calling thread until the messages which got delayed by the throttle have been sent.
+     *
+     * @return false if the timeout elapsed before or the thread got interrupted.
+     */
+    boolean awaitQueuedMessagesSent(long timeoutInMs) {
+        try {
+            return sendQueue.awaitEmpty(timeoutInMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    // In selector mode the returned future completes once the envelope has been written by the selector thread.
+    // A write failure completes it with a ConnectionException, the connection gets closed by the selectable socket.
+    private CompletableFuture<Void> doSend(EnvelopePayloadMessage envelopePayloadMessage,
+                                           AuthorizationToken authorizationToken) {
+        if (isStopped()) {
+            log.debug("Delayed message not sent as connection has been shut down already. Message={}, Connection={}",
+                    StringUtils.truncate(envelopePayloadMessage.toString(), 200), this);
+            return CompletableFuture.completedFuture(null);
+        }
 
         requestResponseManager.onSent(envelopePayloadMessage);
 
         try {
             NetworkEnvelope networkEnvelope = new NetworkEnvelope(authorizationToken, envelopePayloadMessage);
             boolean sent = false;
+            CompletableFuture<Void> written = CompletableFuture.completedFuture(null);
             long ts = System.currentTimeMillis();
-            synchronized (writeLock) {
-                try {
+            writeLock.lock();
+            try {
+                if (selectableSocket != null) {
+                    written = selectableSocket.send(networkEnvelope)
+                            .exceptionally(throwable -> {
+                                throw new ConnectionException(throwable);
+                            });
+                } else {
                     networkEnvelopeSocket.send(networkEnvelope);
-                    sent = true;
-                } catch (Exception exception) {
-                    if (isRunning()) {
-                        throw exception;
-                    } else {
-                        log.info("Send message at stopped connection {} failed with {}", this, ExceptionUtil.getRootCauseMessage(exception));
-                    }
                 }
+                sent = true;
+            } catch (Exception exception) {
+                if (isRunning()) {
+                    throw exception;
+                } else {
+                    log.info("Send message at stopped connection {} failed with {}", this, ExceptionUtil.getRootCauseMessage(exception));
+                }
+            } finally {
+                writeLock.unlock();
             }
             if (sent) {
                 connectionMetrics.onSent(networkEnvelope, System.currentTimeMillis() - ts);
@@ -250,7 +435,7 @@ public abstract class Connection {
                             StringUtils.truncate(envelopePayloadMessage.toString(), 300), this);
                 }
             }
-            return this;
+            return written;
         } catch (IOException exception) {
             if (isRunning()) {
                 log.warn("Send message at {} failed with {}", this, ExceptionUtil.getRootCauseMessage(exception));
@@ -272,12 +457,23 @@ public abstract class Connection {
         }
         log.info("Close {}; \ncloseReason: {}", this, closeReason);
         shutdownStarted = true;
+        List<QueuedMessage> droppedMessages = sendQueue.clear();
+        if (!droppedMessages.isEmpty()) {
+            log.info("{} queued messages have not been sent as {} got closed", droppedMessages.size(), this);
+            droppedMessages.forEach(queuedMessage ->
+                    queuedMessage.future.completeExceptionally(new ConnectionClosedException(this)));
+        }
+        receiveQueue.clear();
         requestResponseManager.onClosed();
         if (inputHandlerFuture != null) {
             inputHandlerFuture.cancel(true);
         }
         try {
-            networkEnvelopeSocket.close();
+            if (selectableSocket != null) {
+                selectableSocket.close();
+            } else if (networkEnvelopeSocket != null) {
+                networkEnvelopeSocket.close();
+            }
         } catch (IOException ignore) {
         }
         NetworkService.DISPATCHER.submit(() -> {
@@ -308,7 +504,7 @@ public abstract class Connection {
     }
 
     boolean isStopped() {
-        return shutdownStarted || networkEnvelopeSocket.isClosed() || Thread.currentThread().isInterrupted();
+        return shutdownStarted || isSocketClosed() || Thread.currentThread().isInterrupted();
     }
 
 
@@ -323,4 +519,48 @@ public abstract class Connection {
     private boolean isInputStreamActive() {
         return !listeningStopped && isRunning();
     }
+
+    private boolean isSocketClosed() {
+        if (selectableSocket != null) {
+            return selectableSocket.isClosed();
+        }
+        return networkEnvelopeSocket == null || networkEnvelopeSocket.isClosed();
+    }
+
+    private void dispatch(NetworkEnvelope networkEnvelope) {
+        EnvelopePayloadMessage envelopePayloadMessage = networkEnvelope.getEnvelopePayloadMessage();
+        log.debug("Received message: {} at: {}",
+                StringUtils.truncate(envelopePayloadMessage.toString(), 200), this);
+        requestResponseManager.onReceived(envelopePayloadMessage);
+        NetworkService.DISPATCHER.submit(() -> handler.handleNetworkMessage(envelopePayloadMessage,
+                networkEnvelope.getAuthorizationToken(),
+                this));
+    }
+
+    private void onReceived(NetworkEnvelope networkEnvelope) {
+        EnvelopePayloadMessage envelopePayloadMessage = networkEnvelope.getEnvelopePayloadMessage();
+        long delay = connectionThrottle.reserveReceiveSlot(envelopePayloadMessage);
+        if (connectionThrottle.isPriorityMessage(envelopePayloadMessage) || !receiveQueue.offer(networkEnvelope, delay)) {
+            dispatch(networkEnvelope);
+        }
+    }
+
+    private void dispatchIfActive(NetworkEnvelope networkEnvelope) {
+        if (isInputStreamActive()) {
+            dispatch(networkEnvelope);
+        }
+    }
+
+    private void handleInputException(Exception exception) {
+        //todo (deferred) StreamCorruptedException from i2p at shutdown. prob it send some text data at shut down
+        if (isInputStreamActive()) {
+            log.debug("Exception at input handler on {}", this, exception);
+            shutdown(CloseReason.EXCEPTION.exception(exception));
+
+            // EOFException expected if connection got closed (Socket closed message)
+            if (!(exception instanceof EOFException)) {
+                errorHandler.accept(this, exception);
+            }
+        }
+    }
 }
@@ -18,95 +18,162 @@
 package bisq.network.p2p.node;
 
 import bisq.common.util.MathUtils;
+import bisq.network.p2p.message.EnvelopePayloadMessage;
+import bisq.network.p2p.node.network_load.DelayHistogram;
 import bisq.network.p2p.node.network_load.NetworkLoadSnapshot;
+import bisq.network.p2p.services.confidential.ack.AckMessage;
+import bisq.network.p2p.services.peer_group.keep_alive.Ping;
+import bisq.network.p2p.services.peer_group.keep_alive.Pong;
+import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
 import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicLong;
 
 /**
- * Checks if time between last send/receive is larger than the throttle time adjusted with the network load.
- * If so we pause the remaining time to ensure only 1 message is sent in that time slot.
- * This should avoid that a node gets flooded (at receive using the peers network load to adjust the throttle time) or
- * flooding their peers (at send using my network load to adjust the throttle time).
- * As larger value in the config for sendMessageTimestamp and receiveMessageTimestamp means it is more likely that
- * message send/receive get paused.
- * Messages are not dropped by we only pause the executing thread. We use lower and upper bounds for the pause, so
- * even with extreme values from the config the throttling should not have severe impacts on the
- * connection (e.g. lead to timeouts).
+ * Token bucket limiter for sending and receiving messages. Each message takes one token and a token gets added every
+ * throttle time adjusted with the network load. Up to BURST_SIZE tokens can be accumulated while a connection is idle.
+ * This should avoid that a node gets flooded (at receive using my network load to adjust the throttle time) or
+ * flooding their peers (at send using the peers network load to adjust the throttle time).
+ * As larger value in the config for sendMessageThrottleTime and receiveMessageThrottleTime means it is more likely that
+ * message send/receive get delayed.
+ * <p>
+ * The throttle does not block any thread. It reserves the next free slot and returns the delay until that slot, and
+ * the caller queues the message for that time (see ThrottleQueue). Messages are not dropped. We use lower and upper
+ * bounds for the throttle time, so even with extreme values from the config the throttling should not have severe
+ * impacts on the connection (e.g. lead to timeouts).
+ * <p>
+ * Priority messages (e.g. AckMessage, Ping, Pong and CloseConnectionMessage) bypass the throttle, so that they are
+ * not delayed behind bulk messages like inventory data.
  */
 @Slf4j
 public class ConnectionThrottle {
+    public static final Set<Class<? extends EnvelopePayloadMessage>> DEFAULT_PRIORITY_MESSAGE_CLASSES = Set.of(
+            AckMessage.class,
+            Ping.class,
+            Pong.class,
+            CloseConnectionMessage.class);
+
     private static final long MIN_THROTTLE_TIME = 20;
     private static final long MAX_THROTTLE_TIME = 1000;
+    private static final int BURST_SIZE = 5;
     private static final long MAX_LOG_FREQUENCY = TimeUnit.SECONDS.toMillis(30);
 
     // We apply the log throttle globally, so we use static fields
     private static AtomicLong lastLoggedTs = new AtomicLong();
     private static final List<String> LAST_LOGS = new CopyOnWriteArrayList<>();
 
-    private final NetworkLoadSnapshot peersNetworkLoadSnapshot;
-    private final NetworkLoadSnapshot myNetworkLoadSnapshot;
-    private final long sendMessageThrottleTime;
-    private final long receiveMessageThrottleTime;
-    private final AtomicLong sendMessageTimestamp = new AtomicLong();
-    private final AtomicLong receiveMessageTimestamp = new AtomicLong();
+    private static final class TokenBucket {
+        private final NetworkLoadSnapshot networkLoadSnapshot;
+        private final long throttleTime;
+        // Time when the bucket would be full again if no further token is taken (theoretical arrival time of GCRA)
+        private long fullTime;
+
+        private TokenBucket(NetworkLoadSnapshot networkLoadSnapshot, long throttleTime) {
+            this.networkLoadSnapshot = networkLoadSnapshot;
+            this.throttleTime = throttleTime;
+        }
+
+        // Takes a token and returns the delay until it is available
+        private synchronized long reserve(long now) {
+            long interval = getInterval();
+            long start = Math.max(fullTime, now);
+            long delay = Math.max(0, start - (BURST_SIZE - 1) * interval - now);
+            fullTime = start + interval;
+            return delay;
+        }
+
+        private long getInterval() {
+            double load = networkLoadSnapshot.getCurrentNetworkLoad().getLoad();
+            long interval = MIN_THROTTLE_TIME + Math.round(throttleTime * load);
+            return MathUtils.bounded(MIN_THROTTLE_TIME, MAX_THROTTLE_TIME, interval);
+        }
+    }
+
+    private final Set<Class<? extends EnvelopePayloadMessage>> priorityMessageClasses;
+    private final TokenBucket sendTokenBucket;
+    private final TokenBucket receiveTokenBucket;
+    @Getter
+    private final DelayHistogram sendDelayHistogram = new DelayHistogram();
+    @Getter
+    private final DelayHistogram receiveDelayHistogram = new DelayHistogram();
 
     public ConnectionThrottle(NetworkLoadSnapshot peersNetworkLoadSnapshot,
                               NetworkLoadSnapshot myNetworkLoadSnapshot,
                               Node.Config config) {
-        this.peersNetworkLoadSnapshot = peersNetworkLoadSnapshot;
-        this.myNetworkLoadSnapshot = myNetworkLoadSnapshot;
-        sendMessageThrottleTime = config.getSendMessageThrottleTime(); // default 200
-        receiveMessageThrottleTime = config.getReceiveMessageThrottleTime(); // default 200
+        this(peersNetworkLoadSnapshot, myNetworkLoadSnapshot, config, DEFAULT_PRIORITY_MESSAGE_CLASSES);
+    }
+
+    public ConnectionThrottle(NetworkLoadSnapshot peersNetworkLoadSnapshot,
+                              NetworkLoadSnapshot myNetworkLoadSnapshot,
+                              Node.Config config,
+                              Set<Class<? extends EnvelopePayloadMessage>> priorityMessageClasses) {
+        this.priorityMessageClasses = priorityMessageClasses;
+        sendTokenBucket = new TokenBucket(peersNetworkLoadSnapshot, config.getSendMessageThrottleTime()); // default 200
+        receiveTokenBucket = new TokenBucket(myNetworkLoadSnapshot, config.getReceiveMessageThrottleTime()); // default 200
+    }
+
+    public boolean isPriorityMessage(EnvelopePayloadMessage envelopePayloadMessage) {
+        return priorityMessageClasses.contains(envelopePayloadMessage.getClass());
     }
 
-    void throttleSendMessage() {
-        throttle(sendMessageTimestamp, peersNetworkLoadSnapshot, sendMessageThrottleTime, "send");
+    /**
+     * @return The delay in ms after which the message can be sent. Priority messages are never delayed.
+     */
+    long reserveSendSlot(EnvelopePayloadMessage envelopePayloadMessage) {
+        return reserve(sendTokenBucket, sendDelayHistogram, envelopePayloadMessage, "send");
     }
 
-    void throttleReceiveMessage() {
-        throttle(receiveMessageTimestamp, myNetworkLoadSnapshot, receiveMessageThrottleTime, "receive");
+    /**
+     * @return The delay in ms after which the message can be passed to the handler. Priority messages are never delayed.
+     */
+    long reserveReceiveSlot(EnvelopePayloadMessage envelopePayloadMessage) {
+        return reserve(receiveTokenBucket, receiveDelayHistogram, envelopePayloadMessage, "receive");
     }
 
-    private void throttle(AtomicLong timestamp, NetworkLoadSnapshot networkLoadSnapshot, long throttleTime, String direction) {
+    private long reserve(TokenBucket tokenBucket,
+                         DelayHistogram delayHistogram,
+                         EnvelopePayloadMessage envelopePayloadMessage,
+                         String direction) {
+        if (isPriorityMessage(envelopePayloadMessage)) {
+            delayHistogram.add(0);
+            return 0;
+        }
         long now = System.currentTimeMillis();
-        long passed = now - timestamp.get();
+        long delay = tokenBucket.reserve(now);
+        delayHistogram.add(delay);
+        if (delay > 0) {
+            logDelay(direction, delay, tokenBucket.networkLoadSnapshot, now);
+        }
+        return delay;
+    }
+
+    private static void logDelay(String direction, long delay, NetworkLoadSnapshot networkLoadSnapshot, long now) {
         double load = networkLoadSnapshot.getCurrentNetworkLoad().getLoad();
-        throttleTime = MIN_THROTTLE_TIME + Math.round(throttleTime * load);
-        throttleTime = MathUtils.bounded(MIN_THROTTLE_TIME, MAX_THROTTLE_TIME, throttleTime);
-        if (passed < throttleTime) {
-            try {
-                long pause = throttleTime - passed;
-                pause = MathUtils.bounded(1, MAX_THROTTLE_TIME, pause);
-                String logMessage = String.format("Pause '%s' message for %d ms. Network=%f", direction, pause, load);
-                long passedSinceLastLog = now - lastLoggedTs.get();
-                if (passedSinceLastLog < MAX_LOG_FREQUENCY) {
-                    LAST_LOGS.add(logMessage);
-                    if (lastLoggedTs.get() == 0) {
-                        lastLoggedTs.set(now);
-                    }
-                } else {
-                    if (LAST_LOGS.isEmpty()) {
-                        log.info(logMessage);
-                    } else {
-                        LAST_LOGS.add(logMessage);
-                        List<String> temp = new ArrayList<>(LAST_LOGS);
-                        int size = temp.size();
-                        List<String> subList = temp.subList(0, Math.min(5, size));
-                        log.info("{} accumulated log messages in the past {} sec. Log message (max 5 displayed): {}",
-                                size, passedSinceLastLog / 1000, subList);
-                        LAST_LOGS.clear();
-                    }
-                    lastLoggedTs.set(now);
-                }
-                Thread.sleep(pause);
-            } catch (InterruptedException ignore) {
+        String logMessage = String.format("Delay '%s' message for %d ms. Network=%f", direction, delay, load);
+        long passedSinceLastLog = now - lastLoggedTs.get();
+        if (passedSinceLastLog < MAX_LOG_FREQUENCY) {
+            LAST_LOGS.add(logMessage);
+            if (lastLoggedTs.get() == 0) {
+                lastLoggedTs.set(now);
+            }
+        } else {
+            if (LAST_LOGS.isEmpty()) {
+                log.info(logMessage);
+            } else {
+                LAST_LOGS.add(logMessage);
+                List<String> temp = new ArrayList<>(LAST_LOGS);
+                int size = temp.size();
+                List<String> subList = temp.subList(0, Math.min(5, size));
+                log.info("{} accumulated log messages in the past {} sec. Log message (max 5 displayed): {}",
+                        size, passedSinceLastLog / 1000, subList);
+                LAST_LOGS.clear();
             }
+            lastLoggedTs.set(now);
         }
-        timestamp.set(now);
     }
 }
@@ -49,4 +49,23 @@ public class InboundConnection extends Connection {
         this.serverSocketResult = serverSocketResult;
         log.debug("Create inboundConnection from server: {}", serverSocketResult);
     }
+
+    InboundConnection(SelectableSocket selectableSocket,
+                      ServerSocketResult serverSocketResult,
+                      Capability peersCapability,
+                      NetworkLoadSnapshot peersNetworkLoadSnapshot,
+                      ConnectionMetrics connectionMetrics,
+                      ConnectionThrottle connectionThrottle,
+                      Handler handler,
+                      BiConsumer<Connection, Exception> errorHandler) {
+        super(selectableSocket,
+                peersCapability,
+                peersNetworkLoadSnapshot,
+                connectionMetrics,
+                connectionThrottle,
+                handler,
+                errorHandler);
+        this.serverSocketResult = serverSocketResult;
+        log.debug("Create inboundConnection from server: {}", serverSocketResult);
+    }
 }
@@ -18,6 +18,7 @@
 package bisq.network.p2p.node;
 
 
+import bisq.common.data.Pair;
 import bisq.common.observable.Observable;
 import bisq.common.util.CompletableFutureUtils;
 import bisq.common.util.ExceptionUtil;
@@ -28,6 +29,7 @@ import bisq.network.common.TransportConfig;
 import bisq.network.common.TransportType;
 import bisq.network.identity.NetworkId;
 import bisq.network.p2p.message.EnvelopePayloadMessage;
+import bisq.network.p2p.message.NetworkEnvelope;
 import bisq.network.p2p.node.authorization.AuthorizationService;
 import bisq.network.p2p.node.authorization.AuthorizationToken;
 import bisq.network.p2p.node.handshake.ConnectionHandshake;
@@ -46,11 +48,15 @@ import lombok.Setter;
 import lombok.ToString;
 import lombok.extern.slf4j.Slf4j;
 
+import javax.annotation.Nullable;
+import java.io.Closeable;
 import java.io.EOFException;
 import java.io.IOException;
 import java.net.*;
+import java.nio.channels.SocketChannel;
 import java.time.Duration;
 import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
@@ -58,6 +64,7 @@ import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArraySet;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
 import java.util.stream.Stream;
 
 import static bisq.network.NetworkService.DISPATCHER;
@@ -65,6 +72,7 @@ import static bisq.network.p2p.node.ConnectionException.Reason.ADDRESS_BANNED;
 import static bisq.network.p2p.node.ConnectionException.Reason.HANDSHAKE_FAILED;
 import static bisq.network.p2p.node.Node.State.*;
 import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
 import static java.util.concurrent.CompletableFuture.runAsync;
 import static java.util.concurrent.TimeUnit.SECONDS;
 
@@ -82,6 +90,9 @@ import static java.util.concurrent.TimeUnit.SECONDS;
 @Slf4j
 @EqualsAndHashCode(onlyExplicitlyIncluded = true)
 public class Node implements Connection.Handler {
+    // Must stay below the timeout used at closeConnectionGracefullyAsync
+    private static final long MAX_WAIT_FOR_QUEUED_MESSAGES = SECONDS.toMillis(2);
+
     @Setter
     public static int preferredVersion = 1;
 
@@ -174,6 +185,9 @@ public class Node implements Connection.Handler {
     @Getter
     public final NetworkLoadSnapshot networkLoadSnapshot;
     private final Config config;
+    private final int numSelectorThreads; // Only set for clearnet, otherwise it is 0
+    @Nullable
+    private volatile SelectorLoopGroup selectorLoopGroup;
 
     public Node(NetworkId networkId,
                 boolean isDefaultNode,
@@ -196,6 +210,8 @@ public class Node implements Connection.Handler {
         this.transportService = transportService;
         this.authorizationService = authorizationService;
         this.networkLoadSnapshot = networkLoadSnapshot;
+        numSelectorThreads = transportType == TransportType.CLEAR ?
+                config.getTransportConfig().getNumSelectorThreads() : 0;
 
         retryPolicy = RetryPolicy.<Boolean>builder()
                 .handle(IllegalStateException.class)
@@ -251,13 +267,24 @@ public class Node implements Connection.Handler {
     private void createServerAndListen() {
         ServerSocketResult serverSocketResult = transportService.getServerSocket(networkId, keyBundle);
         myCapability = Optional.of(Capability.myCapability(serverSocketResult.getAddress(), new ArrayList<>(supportedTransportTypes), new ArrayList<>(features)));
-        server = Optional.of(new Server(serverSocketResult,
-                socket -> onClientSocket(socket, serverSocketResult, myCapability.get()),
-                exception -> {
-                    handleException(exception);
-                    // If server fails we shut down the node
-                    shutdown();
-                }));
+        Consumer<Exception> exceptionHandler = exception -> {
+            handleException(exception);
+            // If server fails we shut down the node
+            shutdown();
+        };
+        if (numSelectorThreads > 0 && serverSocketResult.getServerSocket().getChannel() != null) {
+            if (selectorLoopGroup == null) {
+                selectorLoopGroup = SelectorLoopGroup.acquire(numSelectorThreads);
+            }
+            server = Optional.of(new Server(serverSocketResult,
+                    selectorLoopGroup.next(),
+                    socketChannel -> onClientSocketChannel(socketChannel, serverSocketResult, myCapability.get()),
+                    exceptionHandler));
+        } else {
+            server = Optional.of(new Server(serverSocketResult,
+                    socket -> onClientSocket(socket, serverSocketResult, myCapability.get()),
+                    exceptionHandler));
+        }
     }
 
     private void onClientSocket(Socket socket, ServerSocketResult serverSocketResult, Capability myCapability) {
@@ -298,14 +325,7 @@ public class Node implements Connection.Handler {
                     connectionThrottle,
                     this,
                     this::handleException);
-            inboundConnectionsByAddress.put(connection.getPeerAddress(), connection);
-            DISPATCHER.submit(() -> listeners.forEach(listener -> {
-                try {
-                    listener.onConnection(connection);
-                } catch (Exception e) {
-                    log.error("Calling onConnection at listener {} failed", listener, e);
-                }
-            }));
+            addInboundConnection(connection);
         } catch (Throwable throwable) {
             connectionHandshake.shutdown();
             connectionHandshakes.remove(connectionHandshake.getId());
@@ -318,6 +338,125 @@ public class Node implements Connection.Handler {
         }
     }
 
+    // In selector mode the handshake request is read by the selector thread. Verifying the request and creating the
+    // response requires PoW, therefore we do that at the NETWORK_IO_POOL and only pass the response to the write queue.
+    private void onClientSocketChannel(SocketChannel socketChannel,
+                                       ServerSocketResult serverSocketResult,
+                                       Capability myCapability) {
+        SelectableSocket selectableSocket;
+        try {
+            selectableSocket = new SelectableSocket(socketChannel, checkNotNull(selectorLoopGroup).next());
+        } catch (Exception e) {
+            closeQuietly(socketChannel);
+            handleException(e);
+            return;
+        }
+
+        ConnectionHandshake connectionHandshake = new ConnectionHandshake(banList,
+                myCapability,
+                authorizationService,
+                keyBundle);
+        String handshakeId = connectionHandshake.getId();
+        connectionHandshakes.put(handshakeId, connectionHandshake);
+        log.debug("Inbound handshake request at: {}", myCapability.getAddress());
+
+        // Whoever removes the handshake first from connectionHandshakes completes it
+        selectableSocket.getSelectorLoop().schedule(() -> {
+            if (connectionHandshakes.remove(handshakeId) != null) {
+                closeQuietly(selectableSocket);
+                handleException(new SocketTimeoutException("Inbound handshake did not complete in " + socketTimeout + " ms"));
+            }
+        }, socketTimeout);
+
+        selectableSocket.register(new SelectableSocket.Listener() {
+            @Override
+            public void onNetworkEnvelopes(List<NetworkEnvelope> networkEnvelopes, long deserializeTime) {
+                // We continue reading once the connection has been created
+                selectableSocket.pauseReading();
+                NetworkService.NETWORK_IO_POOL.submit(() -> onHandshakeRequest(networkEnvelopes,
+                        deserializeTime,
+                        connectionHandshake,
+                        selectableSocket,
+                        serverSocketResult,
+                        myCapability));
+            }
+
+            @Override
+            public void onClosed(Exception exception) {
+                if (connectionHandshakes.remove(handshakeId) != null) {
+                    handleException(exception);
+                }
+            }
+        });
+    }
+
+    private void onHandshakeRequest(List<NetworkEnvelope> networkEnvelopes,
+                                    long deserializeTime,
+                                    ConnectionHandshake connectionHandshake,
+                                    SelectableSocket selectableSocket,
+                                    ServerSocketResult serverSocketResult,
+                                    Capability myCapability) {
+        try {
+            if (networkEnvelopes.size() != 1) {
+                throw new ConnectionException("Expected the handshake request as the only message but received " +
+                        networkEnvelopes.size() + " messages");
+            }
+            Pair<ConnectionHandshake.Result, NetworkEnvelope> resultAndResponse = connectionHandshake.onRequest(networkEnvelopes.get(0),
+                    deserializeTime,
+                    networkLoadSnapshot.getCurrentNetworkLoad());
+            if (connectionHandshakes.remove(connectionHandshake.getId()) == null) {
+                // Timed out, closed by peer or we got shut down
+                closeQuietly(selectableSocket);
+                return;
+            }
+
+            ConnectionHandshake.Result result = resultAndResponse.getFirst();
+            NetworkEnvelope responseNetworkEnvelope = resultAndResponse.getSecond();
+            long ts = System.currentTimeMillis();
+            selectableSocket.send(responseNetworkEnvelope);
+            result.getConnectionMetrics().onSent(responseNetworkEnvelope, System.currentTimeMillis() - ts);
+
+            Address address = result.getPeersCapability().getAddress();
+            log.debug("Inbound handshake completed: Initiated by {} to {}", address, myCapability.getAddress());
+
+            // As time passed we check again if connection is still not available
+            if (inboundConnectionsByAddress.containsKey(address)) {
+                log.warn("Have already an InboundConnection from {}. This can happen when a " +
+                        "handshake was in progress while we received a new connection from that address. " +
+                        "We will close the socket of that new connection and use the existing instead.", address);
+                closeQuietly(selectableSocket);
+                return;
+            }
+
+            NetworkLoadSnapshot peersNetworkLoadSnapshot = new NetworkLoadSnapshot(result.getPeersNetworkLoad());
+            ConnectionThrottle connectionThrottle = new ConnectionThrottle(peersNetworkLoadSnapshot, networkLoadSnapshot, config);
+            InboundConnection connection = new InboundConnection(selectableSocket,
+                    serverSocketResult,
+                    result.getPeersCapability(),
+                    peersNetworkLoadSnapshot,
+                    result.getConnectionMetrics(),
+                    connectionThrottle,
+                    this,
+                    this::handleException);
+            addInboundConnection(connection);
+        } catch (Throwable throwable) {
+            connectionHandshakes.remove(connectionHandshake.getId());
+            closeQuietly(selectableSocket);
+            handleException(throwable);
+        }
+    }
+
+    private void addInboundConnection(InboundConnection connection) {
+        inboundConnectionsByAddress.put(connection.getPeerAddress(), connection);
+        DISPATCHER.submit(() -> listeners.forEach(listener -> {
+            try {
+                listener.onConnection(connection);
+            } catch (Exception e) {
+                log.error("Calling onConnection at listener {} failed", listener, e);
+            }
+        }));
+    }
+
     public void onNewIncomingConnection(InboundConnectionChannel inboundConnectionChannel) {
         try {
             // inboundConnectionsByAddress.put(inboundConnectionChannel.getPeerAddress(), inboundConnectionChannel);
@@ -343,6 +482,23 @@ public class Node implements Connection.Handler {
     }
 
     public Connection send(EnvelopePayloadMessage envelopePayloadMessage, Connection connection) {
+        doSend(envelopePayloadMessage, connection);
+        return connection;
+    }
+
+    /**
+     * Unlike send, the returned future reports also failures which happen after this method has returned: of messages
+     * which got delayed by the throttle, and in selector mode of writing the message to the socket.
+     */
+    public CompletableFuture<Connection> sendAsync(EnvelopePayloadMessage envelopePayloadMessage, Connection connection) {
+        try {
+            return doSend(envelopePayloadMessage, connection);
+        } catch (Exception exception) {
+            return CompletableFuture.failedFuture(exception);
+        }
+    }
+
+    private CompletableFuture<Connection> doSend(EnvelopePayloadMessage envelopePayloadMessage, Connection connection) {
         if (connection.isStopped()) {
             log.debug("Send message failed as connection is already stopped {}", this);
             throw new ConnectionClosedException(connection);
@@ -354,7 +510,7 @@ public class Node implements Connection.Handler {
                     connection.getSentMessageCounter().incrementAndGet(),
                     connection.getPeersCapability().getFeatures());
             maybeSimulateDelay();
-            return connection.send(envelopePayloadMessage, token);
+            return connection.sendAsync(envelopePayloadMessage, token);
         } catch (Exception exception) {
             if (connection.isRunning() && !(exception.getCause() instanceof SocketException)) {
                 handleException(connection, exception);
@@ -480,14 +636,28 @@ public class Node implements Connection.Handler {
 
             NetworkLoadSnapshot peersNetworkLoadSnapshot = new NetworkLoadSnapshot(result.getPeersNetworkLoad());
             ConnectionThrottle connectionThrottle = new ConnectionThrottle(peersNetworkLoadSnapshot, networkLoadSnapshot, config);
-            OutboundConnection connection = new OutboundConnection(socket,
-                    address,
-                    result.getPeersCapability(),
-                    peersNetworkLoadSnapshot,
-                    result.getConnectionMetrics(),
-                    connectionThrottle,
-                    this,
-                    this::handleException);
+            OutboundConnection connection;
+            SelectorLoopGroup selectorLoopGroup = this.selectorLoopGroup;
+            if (selectorLoopGroup != null && socket.getChannel() != null) {
+                // The handshake was done with blocking IO. From now on the socket is served by a selector thread.
+                connection = new OutboundConnection(new SelectableSocket(socket.getChannel(), selectorLoopGroup.next()),
+                        address,
+                        result.getPeersCapability(),
+                        peersNetworkLoadSnapshot,
+                        result.getConnectionMetrics(),
+                        connectionThrottle,
+                        this,
+                        this::handleException);
+            } else {
+                connection = new OutboundConnection(socket,
+                        address,
+                        result.getPeersCapability(),
+                        peersNetworkLoadSnapshot,
+                        result.getConnectionMetrics(),
+                        connectionThrottle,
+                        this,
+                        this::handleException);
+            }
             outboundConnectionsByAddress.put(address, connection);
             DISPATCHER.submit(() -> listeners.forEach(listener -> {
                 try {
@@ -648,6 +818,10 @@ public class Node implements Connection.Handler {
 
     public void closeConnectionGracefully(Connection connection, CloseReason closeReason) {
         connection.stopListening();
+        // The CloseConnectionMessage is a priority message, so we send the messages delayed by the throttle before
+        if (!connection.awaitQueuedMessagesSent(MAX_WAIT_FOR_QUEUED_MESSAGES)) {
+            log.info("Not all queued messages have been sent before closing {}", connection);
+        }
         send(new CloseConnectionMessage(closeReason), connection);
         try {
             // Give a bit of delay before we close the connection.
@@ -684,6 +858,11 @@ public class Node implements Connection.Handler {
                         }
                     });
                     listeners.clear();
+                    SelectorLoopGroup selectorLoopGroup = this.selectorLoopGroup;
+                    if (selectorLoopGroup != null) {
+                        this.selectorLoopGroup = null;
+                        SelectorLoopGroup.release(selectorLoopGroup);
+                    }
                     setState(State.TERMINATED);
                 })
                 .handle((list, throwable) -> throwable == null);
@@ -810,6 +989,13 @@ public class Node implements Connection.Handler {
         return getState().get() == STOPPING || getState().get() == TERMINATED;
     }
 
+    private static void closeQuietly(Closeable closeable) {
+        try {
+            closeable.close();
+        } catch (IOException ignore) {
+        }
+    }
+
     // Only used for clearnet
     private void maybeSimulateDelay() {
         if (devModeDelayInMs > 0) {
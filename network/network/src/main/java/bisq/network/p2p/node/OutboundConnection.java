@@ -52,6 +52,26 @@ public class OutboundConnection extends Connection {
         log.debug("Create outboundConnection to {}", address);
     }
 
+    OutboundConnection(SelectableSocket selectableSocket,
+                       Address address,
+                       Capability peersCapability,
+                       NetworkLoadSnapshot peersNetworkLoadSnapshot,
+                       ConnectionMetrics connectionMetrics,
+                       ConnectionThrottle connectionThrottle,
+                       Handler handler,
+                       BiConsumer<Connection, Exception> errorHandler) {
+        super(selectableSocket,
+                peersCapability,
+                peersNetworkLoadSnapshot,
+                connectionMetrics,
+                connectionThrottle,
+                handler,
+                errorHandler);
+
+        this.address = address;
+        log.debug("Create outboundConnection to {}", address);
+    }
+
     /**
      * @return Peer address used when connecting to the peer, NOT the address reported by the peer. This matters when
      * connecting to a clearnet seed, because the reported seed address will always be 127.0.0.1.
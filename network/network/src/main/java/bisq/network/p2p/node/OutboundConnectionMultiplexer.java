@@ -22,6 +22,7 @@ import lombok.extern.slf4j.Slf4j;
 
 import java.io.IOException;
 import java.nio.channels.CancelledKeyException;
+import java.nio.channels.ClosedSelectorException;
 import java.nio.channels.SelectionKey;
 import java.nio.channels.Selector;
 import java.nio.channels.SocketChannel;
@@ -48,13 +49,16 @@ public class OutboundConnectionMultiplexer implements OutboundConnectionManager.
     public void start() {
         outboundConnectionManager.registerListener(this);
 
-        var thread = new Thread(this::workerLoop);
+        var thread = new Thread(this::workerLoop, "OutboundConnectionMultiplexer");
+        thread.setDaemon(true);
         workerThread = Optional.of(thread);
         thread.start();
     }
 
     public void shutdown() {
         workerThread.ifPresent(Thread::interrupt);
+        // select() does not react on interrupts, so we wake it up
+        selector.wakeup();
     }
 
     public CompletableFuture<OutboundConnectionChannel> getConnection(Address address) {
@@ -82,9 +86,14 @@ public class OutboundConnectionMultiplexer implements OutboundConnectionManager.
     }
 
     private void workerLoop() {
-        while (true) {
+        while (!Thread.currentThread().isInterrupted()) {
             selectorLoop();
         }
+        try {
+            selector.close();
+        } catch (IOException e) {
+            log.warn("Closing selector failed.", e);
+        }
     }
 
     private void selectorLoop() {
@@ -117,6 +126,8 @@ public class OutboundConnectionMultiplexer implements OutboundConnectionManager.
             log.warn("IOException in OutboundConnectionMultiplexer selector.", e);
         } catch (CancelledKeyException e) {
             // Connection attempt failed. Nothing we can do here.
+        } catch (ClosedSelectorException e) {
+            Thread.currentThread().interrupt();
         }
     }
 }
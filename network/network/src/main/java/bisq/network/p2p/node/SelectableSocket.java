@@ -0,0 +1,294 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.network.p2p.node;
+
+import bisq.network.p2p.message.NetworkEnvelope;
+import bisq.network.p2p.node.envelope.NetworkEnvelopeSocketChannel;
+import com.google.protobuf.CodedOutputStream;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+import javax.annotation.Nullable;
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.SocketChannel;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Non-blocking socket channel served by a SelectorLoop.
+ * Received envelopes are passed to the listener on the loop thread.
+ * Sent envelopes are serialized on the caller thread and added to a write queue which gets written by the loop. If
+ * more than MAX_QUEUED_BYTES are queued, the sender is blocked until the peer has read enough data (back-pressure),
+ * so that a slow peer cannot make us buffer an unlimited amount of data.
+ * The future returned by send completes once the envelope has been written to the socket. If writing fails or the
+ * socket gets closed before, the futures of all queued envelopes complete exceptionally.
+ */
+@Slf4j
+final class SelectableSocket implements SelectorLoop.Handler, Closeable {
+    interface Listener {
+        void onNetworkEnvelopes(List<NetworkEnvelope> networkEnvelopes, long deserializeTime);
+
+        void onClosed(Exception exception);
+    }
+
+    private static final class PendingWrite {
+        private final ByteBuffer byteBuffer;
+        private final CompletableFuture<Void> future = new CompletableFuture<>();
+
+        private PendingWrite(ByteBuffer byteBuffer) {
+            this.byteBuffer = byteBuffer;
+        }
+    }
+
+    static final int MAX_QUEUED_BYTES = 4 * 1024 * 1024;
+    static final long MAX_SEND_BLOCKING_TIME = TimeUnit.MINUTES.toMillis(2);
+
+    @Getter
+    private final SocketChannel socketChannel;
+    @Getter
+    private final SelectorLoop selectorLoop;
+    private final NetworkEnvelopeSocketChannel networkEnvelopeSocketChannel;
+    private final Queue<PendingWrite> writeQueue = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean flushScheduled = new AtomicBoolean();
+    private final ReentrantLock writeQueueLock = new ReentrantLock();
+    private final Condition writeQueueDrained = writeQueueLock.newCondition();
+    private long numQueuedBytes;
+    private volatile boolean closed;
+    @Nullable
+    private volatile Listener listener;
+
+    // Only accessed from the loop thread
+    @Nullable
+    private SelectionKey selectionKey;
+    private boolean readingPaused;
+
+    SelectableSocket(SocketChannel socketChannel, SelectorLoop selectorLoop) throws IOException {
+        this.socketChannel = socketChannel;
+        this.selectorLoop = selectorLoop;
+        socketChannel.configureBlocking(false);
+        networkEnvelopeSocketChannel = new NetworkEnvelopeSocketChannel(socketChannel);
+    }
+
+    // Can be called again to replace the listener. In that case it must be called on the loop thread or while reading
+    // is paused. The interest ops are kept if the channel was already registered.
+    void register(Listener listener) {
+        this.listener = listener;
+        selectorLoop.register(socketChannel, SelectionKey.OP_READ, this);
+    }
+
+    CompletableFuture<Void> send(NetworkEnvelope networkEnvelope) throws IOException {
+        bisq.network.protobuf.NetworkEnvelope proto = networkEnvelope.completeProto();
+        int size = proto.getSerializedSize();
+        byte[] bytes = new byte[CodedOutputStream.computeUInt32SizeNoTag(size) + size];
+        CodedOutputStream codedOutputStream = CodedOutputStream.newInstance(bytes);
+        codedOutputStream.writeUInt32NoTag(size);
+        proto.writeTo(codedOutputStream);
+        codedOutputStream.checkNoSpaceLeft();
+
+        PendingWrite pendingWrite = new PendingWrite(ByteBuffer.wrap(bytes));
+        writeQueueLock.lock();
+        try {
+            // We must not block the loop thread, as that would also block writing the queue
+            if (!selectorLoop.isInLoop()) {
+                long remainingNanos = TimeUnit.MILLISECONDS.toNanos(MAX_SEND_BLOCKING_TIME);
+                while (!closed && numQueuedBytes > 0 && numQueuedBytes + bytes.length > MAX_QUEUED_BYTES) {
+                    if (remainingNanos <= 0) {
+                        throw new IOException("Peer did not read the queued data in time. numQueuedBytes=" + numQueuedBytes);
+                    }
+                    remainingNanos = writeQueueDrained.awaitNanos(remainingNanos);
+                }
+            }
+            if (closed || !socketChannel.isOpen()) {
+                throw new ClosedChannelException();
+            }
+            writeQueue.add(pendingWrite);
+            numQueuedBytes += bytes.length;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting for the write queue", e);
+        } finally {
+            writeQueueLock.unlock();
+        }
+
+        if (flushScheduled.compareAndSet(false, true)) {
+            selectorLoop.execute(this::flush);
+        }
+        return pendingWrite.future;
+    }
+
+    // Must be called on the loop thread
+    void pauseReading() {
+        readingPaused = true;
+        updateInterestOps();
+    }
+
+    // Must be called on the loop thread
+    void resumeReading() {
+        readingPaused = false;
+        updateInterestOps();
+    }
+
+    // Only true if close got called. If the peer closed the connection the listener gets notified first.
+    boolean isClosed() {
+        return closed;
+    }
+
+    @Override
+    public void close() throws IOException {
+        closed = true;
+        failPendingWrites(new ClosedChannelException());
+        socketChannel.close();
+    }
+
+    @Override
+    public String toString() {
+        return "SelectableSocket[" + socketChannel + "]";
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////////////
+    // SelectorLoop.Handler
+    ///////////////////////////////////////////////////////////////////////////////////////////////////
+
+    @Override
+    public void onRegistered(SelectionKey selectionKey) {
+        this.selectionKey = selectionKey;
+        updateInterestOps();
+    }
+
+    @Override
+    public void onReady(SelectionKey selectionKey) throws IOException {
+        if (selectionKey.isWritable()) {
+            flush();
+        }
+        if (selectionKey.isValid() && selectionKey.isReadable() && !readingPaused) {
+            read();
+        }
+    }
+
+    @Override
+    public void onException(Exception exception) {
+        // If we closed the socket ourselves we do not notify the listener
+        if (closed) {
+            return;
+        }
+        Listener listener = this.listener;
+        if (listener != null) {
+            listener.onClosed(exception);
+        }
+        try {
+            close();
+        } catch (IOException ignore) {
+        }
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////////////
+    // Private
+    ///////////////////////////////////////////////////////////////////////////////////////////////////
+
+    private void read() throws IOException {
+        long ts = System.currentTimeMillis();
+        List<NetworkEnvelope> networkEnvelopes = networkEnvelopeSocketChannel.receiveNetworkEnvelopes();
+        if (!socketChannel.isOpen()) {
+            // End of stream
+            onException(new EOFException("Connection closed by peer"));
+            return;
+        }
+        if (!networkEnvelopes.isEmpty()) {
+            long deserializeTime = (System.currentTimeMillis() - ts) / networkEnvelopes.size();
+            Listener listener = this.listener;
+            if (listener != null) {
+                listener.onNetworkEnvelopes(networkEnvelopes, deserializeTime);
+            }
+        }
+    }
+
+    private void flush() {
+        flushScheduled.set(false);
+        try {
+            PendingWrite pendingWrite;
+            while ((pendingWrite = writeQueue.peek()) != null) {
+                int numWrittenBytes = socketChannel.write(pendingWrite.byteBuffer);
+                if (numWrittenBytes > 0) {
+                    onBytesWritten(numWrittenBytes);
+                }
+                if (pendingWrite.byteBuffer.hasRemaining()) {
+                    // Socket send buffer is full. We continue when the channel becomes writable.
+                    break;
+                }
+                writeQueue.poll();
+                pendingWrite.future.complete(null);
+            }
+            updateInterestOps();
+        } catch (IOException e) {
+            failPendingWrites(e);
+            onException(e);
+        }
+    }
+
+    private void onBytesWritten(int numWrittenBytes) {
+        writeQueueLock.lock();
+        try {
+            numQueuedBytes -= numWrittenBytes;
+            writeQueueDrained.signalAll();
+        } finally {
+            writeQueueLock.unlock();
+        }
+    }
+
+    // Called after closed got set or the socket failed, so no envelopes get added anymore
+    private void failPendingWrites(IOException exception) {
+        writeQueueLock.lock();
+        try {
+            PendingWrite pendingWrite;
+            while ((pendingWrite = writeQueue.poll()) != null) {
+                pendingWrite.future.completeExceptionally(exception);
+            }
+            numQueuedBytes = 0;
+            writeQueueDrained.signalAll();
+        } finally {
+            writeQueueLock.unlock();
+        }
+    }
+
+    private void updateInterestOps() {
+        if (selectionKey == null || !selectionKey.isValid()) {
+            return;
+        }
+        int interestOps = 0;
+        if (!readingPaused) {
+            interestOps |= SelectionKey.OP_READ;
+        }
+        if (!writeQueue.isEmpty()) {
+            interestOps |= SelectionKey.OP_WRITE;
+        }
+        selectionKey.interestOps(interestOps);
+    }
+}
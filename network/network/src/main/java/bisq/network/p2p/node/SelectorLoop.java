@@ -0,0 +1,210 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.network.p2p.node;
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.nio.channels.CancelledKeyException;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.SelectableChannel;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.PriorityQueue;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Event loop running a Selector on a single thread. Channels get registered with a Handler which is called on the
+ * loop thread when the channel is ready. Tasks and delayed tasks are executed on the loop thread as well, so state
+ * which is only accessed from the loop does not need to be synchronized.
+ * Handlers must not block, as that would delay all other channels of that loop.
+ */
+@Slf4j
+final class SelectorLoop {
+    interface Handler {
+        default void onRegistered(SelectionKey selectionKey) {
+        }
+
+        void onReady(SelectionKey selectionKey) throws IOException;
+
+        void onException(Exception exception);
+    }
+
+    private static final class DelayedTask {
+        private final long deadline;
+        private final long sequenceNumber;
+        private final Runnable task;
+
+        private DelayedTask(long deadline, long sequenceNumber, Runnable task) {
+            this.deadline = deadline;
+            this.sequenceNumber = sequenceNumber;
+            this.task = task;
+        }
+    }
+
+    @Getter
+    private final String name;
+    private final Selector selector;
+    private final Thread thread;
+    private final Queue<Runnable> tasks = new ConcurrentLinkedQueue<>();
+    // Only accessed from the loop thread
+    private final PriorityQueue<DelayedTask> delayedTasks = new PriorityQueue<>(
+            Comparator.<DelayedTask>comparingLong(delayedTask -> delayedTask.deadline)
+                    .thenComparingLong(delayedTask -> delayedTask.sequenceNumber));
+    private long delayedTaskSequenceNumber;
+    private volatile boolean stopped;
+
+    SelectorLoop(String name) throws IOException {
+        this.name = name;
+        selector = Selector.open();
+        thread = new Thread(this::run, name);
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    void execute(Runnable task) {
+        if (stopped) {
+            throw new RejectedExecutionException("SelectorLoop " + name + " is stopped");
+        }
+        tasks.add(task);
+        if (!isInLoop()) {
+            selector.wakeup();
+        }
+    }
+
+    void schedule(Runnable task, long delayInMs) {
+        long deadline = System.currentTimeMillis() + delayInMs;
+        execute(() -> delayedTasks.add(new DelayedTask(deadline, delayedTaskSequenceNumber++, task)));
+    }
+
+    void register(SelectableChannel channel, int interestOps, Handler handler) {
+        execute(() -> {
+            try {
+                SelectionKey selectionKey = channel.register(selector, interestOps, handler);
+                handler.onRegistered(selectionKey);
+            } catch (ClosedChannelException e) {
+                handler.onException(e);
+            }
+        });
+    }
+
+    boolean isInLoop() {
+        return Thread.currentThread() == thread;
+    }
+
+    int getNumChannels() {
+        return selector.keys().size();
+    }
+
+    void shutdown() {
+        if (stopped) {
+            return;
+        }
+        stopped = true;
+        selector.wakeup();
+    }
+
+    private void run() {
+        while (!stopped) {
+            try {
+                long timeout = runDelayedTasks();
+                if (!tasks.isEmpty()) {
+                    selector.selectNow();
+                } else {
+                    selector.select(timeout);
+                }
+                handleSelectedKeys();
+                runTasks();
+            } catch (Throwable throwable) {
+                // We must not terminate the loop, as all other channels would not be served anymore
+                if (!stopped) {
+                    log.error("Unexpected exception in SelectorLoop {}", name, throwable);
+                }
+            }
+        }
+        closeChannels();
+    }
+
+    private void handleSelectedKeys() {
+        Iterator<SelectionKey> iterator = selector.selectedKeys().iterator();
+        while (iterator.hasNext()) {
+            SelectionKey selectionKey = iterator.next();
+            iterator.remove();
+            Handler handler = (Handler) selectionKey.attachment();
+            try {
+                if (selectionKey.isValid()) {
+                    handler.onReady(selectionKey);
+                }
+            } catch (CancelledKeyException ignore) {
+                // Channel got closed while we handled it
+            } catch (Exception exception) {
+                handler.onException(exception);
+            }
+        }
+    }
+
+    private void runTasks() {
+        Runnable task;
+        while (!stopped && (task = tasks.poll()) != null) {
+            try {
+                task.run();
+            } catch (Exception e) {
+                log.error("Task at SelectorLoop {} failed", name, e);
+            }
+        }
+    }
+
+    // Returns the time in ms until the next delayed task is due, or 0 if there is none.
+    private long runDelayedTasks() {
+        while (!delayedTasks.isEmpty()) {
+            DelayedTask delayedTask = delayedTasks.peek();
+            long remaining = delayedTask.deadline - System.currentTimeMillis();
+            if (remaining > 0) {
+                return remaining;
+            }
+            delayedTasks.poll();
+            try {
+                delayedTask.task.run();
+            } catch (Exception e) {
+                log.error("Delayed task at SelectorLoop {} failed", name, e);
+            }
+        }
+        return 0;
+    }
+
+    private void closeChannels() {
+        tasks.clear();
+        delayedTasks.clear();
+        try {
+            for (SelectionKey selectionKey : selector.keys()) {
+                try {
+                    selectionKey.channel().close();
+                } catch (IOException ignore) {
+                }
+            }
+            selector.close();
+        } catch (Exception e) {
+            log.warn("Closing selector of SelectorLoop {} failed", name, e);
+        }
+    }
+}
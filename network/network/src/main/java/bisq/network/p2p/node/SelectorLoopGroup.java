@@ -0,0 +1,90 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.network.p2p.node;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Fixed number of SelectorLoops shared by all nodes in selector mode. Channels are assigned round-robin to the loops.
+ * The group is created by the first node which acquires it and shut down when the last node released it.
+ */
+@Slf4j
+final class SelectorLoopGroup {
+    private static SelectorLoopGroup shared;
+    private static int numUsers;
+
+    static synchronized SelectorLoopGroup acquire(int numThreads) {
+        if (shared == null) {
+            shared = new SelectorLoopGroup(numThreads);
+        } else if (shared.getNumThreads() != numThreads) {
+            log.warn("SelectorLoopGroup was created with {} threads. Requested number of threads {} is ignored.",
+                    shared.getNumThreads(), numThreads);
+        }
+        numUsers++;
+        return shared;
+    }
+
+    static synchronized void release(SelectorLoopGroup selectorLoopGroup) {
+        if (selectorLoopGroup != shared) {
+            return;
+        }
+        numUsers--;
+        if (numUsers <= 0) {
+            shared.shutdown();
+            shared = null;
+            numUsers = 0;
+        }
+    }
+
+    private final List<SelectorLoop> selectorLoops = new ArrayList<>();
+    private final AtomicInteger index = new AtomicInteger();
+
+    SelectorLoopGroup(int numThreads) {
+        try {
+            for (int i = 0; i < numThreads; i++) {
+                selectorLoops.add(new SelectorLoop("SelectorLoop-" + (i + 1)));
+            }
+        } catch (IOException e) {
+            shutdown();
+            throw new UncheckedIOException(e);
+        }
+        log.info("Created SelectorLoopGroup with {} threads", numThreads);
+    }
+
+    SelectorLoop next() {
+        return selectorLoops.get(Math.floorMod(index.getAndIncrement(), selectorLoops.size()));
+    }
+
+    int getNumThreads() {
+        return selectorLoops.size();
+    }
+
+    int getNumChannels() {
+        return selectorLoops.stream().mapToInt(SelectorLoop::getNumChannels).sum();
+    }
+
+    void shutdown() {
+        selectorLoops.forEach(SelectorLoop::shutdown);
+    }
+}
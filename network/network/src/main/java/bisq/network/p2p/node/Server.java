@@ -24,18 +24,25 @@ import bisq.network.p2p.node.transport.ServerSocketResult;
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 
+import javax.annotation.Nullable;
 import java.io.IOException;
 import java.net.ServerSocket;
 import java.net.Socket;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
 import java.util.concurrent.Future;
 import java.util.function.Consumer;
 
+import static com.google.common.base.Preconditions.checkNotNull;
+
 @Slf4j
 public final class Server {
     private final ServerSocket serverSocket;
     @Getter
     private final Address address;
     private volatile boolean isStopped;
+    @Nullable
     private final Future<?> future;
 
     Server(ServerSocketResult serverSocketResult, Consumer<Socket> socketHandler, Consumer<Exception> exceptionHandler) {
@@ -66,13 +73,54 @@ public final class Server {
         });
     }
 
+    // Selector mode: New connections are accepted on the selector thread and passed as non-blocking channels to the
+    // handler.
+    Server(ServerSocketResult serverSocketResult,
+           SelectorLoop selectorLoop,
+           Consumer<SocketChannel> socketChannelHandler,
+           Consumer<Exception> exceptionHandler) {
+        serverSocket = serverSocketResult.getServerSocket();
+        address = serverSocketResult.getAddress();
+        future = null;
+        log.debug("Create server in selector mode: {}", serverSocketResult);
+        ServerSocketChannel serverSocketChannel = checkNotNull(serverSocket.getChannel(),
+                "ServerSocket must be created from a ServerSocketChannel in selector mode");
+        try {
+            serverSocketChannel.configureBlocking(false);
+        } catch (IOException e) {
+            exceptionHandler.accept(e);
+            shutdown();
+            return;
+        }
+        selectorLoop.register(serverSocketChannel, SelectionKey.OP_ACCEPT, new SelectorLoop.Handler() {
+            @Override
+            public void onReady(SelectionKey selectionKey) throws IOException {
+                SocketChannel socketChannel;
+                while (isNotStopped() && (socketChannel = serverSocketChannel.accept()) != null) {
+                    log.debug("Accepted new connection on server: {}", serverSocketResult);
+                    socketChannelHandler.accept(socketChannel);
+                }
+            }
+
+            @Override
+            public void onException(Exception exception) {
+                if (!isStopped) {
+                    exceptionHandler.accept(exception);
+                    shutdown();
+                }
+            }
+        });
+    }
+
     void shutdown() {
         log.info("shutdown {}", address);
         if (isStopped) {
             return;
         }
         isStopped = true;
-        future.cancel(true);
+        if (future != null) {
+            future.cancel(true);
+        }
         try {
             serverSocket.close();
         } catch (IOException ignore) {
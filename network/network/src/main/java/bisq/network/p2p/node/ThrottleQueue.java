@@ -0,0 +1,188 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.network.p2p.node;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * Holds back items which got delayed by the ConnectionThrottle and passes them in order to the consumer once they are
+ * due. No thread is blocked while waiting, instead the next drain is scheduled with the given DelayScheduler.
+ * Items are only passed directly to the caller if no other item is queued, so that the order is preserved.
+ */
+@Slf4j
+final class ThrottleQueue<T> {
+    interface DelayScheduler {
+        void schedule(Runnable task, long delayInMs);
+    }
+
+    private static final class Entry<T> {
+        private final T item;
+        private final long dueTime;
+
+        private Entry(T item, long dueTime) {
+            this.item = item;
+            this.dueTime = dueTime;
+        }
+    }
+
+    private final Consumer<T> consumer;
+    private final DelayScheduler delayScheduler;
+    private final Queue<Entry<T>> queue = new ArrayDeque<>();
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition drained = lock.newCondition();
+    // True while a drain is scheduled or running. Guarded by lock.
+    private boolean draining;
+    // True while a polled item is passed to the consumer. Guarded by lock.
+    private boolean consuming;
+
+    ThrottleQueue(Consumer<T> consumer, DelayScheduler delayScheduler) {
+        this.consumer = consumer;
+        this.delayScheduler = delayScheduler;
+    }
+
+    /**
+     * @return false if the item is not delayed and no other item is queued. In that case the caller has to pass the
+     * item to the consumer itself.
+     */
+    boolean offer(T item, long delay) {
+        lock.lock();
+        try {
+            if (!draining && delay <= 0) {
+                return false;
+            }
+            queue.add(new Entry<>(item, System.currentTimeMillis() + Math.max(0, delay)));
+            if (!draining) {
+                delayScheduler.schedule(this::drain, delay);
+                draining = true;
+            }
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    int size() {
+        lock.lock();
+        try {
+            return queue.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Blocks the calling thread until less than maxSize items are queued. Must not be called from a thread which
+     * is used for draining the queue.
+     *
+     * @return false if the timeout elapsed before.
+     */
+    boolean awaitSizeBelow(int maxSize, long timeoutInMs) throws InterruptedException {
+        lock.lock();
+        try {
+            long remainingNanos = TimeUnit.MILLISECONDS.toNanos(timeoutInMs);
+            while (queue.size() >= maxSize) {
+                if (remainingNanos <= 0) {
+                    return false;
+                }
+                remainingNanos = drained.awaitNanos(remainingNanos);
+            }
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Blocks the calling thread until all queued items have been passed to the consumer and the consumer has returned.
+     * Must not be called from a thread which is used for draining the queue.
+     *
+     * @return false if the timeout elapsed before.
+     */
+    boolean awaitEmpty(long timeoutInMs) throws InterruptedException {
+        lock.lock();
+        try {
+            long remainingNanos = TimeUnit.MILLISECONDS.toNanos(timeoutInMs);
+            while (!queue.isEmpty() || consuming) {
+                if (remainingNanos <= 0) {
+                    return false;
+                }
+                remainingNanos = drained.awaitNanos(remainingNanos);
+            }
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return The items which have been removed from the queue without being passed to the consumer.
+     */
+    List<T> clear() {
+        lock.lock();
+        try {
+            List<T> removed = new ArrayList<>(queue.size());
+            queue.forEach(entry -> removed.add(entry.item));
+            queue.clear();
+            drained.signalAll();
+            return removed;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void drain() {
+        while (true) {
+            Entry<T> entry;
+            lock.lock();
+            try {
+                consuming = false;
+                entry = queue.peek();
+                if (entry == null) {
+                    draining = false;
+                    drained.signalAll();
+                    return;
+                }
+                long wait = entry.dueTime - System.currentTimeMillis();
+                if (wait > 0) {
+                    delayScheduler.schedule(this::drain, wait);
+                    return;
+                }
+                queue.poll();
+                consuming = true;
+                drained.signalAll();
+            } finally {
+                lock.unlock();
+            }
+
+            try {
+                consumer.accept(entry.item);
+            } catch (Exception e) {
+                log.error("Consumer of ThrottleQueue failed", e);
+            }
+        }
+    }
+}
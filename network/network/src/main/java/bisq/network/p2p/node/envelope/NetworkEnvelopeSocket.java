@@ -19,12 +19,16 @@ package bisq.network.p2p.node.envelope;
 
 import bisq.network.common.PeerSocket;
 import bisq.network.p2p.message.NetworkEnvelope;
+import bisq.network.p2p.node.envelope.parser.ByteBufferPool;
+import com.google.protobuf.CodedInputStream;
 import lombok.extern.slf4j.Slf4j;
 
 import java.io.Closeable;
+import java.io.EOFException;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.nio.ByteBuffer;
 
 @Slf4j
 public class NetworkEnvelopeSocket implements Closeable {
@@ -43,8 +47,32 @@ public class NetworkEnvelopeSocket implements Closeable {
         outputStream.flush();
     }
 
+    /**
+     * Reads the length delimited envelope into a pooled buffer and parses it from there. The length is checked against
+     * the max. envelope size before we allocate the buffer.
+     *
+     * @return The envelope or null if the end of the stream was reached.
+     */
     public bisq.network.protobuf.NetworkEnvelope receiveNextEnvelope() throws IOException {
-        return bisq.network.protobuf.NetworkEnvelope.parseDelimitedFrom(inputStream);
+        int firstByte = inputStream.read();
+        if (firstByte == -1) {
+            return null;
+        }
+        int length = CodedInputStream.readRawVarint32(firstByte, inputStream);
+        if (length < 0 || length > NetworkEnvelope.MAX_SIZE) {
+            throw new IOException("Invalid envelope size " + length + ". Max. size is " + NetworkEnvelope.MAX_SIZE);
+        }
+
+        ByteBuffer buffer = ByteBufferPool.HEAP.acquire(length);
+        try {
+            byte[] bytes = buffer.array();
+            int offset = buffer.arrayOffset();
+            readFully(bytes, offset, length);
+            // Bytes fields get copied as we do not enable aliasing, so we can reuse the buffer after parsing
+            return bisq.network.protobuf.NetworkEnvelope.parseFrom(CodedInputStream.newInstance(bytes, offset, length));
+        } finally {
+            ByteBufferPool.HEAP.release(buffer);
+        }
     }
 
     @Override
@@ -55,4 +83,15 @@ public class NetworkEnvelopeSocket implements Closeable {
     public boolean isClosed() {
         return socket.isClosed();
     }
+
+    private void readFully(byte[] bytes, int offset, int length) throws IOException {
+        int numRead = 0;
+        while (numRead < length) {
+            int count = inputStream.read(bytes, offset + numRead, length - numRead);
+            if (count == -1) {
+                throw new EOFException("End of stream reached before envelope was completely read");
+            }
+            numRead += count;
+        }
+    }
 }
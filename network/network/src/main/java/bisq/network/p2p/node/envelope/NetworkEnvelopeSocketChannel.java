@@ -48,7 +48,7 @@ public class NetworkEnvelopeSocketChannel implements Closeable {
 
     public NetworkEnvelopeSocketChannel(SocketChannel socketChannel, int byteBufferSize) {
         this.socketChannel = socketChannel;
-        this.byteBuffer = ByteBuffer.allocate(byteBufferSize);
+        this.byteBuffer = ByteBuffer.allocateDirect(byteBufferSize);
         this.networkEnvelopeDeserializer = new NetworkEnvelopeDeserializer(byteBuffer);
     }
 
@@ -67,17 +67,28 @@ public class NetworkEnvelopeSocketChannel implements Closeable {
     }
 
     public List<NetworkEnvelope> receiveNetworkEnvelopes() throws IOException {
-        byteBuffer.clear();
-
-        int numberOfReadBytes = socketChannel.read(byteBuffer);
-        if (numberOfReadBytes == END_OF_STREAM) {
-            socketChannel.close();
-            return Collections.emptyList();
+        ByteBuffer pendingMessageBuffer = networkEnvelopeDeserializer.getPendingMessageBuffer();
+        if (pendingMessageBuffer != null) {
+            // We read the rest of a large message directly into its buffer to avoid copying it from the read buffer
+            int numberOfReadBytes = socketChannel.read(pendingMessageBuffer);
+            if (numberOfReadBytes == END_OF_STREAM) {
+                socketChannel.close();
+                return Collections.emptyList();
+            }
+            networkEnvelopeDeserializer.onPendingMessageBufferRead();
+        } else {
+            byteBuffer.clear();
+
+            int numberOfReadBytes = socketChannel.read(byteBuffer);
+            if (numberOfReadBytes == END_OF_STREAM) {
+                socketChannel.close();
+                return Collections.emptyList();
+            }
+
+            byteBuffer.flip();
+            networkEnvelopeDeserializer.readFromByteBuffer();
         }
 
-        byteBuffer.flip();
-        networkEnvelopeDeserializer.readFromByteBuffer();
-
         List<NetworkEnvelope>
                 allNetworkEnvelopes = networkEnvelopeDeserializer.getAllNetworkEnvelopes();
         allNetworkEnvelopes.forEach(NetworkEnvelope::verifyVersion);
@@ -0,0 +1,95 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.network.p2p.node.envelope.parser;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Pool of ByteBuffers used for receiving messages. Buffers are organized in power of 2 size classes from 1 KB to 4 MB.
+ * Larger buffers are not pooled. The number of pooled buffers per size class is limited, so that the pool does not
+ * hold more than about 2 MB per size class.
+ * <p>
+ * The heap pool is used for the blocking socket streams, as we can only read into byte arrays there. The direct pool is
+ * used for socket channels, where reading into a direct buffer avoids the copy into a temporary direct buffer by the JDK.
+ */
+public final class ByteBufferPool {
+    public static final ByteBufferPool HEAP = new ByteBufferPool(false);
+    public static final ByteBufferPool DIRECT = new ByteBufferPool(true);
+
+    private static final int MIN_SIZE_CLASS = 10;
+    private static final int MAX_SIZE_CLASS = 22;
+    private static final int MAX_POOLED_BYTES_PER_SIZE_CLASS = 2 * 1024 * 1024;
+
+    private final boolean direct;
+    private final List<BlockingQueue<ByteBuffer>> buffersBySizeClass = new ArrayList<>();
+
+    private ByteBufferPool(boolean direct) {
+        this.direct = direct;
+        for (int sizeClass = MIN_SIZE_CLASS; sizeClass <= MAX_SIZE_CLASS; sizeClass++) {
+            int maxNumBuffers = Math.max(1, MAX_POOLED_BYTES_PER_SIZE_CLASS >> sizeClass);
+            buffersBySizeClass.add(new ArrayBlockingQueue<>(maxNumBuffers));
+        }
+    }
+
+    /**
+     * @return A buffer with position 0 and limit set to the requested size. The capacity might be larger.
+     */
+    public ByteBuffer acquire(int size) {
+        int sizeClass = getSizeClass(size);
+        if (sizeClass > MAX_SIZE_CLASS) {
+            return allocate(size);
+        }
+        ByteBuffer buffer = buffersBySizeClass.get(sizeClass - MIN_SIZE_CLASS).poll();
+        if (buffer == null) {
+            buffer = allocate(1 << sizeClass);
+        }
+        buffer.clear();
+        buffer.limit(size);
+        return buffer;
+    }
+
+    /**
+     * Returns the buffer to the pool. The buffer must not be used by the caller afterwards.
+     */
+    public void release(ByteBuffer buffer) {
+        if (buffer.isDirect() != direct) {
+            return;
+        }
+        int capacity = buffer.capacity();
+        int sizeClass = getSizeClass(capacity);
+        if (sizeClass <= MAX_SIZE_CLASS && capacity == 1 << sizeClass) {
+            // If the pool for that size class is full, we leave the buffer to the garbage collector
+            buffersBySizeClass.get(sizeClass - MIN_SIZE_CLASS).offer(buffer);
+        }
+    }
+
+    private ByteBuffer allocate(int capacity) {
+        return direct ? ByteBuffer.allocateDirect(capacity) : ByteBuffer.allocate(capacity);
+    }
+
+    private static int getSizeClass(int size) {
+        if (size <= 1 << MIN_SIZE_CLASS) {
+            return MIN_SIZE_CLASS;
+        }
+        return 32 - Integer.numberOfLeadingZeros(size - 1);
+    }
+}
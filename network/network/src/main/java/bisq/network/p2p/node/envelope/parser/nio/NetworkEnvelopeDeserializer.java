@@ -17,144 +17,139 @@
 
 package bisq.network.p2p.node.envelope.parser.nio;
 
+import bisq.network.p2p.node.envelope.parser.ByteBufferPool;
 import bisq.network.p2p.node.envelope.parser.ProtoBufMessageLengthParser;
 import bisq.network.protobuf.NetworkEnvelope;
 import com.google.protobuf.InvalidProtocolBufferException;
 import lombok.extern.slf4j.Slf4j;
 
+import javax.annotation.Nullable;
+import java.io.IOException;
 import java.nio.ByteBuffer;
 import java.util.*;
 
+/**
+ * Parses the length delimited envelopes from the read buffer. If an envelope is completely contained in the read
+ * buffer, it is parsed in place. Otherwise, we copy the received parts into a pooled buffer of the size of the
+ * envelope. While such a message is pending, the socket channel can read directly into the pending buffer, so large
+ * messages do not need to pass the small read buffer.
+ */
 @Slf4j
 public class NetworkEnvelopeDeserializer {
 
     private final ByteBuffer byteBuffer;
+    private final ByteBufferPool byteBufferPool;
     private final ProtoBufMessageLengthParser messageLengthParser;
-    private boolean parsingMessage = false;
-    private long currentMessageLength = 0;
-    private int parsedMessageLength = 0;
-    private byte[] currentProtobufMessage;
+    @Nullable
+    private ByteBuffer pendingMessage;
 
     private final Queue<bisq.network.p2p.message.NetworkEnvelope> parsedNetworkEnvelopes = new LinkedList<>();
 
     public NetworkEnvelopeDeserializer(ByteBuffer byteBuffer) {
+        this(byteBuffer, ByteBufferPool.DIRECT);
+    }
+
+    public NetworkEnvelopeDeserializer(ByteBuffer byteBuffer, ByteBufferPool byteBufferPool) {
         this.byteBuffer = byteBuffer;
+        this.byteBufferPool = byteBufferPool;
         var protoBufInputStream = new NioProtoBufInputStream(byteBuffer);
         this.messageLengthParser = new ProtoBufMessageLengthParser(protoBufInputStream);
     }
 
-    public void readFromByteBuffer() {
+    public void readFromByteBuffer() throws IOException {
         while (byteBuffer.hasRemaining()) {
-            if (!parsingMessage) {
-                parseMessageLength();
-
-            } else {
-                if (inMiddleOfParsingMessage()) {
-                    parsePartialMessage();
-
-                    if (isMessageComplete()) {
-                        tryToParseProtoBufMessage();
-                    }
-
-                } else {
-                    parseNewIncomingMessage();
+            if (pendingMessage == null) {
+                long messageLength = messageLengthParser.parseMessageLength();
+                if (isMessageLengthParsed(messageLength)) {
+                    onMessageLengthParsed(messageLength);
                 }
+            } else {
+                copyToPendingMessage();
             }
         }
     }
 
-    private void parseMessageLength() {
-        long messageLength = messageLengthParser.parseMessageLength();
-        if (isMessageLengthParsed(messageLength)) {
-            currentMessageLength = messageLength;
-            parsedMessageLength = 0;
-            parsingMessage = true;
-        }
+    /**
+     * @return The buffer of a partially received message, or null if there is none. The caller can read the
+     * remaining bytes of the message directly into it and has to call onPendingMessageBufferRead afterwards.
+     */
+    @Nullable
+    public ByteBuffer getPendingMessageBuffer() {
+        return pendingMessage;
     }
 
-    private boolean inMiddleOfParsingMessage() {
-        return currentProtobufMessage != null;
+    public void onPendingMessageBufferRead() {
+        if (pendingMessage != null && !pendingMessage.hasRemaining()) {
+            parsePendingMessage();
+        }
     }
 
-    private void parsePartialMessage() {
-        long lengthOfMissingMessage = currentMessageLength - parsedMessageLength;
-
-        if (byteBuffer.remaining() >= lengthOfMissingMessage) {
-            parsePartialMessageFromByteBuffer((int) lengthOfMissingMessage);
-        } else {
-            int lengthOfMessageInBuffer = byteBuffer.remaining();
-            parsePartialMessageFromByteBuffer(lengthOfMessageInBuffer);
+    public List<bisq.network.p2p.message.NetworkEnvelope> getAllNetworkEnvelopes() {
+        if (parsedNetworkEnvelopes.isEmpty()) {
+            return Collections.emptyList();
         }
-    }
 
-    private boolean isMessageComplete() {
-        return parsedMessageLength == currentMessageLength;
-    }
+        List<bisq.network.p2p.message.NetworkEnvelope> networkEnvelopes = new ArrayList<>(parsedNetworkEnvelopes.size());
+        networkEnvelopes.addAll(parsedNetworkEnvelopes);
 
-    private void tryToParseProtoBufMessage() {
-        try {
-            NetworkEnvelope message = NetworkEnvelope.parseFrom(currentProtobufMessage);
-            bisq.network.p2p.message.NetworkEnvelope
-                    networkEnvelope = bisq.network.p2p.message.NetworkEnvelope.fromProto(message);
-            networkEnvelope.verifyVersion();
-            parsedNetworkEnvelopes.add(networkEnvelope);
+        parsedNetworkEnvelopes.clear();
 
-        } catch (InvalidProtocolBufferException e) {
-            log.error("Couldn't parse protocol buffer message.", e);
-        } finally {
-            resetState();
-        }
+        return networkEnvelopes;
     }
 
-    private void parseNewIncomingMessage() {
-        currentProtobufMessage = new byte[(int) currentMessageLength];
-        parsedMessageLength = 0;
-
-        if (isFullMessageInByteBuffer()) {
-            byteBuffer.get(currentProtobufMessage, parsedMessageLength, (int) currentMessageLength);
-            tryToParseProtoBufMessage();
-
+    private void onMessageLengthParsed(long messageLength) throws IOException {
+        if (messageLength < 0 || messageLength > bisq.network.p2p.message.NetworkEnvelope.MAX_SIZE) {
+            throw new IOException("Invalid envelope size " + messageLength + ". Max. size is " +
+                    bisq.network.p2p.message.NetworkEnvelope.MAX_SIZE);
+        }
+        int length = (int) messageLength;
+        if (byteBuffer.remaining() >= length) {
+            ByteBuffer message = byteBuffer.slice();
+            message.limit(length);
+            byteBuffer.position(byteBuffer.position() + length);
+            parse(message);
         } else {
-            int lengthOfMessageInBuffer = byteBuffer.remaining();
-            parsePartialMessageFromByteBuffer(lengthOfMessageInBuffer);
-
-            if (isMessageComplete()) {
-                tryToParseProtoBufMessage();
-            }
+            pendingMessage = byteBufferPool.acquire(length);
+            copyToPendingMessage();
         }
     }
 
-    private void parsePartialMessageFromByteBuffer(int length) {
-        byteBuffer.get(currentProtobufMessage, parsedMessageLength, length);
-        parsedMessageLength += length;
+    private void copyToPendingMessage() {
+        int length = Math.min(byteBuffer.remaining(), pendingMessage.remaining());
+        ByteBuffer source = byteBuffer.slice();
+        source.limit(length);
+        pendingMessage.put(source);
+        byteBuffer.position(byteBuffer.position() + length);
+        if (!pendingMessage.hasRemaining()) {
+            parsePendingMessage();
+        }
     }
 
-    private void resetState() {
-        parsingMessage = false;
-        currentMessageLength = 0;
-        parsedMessageLength = 0;
-        currentProtobufMessage = null;
+    private void parsePendingMessage() {
+        ByteBuffer message = pendingMessage;
+        pendingMessage = null;
+        message.flip();
+        try {
+            parse(message);
+        } finally {
+            byteBufferPool.release(message);
+        }
     }
 
-    public List<bisq.network.p2p.message.NetworkEnvelope> getAllNetworkEnvelopes() {
-        if (parsedNetworkEnvelopes.isEmpty()) {
-            return Collections.emptyList();
+    private void parse(ByteBuffer message) {
+        try {
+            // Bytes fields get copied as we do not enable aliasing, so the buffer can be reused after parsing
+            NetworkEnvelope proto = NetworkEnvelope.parseFrom(message);
+            bisq.network.p2p.message.NetworkEnvelope
+                    networkEnvelope = bisq.network.p2p.message.NetworkEnvelope.fromProto(proto);
+            networkEnvelope.verifyVersion();
+            parsedNetworkEnvelopes.add(networkEnvelope);
+        } catch (InvalidProtocolBufferException e) {
+            log.error("Couldn't parse protocol buffer message.", e);
         }
-
-        List<bisq.network.p2p.message.NetworkEnvelope> networkEnvelopes = new ArrayList<>(parsedNetworkEnvelopes.size());
-        networkEnvelopes.addAll(parsedNetworkEnvelopes);
-
-        parsedNetworkEnvelopes.clear();
-
-        return networkEnvelopes;
     }
 
     private boolean isMessageLengthParsed(long messageLength) {
         return messageLength != ProtoBufMessageLengthParser.STILL_PARSING_MESSAGE_LENGTH;
     }
-
-    private boolean isFullMessageInByteBuffer() {
-        int messageLength = ((int) currentMessageLength) - parsedMessageLength;
-        return byteBuffer.remaining() >= messageLength;
-    }
 }
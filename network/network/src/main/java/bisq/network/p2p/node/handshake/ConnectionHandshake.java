@@ -17,6 +17,7 @@
 
 package bisq.network.p2p.node.handshake;
 
+import bisq.common.data.Pair;
 import bisq.common.encoding.Hex;
 import bisq.common.util.StringUtils;
 import bisq.network.common.Address;
@@ -192,10 +193,7 @@ public final class ConnectionHandshake {
                                Capability capability,
                                AuthorizationService authorizationService,
                                KeyBundle myKeyBundle) {
-        this.banList = banList;
-        this.capability = capability;
-        this.authorizationService = authorizationService;
-        this.myKeyBundle = myKeyBundle;
+        this(banList, capability, authorizationService, myKeyBundle);
 
         try {
             // socket.setTcpNoDelay(true);
@@ -209,6 +207,17 @@ public final class ConnectionHandshake {
         }
     }
 
+    // Used in selector mode, where the request is received by the selector thread and passed to onRequest
+    public ConnectionHandshake(BanList banList,
+                               Capability capability,
+                               AuthorizationService authorizationService,
+                               KeyBundle myKeyBundle) {
+        this.banList = banList;
+        this.capability = capability;
+        this.authorizationService = authorizationService;
+        this.myKeyBundle = myKeyBundle;
+    }
+
     // Client side protocol
     public Result start(NetworkLoad myNetworkLoad, Address peerAddress) {
         try {
@@ -284,7 +293,6 @@ public final class ConnectionHandshake {
     // Server side protocol
     public Result onSocket(NetworkLoad myNetworkLoad) {
         try {
-            ConnectionMetrics connectionMetrics = new ConnectionMetrics();
             bisq.network.protobuf.NetworkEnvelope requestProto = networkEnvelopeSocket.receiveNextEnvelope();
             if (requestProto == null) {
                 throw new ConnectionException(PROTOBUF_IS_NULL,
@@ -294,53 +302,15 @@ public final class ConnectionHandshake {
             NetworkEnvelope requestNetworkEnvelope = NetworkEnvelope.fromProto(requestProto);
             long deserializeTime = System.currentTimeMillis() - ts;
 
-            requestNetworkEnvelope.verifyVersion();
-
-            if (!(requestNetworkEnvelope.getEnvelopePayloadMessage() instanceof Request)) {
-                throw new ConnectionException("RequestEnvelope.message() not type of Request. requestEnvelope=" +
-                        requestNetworkEnvelope);
-            }
-            Request request = (Request) requestNetworkEnvelope.getEnvelopePayloadMessage();
-            Capability requestersCapability = request.getCapability();
-            Address peerAddress = requestersCapability.getAddress();
-            if (banList.isBanned(peerAddress)) {
-                throw new ConnectionException(ADDRESS_BANNED, "PeerAddress is banned. address=" + peerAddress);
-            }
-
-            Address myAddress = capability.getAddress();
-            // As the request did not know our load at the initial request, they used the NetworkLoad.INITIAL_LOAD for the
-            // AuthorizationToken.
-            boolean isAuthorized = authorizationService.isAuthorized(request,
-                    requestNetworkEnvelope.getAuthorizationToken(),
-                    NetworkLoad.INITIAL_NETWORK_LOAD,
-                    StringUtils.createUid(),
-                    myAddress.getFullAddress());
-            if (!isAuthorized) {
-                throw new ConnectionException(AUTHORIZATION_FAILED, "Authorization of inbound connection request failed. AuthorizationToken=" + requestNetworkEnvelope.getAuthorizationToken());
-            }
-
-            if (!OnionAddressValidation.verify(myAddress, peerAddress, request.getSignatureDate(), request.getAddressOwnershipProof())) {
-                throw new ConnectionException(ONION_ADDRESS_VERIFICATION_FAILED, "Peer couldn't proof its onion address: " + peerAddress.getFullAddress() +
-                        ", Proof: " + Hex.encode(request.getAddressOwnershipProof().orElseThrow()));
-            }
-
-            log.debug("Clients capability {}, load={}", requestersCapability, request.getNetworkLoad());
-            connectionMetrics.onReceived(requestNetworkEnvelope, deserializeTime);
-
-            // We reply with the same version as the peer has to avoid pow hash check failures
-            Capability responseCapability = Capability.withVersion(capability, requestersCapability.getVersion());
-            Response response = new Response(responseCapability, myNetworkLoad);
-            AuthorizationToken token = authorizationService.createToken(response,
-                    request.getNetworkLoad(),
-                    peerAddress.getFullAddress(),
-                    0,
-                    requestersCapability.getFeatures());
-            NetworkEnvelope responseNetworkEnvelope = new NetworkEnvelope(token, response);
+            Pair<Result, NetworkEnvelope> resultAndResponse = onRequest(requestNetworkEnvelope, deserializeTime, myNetworkLoad);
+            Result result = resultAndResponse.getFirst();
+            NetworkEnvelope responseNetworkEnvelope = resultAndResponse.getSecond();
+            ConnectionMetrics connectionMetrics = result.getConnectionMetrics();
             long startSendTs = System.currentTimeMillis();
             networkEnvelopeSocket.send(responseNetworkEnvelope);
             connectionMetrics.onSent(responseNetworkEnvelope, System.currentTimeMillis() - startSendTs);
             connectionMetrics.addRtt(System.currentTimeMillis() - ts);
-            return new Result(requestersCapability, request.getNetworkLoad(), connectionMetrics);
+            return result;
         } catch (Exception e) {
             try {
                 networkEnvelopeSocket.close();
@@ -354,6 +324,60 @@ public final class ConnectionHandshake {
         }
     }
 
+    /**
+     * Server side protocol without IO. Verifies the received request and creates the response, which has to be sent
+     * by the caller.
+     */
+    public Pair<Result, NetworkEnvelope> onRequest(NetworkEnvelope requestNetworkEnvelope,
+                                                   long deserializeTime,
+                                                   NetworkLoad myNetworkLoad) {
+        ConnectionMetrics connectionMetrics = new ConnectionMetrics();
+        requestNetworkEnvelope.verifyVersion();
+
+        if (!(requestNetworkEnvelope.getEnvelopePayloadMessage() instanceof Request)) {
+            throw new ConnectionException("RequestEnvelope.message() not type of Request. requestEnvelope=" +
+                    requestNetworkEnvelope);
+        }
+        Request request = (Request) requestNetworkEnvelope.getEnvelopePayloadMessage();
+        Capability requestersCapability = request.getCapability();
+        Address peerAddress = requestersCapability.getAddress();
+        if (banList.isBanned(peerAddress)) {
+            throw new ConnectionException(ADDRESS_BANNED, "PeerAddress is banned. address=" + peerAddress);
+        }
+
+        Address myAddress = capability.getAddress();
+        // As the request did not know our load at the initial request, they used the NetworkLoad.INITIAL_LOAD for the
+        // AuthorizationToken.
+        boolean isAuthorized = authorizationService.isAuthorized(request,
+                requestNetworkEnvelope.getAuthorizationToken(),
+                NetworkLoad.INITIAL_NETWORK_LOAD,
+                StringUtils.createUid(),
+                myAddress.getFullAddress());
+        if (!isAuthorized) {
+            throw new ConnectionException(AUTHORIZATION_FAILED, "Authorization of inbound connection request failed. AuthorizationToken=" + requestNetworkEnvelope.getAuthorizationToken());
+        }
+
+        if (!OnionAddressValidation.verify(myAddress, peerAddress, request.getSignatureDate(), request.getAddressOwnershipProof())) {
+            throw new ConnectionException(ONION_ADDRESS_VERIFICATION_FAILED, "Peer couldn't proof its onion address: " + peerAddress.getFullAddress() +
+                    ", Proof: " + Hex.encode(request.getAddressOwnershipProof().orElseThrow()));
+        }
+
+        log.debug("Clients capability {}, load={}", requestersCapability, request.getNetworkLoad());
+        connectionMetrics.onReceived(requestNetworkEnvelope, deserializeTime);
+
+        // We reply with the same version as the peer has to avoid pow hash check failures
+        Capability responseCapability = Capability.withVersion(capability, requestersCapability.getVersion());
+        Response response = new Response(responseCapability, myNetworkLoad);
+        AuthorizationToken token = authorizationService.createToken(response,
+                request.getNetworkLoad(),
+                peerAddress.getFullAddress(),
+                0,
+                requestersCapability.getFeatures());
+        NetworkEnvelope responseNetworkEnvelope = new NetworkEnvelope(token, response);
+        Result result = new Result(requestersCapability, request.getNetworkLoad(), connectionMetrics);
+        return new Pair<>(result, responseNetworkEnvelope);
+    }
+
     public void shutdown() {
         // todo (Critical) close pending requests but do not close sockets
     }
@@ -23,27 +23,52 @@ import lombok.Getter;
 import lombok.ToString;
 import lombok.extern.slf4j.Slf4j;
 
-import java.util.*;
-import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
 
+/**
+ * Metrics of a connection. Updated concurrently from the reader and writer threads, therefore all counters are
+ * lock-free. The per minute values are kept in a ring buffer of the last hour, so the memory used by a long living
+ * connection does not grow.
+ */
 @Slf4j
-@Getter
 @ToString
 public class ConnectionMetrics {
+    private static final int NUM_MINUTES = 60;
+
+    // Value indices in the minuteRingBuffer
+    private static final int SENT_BYTES = 0;
+    private static final int NUM_MESSAGES_SENT = 1;
+    private static final int SPENT_SEND_MESSAGE_TIME = 2;
+    private static final int RECEIVED_BYTES = 3;
+    private static final int NUM_MESSAGES_RECEIVED = 4;
+    private static final int DESERIALIZE_TIME = 5;
+    private static final int NUM_VALUES = 6;
+
+    @Getter
     private final long created;
+    @Getter
     private final AtomicLong lastUpdate = new AtomicLong();
-    private final TreeMap<Integer, AtomicLong> numMessagesSentPerMinute = new TreeMap<>();
-    private final TreeMap<Integer, AtomicLong> sentBytesPerMinute = new TreeMap<>();
-    private final TreeMap<Integer, AtomicLong> spentSendMessageTimePerMinute = new TreeMap<>();
-    private final TreeMap<Integer, AtomicLong> deserializeTimePerMinute = new TreeMap<>();
-    private final TreeMap<Integer, AtomicLong> numMessagesReceivedPerMinute = new TreeMap<>();
-    private final TreeMap<Integer, AtomicLong> receivedBytesPerMinute = new TreeMap<>();
-    private final Map<String, AtomicLong> numSentMessagesByMessageClassName = new HashMap<>();
-    private final Map<String, AtomicLong> numReceivedMessagesByMessageClassName = new HashMap<>();
-
-    private final AtomicLong numMessagesReceived = new AtomicLong();
-    private final List<Long> rrtList = new CopyOnWriteArrayList<>();
+    @ToString.Exclude
+    private final MinuteRingBuffer minuteRingBuffer = new MinuteRingBuffer(NUM_MINUTES, NUM_VALUES);
+    private final LongAdder sentBytes = new LongAdder();
+    private final LongAdder numMessagesSent = new LongAdder();
+    private final LongAdder spentSendMessageTime = new LongAdder();
+    private final LongAdder receivedBytes = new LongAdder();
+    private final LongAdder numMessagesReceived = new LongAdder();
+    private final LongAdder deserializeTime = new LongAdder();
+    // The number of message classes is limited, so the maps do not grow unbounded
+    @ToString.Exclude
+    private final Map<Class<?>, LongAdder> numSentMessagesByMessageClass = new ConcurrentHashMap<>();
+    @ToString.Exclude
+    private final Map<Class<?>, LongAdder> numReceivedMessagesByMessageClass = new ConcurrentHashMap<>();
+    @Getter
+    private final LatencyHistogram rttHistogram = new LatencyHistogram();
 
     public ConnectionMetrics() {
         created = System.currentTimeMillis();
@@ -61,70 +86,64 @@ public class ConnectionMetrics {
         long now = System.currentTimeMillis();
         lastUpdate.set(now);
 
-        int ageInMinutes = getAgeInMinutes(now);
-        sentBytesPerMinute.putIfAbsent(ageInMinutes, new AtomicLong());
-        sentBytesPerMinute.get(ageInMinutes).getAndAdd(networkEnvelope.getSerializedSize());
-
-        numMessagesSentPerMinute.putIfAbsent(ageInMinutes, new AtomicLong());
-        numMessagesSentPerMinute.get(ageInMinutes).incrementAndGet();
-
-        spentSendMessageTimePerMinute.putIfAbsent(ageInMinutes, new AtomicLong());
-        spentSendMessageTimePerMinute.get(ageInMinutes).getAndAdd(spentTime);
+        int serializedSize = networkEnvelope.getSerializedSize();
+        minuteRingBuffer.add(now, SENT_BYTES, serializedSize);
+        minuteRingBuffer.add(now, NUM_MESSAGES_SENT, 1);
+        minuteRingBuffer.add(now, SPENT_SEND_MESSAGE_TIME, spentTime);
+        sentBytes.add(serializedSize);
+        numMessagesSent.increment();
+        spentSendMessageTime.add(spentTime);
 
-        String name = ClassUtils.getClassName(networkEnvelope.getEnvelopePayloadMessage().getClass());
-        numSentMessagesByMessageClassName.putIfAbsent(name, new AtomicLong());
-        numSentMessagesByMessageClassName.get(name).getAndIncrement();
+        numSentMessagesByMessageClass.computeIfAbsent(networkEnvelope.getEnvelopePayloadMessage().getClass(),
+                key -> new LongAdder()).increment();
     }
 
     public void onReceived(NetworkEnvelope networkEnvelope, long deserializeTime) {
         long now = System.currentTimeMillis();
         lastUpdate.set(now);
 
-        int ageInMinutes = getAgeInMinutes(now);
-        receivedBytesPerMinute.putIfAbsent(ageInMinutes, new AtomicLong());
-        receivedBytesPerMinute.get(ageInMinutes).getAndAdd(networkEnvelope.getSerializedSize());
+        int serializedSize = networkEnvelope.getSerializedSize();
+        minuteRingBuffer.add(now, RECEIVED_BYTES, serializedSize);
+        minuteRingBuffer.add(now, NUM_MESSAGES_RECEIVED, 1);
+        minuteRingBuffer.add(now, DESERIALIZE_TIME, deserializeTime);
+        receivedBytes.add(serializedSize);
+        numMessagesReceived.increment();
+        this.deserializeTime.add(deserializeTime);
 
-        numMessagesReceivedPerMinute.putIfAbsent(ageInMinutes, new AtomicLong());
-        numMessagesReceivedPerMinute.get(ageInMinutes).incrementAndGet();
-
-        deserializeTimePerMinute.putIfAbsent(ageInMinutes, new AtomicLong());
-        deserializeTimePerMinute.get(ageInMinutes).getAndAdd(deserializeTime);
-
-        String name = ClassUtils.getClassName(networkEnvelope.getEnvelopePayloadMessage().getClass());
-        numReceivedMessagesByMessageClassName.putIfAbsent(name, new AtomicLong());
-        numReceivedMessagesByMessageClassName.get(name).getAndIncrement();
+        numReceivedMessagesByMessageClass.computeIfAbsent(networkEnvelope.getEnvelopePayloadMessage().getClass(),
+                key -> new LongAdder()).increment();
     }
 
     public void addRtt(long value) {
-        this.rrtList.add(value);
+        rttHistogram.add(value);
     }
 
     public double getAverageRtt() {
-        return rrtList.stream().mapToLong(e -> e).average().orElse(0d);
+        return rttHistogram.getAverage();
     }
 
     public long getSentBytes() {
-        return sumOf(sentBytesPerMinute);
+        return sentBytes.sum();
     }
 
     public long getNumMessagesSent() {
-        return sumOf(numMessagesSentPerMinute);
+        return numMessagesSent.sum();
     }
 
     public long getSpentSendMessageTimePerMinute() {
-        return sumOf(spentSendMessageTimePerMinute);
+        return spentSendMessageTime.sum();
     }
 
     public long getReceivedBytes() {
-        return sumOf(receivedBytesPerMinute);
+        return receivedBytes.sum();
     }
 
     public long getNumMessagesReceived() {
-        return sumOf(numMessagesReceivedPerMinute);
+        return numMessagesReceived.sum();
     }
 
     public long getDeserializeTimePerMinute() {
-        return sumOf(deserializeTimePerMinute);
+        return deserializeTime.sum();
     }
 
     public long getNumMessagesSentOfLastHour() {
@@ -152,41 +171,52 @@ public class ConnectionMetrics {
     }
 
     public long getNumMessagesSentOfLastMinutes(int lastMinutes) {
-        return sumOfLastMinute(numMessagesSentPerMinute, lastMinutes);
+        return sumOfLastMinutes(NUM_MESSAGES_SENT, lastMinutes);
     }
 
     public long getSentBytesOfLastMinutes(int lastMinutes) {
-        return sumOfLastMinute(sentBytesPerMinute, lastMinutes);
+        return sumOfLastMinutes(SENT_BYTES, lastMinutes);
     }
 
     public long getSpentSendMessageTimeOfLastMinutes(int lastMinutes) {
-        return sumOfLastMinute(spentSendMessageTimePerMinute, lastMinutes);
+        return sumOfLastMinutes(SPENT_SEND_MESSAGE_TIME, lastMinutes);
     }
 
     public long getNumMessagesReceivedOfLastMinutes(int lastMinutes) {
-        return sumOfLastMinute(numMessagesReceivedPerMinute, lastMinutes);
+        return sumOfLastMinutes(NUM_MESSAGES_RECEIVED, lastMinutes);
     }
 
     public long getReceivedBytesOfLastMinutes(int lastMinutes) {
-        return sumOfLastMinute(receivedBytesPerMinute, lastMinutes);
+        return sumOfLastMinutes(RECEIVED_BYTES, lastMinutes);
     }
 
     public long getDeserializeTimeOfLastMinutes(int lastMinutes) {
-        return sumOfLastMinute(deserializeTimePerMinute, lastMinutes);
+        return sumOfLastMinutes(DESERIALIZE_TIME, lastMinutes);
+    }
+
+    public Map<Class<?>, LongAdder> getNumSentMessagesByMessageClass() {
+        return Collections.unmodifiableMap(numSentMessagesByMessageClass);
+    }
+
+    public Map<Class<?>, LongAdder> getNumReceivedMessagesByMessageClass() {
+        return Collections.unmodifiableMap(numReceivedMessagesByMessageClass);
+    }
+
+    public Map<String, Long> getNumSentMessagesByMessageClassName() {
+        return toMapByClassName(numSentMessagesByMessageClass);
     }
 
-    private long sumOf(TreeMap<Integer, AtomicLong> treeMap) {
-        return treeMap.values().stream().mapToLong(AtomicLong::get).sum();
+    public Map<String, Long> getNumReceivedMessagesByMessageClassName() {
+        return toMapByClassName(numReceivedMessagesByMessageClass);
     }
 
-    private long sumOfLastMinute(TreeMap<Integer, AtomicLong> treeMap, int lastMinutes) {
-        // The Treemap returns the values in ascending order of the corresponding keys.
-        int from = Math.max(0, treeMap.size() - lastMinutes);
-        List<AtomicLong> list = new ArrayList<>(treeMap.values()).subList(from, treeMap.size());
-        return list.stream().mapToLong(AtomicLong::get).sum();
+    private long sumOfLastMinutes(int valueIndex, int lastMinutes) {
+        return minuteRingBuffer.sumOfLastMinutes(System.currentTimeMillis(), valueIndex, lastMinutes);
     }
 
-    private int getAgeInMinutes(long now) {
-        return (int) (now - created) / 60000;
+    private static Map<String, Long> toMapByClassName(Map<Class<?>, LongAdder> map) {
+        Map<String, Long> result = new TreeMap<>();
+        map.forEach((clazz, value) -> result.merge(ClassUtils.getClassName(clazz), value.sum(), Long::sum));
+        return result;
     }
-}
\ No newline at end of file
+}
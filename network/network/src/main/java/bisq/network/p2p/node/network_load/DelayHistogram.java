@@ -0,0 +1,93 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.network.p2p.node.network_load;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Counts delays in fixed buckets. It is lock-free, so it can be updated from any thread.
+ */
+public final class DelayHistogram {
+    // Inclusive upper bounds of the buckets in ms. An additional last bucket counts all larger delays.
+    private static final long[] BUCKET_UPPER_BOUNDS = {0, 10, 50, 100, 250, 500, 1000, 5000};
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKET_UPPER_BOUNDS.length + 1);
+    private final AtomicLong totalDelay = new AtomicLong();
+    private final AtomicLong maxDelay = new AtomicLong();
+
+    public void add(long delay) {
+        int index = 0;
+        while (index < BUCKET_UPPER_BOUNDS.length && delay > BUCKET_UPPER_BOUNDS[index]) {
+            index++;
+        }
+        counts.incrementAndGet(index);
+        totalDelay.addAndGet(delay);
+        maxDelay.accumulateAndGet(delay, Math::max);
+    }
+
+    public int getNumBuckets() {
+        return counts.length();
+    }
+
+    /**
+     * @return The inclusive upper bound of the bucket in ms or Long.MAX_VALUE for the last bucket.
+     */
+    public long getBucketUpperBound(int index) {
+        return index < BUCKET_UPPER_BOUNDS.length ? BUCKET_UPPER_BOUNDS[index] : Long.MAX_VALUE;
+    }
+
+    public long getCount(int index) {
+        return counts.get(index);
+    }
+
+    public long getTotalCount() {
+        long totalCount = 0;
+        for (int i = 0; i < counts.length(); i++) {
+            totalCount += counts.get(i);
+        }
+        return totalCount;
+    }
+
+    public double getAverageDelay() {
+        long totalCount = getTotalCount();
+        return totalCount == 0 ? 0 : totalDelay.get() / (double) totalCount;
+    }
+
+    public long getMaxDelay() {
+        return maxDelay.get();
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("DelayHistogram{");
+        for (int i = 0; i < counts.length(); i++) {
+            if (i > 0) {
+                sb.append(", ");
+            }
+            if (i < BUCKET_UPPER_BOUNDS.length) {
+                sb.append("<=").append(BUCKET_UPPER_BOUNDS[i]).append("ms: ");
+            } else {
+                sb.append(">").append(BUCKET_UPPER_BOUNDS[BUCKET_UPPER_BOUNDS.length - 1]).append("ms: ");
+            }
+            sb.append(counts.get(i));
+        }
+        sb.append(", max: ").append(getMaxDelay()).append("ms}");
+        return sb.toString();
+    }
+}
@@ -0,0 +1,117 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.network.p2p.node.network_load;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free histogram for latencies in ms with a fixed memory footprint, similar to a HdrHistogram.
+ * Values below 16 ms are counted exactly. Larger values are counted in 8 sub-buckets per power of 2, which limits the
+ * relative error to 12.5%. Values larger than about 2 hours are counted in the last bucket.
+ */
+public final class LatencyHistogram {
+    private static final int LINEAR_LIMIT = 16;
+    private static final int SUB_BUCKET_BITS = 3;
+    private static final int NUM_SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int MIN_EXPONENT = 4; // log2(LINEAR_LIMIT)
+    private static final int MAX_EXPONENT = 22;
+    private static final int NUM_BUCKETS = LINEAR_LIMIT + (MAX_EXPONENT - MIN_EXPONENT + 1) * NUM_SUB_BUCKETS;
+
+    private final AtomicLongArray counts = new AtomicLongArray(NUM_BUCKETS);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder sum = new LongAdder();
+    private final AtomicLong max = new AtomicLong();
+
+    public void add(long value) {
+        value = Math.max(0, value);
+        counts.incrementAndGet(getBucketIndex(value));
+        count.increment();
+        sum.add(value);
+        max.accumulateAndGet(value, Math::max);
+    }
+
+    public long getCount() {
+        return count.sum();
+    }
+
+    public double getAverage() {
+        long numValues = count.sum();
+        return numValues == 0 ? 0 : sum.sum() / (double) numValues;
+    }
+
+    public long getMax() {
+        return max.get();
+    }
+
+    /**
+     * @param percentile Value between 0 and 100
+     * @return The upper bound of the bucket containing the percentile, but not more than the max. value, or 0 if no
+     * value was added.
+     */
+    public long getPercentile(double percentile) {
+        long numValues = 0;
+        for (int i = 0; i < NUM_BUCKETS; i++) {
+            numValues += counts.get(i);
+        }
+        if (numValues == 0) {
+            return 0;
+        }
+        long target = Math.max(1, (long) Math.ceil(percentile / 100 * numValues));
+        long cumulated = 0;
+        for (int i = 0; i < NUM_BUCKETS; i++) {
+            cumulated += counts.get(i);
+            if (cumulated >= target) {
+                return Math.min(getBucketUpperBound(i), getMax());
+            }
+        }
+        return getMax();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("LatencyHistogram{count=%d, average=%.1f ms, p50=%d ms, p90=%d ms, p99=%d ms, max=%d ms}",
+                getCount(), getAverage(), getPercentile(50), getPercentile(90), getPercentile(99), getMax());
+    }
+
+    static int getBucketIndex(long value) {
+        if (value < LINEAR_LIMIT) {
+            return (int) value;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        if (exponent > MAX_EXPONENT) {
+            return NUM_BUCKETS - 1;
+        }
+        int subBucket = (int) (value >> (exponent - SUB_BUCKET_BITS)) & (NUM_SUB_BUCKETS - 1);
+        return LINEAR_LIMIT + (exponent - MIN_EXPONENT) * NUM_SUB_BUCKETS + subBucket;
+    }
+
+    static long getBucketUpperBound(int index) {
+        if (index < LINEAR_LIMIT) {
+            return index;
+        }
+        if (index == NUM_BUCKETS - 1) {
+            return Long.MAX_VALUE;
+        }
+        int exponent = MIN_EXPONENT + (index - LINEAR_LIMIT) / NUM_SUB_BUCKETS;
+        int subBucket = (index - LINEAR_LIMIT) % NUM_SUB_BUCKETS;
+        int shift = exponent - SUB_BUCKET_BITS;
+        return ((long) (NUM_SUB_BUCKETS + subBucket) << shift) + (1L << shift) - 1;
+    }
+}
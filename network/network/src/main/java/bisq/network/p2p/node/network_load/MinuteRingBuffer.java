@@ -0,0 +1,86 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.network.p2p.node.network_load;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Lock-free per minute counters for a fixed number of minutes. Each slot holds the values of one minute and gets
+ * reused once that minute is older than the capacity, so the memory does not grow with the age of a connection.
+ */
+final class MinuteRingBuffer {
+    private static final long MINUTE = TimeUnit.MINUTES.toMillis(1);
+
+    private static final class Bucket {
+        private final long minute;
+        private final AtomicLongArray values;
+
+        private Bucket(long minute, int numValues) {
+            this.minute = minute;
+            values = new AtomicLongArray(numValues);
+        }
+    }
+
+    private final int numMinutes;
+    private final int numValues;
+    private final AtomicReferenceArray<Bucket> buckets;
+
+    MinuteRingBuffer(int numMinutes, int numValues) {
+        this.numMinutes = numMinutes;
+        this.numValues = numValues;
+        buckets = new AtomicReferenceArray<>(numMinutes);
+    }
+
+    void add(long now, int valueIndex, long value) {
+        getOrCreateBucket(now / MINUTE).values.addAndGet(valueIndex, value);
+    }
+
+    /**
+     * Sums up the values of the last minutes including the current minute. Does not allocate.
+     */
+    long sumOfLastMinutes(long now, int valueIndex, int lastMinutes) {
+        long currentMinute = now / MINUTE;
+        long fromMinute = currentMinute - Math.min(lastMinutes, numMinutes);
+        long sum = 0;
+        for (int i = 0; i < numMinutes; i++) {
+            Bucket bucket = buckets.get(i);
+            if (bucket != null && bucket.minute > fromMinute && bucket.minute <= currentMinute) {
+                sum += bucket.values.get(valueIndex);
+            }
+        }
+        return sum;
+    }
+
+    private Bucket getOrCreateBucket(long minute) {
+        int index = (int) (minute % numMinutes);
+        while (true) {
+            Bucket bucket = buckets.get(index);
+            if (bucket != null && bucket.minute >= minute) {
+                // If a bucket of a newer minute is there, the caller was delayed for more than numMinutes. We add
+                // the value to the newer bucket.
+                return bucket;
+            }
+            Bucket newBucket = new Bucket(minute, numValues);
+            if (buckets.compareAndSet(index, bucket, newBucket)) {
+                return newBucket;
+            }
+        }
+    }
+}
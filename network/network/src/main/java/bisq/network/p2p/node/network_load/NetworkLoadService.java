@@ -17,25 +17,25 @@
 
 package bisq.network.p2p.node.network_load;
 
-import bisq.common.proto.Proto;
 import bisq.common.timer.Scheduler;
 import bisq.common.util.ByteUnit;
+import bisq.common.util.ClassUtils;
 import bisq.common.util.MathUtils;
 import bisq.network.p2p.ServiceNodesByTransport;
 import bisq.network.p2p.node.Connection;
 import bisq.network.p2p.node.Node;
-import bisq.network.p2p.services.data.DataRequest;
 import bisq.network.p2p.services.data.DataService;
 import bisq.network.p2p.services.data.storage.StorageService;
+import bisq.security.SignatureVerificationService;
 import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
 
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.TreeMap;
 import java.util.concurrent.TimeUnit;
-import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
 
 @Slf4j
@@ -69,14 +69,63 @@ public class NetworkLoadService {
         updateNetworkLoadScheduler.ifPresent(Scheduler::stop);
     }
 
-    private void updateNetworkLoad() {
-        List<? extends DataRequest> dataRequests = storageService.getAllDataRequestMapEntries()
-                .map(Map.Entry::getValue)
-                .collect(Collectors.toList());
+    /**
+     * @return The sum of the serialized sizes of all data requests in the storage. The stores keep running totals,
+     * so this is cheap to call.
+     */
+    public long getNetworkDatabaseSize() {
+        return storageService.getNetworkDatabaseSize();
+    }
+
+    public Map<String, Long> getNetworkDatabaseSizeByStoreKey() {
+        return storageService.getNetworkDatabaseSizeByStoreKey();
+    }
+
+    public Map<String, Long> getNumSentMessagesByMessageClassName() {
+        Map<Class<?>, Long> numSentMessagesByMessageClass = new HashMap<>();
+        getAllConnectionMetrics().forEach(connectionMetrics -> connectionMetrics.getNumSentMessagesByMessageClass()
+                .forEach((clazz, value) -> numSentMessagesByMessageClass.merge(clazz, value.sum(), Long::sum)));
+        return toMessageClassNameMap(numSentMessagesByMessageClass);
+    }
+
+    public Map<String, Long> getNumReceivedMessagesByMessageClassName() {
+        Map<Class<?>, Long> numReceivedMessagesByMessageClass = new HashMap<>();
+        getAllConnectionMetrics().forEach(connectionMetrics -> connectionMetrics.getNumReceivedMessagesByMessageClass()
+                .forEach((clazz, value) -> numReceivedMessagesByMessageClass.merge(clazz, value.sum(), Long::sum)));
+        return toMessageClassNameMap(numReceivedMessagesByMessageClass);
+    }
+
+    public String getMetricsAsString() {
+        List<ConnectionMetrics> allConnectionMetrics = getAllConnectionMetrics();
+        long sentBytesOfLastHour = 0;
+        long numMessagesSentOfLastHour = 0;
+        long receivedBytesOfLastHour = 0;
+        long numMessagesReceivedOfLastHour = 0;
+        for (ConnectionMetrics connectionMetrics : allConnectionMetrics) {
+            sentBytesOfLastHour += connectionMetrics.getSentBytesOfLastHour();
+            numMessagesSentOfLastHour += connectionMetrics.getNumMessagesSentOfLastHour();
+            receivedBytesOfLastHour += connectionMetrics.getReceivedBytesOfLastHour();
+            numMessagesReceivedOfLastHour += connectionMetrics.getNumMessagesReceivedOfLastHour();
+        }
+        return "Number of Connections: " + allConnectionMetrics.size() +
+                "\nNumber of messages sent in last hour: " + numMessagesSentOfLastHour +
+                "\nNumber of messages sent by class name:" + toLogString(getNumSentMessagesByMessageClassName()) +
+                "\nNumber of messages received in last hour: " + numMessagesReceivedOfLastHour +
+                "\nNumber of messages received by class name:" + toLogString(getNumReceivedMessagesByMessageClassName()) +
+                "\nSize of network DB: " + ByteUnit.BYTE.toMB(getNetworkDatabaseSize()) + " MB" +
+                "\nSize of network DB by store:" + toLogString(getNetworkDatabaseSizeByStoreKey()) +
+                "\nData sent in last hour: " + ByteUnit.BYTE.toMB(sentBytesOfLastHour) + " MB" +
+                "\nData received in last hour: " + ByteUnit.BYTE.toMB(receivedBytesOfLastHour) + " MB" +
+                "\n" + SignatureVerificationService.getMetricsAsString();
+    }
 
-        double load = calculateLoad(getAllConnectionMetrics(), dataRequests);
+    private void updateNetworkLoad() {
+        double load = calculateLoad(getAllConnectionMetrics(), getNetworkDatabaseSize());
         NetworkLoad networkLoad = new NetworkLoad(load, difficultyAdjustmentFactor);
         networkLoadSnapshot.updateNetworkLoad(networkLoad);
+        if (log.isDebugEnabled()) {
+            log.debug("\n\nNetwork statistics\n{}\n", getMetricsAsString());
+        }
     }
 
     private List<ConnectionMetrics> getAllConnectionMetrics() {
@@ -87,81 +136,22 @@ public class NetworkLoadService {
                 .collect(Collectors.toList());
     }
 
-    private static double calculateLoad(List<ConnectionMetrics> allConnectionMetrics, List<? extends DataRequest> dataRequests) {
+    private static double calculateLoad(List<ConnectionMetrics> allConnectionMetrics, long networkDatabaseSize) {
         long numConnections = allConnectionMetrics.size();
-        long sentBytesOfLastHour = allConnectionMetrics.stream()
-                .map(ConnectionMetrics::getSentBytesOfLastHour)
-                .mapToLong(e -> e)
-                .sum();
-        long spentSendMessageTimeOfLastHour = allConnectionMetrics.stream()
-                .map(ConnectionMetrics::getSpentSendMessageTimeOfLastHour)
-                .mapToLong(e -> e)
-                .sum();
-        long numMessagesSentOfLastHour = allConnectionMetrics.stream()
-                .map(ConnectionMetrics::getNumMessagesSentOfLastHour)
-                .mapToLong(e -> e)
-                .sum();
-        long receivedBytesOfLastHour = allConnectionMetrics.stream()
-                .map(ConnectionMetrics::getReceivedBytesOfLastHour)
-                .mapToLong(e -> e)
-                .sum();
-        long deserializeTimeOfLastHour = allConnectionMetrics.stream()
-                .map(ConnectionMetrics::getDeserializeTimeOfLastHour)
-                .mapToLong(e -> e)
-                .sum();
-        long numMessagesReceivedOfLastHour = allConnectionMetrics.stream()
-                .map(ConnectionMetrics::getNumMessagesReceivedOfLastHour)
-                .mapToLong(e -> e)
-                .sum();
-        long networkDatabaseSize = dataRequests.stream().mapToLong(Proto::getSerializedSize).sum();
-
-        Map<String, AtomicLong> numSentMessagesByMessageClassName = new TreeMap<>();
-        allConnectionMetrics.stream()
-                .map(ConnectionMetrics::getNumSentMessagesByMessageClassName)
-                .forEach(map -> {
-                    map.forEach((name, value) -> {
-                        numSentMessagesByMessageClassName.putIfAbsent(name, new AtomicLong());
-                        numSentMessagesByMessageClassName.get(name).addAndGet(value.get());
-                    });
-                });
-        StringBuilder numSentMsgPerClassName = new StringBuilder();
-        numSentMessagesByMessageClassName.forEach((key, value) -> {
-            numSentMsgPerClassName.append("\n - ");
-            numSentMsgPerClassName.append(key);
-            numSentMsgPerClassName.append(": ");
-            numSentMsgPerClassName.append(value.get());
-        });
-
-        Map<String, AtomicLong> numReceivedMessagesByMessageClassName = new TreeMap<>();
-        allConnectionMetrics.stream()
-                .map(ConnectionMetrics::getNumReceivedMessagesByMessageClassName)
-                .forEach(map -> {
-                    map.forEach((name, value) -> {
-                        numReceivedMessagesByMessageClassName.putIfAbsent(name, new AtomicLong());
-                        numReceivedMessagesByMessageClassName.get(name).addAndGet(value.get());
-                    });
-                });
-        StringBuilder numRecMsgPerClassName = new StringBuilder();
-        numReceivedMessagesByMessageClassName.forEach((key, value) -> {
-            numRecMsgPerClassName.append("\n - ");
-            numRecMsgPerClassName.append(key);
-            numRecMsgPerClassName.append(": ");
-            numRecMsgPerClassName.append(value.get());
-        });
-
-        StringBuilder sb = new StringBuilder("\n\n////////////////////////////////////////////////////////////////////////////////////////////////////");
-        sb.append("\nNetwork statistics").append(("\n////////////////////////////////////////////////////////////////////////////////////////////////////"))
-                .append("\nNumber of Connections: ").append(numConnections)
-                .append("\nNumber of messages sent in last hour: ").append(numMessagesSentOfLastHour)
-                .append("\nNumber of messages sent by class name:").append(numSentMsgPerClassName)
-                .append("\nNumber of messages received in last hour: ").append(numMessagesReceivedOfLastHour)
-                .append("\nNumber of messages received by class name:").append(numRecMsgPerClassName)
-                .append("\nSize of network DB: ").append(ByteUnit.BYTE.toMB(networkDatabaseSize)).append(" MB")
-                .append("\nData sent in last hour: ").append(ByteUnit.BYTE.toMB(sentBytesOfLastHour)).append(" MB")
-                .append("\nData received in last hour: ").append(ByteUnit.BYTE.toMB(receivedBytesOfLastHour)).append(" MB")
-                .append("\nTime for message sending in last hour: ").append(spentSendMessageTimeOfLastHour / 1000d).append(" sec.")
-                .append("\nTime for message deserializing in last hour: ").append(deserializeTimeOfLastHour / 1000d).append(" sec.")
-                .append("\n////////////////////////////////////////////////////////////////////////////////////////////////////");
+        long sentBytesOfLastHour = 0;
+        long spentSendMessageTimeOfLastHour = 0;
+        long numMessagesSentOfLastHour = 0;
+        long receivedBytesOfLastHour = 0;
+        long deserializeTimeOfLastHour = 0;
+        long numMessagesReceivedOfLastHour = 0;
+        for (ConnectionMetrics connectionMetrics : allConnectionMetrics) {
+            sentBytesOfLastHour += connectionMetrics.getSentBytesOfLastHour();
+            spentSendMessageTimeOfLastHour += connectionMetrics.getSpentSendMessageTimeOfLastHour();
+            numMessagesSentOfLastHour += connectionMetrics.getNumMessagesSentOfLastHour();
+            receivedBytesOfLastHour += connectionMetrics.getReceivedBytesOfLastHour();
+            deserializeTimeOfLastHour += connectionMetrics.getDeserializeTimeOfLastHour();
+            numMessagesReceivedOfLastHour += connectionMetrics.getNumMessagesReceivedOfLastHour();
+        }
 
         double MAX_NUM_CON = 30;
         double NUM_CON_WEIGHT = 0.1;
@@ -203,7 +193,7 @@ public class NetworkLoadService {
                 deserializeTimeImpact +
                 numMessagesReceivedImpact +
                 networkDatabaseSizeImpact;
-        sb.append("\n\n----------------------------------------------------------------------------------------------------")
+        StringBuilder sb = new StringBuilder("\n\n----------------------------------------------------------------------------------------------------")
                 .append("\nCalculated network load:")
                 .append(("\n----------------------------------------------------------------------------------------------------"))
                 .append("\nnumConnectionsImpact=").append(numConnectionsImpact)
@@ -216,10 +206,29 @@ public class NetworkLoadService {
                 .append("\nnetworkDatabaseSizeImpact=").append(networkDatabaseSizeImpact)
                 .append("\nNetwork load=").append(load)
                 .append("\n----------------------------------------------------------------------------------------------------\n");
-        log.info(sb.toString());
+        log.debug(sb.toString());
+        log.info("Network load={}; size of network DB={} MB", load, ByteUnit.BYTE.toMB(networkDatabaseSize));
 
         //TODO load calculation has some bugs at spentSendTimeImpact. Until fixed we limit load to 0.1 to avoid high difficulty
         return MathUtils.bounded(0, 0.1, load);
         //return MathUtils.bounded(0, 1, load);
     }
+
+    private static Map<String, Long> toMessageClassNameMap(Map<Class<?>, Long> numMessagesByMessageClass) {
+        Map<String, Long> numMessagesByMessageClassName = new TreeMap<>();
+        numMessagesByMessageClass.forEach((clazz, value) ->
+                numMessagesByMessageClassName.merge(ClassUtils.getClassName(clazz), value, Long::sum));
+        return numMessagesByMessageClassName;
+    }
+
+    private static String toLogString(Map<String, Long> valueByName) {
+        StringBuilder sb = new StringBuilder();
+        valueByName.forEach((key, value) -> {
+            sb.append("\n - ");
+            sb.append(key);
+            sb.append(": ");
+            sb.append(value);
+        });
+        return sb.toString();
+    }
 }
\ No newline at end of file
@@ -12,8 +12,11 @@ import lombok.ToString;
 import lombok.extern.slf4j.Slf4j;
 
 import java.io.IOException;
+import java.net.InetSocketAddress;
 import java.net.ServerSocket;
 import java.net.Socket;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
 import java.nio.file.Path;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionException;
@@ -35,7 +38,8 @@ public class ClearNetTransportService implements TransportService {
                     (int) TimeUnit.SECONDS.toMillis(config.getInt("userNodeSocketTimeout")),
                     config.getInt("devModeDelayInMs"),
                     config.getInt("sendMessageThrottleTime"),
-                    config.getInt("receiveMessageThrottleTime")
+                    config.getInt("receiveMessageThrottleTime"),
+                    config.hasPath("numSelectorThreads") ? config.getInt("numSelectorThreads") : 0
             );
         }
 
@@ -46,6 +50,7 @@ public class ClearNetTransportService implements TransportService {
         private final int devModeDelayInMs;
         private final int sendMessageThrottleTime;
         private final int receiveMessageThrottleTime;
+        private final int numSelectorThreads;
 
         public Config(Path dataDir,
                       int defaultNodePort,
@@ -53,7 +58,8 @@ public class ClearNetTransportService implements TransportService {
                       int userNodeSocketTimeout,
                       int devModeDelayInMs,
                       int sendMessageThrottleTime,
-                      int receiveMessageThrottleTime) {
+                      int receiveMessageThrottleTime,
+                      int numSelectorThreads) {
             this.dataDir = dataDir;
             this.defaultNodePort = defaultNodePort;
             this.defaultNodeSocketTimeout = defaultNodeSocketTimeout;
@@ -61,10 +67,13 @@ public class ClearNetTransportService implements TransportService {
             this.devModeDelayInMs = devModeDelayInMs;
             this.sendMessageThrottleTime = sendMessageThrottleTime;
             this.receiveMessageThrottleTime = receiveMessageThrottleTime;
+            this.numSelectorThreads = numSelectorThreads;
         }
     }
 
     private final int devModeDelayInMs;
+    // In selector mode the sockets need to be backed by channels
+    private final boolean useSocketChannels;
     private int numSocketsCreated = 0;
     @Getter
     private final BootstrapInfo bootstrapInfo = new BootstrapInfo();
@@ -73,6 +82,7 @@ public class ClearNetTransportService implements TransportService {
 
     public ClearNetTransportService(TransportConfig config) {
         devModeDelayInMs = config.getDevModeDelayInMs();
+        useSocketChannels = config.getNumSelectorThreads() > 0;
     }
 
     @Override
@@ -111,7 +121,13 @@ public class ClearNetTransportService implements TransportService {
 
         maybeSimulateDelay();
         try {
-            ServerSocket serverSocket = new ServerSocket(port);
+            ServerSocket serverSocket;
+            if (useSocketChannels) {
+                serverSocket = ServerSocketChannel.open().socket();
+                serverSocket.bind(new InetSocketAddress(port));
+            } else {
+                serverSocket = new ServerSocket(port);
+            }
             Address address = Address.localHost(port);
             log.debug("ServerSocket created at port {}", port);
 
@@ -130,7 +146,9 @@ public class ClearNetTransportService implements TransportService {
     public Socket getSocket(Address address) throws IOException {
         log.debug("Create new Socket to {}", address);
         maybeSimulateDelay();
-        Socket socket = new Socket(address.getHost(), address.getPort());
+        Socket socket = useSocketChannels ?
+                SocketChannel.open(new InetSocketAddress(address.getHost(), address.getPort())).socket() :
+                new Socket(address.getHost(), address.getPort());
         numSocketsCreated++;
 
         bootstrapInfo.getBootstrapState().set(BootstrapState.CONNECTED_TO_PEERS);
@@ -17,6 +17,7 @@
 
 package bisq.network.p2p.services.confidential;
 
+import bisq.common.data.ByteArray;
 import bisq.common.threading.ExecutorFactory;
 import bisq.common.util.CompletableFutureUtils;
 import bisq.network.common.Address;
@@ -37,20 +38,25 @@ import bisq.network.p2p.services.data.storage.MetaData;
 import bisq.network.p2p.services.data.storage.mailbox.MailboxData;
 import bisq.network.p2p.services.data.storage.mailbox.MailboxMessage;
 import bisq.security.ConfidentialData;
+import bisq.security.DigestUtil;
 import bisq.security.HybridEncryption;
 import bisq.security.keys.KeyBundleService;
 import bisq.security.keys.KeyGeneration;
 import bisq.security.keys.PubKey;
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Ticker;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import lombok.extern.slf4j.Slf4j;
 
 import java.security.GeneralSecurityException;
 import java.security.KeyPair;
 import java.security.PublicKey;
-import java.util.HashSet;
 import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.TimeUnit;
 
 import static bisq.network.NetworkService.DISPATCHER;
 import static java.util.concurrent.CompletableFuture.runAsync;
@@ -71,7 +77,19 @@ public class ConfidentialMessageService implements Node.Listener, DataService.Li
     private final Optional<MessageDeliveryStatusService> messageDeliveryStatusService;
     private final Optional<ResendMessageService> resendMessageService;
     private final Set<Listener> listeners = new CopyOnWriteArraySet<>();
-    private final Set<EnvelopePayloadMessage> processedEnvelopePayloadMessages = new HashSet<>();
+    // For backward compatibility we send 2 versions of mailbox data, thus we receive each mailbox message 2 times.
+    // Both versions carry the same ConfidentialData, so we can drop the second one before decryption. As the same
+    // message might also get re-encrypted (e.g. at resend), we dedup the decrypted messages as well.
+    // We use the hashes instead of the messages as keys and limit the caches by size and age.
+    // A mailbox message can be received again as long as it is in the network, thus we keep the hashes at least
+    // for the max. mailbox TTL. As only hashes are stored, a larger number of entries is cheap.
+    static final int MAX_NUM_PROCESSED_MESSAGES = 50_000;
+    static final long PROCESSED_MESSAGES_TTL = MailboxData.MAX_TLL;
+    // Messages delayed by the connection throttle are sent later. We wait for the result, so that a failure leads to
+    // the mailbox fallback.
+    private static final long MAX_SEND_DELAY_SEC = 120;
+    private final Cache<ByteArray, Boolean> processedConfidentialData = createProcessedMessagesCache(Ticker.systemTicker());
+    private final Cache<ByteArray, Boolean> processedEnvelopePayloadMessages = createProcessedMessagesCache(Ticker.systemTicker());
 
     public ConfidentialMessageService(NodesById nodesById,
                                       KeyBundleService keyBundleService,
@@ -175,7 +193,8 @@ public class ConfidentialMessageService implements Node.Listener, DataService.Li
             // We got a valid connection and try to send the message. If send fails we store in mailbox in case envelopePayloadMessage is a MailboxMessage
             ConfidentialMessage confidentialMessage = getConfidentialMessage(envelopePayloadMessage, receiverPubKey, senderKeyPair);
             try {
-                nodesById.send(senderNetworkId, confidentialMessage, connection);
+                nodesById.sendAsync(senderNetworkId, confidentialMessage, connection)
+                        .get(MAX_SEND_DELAY_SEC, TimeUnit.SECONDS);
                 result = new SendConfidentialMessageResult(MessageDeliveryStatus.SENT);
             } catch (Exception exception) {
                 result = handleSendMessageException(envelopePayloadMessage, receiverPubKey, senderKeyPair, exception, confidentialMessage);
@@ -292,17 +311,24 @@ public class ConfidentialMessageService implements Node.Listener, DataService.Li
         return keyBundleService.findKeyPair(confidentialMessage.getReceiverKeyId())
                 .map(receiversKeyPair -> supplyAsync(() -> {
                     try {
-                        log.info("Found a matching key for processing confidentialMessage");
                         ConfidentialData confidentialData = confidentialMessage.getConfidentialData();
+                        ByteArray confidentialDataHash = new ByteArray(DigestUtil.hash(confidentialData.serialize()));
+                        if (processedConfidentialData.getIfPresent(confidentialDataHash) != null) {
+                            log.info("We have already processed that confidentialMessage. We skip decryption.");
+                            return true;
+                        }
+
+                        log.info("Found a matching key for processing confidentialMessage");
                         byte[] decryptedBytes = HybridEncryption.decryptAndVerify(confidentialData, receiversKeyPair);
-                        bisq.network.protobuf.EnvelopePayloadMessage decryptedProto = bisq.network.protobuf.EnvelopePayloadMessage.parseFrom(decryptedBytes);
-                        EnvelopePayloadMessage decryptedEnvelopePayloadMessage = EnvelopePayloadMessage.fromProto(decryptedProto);
+                        // We add it only after successful verification, so that an invalid copy cannot suppress the
+                        // valid message.
+                        processedConfidentialData.put(confidentialDataHash, true);
 
-                        // For backward compatibility we send 2 versions of mailbox data, thus we will receive each
-                        // mailbox data 2 times. We do not want that client code need to deal with duplications,
-                        // thus we filter here out the duplicated message and.
-                        boolean wasNotPresent = processedEnvelopePayloadMessages.add(decryptedEnvelopePayloadMessage);
+                        ByteArray decryptedHash = new ByteArray(DigestUtil.hash(decryptedBytes));
+                        boolean wasNotPresent = processedEnvelopePayloadMessages.asMap().putIfAbsent(decryptedHash, true) == null;
                         if (wasNotPresent) {
+                            bisq.network.protobuf.EnvelopePayloadMessage decryptedProto = bisq.network.protobuf.EnvelopePayloadMessage.parseFrom(decryptedBytes);
+                            EnvelopePayloadMessage decryptedEnvelopePayloadMessage = EnvelopePayloadMessage.fromProto(decryptedProto);
                             PublicKey senderPublicKey = KeyGeneration.generatePublic(confidentialData.getSenderPublicKey());
                             log.info("Decrypted confidentialMessage");
                             runAsync(() -> {
@@ -324,4 +350,13 @@ public class ConfidentialMessageService implements Node.Listener, DataService.Li
                 }, ExecutorFactory.WORKER_POOL))
                 .orElse(CompletableFuture.completedFuture(false)); // We don't have a key for that receiverKeyId
     }
+
+    @VisibleForTesting
+    static Cache<ByteArray, Boolean> createProcessedMessagesCache(Ticker ticker) {
+        return CacheBuilder.newBuilder()
+                .maximumSize(MAX_NUM_PROCESSED_MESSAGES)
+                .expireAfterWrite(PROCESSED_MESSAGES_TTL, TimeUnit.MILLISECONDS)
+                .ticker(ticker)
+                .build();
+    }
 }
@@ -19,6 +19,7 @@ package bisq.network.p2p.services.data;
 
 import bisq.network.p2p.services.data.broadcast.Broadcaster;
 import bisq.network.p2p.services.data.storage.DataStorageResult;
+import bisq.network.p2p.services.data.storage.DistributedData;
 import bisq.network.p2p.services.data.storage.StorageData;
 import bisq.network.p2p.services.data.storage.StorageService;
 import bisq.network.p2p.services.data.storage.append.AddAppendOnlyDataRequest;
@@ -27,6 +28,7 @@ import bisq.network.p2p.services.data.storage.auth.AddAuthenticatedDataRequest;
 import bisq.network.p2p.services.data.storage.auth.AuthenticatedData;
 import bisq.network.p2p.services.data.storage.auth.RemoveAuthenticatedDataRequest;
 import bisq.network.p2p.services.data.storage.auth.authorized.AuthorizedData;
+import bisq.network.p2p.services.data.storage.auth.authorized.AuthorizedDistributedData;
 import bisq.network.p2p.services.data.storage.mailbox.AddMailboxRequest;
 import bisq.network.p2p.services.data.storage.mailbox.MailboxData;
 import bisq.network.p2p.services.data.storage.mailbox.RemoveMailboxRequest;
@@ -37,10 +39,13 @@ import lombok.extern.slf4j.Slf4j;
 import java.security.GeneralSecurityException;
 import java.security.KeyPair;
 import java.security.PublicKey;
+import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.function.Consumer;
 import java.util.stream.Stream;
 
 /**
@@ -75,6 +80,8 @@ public class DataService implements StorageService.Listener {
     @Getter
     private final StorageService storageService;
     private final Set<DataService.Listener> listeners = new CopyOnWriteArraySet<>();
+    // Listeners which are only interested in the data of one store. They are not called for data of other stores.
+    private final Map<String, Set<DataService.Listener>> listenersByStoreKey = new ConcurrentHashMap<>();
     private final Set<Broadcaster> broadcasters = new CopyOnWriteArraySet<>();
 
     public DataService(PersistenceService persistenceService) {
@@ -85,6 +92,7 @@ public class DataService implements StorageService.Listener {
     public void shutdown() {
         storageService.removeListener(this);
         listeners.clear();
+        listenersByStoreKey.clear();
         broadcasters.clear();
         storageService.shutdown();
     }
@@ -97,66 +105,31 @@ public class DataService implements StorageService.Listener {
     @Override
     public void onAdded(StorageData storageData) {
         if (storageData instanceof AuthorizedData) {
-            listeners.forEach(listener -> {
-                try {
-                    listener.onAuthorizedDataAdded((AuthorizedData) storageData);
-                } catch (Exception e) {
-                    log.error("Calling onAuthorizedDataAdded at listener {} failed", listener, e);
-                }
-            });
+            forEachListener(storageData, "onAuthorizedDataAdded",
+                    listener -> listener.onAuthorizedDataAdded((AuthorizedData) storageData));
         } else if (storageData instanceof AuthenticatedData) {
-            listeners.forEach(listener -> {
-                try {
-                    listener.onAuthenticatedDataAdded((AuthenticatedData) storageData);
-                } catch (Exception e) {
-                    log.error("Calling onAuthenticatedDataAdded at listener {} failed", listener, e);
-                }
-            });
+            forEachListener(storageData, "onAuthenticatedDataAdded",
+                    listener -> listener.onAuthenticatedDataAdded((AuthenticatedData) storageData));
         } else if (storageData instanceof MailboxData) {
-            listeners.forEach(listener -> {
-                try {
-                    listener.onMailboxDataAdded((MailboxData) storageData);
-                } catch (Exception e) {
-                    log.error("Calling onMailboxDataAdded at listener {} failed", listener, e);
-                }
-            });
+            forEachListener(storageData, "onMailboxDataAdded",
+                    listener -> listener.onMailboxDataAdded((MailboxData) storageData));
         } else if (storageData instanceof AppendOnlyData) {
-            listeners.forEach(listener -> {
-                try {
-                    listener.onAppendOnlyDataAdded((AppendOnlyData) storageData);
-                } catch (Exception e) {
-                    log.error("Calling onAppendOnlyDataAdded at listener {} failed", listener, e);
-                }
-            });
+            forEachListener(storageData, "onAppendOnlyDataAdded",
+                    listener -> listener.onAppendOnlyDataAdded((AppendOnlyData) storageData));
         }
     }
 
     @Override
     public void onRemoved(StorageData storageData) {
         if (storageData instanceof AuthorizedData) {
-            listeners.forEach(listener -> {
-                try {
-                    listener.onAuthorizedDataRemoved((AuthorizedData) storageData);
-                } catch (Exception e) {
-                    log.error("Calling onAuthorizedDataRemoved at listener {} failed", listener, e);
-                }
-            });
+            forEachListener(storageData, "onAuthorizedDataRemoved",
+                    listener -> listener.onAuthorizedDataRemoved((AuthorizedData) storageData));
         } else if (storageData instanceof AuthenticatedData) {
-            listeners.forEach(listener -> {
-                try {
-                    listener.onAuthenticatedDataRemoved((AuthenticatedData) storageData);
-                } catch (Exception e) {
-                    log.error("Calling onAuthenticatedDataRemoved at listener {} failed", listener, e);
-                }
-            });
+            forEachListener(storageData, "onAuthenticatedDataRemoved",
+                    listener -> listener.onAuthenticatedDataRemoved((AuthenticatedData) storageData));
         } else if (storageData instanceof MailboxData) {
-            listeners.forEach(listener -> {
-                try {
-                    listener.onMailboxDataRemoved((MailboxData) storageData);
-                } catch (Exception e) {
-                    log.error("Calling onMailboxDataRemoved at listener {} failed", listener, e);
-                }
-            });
+            forEachListener(storageData, "onMailboxDataRemoved",
+                    listener -> listener.onMailboxDataRemoved((MailboxData) storageData));
         }
     }
 
@@ -179,6 +152,20 @@ public class DataService implements StorageService.Listener {
         return storageService.getAuthenticatedData(storeName);
     }
 
+    /**
+     * Iterates only the store of the given class. Useful for applying the existing data when a store specific
+     * listener gets added.
+     */
+    public Stream<AuthenticatedData> getAuthenticatedData(Class<? extends DistributedData> distributedDataClass) {
+        return storageService.getAuthenticatedData(getStoreKey(distributedDataClass));
+    }
+
+    public Stream<AuthorizedData> getAuthorizedData(Class<? extends AuthorizedDistributedData> authorizedDistributedDataClass) {
+        return getAuthenticatedData(authorizedDistributedDataClass)
+                .filter(authenticatedData -> authenticatedData instanceof AuthorizedData)
+                .map(authenticatedData -> (AuthorizedData) authenticatedData);
+    }
+
 
     ///////////////////////////////////////////////////////////////////////////////////////////////////
     // Add data
@@ -317,6 +304,29 @@ public class DataService implements StorageService.Listener {
         listeners.remove(listener);
     }
 
+    /**
+     * Adds a listener which only gets called for data of the given store. The store key is the class name of the
+     * distributed data as set in its MetaData.
+     */
+    public void addListener(String storeKey, DataService.Listener listener) {
+        listenersByStoreKey.computeIfAbsent(storeKey, key -> new CopyOnWriteArraySet<>()).add(listener);
+    }
+
+    public void removeListener(String storeKey, DataService.Listener listener) {
+        Set<DataService.Listener> storeListeners = listenersByStoreKey.get(storeKey);
+        if (storeListeners != null) {
+            storeListeners.remove(listener);
+        }
+    }
+
+    public void addListener(Class<? extends DistributedData> distributedDataClass, DataService.Listener listener) {
+        addListener(getStoreKey(distributedDataClass), listener);
+    }
+
+    public void removeListener(Class<? extends DistributedData> distributedDataClass, DataService.Listener listener) {
+        removeListener(getStoreKey(distributedDataClass), listener);
+    }
+
     public void addBroadcaster(Broadcaster broadcaster) {
         broadcasters.add(broadcaster);
     }
@@ -330,6 +340,29 @@ public class DataService implements StorageService.Listener {
     // Private
     ///////////////////////////////////////////////////////////////////////////////////////////////////
 
+    // The MetaData of the distributed data use the simple class name as class name, which is used as store key.
+    private static String getStoreKey(Class<? extends DistributedData> distributedDataClass) {
+        return distributedDataClass.getSimpleName();
+    }
+
+    private void forEachListener(StorageData storageData, String methodName, Consumer<DataService.Listener> consumer) {
+        listeners.forEach(listener -> callListener(listener, methodName, consumer));
+        Set<DataService.Listener> storeListeners = listenersByStoreKey.get(storageData.getMetaData().getClassName());
+        if (storeListeners != null) {
+            storeListeners.forEach(listener -> callListener(listener, methodName, consumer));
+        }
+    }
+
+    private static void callListener(DataService.Listener listener,
+                                     String methodName,
+                                     Consumer<DataService.Listener> consumer) {
+        try {
+            consumer.accept(listener);
+        } catch (Exception e) {
+            log.error("Calling {} at listener {} failed", methodName, listener, e);
+        }
+    }
+
     public void processAddDataRequest(AddDataRequest addDataRequest, boolean allowReBroadcast) {
         storageService.onAddDataRequest(addDataRequest)
                 .whenComplete((optionalData, throwable) -> {
@@ -82,24 +82,40 @@ public class Broadcaster {
         log.debug("Broadcast {} to {} out of {} peers. distributionFactor={}",
                 broadcastMessage.getClass().getSimpleName(), numBroadcasts, numConnections, distributionFactor);
         List<Connection> allConnections = CollectionUtil.toShuffledList(node.getAllActiveConnections());
-        NetworkService.NETWORK_IO_POOL.submit(() -> {
+        if (NetworkService.isUsingVirtualThreads()) {
+            // Virtual threads are cheap, so we send to each peer in its own task. A slow peer does not delay the others.
             allConnections.stream()
                     .limit(numBroadcasts)
-                    .forEach(connection -> {
-                        log.debug("{} broadcast {} to {}", node, broadcastMessage.getClass().getSimpleName(), connection.getPeerAddress());
-                        try {
-                            node.send(broadcastMessage, connection);
-                            numSuccess.incrementAndGet();
-                        } catch (Exception exception) {
-                            numFaults.incrementAndGet();
-                        }
-                        if (numSuccess.get() + numFaults.get() == numBroadcasts) {
-                            future.complete(new BroadcastResult(numSuccess.get(),
-                                    numFaults.get(),
-                                    System.currentTimeMillis() - ts));
-                        }
-                    });
-        });
+                    .forEach(connection -> NetworkService.NETWORK_IO_POOL.submit(() ->
+                            send(broadcastMessage, connection, numBroadcasts, numSuccess, numFaults, future, ts)));
+        } else {
+            NetworkService.NETWORK_IO_POOL.submit(() -> {
+                allConnections.stream()
+                        .limit(numBroadcasts)
+                        .forEach(connection -> send(broadcastMessage, connection, numBroadcasts, numSuccess, numFaults, future, ts));
+            });
+        }
         return future;
     }
+
+    private void send(BroadcastMessage broadcastMessage,
+                      Connection connection,
+                      long numBroadcasts,
+                      AtomicInteger numSuccess,
+                      AtomicInteger numFaults,
+                      CompletableFuture<BroadcastResult> future,
+                      long ts) {
+        log.debug("{} broadcast {} to {}", node, broadcastMessage.getClass().getSimpleName(), connection.getPeerAddress());
+        try {
+            node.send(broadcastMessage, connection);
+            numSuccess.incrementAndGet();
+        } catch (Exception exception) {
+            numFaults.incrementAndGet();
+        }
+        if (numSuccess.get() + numFaults.get() == numBroadcasts) {
+            future.complete(new BroadcastResult(numSuccess.get(),
+                    numFaults.get(),
+                    System.currentTimeMillis() - ts));
+        }
+    }
 }
@@ -25,6 +25,7 @@ import bisq.network.p2p.services.data.inventory.filter.FilterService;
 import bisq.network.p2p.services.data.inventory.filter.InventoryFilter;
 import bisq.network.p2p.services.data.inventory.filter.InventoryFilterType;
 import bisq.network.p2p.services.data.inventory.filter.hash_set.HashSetFilterService;
+import bisq.network.p2p.services.data.inventory.filter.mini_sketch.MiniSketchFilterService;
 import bisq.network.p2p.services.data.storage.StorageService;
 import bisq.network.p2p.services.peer_group.PeerGroupManager;
 import lombok.Getter;
@@ -104,9 +105,8 @@ public class InventoryService {
                             supportedFilterServices.put(supportedFilterType, new HashSetFilterService(storageService, maxSize));
                             break;
                         case MINI_SKETCH:
-                            //  supportedFilterServices.put(supportedFilterType, new MiniSketchFilterService(storageService, maxSize));
-                            //  break;
-                            throw new IllegalArgumentException("MINI_SKETCH not implemented yet");
+                            supportedFilterServices.put(supportedFilterType, new MiniSketchFilterService(storageService, maxSize));
+                            break;
                         default:
                             throw new IllegalArgumentException("Undefined filterType " + supportedFilterType);
 
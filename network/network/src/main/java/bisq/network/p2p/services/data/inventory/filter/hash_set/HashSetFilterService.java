@@ -24,13 +24,8 @@ import bisq.network.p2p.services.data.inventory.filter.InventoryFilter;
 import bisq.network.p2p.services.data.inventory.filter.InventoryFilterType;
 import bisq.network.p2p.services.data.storage.StorageService;
 import bisq.network.p2p.services.data.storage.append.AddAppendOnlyDataRequest;
-import bisq.network.p2p.services.data.storage.auth.AddAuthenticatedDataRequest;
 import bisq.network.p2p.services.data.storage.auth.AuthenticatedDataRequest;
-import bisq.network.p2p.services.data.storage.auth.RefreshAuthenticatedDataRequest;
-import bisq.network.p2p.services.data.storage.auth.RemoveAuthenticatedDataRequest;
-import bisq.network.p2p.services.data.storage.mailbox.AddMailboxRequest;
 import bisq.network.p2p.services.data.storage.mailbox.MailboxRequest;
-import bisq.network.p2p.services.data.storage.mailbox.RemoveMailboxRequest;
 import lombok.extern.slf4j.Slf4j;
 
 import java.util.Collections;
@@ -82,23 +77,6 @@ public class HashSetFilterService extends FilterService<HashSetFilter> {
     }
 
     private HashSetFilterEntry toFilterEntry(Map.Entry<ByteArray, ? extends DataRequest> mapEntry) {
-        DataRequest dataRequest = mapEntry.getValue();
-        int sequenceNumber = 0;
-        byte[] hash = mapEntry.getKey().getBytes();
-        if (dataRequest instanceof AddAppendOnlyDataRequest) {
-            // AddAppendOnlyDataRequest does not use a seq nr.
-            return new HashSetFilterEntry(hash, 0);
-        } else if (dataRequest instanceof AddAuthenticatedDataRequest) {
-            sequenceNumber = ((AddAuthenticatedDataRequest) dataRequest).getAuthenticatedSequentialData().getSequenceNumber();
-        } else if (dataRequest instanceof RemoveAuthenticatedDataRequest) {
-            sequenceNumber = ((RemoveAuthenticatedDataRequest) dataRequest).getSequenceNumber();
-        } else if (dataRequest instanceof RefreshAuthenticatedDataRequest) {
-            sequenceNumber = ((RefreshAuthenticatedDataRequest) dataRequest).getSequenceNumber();
-        } else if (dataRequest instanceof AddMailboxRequest) {
-            sequenceNumber = ((AddMailboxRequest) dataRequest).getSequenceNumber();
-        } else if (dataRequest instanceof RemoveMailboxRequest) {
-            sequenceNumber = ((RemoveMailboxRequest) dataRequest).getSequenceNumber();
-        }
-        return new HashSetFilterEntry(hash, sequenceNumber);
+        return new HashSetFilterEntry(mapEntry.getKey().getBytes(), getSequenceNumber(mapEntry.getValue()));
     }
 }
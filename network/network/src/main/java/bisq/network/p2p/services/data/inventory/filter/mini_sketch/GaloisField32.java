@@ -0,0 +1,72 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.network.p2p.services.data.inventory.filter.mini_sketch;
+
+/**
+ * Arithmetic in GF(2^32) using the irreducible polynomial x^32 + x^7 + x^3 + x^2 + 1 (same field as used by
+ * minisketch for 32 bit elements). Elements are represented by the lower 32 bits of a long.
+ * Addition is XOR.
+ */
+final class GaloisField32 {
+    static final int BITS = 32;
+    static final long MASK = 0xFFFFFFFFL;
+
+    private GaloisField32() {
+    }
+
+    static long multiply(long a, long b) {
+        // Carry-less multiplication
+        long result = 0;
+        while (b != 0) {
+            int shift = Long.numberOfTrailingZeros(b);
+            result ^= a << shift;
+            b &= b - 1;
+        }
+        return reduce(result);
+    }
+
+    static long square(long a) {
+        return multiply(a, a);
+    }
+
+    static long inverse(long a) {
+        if (a == 0) {
+            throw new ArithmeticException("Zero has no inverse");
+        }
+        // a^(2^32 - 2) = a^-1
+        long result = 1;
+        long base = a;
+        long exponent = (1L << BITS) - 2;
+        while (exponent != 0) {
+            if ((exponent & 1) != 0) {
+                result = multiply(result, base);
+            }
+            base = square(base);
+            exponent >>>= 1;
+        }
+        return result;
+    }
+
+    private static long reduce(long value) {
+        // x^32 = x^7 + x^3 + x^2 + 1. Two folds are enough for a product of two 32 bit elements.
+        long high = value >>> BITS;
+        value = (value & MASK) ^ high ^ (high << 2) ^ (high << 3) ^ (high << 7);
+        high = value >>> BITS;
+        return (value & MASK) ^ high ^ (high << 2) ^ (high << 3) ^ (high << 7);
+    }
+}
@@ -18,37 +18,70 @@
 package bisq.network.p2p.services.data.inventory.filter.mini_sketch;
 
 
+import bisq.common.util.ByteUnit;
 import bisq.network.p2p.services.data.inventory.filter.InventoryFilter;
 import bisq.network.p2p.services.data.inventory.filter.InventoryFilterType;
+import com.google.protobuf.ByteString;
+import lombok.AccessLevel;
 import lombok.EqualsAndHashCode;
 import lombok.Getter;
 import lombok.ToString;
 import lombok.extern.slf4j.Slf4j;
 
+import java.nio.ByteBuffer;
+
 import static com.google.common.base.Preconditions.checkArgument;
 
 /**
- * Skeleton for planned MiniSketch implementation based on <a href="https://github.com/sipa/minisketch">https://github.com/sipa/minisketch</a>
+ * Set reconciliation filter based on <a href="https://github.com/sipa/minisketch">https://github.com/sipa/minisketch</a>.
+ * <p>
+ * The entries of the requester are distributed into numBuckets buckets, each represented by a PinSketch with the given
+ * capacity. The responder merges its own sketches into it and decodes the symmetric difference per bucket.
+ * Each sketch is serialized as capacity 32 bit big endian values.
  */
 @Slf4j
 @Getter
 @ToString
 @EqualsAndHashCode(callSuper = true)
 public final class MiniSketchFilter extends InventoryFilter {
+    public final static int MAX_NUM_BUCKETS = 4096;
+    public final static int MAX_CAPACITY = 64;
+    static final int BYTES_PER_ELEMENT = 4;
+
+    private final int numBuckets;
+    private final int capacity;
+    @ToString.Exclude
+    private final byte[] sketches;
+
+    // Result of the reconciliation with the responders data. Set by the MiniSketchFilterService before the inventory
+    // gets created.
+    @Getter(AccessLevel.NONE)
+    @ToString.Exclude
+    private transient MiniSketchReconciliation reconciliation;
 
-    public MiniSketchFilter() {
-        this(InventoryFilterType.MINI_SKETCH);
+    public MiniSketchFilter(int numBuckets, int capacity, byte[] sketches) {
+        this(InventoryFilterType.MINI_SKETCH, numBuckets, capacity, sketches);
     }
 
-    private MiniSketchFilter(InventoryFilterType inventoryFilterType) {
+    private MiniSketchFilter(InventoryFilterType inventoryFilterType, int numBuckets, int capacity, byte[] sketches) {
         super(inventoryFilterType);
 
+        this.numBuckets = numBuckets;
+        this.capacity = capacity;
+        this.sketches = sketches;
+
         verify();
     }
 
     @Override
     public void verify() {
         checkArgument(inventoryFilterType == InventoryFilterType.MINI_SKETCH);
+        checkArgument(numBuckets > 0 && numBuckets <= MAX_NUM_BUCKETS && Integer.bitCount(numBuckets) == 1,
+                "numBuckets must be a power of 2 and not larger than " + MAX_NUM_BUCKETS);
+        checkArgument(capacity > 0 && capacity <= MAX_CAPACITY,
+                "capacity must be in the range of 1 to " + MAX_CAPACITY);
+        checkArgument(sketches.length == numBuckets * capacity * BYTES_PER_ELEMENT,
+                "Length of sketches does not match numBuckets and capacity");
     }
 
     @Override
@@ -59,15 +92,50 @@ public final class MiniSketchFilter extends InventoryFilter {
     @Override
     public bisq.network.protobuf.InventoryFilter.Builder getBuilder(boolean serializeForHash) {
         return getInventoryFilterBuilder().setMiniSketchFilter(
-                bisq.network.protobuf.MiniSketchFilter.newBuilder());
+                bisq.network.protobuf.MiniSketchFilter.newBuilder()
+                        .setNumBuckets(numBuckets)
+                        .setCapacity(capacity)
+                        .setSketches(ByteString.copyFrom(sketches)));
     }
 
     public static MiniSketchFilter fromProto(bisq.network.protobuf.InventoryFilter proto) {
-        return new MiniSketchFilter(InventoryFilterType.fromProto(proto.getInventoryFilterType()));
+        bisq.network.protobuf.MiniSketchFilter miniSketchFilter = proto.getMiniSketchFilter();
+        return new MiniSketchFilter(InventoryFilterType.fromProto(proto.getInventoryFilterType()),
+                miniSketchFilter.getNumBuckets(),
+                miniSketchFilter.getCapacity(),
+                miniSketchFilter.getSketches().toByteArray());
     }
 
     @Override
     public String getDetails() {
-        return "MiniSketchFilter";
+        return "MiniSketchFilter with " + numBuckets + " buckets of capacity " + capacity + " and size of " +
+                ByteUnit.BYTE.toKB(getSerializedSize()) + " KB";
+    }
+
+    static byte[] toBytes(PinSketch[] pinSketches, int capacity) {
+        ByteBuffer buffer = ByteBuffer.allocate(pinSketches.length * capacity * BYTES_PER_ELEMENT);
+        for (PinSketch pinSketch : pinSketches) {
+            for (long syndrome : pinSketch.getSyndromes()) {
+                buffer.putInt((int) syndrome);
+            }
+        }
+        return buffer.array();
+    }
+
+    PinSketch getPinSketch(int bucket) {
+        ByteBuffer buffer = ByteBuffer.wrap(sketches, bucket * capacity * BYTES_PER_ELEMENT, capacity * BYTES_PER_ELEMENT);
+        long[] syndromes = new long[capacity];
+        for (int i = 0; i < capacity; i++) {
+            syndromes[i] = Integer.toUnsignedLong(buffer.getInt());
+        }
+        return new PinSketch(syndromes);
+    }
+
+    MiniSketchReconciliation getReconciliation() {
+        return reconciliation;
+    }
+
+    void setReconciliation(MiniSketchReconciliation reconciliation) {
+        this.reconciliation = reconciliation;
     }
-}
\ No newline at end of file
+}
@@ -18,43 +18,90 @@
 package bisq.network.p2p.services.data.inventory.filter.mini_sketch;
 
 import bisq.common.data.ByteArray;
+import bisq.network.p2p.services.data.DataRequest;
+import bisq.network.p2p.services.data.inventory.Inventory;
 import bisq.network.p2p.services.data.inventory.filter.FilterService;
 import bisq.network.p2p.services.data.inventory.filter.InventoryFilter;
 import bisq.network.p2p.services.data.inventory.filter.InventoryFilterType;
+import bisq.network.p2p.services.data.inventory.filter.hash_set.HashSetFilter;
+import bisq.network.p2p.services.data.inventory.filter.hash_set.HashSetFilterService;
 import bisq.network.p2p.services.data.storage.StorageService;
 import bisq.network.p2p.services.data.storage.append.AddAppendOnlyDataRequest;
 import bisq.network.p2p.services.data.storage.auth.AuthenticatedDataRequest;
 import bisq.network.p2p.services.data.storage.mailbox.MailboxRequest;
 import lombok.extern.slf4j.Slf4j;
 
+import java.util.ArrayList;
 import java.util.Map;
+import java.util.Optional;
+import java.util.function.Predicate;
 
 /**
- * Skeleton for planned MiniSketch implementation based on <a href="https://github.com/sipa/minisketch">https://github.com/sipa/minisketch</a>
+ * Inventory filter service using set reconciliation with PinSketches.
+ * <p>
+ * The requester sends sketches of all its entries instead of the entries themselves. A sketch of capacity c has a size
+ * of c * 4 bytes independent of the number of entries. To keep decoding cheap and to not lose the whole
+ * reconciliation if the difference is larger than expected, the entries are distributed into buckets. Each bucket
+ * can reconcile up to capacity - 1 differences. If a bucket cannot be decoded the responder treats all its entries in
+ * that bucket as missing, which is the same result as with an empty filter.
+ * <p>
+ * The entries are identified by the hash of the map key and the sequence number. As the elements are 32 bit values and
+ * the bucket index adds some more bits, we can get collisions at a very low probability. Entries of a collision might
+ * not be delivered by that peer, but will be delivered by other peers or at the next inventory request.
+ * <p>
+ * The responder decodes one sketch per bucket, so numBuckets and capacity define its costs. We only accept filters
+ * with our own capacity and not more buckets than our own number of entries would use. Otherwise, we respond as to an
+ * empty HashSetFilter.
  */
 @Slf4j
 public class MiniSketchFilterService extends FilterService<MiniSketchFilter> {
+    static final int CAPACITY = 32;
+    static final int MIN_NUM_BUCKETS = 16;
+    // Expected number of entries per bucket
+    private static final int BUCKET_LOAD = 256;
+
+    private final HashSetFilterService hashSetFilterService;
+
     public MiniSketchFilterService(StorageService storageService, int maxSize) {
         super(storageService, maxSize);
+
+        hashSetFilterService = new HashSetFilterService(storageService, maxSize);
     }
 
     public MiniSketchFilter getFilter() {
-        return new MiniSketchFilter();
+        long[] hashes = getHashes();
+        int numBuckets = getNumBuckets(hashes.length);
+        PinSketch[] pinSketches = createPinSketches(hashes, numBuckets, CAPACITY);
+        return new MiniSketchFilter(numBuckets, CAPACITY, MiniSketchFilter.toBytes(pinSketches, CAPACITY));
+    }
+
+    @Override
+    public Inventory createInventory(InventoryFilter inventoryFilter, Predicate<Integer> predicate) {
+        MiniSketchFilter filter = safeCast(inventoryFilter);
+        long[] hashes = getHashes();
+        if (!isFilterAccepted(filter, hashes.length)) {
+            log.warn("We do not accept a MiniSketchFilter with {} buckets of capacity {}. We accept capacity {} and " +
+                            "up to {} buckets. We respond as to an empty HashSetFilter.",
+                    filter.getNumBuckets(), filter.getCapacity(), CAPACITY, getNumBuckets(hashes.length));
+            return hashSetFilterService.createInventory(new HashSetFilter(new ArrayList<>()), predicate);
+        }
+        filter.setReconciliation(reconcileAndLog(filter, hashes));
+        return super.createInventory(filter, predicate);
     }
 
     @Override
     protected boolean isAuthenticatedDataRequestMissing(MiniSketchFilter filter, Map.Entry<ByteArray, AuthenticatedDataRequest> mapEntry) {
-        return true;
+        return isMissing(filter, mapEntry);
     }
 
     @Override
     protected boolean isMailboxRequestMissing(MiniSketchFilter filter, Map.Entry<ByteArray, MailboxRequest> mapEntry) {
-        return true;
+        return isMissing(filter, mapEntry);
     }
 
     @Override
     protected boolean isAddAppendOnlyDataRequestMissing(MiniSketchFilter filter, Map.Entry<ByteArray, AddAppendOnlyDataRequest> mapEntry) {
-        return true;
+        return isMissing(filter, mapEntry);
     }
 
     @Override
@@ -65,4 +112,83 @@ public class MiniSketchFilterService extends FilterService<MiniSketchFilter> {
         }
         throw new IllegalArgumentException("InventoryFilter not of expected type. inventoryFilter=" + inventoryFilter);
     }
+
+    static boolean isFilterAccepted(MiniSketchFilter filter, int numEntries) {
+        return filter.getCapacity() == CAPACITY && filter.getNumBuckets() <= getNumBuckets(numEntries);
+    }
+
+    static int getNumBuckets(int numEntries) {
+        int numBuckets = Integer.highestOneBit(Math.max(1, numEntries / BUCKET_LOAD - 1)) << 1;
+        return Math.max(MIN_NUM_BUCKETS, Math.min(MiniSketchFilter.MAX_NUM_BUCKETS, numBuckets));
+    }
+
+    static PinSketch[] createPinSketches(long[] hashes, int numBuckets, int capacity) {
+        PinSketch[] pinSketches = new PinSketch[numBuckets];
+        for (int i = 0; i < numBuckets; i++) {
+            pinSketches[i] = new PinSketch(capacity);
+        }
+        for (long hash : hashes) {
+            pinSketches[MiniSketchReconciliation.toBucket(hash, numBuckets)].add(MiniSketchReconciliation.toElement(hash));
+        }
+        return pinSketches;
+    }
+
+    static MiniSketchReconciliation reconcile(MiniSketchFilter filter, long[] hashes) {
+        int numBuckets = filter.getNumBuckets();
+        int capacity = filter.getCapacity();
+        PinSketch[] pinSketches = createPinSketches(hashes, numBuckets, capacity);
+        MiniSketchReconciliation reconciliation = new MiniSketchReconciliation(numBuckets);
+        for (int bucket = 0; bucket < numBuckets; bucket++) {
+            PinSketch pinSketch = pinSketches[bucket];
+            pinSketch.merge(filter.getPinSketch(bucket));
+            Optional<long[]> difference = pinSketch.decode();
+            // If the difference is larger than the capacity, decoding can produce a wrong result. Using the last
+            // syndrome only as check reduces that risk considerably.
+            if (difference.isPresent() && difference.get().length < capacity) {
+                reconciliation.addDecodedElements(bucket, difference.get());
+            } else {
+                reconciliation.addFailedBucket(bucket);
+            }
+        }
+        return reconciliation;
+    }
+
+    // 64 bit FNV-1a hash of the map key and the sequence number with a final mixing step
+    static long toHash(byte[] key, int sequenceNumber) {
+        long hash = 0xcbf29ce484222325L ^ sequenceNumber;
+        for (byte b : key) {
+            hash ^= b & 0xff;
+            hash *= 0x100000001b3L;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+
+    private long[] getHashes() {
+        return storageService.getAllDataRequestMapEntries()
+                .mapToLong(MiniSketchFilterService::toHash)
+                .toArray();
+    }
+
+    private MiniSketchReconciliation reconcileAndLog(MiniSketchFilter filter, long[] hashes) {
+        long ts = System.currentTimeMillis();
+        MiniSketchReconciliation reconciliation = reconcile(filter, hashes);
+        log.info("Reconciliation of {} entries took {} ms. {} of {} buckets could not be decoded. {} elements decoded.",
+                hashes.length, System.currentTimeMillis() - ts, reconciliation.getFailedBuckets().cardinality(),
+                filter.getNumBuckets(), reconciliation.getDecodedKeys().size());
+        return reconciliation;
+    }
+
+    private boolean isMissing(MiniSketchFilter filter, Map.Entry<ByteArray, ? extends DataRequest> mapEntry) {
+        MiniSketchReconciliation reconciliation = filter.getReconciliation();
+        return reconciliation == null || reconciliation.isMissing(toHash(mapEntry));
+    }
+
+    private static long toHash(Map.Entry<ByteArray, ? extends DataRequest> mapEntry) {
+        return toHash(mapEntry.getKey().getBytes(), getSequenceNumber(mapEntry.getValue()));
+    }
 }
@@ -0,0 +1,68 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.network.p2p.services.data.inventory.filter.mini_sketch;
+
+import lombok.Getter;
+
+import java.util.BitSet;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Symmetric difference of the requesters and the responders entries. For buckets which could not be decoded we do not
+ * know which entries are missing, so we treat all entries of those buckets as missing.
+ */
+@Getter
+final class MiniSketchReconciliation {
+    private final int numBuckets;
+    private final Set<Long> decodedKeys = new HashSet<>();
+    private final BitSet failedBuckets = new BitSet();
+
+    MiniSketchReconciliation(int numBuckets) {
+        this.numBuckets = numBuckets;
+    }
+
+    void addDecodedElements(int bucket, long[] elements) {
+        for (long element : elements) {
+            decodedKeys.add(toKey(bucket, element));
+        }
+    }
+
+    void addFailedBucket(int bucket) {
+        failedBuckets.set(bucket);
+    }
+
+    boolean isMissing(long hash) {
+        int bucket = toBucket(hash, numBuckets);
+        return failedBuckets.get(bucket) || decodedKeys.contains(toKey(bucket, toElement(hash)));
+    }
+
+    static int toBucket(long hash, int numBuckets) {
+        return (int) (hash >>> 32) & (numBuckets - 1);
+    }
+
+    static long toElement(long hash) {
+        long element = hash & GaloisField32.MASK;
+        // Zero is not a valid element
+        return element == 0 ? 1 : element;
+    }
+
+    private static long toKey(int bucket, long element) {
+        return ((long) bucket << 32) | element;
+    }
+}
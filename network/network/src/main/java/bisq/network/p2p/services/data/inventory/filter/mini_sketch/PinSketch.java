@@ -0,0 +1,301 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.network.p2p.services.data.inventory.filter.mini_sketch;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * PinSketch (BCH based set sketch) over GF(2^32) as used by
+ * <a href="https://github.com/sipa/minisketch">https://github.com/sipa/minisketch</a>.
+ * <p>
+ * A sketch with capacity c stores the odd power sums s1, s3, ..., s(2c-1) of all added elements. Sketches are linear,
+ * so merging the sketches of 2 sets results in the sketch of their symmetric difference, which can be decoded if it
+ * does not contain more than c elements. Decoding uses Berlekamp-Massey for finding the error locator polynomial and
+ * the Berlekamp trace algorithm for finding its roots.
+ * <p>
+ * Elements must be non-zero 32 bit values. Adding the same element twice removes it.
+ */
+final class PinSketch {
+    private static final int MAX_ROOT_FINDING_ATTEMPTS = 100;
+
+    private final long[] syndromes;
+
+    PinSketch(int capacity) {
+        this(new long[capacity]);
+    }
+
+    PinSketch(long[] syndromes) {
+        checkArgument(syndromes.length > 0, "Capacity must be at least 1");
+        this.syndromes = syndromes;
+    }
+
+    int getCapacity() {
+        return syndromes.length;
+    }
+
+    long[] getSyndromes() {
+        return syndromes;
+    }
+
+    void add(long element) {
+        checkArgument(element != 0 && (element & ~GaloisField32.MASK) == 0, "Element must be a non-zero 32 bit value");
+        long elementSquared = GaloisField32.square(element);
+        long power = element;
+        syndromes[0] ^= power;
+        for (int i = 1; i < syndromes.length; i++) {
+            power = GaloisField32.multiply(power, elementSquared);
+            syndromes[i] ^= power;
+        }
+    }
+
+    void merge(PinSketch other) {
+        checkArgument(other.getCapacity() == getCapacity(), "Capacity of sketches must match");
+        for (int i = 0; i < syndromes.length; i++) {
+            syndromes[i] ^= other.syndromes[i];
+        }
+    }
+
+    /**
+     * @return The elements of the set represented by the sketch, or empty if the sketch could not be decoded because
+     * the set has more elements than the capacity of the sketch.
+     */
+    Optional<long[]> decode() {
+        int capacity = syndromes.length;
+        // Power sums p1...p2c. In characteristic 2 the even ones are the squares: p(2i) = p(i)^2
+        long[] powerSums = new long[2 * capacity];
+        for (int i = 1; i <= 2 * capacity; i++) {
+            powerSums[i - 1] = (i & 1) == 1 ? syndromes[i / 2] : GaloisField32.square(powerSums[i / 2 - 1]);
+        }
+
+        long[] locator = berlekampMassey(powerSums);
+        int numElements = degree(locator);
+        if (numElements == 0) {
+            return Optional.of(new long[0]);
+        }
+        if (numElements > capacity) {
+            return Optional.empty();
+        }
+
+        // The locator is prod(1 - e*x). The reversed polynomial prod(x - e) has the elements as roots.
+        long[] poly = new long[numElements + 1];
+        for (int i = 0; i <= numElements; i++) {
+            poly[i] = locator[numElements - i];
+        }
+        if (poly[0] == 0) {
+            // Zero would be a root, but zero is not a valid element
+            return Optional.empty();
+        }
+
+        // All roots are in the field and distinct if x^(2^32) = x mod poly
+        poly = makeMonic(poly);
+        long[] x = mod(new long[]{0, 1}, poly);
+        long[] xPow = x;
+        for (int i = 0; i < GaloisField32.BITS; i++) {
+            xPow = squareMod(xPow, poly);
+        }
+        if (!Arrays.equals(trim(xPow), trim(x))) {
+            return Optional.empty();
+        }
+
+        List<Long> roots = new ArrayList<>(numElements);
+        if (!findRoots(poly, roots) || roots.size() != numElements) {
+            return Optional.empty();
+        }
+        return Optional.of(roots.stream().mapToLong(Long::longValue).toArray());
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////////////
+    // Private
+    ///////////////////////////////////////////////////////////////////////////////////////////////////
+
+    private static long[] berlekampMassey(long[] sequence) {
+        int n = sequence.length;
+        long[] current = new long[n + 1];
+        long[] previous = new long[n + 1];
+        current[0] = 1;
+        previous[0] = 1;
+        int length = 0;
+        int shift = 1;
+        long previousDiscrepancy = 1;
+        for (int i = 0; i < n; i++) {
+            long discrepancy = sequence[i];
+            for (int j = 1; j <= length; j++) {
+                discrepancy ^= GaloisField32.multiply(current[j], sequence[i - j]);
+            }
+            if (discrepancy == 0) {
+                shift++;
+                continue;
+            }
+            long factor = GaloisField32.multiply(discrepancy, GaloisField32.inverse(previousDiscrepancy));
+            if (2 * length <= i) {
+                long[] copy = current.clone();
+                subtractShifted(current, previous, factor, shift);
+                length = i + 1 - length;
+                previous = copy;
+                previousDiscrepancy = discrepancy;
+                shift = 1;
+            } else {
+                subtractShifted(current, previous, factor, shift);
+                shift++;
+            }
+        }
+        return Arrays.copyOf(current, length + 1);
+    }
+
+    private static void subtractShifted(long[] target, long[] source, long factor, int shift) {
+        for (int j = 0; j + shift < target.length; j++) {
+            if (source[j] != 0) {
+                target[j + shift] ^= GaloisField32.multiply(factor, source[j]);
+            }
+        }
+    }
+
+    // Berlekamp trace algorithm. Requires a monic polynomial which splits into distinct linear factors.
+    private static boolean findRoots(long[] poly, List<Long> roots) {
+        int degree = degree(poly);
+        if (degree == 0) {
+            return true;
+        }
+        if (degree == 1) {
+            // x + a has the root a
+            roots.add(poly[0]);
+            return true;
+        }
+
+        for (int attempt = 0; attempt < MAX_ROOT_FINDING_ATTEMPTS; attempt++) {
+            long beta = ThreadLocalRandom.current().nextLong(1, 1L << GaloisField32.BITS);
+            // Tr(beta*x) = sum of (beta*x)^(2^i) for i in 0..31
+            long[] term = mod(new long[]{0, beta}, poly);
+            long[] trace = term.clone();
+            for (int i = 1; i < GaloisField32.BITS; i++) {
+                term = squareMod(term, poly);
+                trace = add(trace, term);
+            }
+            long[] factor = gcd(poly, trace);
+            int factorDegree = degree(factor);
+            if (factorDegree > 0 && factorDegree < degree) {
+                return findRoots(factor, roots) && findRoots(divide(poly, factor), roots);
+            }
+        }
+        return false;
+    }
+
+    private static int degree(long[] poly) {
+        for (int i = poly.length - 1; i >= 0; i--) {
+            if (poly[i] != 0) {
+                return i;
+            }
+        }
+        // We treat the zero polynomial like a constant
+        return 0;
+    }
+
+    private static boolean isZero(long[] poly) {
+        for (long coefficient : poly) {
+            if (coefficient != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static long[] trim(long[] poly) {
+        return Arrays.copyOf(poly, degree(poly) + 1);
+    }
+
+    private static long[] makeMonic(long[] poly) {
+        long[] trimmed = trim(poly);
+        long inverseLead = GaloisField32.inverse(trimmed[trimmed.length - 1]);
+        for (int i = 0; i < trimmed.length; i++) {
+            trimmed[i] = GaloisField32.multiply(trimmed[i], inverseLead);
+        }
+        return trimmed;
+    }
+
+    private static long[] add(long[] a, long[] b) {
+        long[] result = Arrays.copyOf(a, Math.max(a.length, b.length));
+        for (int i = 0; i < b.length; i++) {
+            result[i] ^= b[i];
+        }
+        return result;
+    }
+
+    private static long[] squareMod(long[] poly, long[] modulus) {
+        // In characteristic 2: (sum a_i x^i)^2 = sum a_i^2 x^(2i)
+        int degree = degree(poly);
+        long[] result = new long[2 * degree + 1];
+        for (int i = 0; i <= degree; i++) {
+            result[2 * i] = GaloisField32.square(poly[i]);
+        }
+        return mod(result, modulus);
+    }
+
+    // Modulus must be monic
+    private static long[] mod(long[] poly, long[] modulus) {
+        int modulusDegree = degree(modulus);
+        long[] remainder = poly.clone();
+        for (int i = remainder.length - 1; i >= modulusDegree; i--) {
+            long coefficient = remainder[i];
+            if (coefficient != 0) {
+                int offset = i - modulusDegree;
+                for (int j = 0; j <= modulusDegree; j++) {
+                    remainder[offset + j] ^= GaloisField32.multiply(coefficient, modulus[j]);
+                }
+            }
+        }
+        return Arrays.copyOf(remainder, Math.max(1, Math.min(remainder.length, modulusDegree)));
+    }
+
+    // Divisor must be monic and the division must be exact
+    private static long[] divide(long[] poly, long[] divisor) {
+        int divisorDegree = degree(divisor);
+        int degree = degree(poly);
+        long[] remainder = poly.clone();
+        long[] quotient = new long[degree - divisorDegree + 1];
+        for (int i = degree; i >= divisorDegree; i--) {
+            long coefficient = remainder[i];
+            if (coefficient != 0) {
+                int offset = i - divisorDegree;
+                quotient[offset] = coefficient;
+                for (int j = 0; j <= divisorDegree; j++) {
+                    remainder[offset + j] ^= GaloisField32.multiply(coefficient, divisor[j]);
+                }
+            }
+        }
+        return quotient;
+    }
+
+    // Returns the monic gcd
+    private static long[] gcd(long[] a, long[] b) {
+        a = makeMonic(a);
+        while (!isZero(b)) {
+            b = makeMonic(b);
+            long[] remainder = mod(a, b);
+            a = b;
+            b = remainder;
+        }
+        return a;
+    }
+}
@@ -29,17 +29,29 @@ import bisq.persistence.DbSubDirectory;
 import bisq.persistence.Persistence;
 import bisq.persistence.PersistenceService;
 import bisq.persistence.RateLimitedPersistenceClient;
+import bisq.persistence.ReadPriority;
+import bisq.persistence.protobuf.JournalRecord;
+import com.google.protobuf.ByteString;
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 
 import java.io.File;
-import java.util.Map;
-import java.util.Optional;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
 
+/**
+ * The data stores are persisted in journal mode: putToMap and removeFromMap mark the changed keys, and at each persist
+ * call we only append the current state of those keys to the journal. Once the journal has more records than the
+ * store has entries, we write a new snapshot and delete the journal. At reading, the journal is replayed on top of
+ * the snapshot.
+ */
 @Slf4j
 public abstract class DataStorageService<T extends DataRequest> extends RateLimitedPersistenceClient<DataStore<T>> {
     public static final String STORE_POST_FIX = "Store";
+    private static final int MIN_NUM_JOURNAL_RECORDS_FOR_COMPACTION = 1000;
 
     @Getter
     protected final Persistence<DataStore<T>> persistence;
@@ -51,6 +63,15 @@ public abstract class DataStorageService<T extends DataRequest> extends RateLimi
     protected final String subDirectory;
     protected Optional<Integer> maxMapSize = Optional.empty();
 
+    private final Object journalLock = new Object();
+    // Keys which got changed since the last persist call. We only keep the keys and read the value at persist, so
+    // that concurrent changes of the same key cannot lead to a journal with an outdated value.
+    private final Set<ByteArray> changedKeys = ConcurrentHashMap.newKeySet();
+    private int numJournalRecords;
+    // Sum of the serialized sizes of all requests in the map. Updated at each change, so that we do not need to
+    // serialize all requests for getting the size of the network database.
+    private final AtomicLong serializedSize = new AtomicLong();
+
     public DataStorageService(PersistenceService persistenceService, String storeName, String storeKey) {
         super();
 
@@ -63,9 +84,79 @@ public abstract class DataStorageService<T extends DataRequest> extends RateLimi
                 persistableStore);
     }
 
+    @Override
+    public ReadPriority getReadPriority() {
+        return ReadPriority.LOW;
+    }
+
     public void shutdown() {
     }
 
+    @Override
+    public CompletableFuture<Optional<DataStore<T>>> readPersisted() {
+        return persistence.readAsync().thenApply(snapshot -> {
+            List<JournalRecord> journalRecords = persistence.getJournal().read();
+            if (snapshot.isEmpty() && journalRecords.isEmpty()) {
+                return Optional.empty();
+            }
+
+            DataStore<T> persisted = snapshot.orElseGet(DataStore::new);
+            Map<ByteArray, T> map = persisted.getMap();
+            journalRecords.forEach(journalRecord -> applyJournalRecord(journalRecord, map));
+            synchronized (journalLock) {
+                numJournalRecords = journalRecords.size();
+            }
+
+            Set<ByteArray> persistedKeys = new HashSet<>(map.keySet());
+            persisted = prunePersisted(persisted);
+            // The pruned entries need to be removed from the persisted state as well
+            persistedKeys.removeAll(persisted.getMap().keySet());
+            changedKeys.addAll(persistedKeys);
+            persistableStore.applyPersisted(persisted);
+            recalculateSerializedSize();
+            onPersistedApplied(persisted);
+            return Optional.of(persisted);
+        });
+    }
+
+    @Override
+    protected CompletableFuture<Void> doPersist() {
+        synchronized (journalLock) {
+            List<JournalRecord> journalRecords = getNewJournalRecords();
+            if (journalRecords.isEmpty()) {
+                return CompletableFuture.completedFuture(null);
+            }
+
+            // We append the changes before compaction, so that the journal represents the same state as the new
+            // snapshot in case we get terminated before the journal got deleted.
+            CompletableFuture<Void> future = persistence.appendToJournalAsync(journalRecords);
+            numJournalRecords += journalRecords.size();
+            Map<ByteArray, T> map = persistableStore.getMap();
+            if (numJournalRecords > Math.max(MIN_NUM_JOURNAL_RECORDS_FOR_COMPACTION, map.size())) {
+                numJournalRecords = 0;
+                // The snapshot is taken after reading the journal records, so it is at least as recent as the journal
+                future = persistence.compactJournalAsync(new DataStore<>(map));
+            }
+            return future;
+        }
+    }
+
+    @Override
+    protected void doPersistOnShutdown() {
+        CompletableFuture<Void> future;
+        synchronized (journalLock) {
+            List<JournalRecord> journalRecords = getNewJournalRecords();
+            if (journalRecords.isEmpty()) {
+                return;
+            }
+            numJournalRecords += journalRecords.size();
+            // We use the persistence executor, so that the records are not written while a previous append or a
+            // compaction is still pending.
+            future = persistence.appendToJournalAsync(journalRecords);
+        }
+        future.join();
+    }
+
     @Override
     public DataStore<T> prunePersisted(DataStore<T> persisted) {
         Map<ByteArray, T> map = persisted.getMap();
@@ -84,6 +175,42 @@ public abstract class DataStorageService<T extends DataRequest> extends RateLimi
         return persisted;
     }
 
+    public long getSerializedSize() {
+        return serializedSize.get();
+    }
+
+    /**
+     * Puts the request to the map, updates the serialized size and marks the key for the journal. All changes of
+     * single entries need to be done by putToMap and removeFromMap, otherwise the serialized size and the persisted
+     * data get inconsistent.
+     */
+    protected void putToMap(ByteArray key, T request) {
+        T previous = persistableStore.getMap().put(key, request);
+        serializedSize.addAndGet(request.getSerializedSize() - serializedSizeOf(previous));
+        changedKeys.add(key);
+    }
+
+    protected void removeFromMap(ByteArray key) {
+        T previous = persistableStore.getMap().remove(key);
+        if (previous != null) {
+            serializedSize.addAndGet(-previous.getSerializedSize());
+            changedKeys.add(key);
+        }
+    }
+
+    /**
+     * Needs to be called after bulk changes of the map.
+     */
+    void recalculateSerializedSize() {
+        serializedSize.set(persistableStore.getMap().values().stream()
+                .mapToLong(DataRequest::getSerializedSize)
+                .sum());
+    }
+
+    private static long serializedSizeOf(DataRequest request) {
+        return request != null ? request.getSerializedSize() : 0;
+    }
+
     protected int getMaxMapSize() {
         if (maxMapSize.isEmpty()) {
             int size = persistableStore.getMap().values().stream()
@@ -158,4 +285,37 @@ public abstract class DataStorageService<T extends DataRequest> extends RateLimi
         }
         return isExceeding;
     }
+
+    private List<JournalRecord> getNewJournalRecords() {
+        List<JournalRecord> journalRecords = new ArrayList<>();
+        Map<ByteArray, T> map = persistableStore.getMap();
+        for (ByteArray key : changedKeys) {
+            // We remove the key before reading the value. A concurrent change after the removal marks the key again.
+            changedKeys.remove(key);
+            T value = map.get(key);
+            JournalRecord.Builder builder = JournalRecord.newBuilder().setKey(ByteString.copyFrom(key.getBytes()));
+            if (value != null) {
+                builder.setValue(value.toDataRequestProto(false).toByteString());
+            } else {
+                builder.setIsRemoved(true);
+            }
+            journalRecords.add(builder.build());
+        }
+        return journalRecords;
+    }
+
+    private void applyJournalRecord(JournalRecord journalRecord, Map<ByteArray, T> map) {
+        ByteArray key = new ByteArray(journalRecord.getKey().toByteArray());
+        if (journalRecord.getIsRemoved()) {
+            map.remove(key);
+            return;
+        }
+        try {
+            //noinspection unchecked
+            T dataRequest = (T) DataRequest.fromProto(bisq.network.protobuf.DataRequest.parseFrom(journalRecord.getValue()));
+            map.put(key, dataRequest);
+        } catch (Exception e) {
+            log.error("Could not apply journal record for {}", storeKey, e);
+        }
+    }
 }
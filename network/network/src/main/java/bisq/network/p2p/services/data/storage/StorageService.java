@@ -20,6 +20,7 @@ package bisq.network.p2p.services.data.storage;
 
 import bisq.common.data.ByteArray;
 import bisq.common.proto.NetworkStorageWhiteList;
+import bisq.common.threading.ExecutorFactory;
 import bisq.common.util.StringUtils;
 import bisq.network.NetworkService;
 import bisq.network.p2p.services.data.AddDataRequest;
@@ -35,6 +36,7 @@ import bisq.network.p2p.services.data.storage.mailbox.*;
 import bisq.persistence.DbSubDirectory;
 import bisq.persistence.Persistence;
 import bisq.persistence.PersistenceService;
+import bisq.security.DigestUtil;
 import com.google.common.collect.Maps;
 import lombok.extern.slf4j.Slf4j;
 
@@ -44,7 +46,9 @@ import java.util.*;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.ExecutorService;
 import java.util.function.Function;
+import java.util.function.Predicate;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -63,6 +67,12 @@ public class StorageService {
     final Map<String, AppendOnlyDataStorageService> appendOnlyDataStores = new ConcurrentHashMap<>();
     private final PersistenceService persistenceService;
     private final Set<StorageService.Listener> listeners = new CopyOnWriteArraySet<>();
+    private volatile Predicate<String> mailboxReceiverKeyIdFilter = receiverKeyId -> true;
+    // Used for the signature verifications of inbound authenticated data requests, so that they are not serialized on
+    // the dispatcher thread or inside the map lock of the store.
+    private final ExecutorService verificationExecutor = ExecutorFactory.newFixedThreadPool("StorageService.verification");
+    // The last pending authenticated data request per key. Used to apply the requests for one key in arrival order.
+    private final Map<ByteArray, CompletableFuture<DataStorageResult>> pendingRequestsByKey = new ConcurrentHashMap<>();
 
     public StorageService(PersistenceService persistenceService) {
         this.persistenceService = persistenceService;
@@ -109,6 +119,7 @@ public class StorageService {
                 getExistingStoreKeys(directory)
                         .forEach(storeKey -> {
                             MailboxDataStorageService dataStore = new MailboxDataStorageService(persistenceService, mailboxStoreName, storeKey);
+                            dataStore.setReceiverKeyIdFilter(receiverKeyId -> mailboxReceiverKeyIdFilter.test(receiverKeyId));
                             dataStore.addListener(new MailboxDataStorageService.Listener() {
                                 @Override
                                 public void onAdded(MailboxData mailboxData) {
@@ -157,10 +168,19 @@ public class StorageService {
         }
     }
 
+    /**
+     * Only mailbox data with a receiver key ID accepted by the filter are passed to the listeners. The mailbox data
+     * are stored in any case.
+     */
+    public void setMailboxReceiverKeyIdFilter(Predicate<String> mailboxReceiverKeyIdFilter) {
+        this.mailboxReceiverKeyIdFilter = mailboxReceiverKeyIdFilter;
+    }
+
     public void shutdown() {
         authenticatedDataStores.values().forEach(DataStorageService::shutdown);
         mailboxStores.values().forEach(DataStorageService::shutdown);
         appendOnlyDataStores.values().forEach(DataStorageService::shutdown);
+        ExecutorFactory.shutdownAndAwaitTermination(verificationExecutor);
     }
 
 
@@ -173,15 +193,17 @@ public class StorageService {
     }
 
     public Stream<AuthenticatedData> getAuthenticatedData(String storeKey) {
-        return getAuthenticatedData(getStoreByFileName(storeKey));
+        return Optional.ofNullable(authenticatedDataStores.get(storeKey)).stream()
+                .flatMap(this::getAuthenticatedData);
     }
 
     public Stream<AuthenticatedData> getAuthenticatedData(Stream<DataStorageService<? extends DataRequest>> stores) {
         return stores.flatMap(this::getAuthenticatedData);
     }
 
+    // The map is a ConcurrentHashMap, so we can iterate it directly without cloning it.
     private Stream<AuthenticatedData> getAuthenticatedData(DataStorageService<? extends DataRequest> store) {
-        return store.getPersistableStore().getClone().getMap().values().stream()
+        return store.getPersistableStore().getMap().values().stream()
                 .filter(e -> e instanceof AddAuthenticatedDataRequest)
                 .map(e -> (AddAuthenticatedDataRequest) e)
                 .map(e -> e.getAuthenticatedSequentialData().getAuthenticatedData());
@@ -224,9 +246,12 @@ public class StorageService {
 
     private CompletableFuture<Optional<StorageData>> onAddAuthenticatedDataRequest(AddAuthenticatedDataRequest request) {
         AuthenticatedData authenticatedData = request.getAuthenticatedSequentialData().getAuthenticatedData();
-        return getOrCreateAuthenticatedDataStore(authenticatedData.getClassName())
-                .thenApply(store -> {
-                    DataStorageResult dataStorageResult = store.add(request);
+        ByteArray key = new ByteArray(DigestUtil.hash(authenticatedData.serializeForHash()));
+        return preVerifyAndApply(key,
+                request,
+                getOrCreateAuthenticatedDataStore(authenticatedData.getClassName()),
+                store -> store.add(request))
+                .thenApply(dataStorageResult -> {
                     if (dataStorageResult.isSuccess()) {
                         return Optional.of(authenticatedData);
                     } else {
@@ -287,9 +312,11 @@ public class StorageService {
     }
 
     private CompletableFuture<Optional<StorageData>> onRemoveAuthenticatedDataRequest(RemoveAuthenticatedDataRequest request) {
-        return getOrCreateAuthenticatedDataStore(request.getClassName())
-                .thenApply(store -> {
-                    DataStorageResult dataStorageResult = store.remove(request);
+        return preVerifyAndApply(new ByteArray(request.getHash()),
+                request,
+                getOrCreateAuthenticatedDataStore(request.getClassName()),
+                store -> store.remove(request))
+                .thenApply(dataStorageResult -> {
                     if (dataStorageResult.isSuccess()) {
                         return Optional.of(dataStorageResult.getRemovedData());
                     } else {
@@ -301,6 +328,35 @@ public class StorageService {
                 });
     }
 
+    // The signature verifications are run in parallel on the verification pool. The results are cached in the
+    // request, so the store only needs to hold its map lock for the sequence number checks and the map update.
+    // The store update itself is done on the dispatcher thread, as it was before, so listeners are not affected.
+    // Requests for the same key are applied in the order they arrived, independent of the order in which their
+    // verifications complete. Otherwise, a remove could be applied before the add it follows.
+    private CompletableFuture<DataStorageResult> preVerifyAndApply(ByteArray key,
+                                                                   DataRequest request,
+                                                                   CompletableFuture<AuthenticatedDataStorageService> storeFuture,
+                                                                   Function<AuthenticatedDataStorageService, DataStorageResult> storeFunction) {
+        CompletableFuture<Void> preVerifyFuture = CompletableFuture.runAsync(() -> AuthenticatedDataStorageService.preVerify(request),
+                verificationExecutor);
+        CompletableFuture<DataStorageResult> resultFuture = new CompletableFuture<>();
+        CompletableFuture<DataStorageResult> previous = pendingRequestsByKey.put(key, resultFuture);
+        CompletableFuture<?> predecessor = previous != null ? previous.handle((result, throwable) -> null) :
+                CompletableFuture.completedFuture(null);
+        predecessor.thenCombine(preVerifyFuture, (previousResult, nil) -> null)
+                .thenCombine(storeFuture, (nil, store) -> store)
+                .thenApplyAsync(storeFunction, NetworkService.DISPATCHER)
+                .whenComplete((result, throwable) -> {
+                    pendingRequestsByKey.remove(key, resultFuture);
+                    if (throwable != null) {
+                        resultFuture.completeExceptionally(throwable);
+                    } else {
+                        resultFuture.complete(result);
+                    }
+                });
+        return resultFuture;
+    }
+
     public Stream<Map<ByteArray, AuthenticatedDataRequest>> getAuthenticatedDataStoreMaps() {
         return authenticatedDataStores.values().stream().map(store -> store.getPersistableStore().getClone().getMap());
     }
@@ -317,6 +373,20 @@ public class StorageService {
         return getStoresByStoreType(ALL).flatMap(store -> new HashMap<>(store.getPersistableStore().getMap()).entrySet().stream());
     }
 
+    /**
+     * @return The sum of the serialized sizes of all data requests. Does not serialize the data requests, as each
+     * store keeps its running total.
+     */
+    public long getNetworkDatabaseSize() {
+        return getAllStores().mapToLong(DataStorageService::getSerializedSize).sum();
+    }
+
+    public Map<String, Long> getNetworkDatabaseSizeByStoreKey() {
+        Map<String, Long> sizeByStoreKey = new TreeMap<>();
+        getAllStores().forEach(store -> sizeByStoreKey.merge(store.getStoreKey(), store.getSerializedSize(), Long::sum));
+        return sizeByStoreKey;
+    }
+
 
     ///////////////////////////////////////////////////////////////////////////////////////////////////
     // Get or create stores
@@ -362,6 +432,7 @@ public class StorageService {
             MailboxDataStorageService dataStore = new MailboxDataStorageService(persistenceService,
                     MAILBOX_DATA_STORE.getStoreName(),
                     storeKey);
+            dataStore.setReceiverKeyIdFilter(receiverKeyId -> mailboxReceiverKeyIdFilter.test(receiverKeyId));
             dataStore.addListener(new MailboxDataStorageService.Listener() {
                 @Override
                 public void onAdded(MailboxData mailboxData) {
@@ -460,8 +531,11 @@ public class StorageService {
                                 }
                             }));
             log.info("cleanupMap for {}: size of cleaned map {}; size of original map={}", storeKey, cleaned.size(), map.size());
-            map.clear();
-            map.putAll(cleaned);
+            // We remove the entries one by one, so that the serialized size and the journal get updated
+            map.keySet().stream()
+                    .filter(key -> !cleaned.containsKey(key))
+                    .collect(Collectors.toList())
+                    .forEach(authenticatedDataStorageService::removeFromMap);
             authenticatedDataStorageService.persist();
         } catch (Exception e) {
             e.printStackTrace();
@@ -500,11 +574,6 @@ public class StorageService {
         return dataStorageServiceStream.stream();
     }
 
-    private Stream<DataStorageService<? extends DataRequest>> getStoreByFileName(String storeKey) {
-        return getAllStores()
-                .filter(store -> storeKey.equals(store.getStoreKey()));
-    }
-
     private Set<String> getExistingStoreKeys(String directory) {
         return NetworkStorageWhiteList.getClassNames().stream()
                 .filter(className -> {
@@ -17,6 +17,7 @@
 
 package bisq.network.p2p.services.data.storage.append;
 
+import bisq.common.proto.MemoizedProto;
 import bisq.common.util.MathUtils;
 import bisq.network.p2p.services.data.AddDataRequest;
 import bisq.network.p2p.services.data.storage.DistributedData;
@@ -30,7 +31,7 @@ import lombok.extern.slf4j.Slf4j;
 @Getter
 @ToString
 @EqualsAndHashCode
-public final class AddAppendOnlyDataRequest implements AddDataRequest {
+public final class AddAppendOnlyDataRequest implements AddDataRequest, MemoizedProto {
     private final AppendOnlyData appendOnlyData;
 
     public AddAppendOnlyDataRequest(AppendOnlyData appendOnlyData) {
@@ -71,7 +71,7 @@ public class AppendOnlyDataStorageService extends DataStorageService<AddAppendOn
                 return new DataStorageResult(false).payloadAlreadyStored();
             }
 
-            map.put(byteArray, addAppendOnlyDataRequest);
+            putToMap(byteArray, addAppendOnlyDataRequest);
         }
         persist();
         listeners.forEach(listener -> {
@@ -18,6 +18,7 @@
 package bisq.network.p2p.services.data.storage.auth;
 
 import bisq.common.encoding.Hex;
+import bisq.common.proto.MemoizedProto;
 import bisq.common.util.MathUtils;
 import bisq.common.validation.NetworkDataValidation;
 import bisq.network.p2p.services.data.AddDataRequest;
@@ -25,6 +26,7 @@ import bisq.network.p2p.services.data.storage.DistributedData;
 import bisq.network.protobuf.DataRequest;
 import bisq.security.DigestUtil;
 import bisq.security.SignatureUtil;
+import bisq.security.SignatureVerificationService;
 import bisq.security.keys.KeyGeneration;
 import com.google.protobuf.ByteString;
 import lombok.EqualsAndHashCode;
@@ -44,7 +46,7 @@ import java.util.Optional;
  */
 @EqualsAndHashCode
 @Slf4j
-public final class AddAuthenticatedDataRequest implements AuthenticatedDataRequest, AddDataRequest {
+public final class AddAuthenticatedDataRequest implements AuthenticatedDataRequest, AddDataRequest, MemoizedProto {
     public static AddAuthenticatedDataRequest from(AuthenticatedDataStorageService store, AuthenticatedData authenticatedData, KeyPair keyPair)
             throws GeneralSecurityException {
 
@@ -72,6 +74,8 @@ public final class AddAuthenticatedDataRequest implements AuthenticatedDataReque
     private final byte[] ownerPublicKeyBytes;
     // transient fields are excluded by default for EqualsAndHashCode
     private transient final PublicKey ownerPublicKey;
+    // Cached result of the signature verification. Allows to run the verification outside the map lock of the store.
+    private transient volatile Boolean signatureInvalid;
 
     public AddAuthenticatedDataRequest(AuthenticatedSequentialData authenticatedSequentialData, byte[] signature, PublicKey ownerPublicKey) {
         this(authenticatedSequentialData,
@@ -143,12 +147,17 @@ public final class AddAuthenticatedDataRequest implements AuthenticatedDataReque
     }
 
     public boolean isSignatureInvalid() {
-        try {
-            return !SignatureUtil.verify(authenticatedSequentialData.serializeForHash(), signature, getOwnerPublicKey());
-        } catch (Exception e) {
-            log.warn(e.toString(), e);
-            return true;
+        Boolean result = signatureInvalid;
+        if (result == null) {
+            try {
+                result = !SignatureVerificationService.verify(authenticatedSequentialData.serializeForHash(), signature, getOwnerPublicKey());
+            } catch (Exception e) {
+                log.warn(e.toString(), e);
+                result = true;
+            }
+            signatureInvalid = result;
         }
+        return result;
     }
 
     public boolean isPublicKeyInvalid() {
@@ -17,6 +17,7 @@
 
 package bisq.network.p2p.services.data.storage.auth;
 
+import bisq.common.proto.MemoizedProto;
 import bisq.common.proto.UnresolvableProtobufMessageException;
 import bisq.network.p2p.services.data.storage.DistributedData;
 import bisq.network.p2p.services.data.storage.MetaData;
@@ -32,7 +33,7 @@ import lombok.extern.slf4j.Slf4j;
  */
 @Slf4j
 @EqualsAndHashCode
-public abstract class AuthenticatedData implements StorageData {
+public abstract class AuthenticatedData implements StorageData, MemoizedProto {
     @Getter
     protected final DistributedData distributedData;
 
@@ -21,6 +21,7 @@ import bisq.common.application.DevMode;
 import bisq.common.data.ByteArray;
 import bisq.common.timer.Scheduler;
 import bisq.common.util.StringUtils;
+import bisq.network.p2p.services.data.DataRequest;
 import bisq.network.p2p.services.data.storage.DataStorageResult;
 import bisq.network.p2p.services.data.storage.DataStorageService;
 import bisq.network.p2p.services.data.storage.DataStore;
@@ -74,58 +75,82 @@ public class AuthenticatedDataStorageService extends DataStorageService<Authenti
         scheduler.stop();
     }
 
+    /**
+     * Runs the stateless and CPU intense validations (signature verifications) of the given request.
+     * The results are cached in the request objects, so that the same checks at add and remove are cheap.
+     * Can be called concurrently from any thread.
+     */
+    public static void preVerify(DataRequest request) {
+        if (request instanceof AddAuthenticatedDataRequest) {
+            AddAuthenticatedDataRequest addRequest = (AddAuthenticatedDataRequest) request;
+            AuthenticatedData authenticatedData = addRequest.getAuthenticatedSequentialData().getAuthenticatedData();
+            if (authenticatedData instanceof AuthorizedData) {
+                ((AuthorizedData) authenticatedData).isNotAuthorized();
+            }
+            addRequest.isSignatureInvalid();
+        } else if (request instanceof RemoveAuthenticatedDataRequest) {
+            ((RemoveAuthenticatedDataRequest) request).isSignatureInvalid();
+        }
+    }
+
     public DataStorageResult add(AddAuthenticatedDataRequest request) {
         maybeLogMapState("add", persistableStore);
         AuthenticatedSequentialData authenticatedSequentialData = request.getAuthenticatedSequentialData();
         AuthenticatedData authenticatedData = authenticatedSequentialData.getAuthenticatedData();
         byte[] hash = DigestUtil.hash(authenticatedData.serializeForHash());
         ByteArray byteArray = new ByteArray(hash);
-        AuthenticatedDataRequest requestFromMap;
         Map<ByteArray, AuthenticatedDataRequest> map = persistableStore.getMap();
-        synchronized (mapAccessLock) {
-            if (isExceedingMapSize()) {
-                return new DataStorageResult(false).maxMapSizeReached();
-            }
 
-            requestFromMap = map.get(byteArray);
-            if (request.equals(requestFromMap)) {
-                return new DataStorageResult(false).requestAlreadyReceived();
-            }
+        // We check first against the current map state without holding the lock to avoid the expensive
+        // validations for requests we would reject anyway. The check is repeated under the lock.
+        Optional<DataStorageResult> mapStateResult = validateAddRequestWithMapState(request, map.get(byteArray));
+        if (mapStateResult.isPresent()) {
+            return mapStateResult.get();
+        }
 
-            if (requestFromMap != null && authenticatedSequentialData.isSequenceNrInvalid(requestFromMap.getSequenceNumber())) {
-                return new DataStorageResult(false).sequenceNrInvalid();
-            }
+        // The stateless validations do not need the lock
+        if (authenticatedSequentialData.isExpired()) {
+            log.info("Data is expired at add. request object={}",
+                    request.getAuthenticatedSequentialData().getAuthenticatedData().distributedData.getClass().getSimpleName());
+            log.debug("Data is expired at add. request={}", request);
+            return new DataStorageResult(false).expired();
+        }
 
-            if (authenticatedSequentialData.isExpired()) {
-                log.info("Data is expired at add. request object={}",
-                        request.getAuthenticatedSequentialData().getAuthenticatedData().distributedData.getClass().getSimpleName());
-                log.debug("Data is expired at add. request={}", request);
-                return new DataStorageResult(false).expired();
-            }
+        if (authenticatedData.isDataInvalid(authenticatedSequentialData.getPubKeyHash())) {
+            log.warn("AuthenticatedData is invalid at add. request={}", request);
+            return new DataStorageResult(false).dataInvalid();
+        }
 
-            if (authenticatedData.isDataInvalid(authenticatedSequentialData.getPubKeyHash())) {
-                log.warn("AuthenticatedData is invalid at add. request={}", request);
-                return new DataStorageResult(false).dataInvalid();
+        if (authenticatedData instanceof AuthorizedData) {
+            AuthorizedData authorizedData = (AuthorizedData) authenticatedData;
+            if (authorizedData.isNotAuthorized()) {
+                log.warn("AuthorizedData is not authorized. request={}", StringUtils.truncate(request.toString(), 500));
+                return new DataStorageResult(false).isNotAuthorized();
             }
+        }
 
-            if (authenticatedData instanceof AuthorizedData) {
-                AuthorizedData authorizedData = (AuthorizedData) authenticatedData;
-                if (authorizedData.isNotAuthorized()) {
-                    log.warn("AuthorizedData is not authorized. request={}", StringUtils.truncate(request.toString(), 500));
-                    return new DataStorageResult(false).isNotAuthorized();
-                }
-            }
+        if (request.isPublicKeyInvalid()) {
+            log.warn("PublicKey is invalid at add. request={}", request);
+            return new DataStorageResult(false).publicKeyHashInvalid();
+        }
 
-            if (request.isPublicKeyInvalid()) {
-                log.warn("PublicKey is invalid at add. request={}", request);
-                return new DataStorageResult(false).publicKeyHashInvalid();
+        if (request.isSignatureInvalid()) {
+            log.warn("Signature is invalid at add. request={}", request);
+            return new DataStorageResult(false).signatureInvalid();
+        }
+
+        synchronized (mapAccessLock) {
+            if (isExceedingMapSize()) {
+                return new DataStorageResult(false).maxMapSizeReached();
             }
 
-            if (request.isSignatureInvalid()) {
-                log.warn("Signature is invalid at add. request={}", request);
-                return new DataStorageResult(false).signatureInvalid();
+            // The map might have changed since our check above
+            mapStateResult = validateAddRequestWithMapState(request, map.get(byteArray));
+            if (mapStateResult.isPresent()) {
+                return mapStateResult.get();
             }
-            map.put(byteArray, request);
+
+            putToMap(byteArray, request);
 
             // In case we only updated the seq number we still want to broadcast and update the listeners.
             // It is a valid use case that we have both an add and remove data request, and we get repeated sequences
@@ -157,7 +182,7 @@ public class AuthenticatedDataStorageService extends DataStorageService<Authenti
                 log.debug("No entry at remove. hash={}", byteArray);
                 // We don't have any entry, but it might be that we would receive later an add request, so we need to keep
                 // track of the sequence number
-                map.put(byteArray, request);
+                putToMap(byteArray, request);
                 persist();
                 return new DataStorageResult(true).noEntry();
             }
@@ -167,7 +192,7 @@ public class AuthenticatedDataStorageService extends DataStorageService<Authenti
                 // We have had the entry already removed.
                 if (!request.isSequenceNrInvalid(requestFromMap.getSequenceNumber())) {
                     // We update the map with the new request with the fresh sequence number.
-                    map.put(byteArray, request);
+                    putToMap(byteArray, request);
                     persist();
                 }
                 return new DataStorageResult(true).alreadyRemoved();
@@ -210,7 +235,7 @@ public class AuthenticatedDataStorageService extends DataStorageService<Authenti
                         metaDataFromDistributedData);
             }
 
-            map.put(byteArray, request);
+            putToMap(byteArray, request);
         }
 
         persist();
@@ -270,7 +295,7 @@ public class AuthenticatedDataStorageService extends DataStorageService<Authenti
                     addRequestFromMap.getSignature(),
                     addRequestFromMap.getOwnerPublicKey());
 
-            map.put(byteArray, updatedRequest);
+            putToMap(byteArray, updatedRequest);
         }
         persist();
         listeners.forEach(listener -> {
@@ -284,6 +309,18 @@ public class AuthenticatedDataStorageService extends DataStorageService<Authenti
         return new DataStorageResult(true);
     }
 
+    private Optional<DataStorageResult> validateAddRequestWithMapState(AddAuthenticatedDataRequest request,
+                                                                       AuthenticatedDataRequest requestFromMap) {
+        if (request.equals(requestFromMap)) {
+            return Optional.of(new DataStorageResult(false).requestAlreadyReceived());
+        }
+
+        if (requestFromMap != null && request.getAuthenticatedSequentialData().isSequenceNrInvalid(requestFromMap.getSequenceNumber())) {
+            return Optional.of(new DataStorageResult(false).sequenceNrInvalid());
+        }
+        return Optional.empty();
+    }
+
     public void addListener(Listener listener) {
         listeners.add(listener);
     }
@@ -312,7 +349,7 @@ public class AuthenticatedDataStorageService extends DataStorageService<Authenti
         if (!expiredEntries.isEmpty()) {
             log.info("We remove {} expired entries from our map", expiredEntries.size());
             expiredEntries.forEach(entry -> {
-                persistableStore.getMap().remove(entry.getKey());
+                removeFromMap(entry.getKey());
                 if (entry.getValue() instanceof AddAuthenticatedDataRequest) {
                     AuthenticatedData data = ((AddAuthenticatedDataRequest) entry.getValue()).getAuthenticatedSequentialData().getAuthenticatedData();
                     listeners.forEach(listener -> {
@@ -346,7 +383,7 @@ public class AuthenticatedDataStorageService extends DataStorageService<Authenti
             invalidAuthorizedData.forEach((key, value) -> {
                 log.warn("We prune the AddAuthenticatedDataRequest with an invalid AuthorizedData. {}",
                         StringUtils.truncate(value.toString(), 3000));
-                persistableStore.getMap().remove(key);
+                removeFromMap(key);
             });
             persist();
         }
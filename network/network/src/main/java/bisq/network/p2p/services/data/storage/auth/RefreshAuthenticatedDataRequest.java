@@ -25,6 +25,7 @@ import bisq.network.p2p.services.data.DataRequest;
 import bisq.network.p2p.services.data.storage.MetaData;
 import bisq.security.DigestUtil;
 import bisq.security.SignatureUtil;
+import bisq.security.SignatureVerificationService;
 import bisq.security.keys.KeyGeneration;
 import com.google.protobuf.ByteString;
 import lombok.EqualsAndHashCode;
@@ -146,7 +147,7 @@ public final class RefreshAuthenticatedDataRequest implements DataRequest {
 
     public boolean isSignatureInvalid() {
         try {
-            return !SignatureUtil.verify(hash, signature, ownerPublicKey);
+            return !SignatureVerificationService.verify(hash, signature, ownerPublicKey);
         } catch (Exception e) {
             return true;
         }
@@ -26,8 +26,10 @@ import bisq.network.p2p.services.data.storage.MetaData;
 import bisq.network.protobuf.DataRequest;
 import bisq.security.DigestUtil;
 import bisq.security.SignatureUtil;
+import bisq.security.SignatureVerificationService;
 import bisq.security.keys.KeyGeneration;
 import com.google.protobuf.ByteString;
+import lombok.AccessLevel;
 import lombok.EqualsAndHashCode;
 import lombok.Getter;
 import lombok.Setter;
@@ -87,6 +89,9 @@ public final class RemoveAuthenticatedDataRequest implements AuthenticatedDataRe
     private final long created;
     @Setter
     private transient Optional<MetaData> metaDataFromDistributedData = Optional.empty();
+    // Cached result of the signature verification. Allows to run the verification outside the map lock of the store.
+    @Getter(AccessLevel.NONE)
+    private transient volatile Boolean signatureInvalid;
 
     private RemoveAuthenticatedDataRequest(int version,
                                            MetaData metaData,
@@ -189,14 +194,19 @@ public final class RemoveAuthenticatedDataRequest implements AuthenticatedDataRe
     }
 
     public boolean isSignatureInvalid() {
-        try {
-            if (ownerPublicKey == null) {
-                ownerPublicKey = KeyGeneration.generatePublic(ownerPublicKeyBytes);
+        Boolean result = signatureInvalid;
+        if (result == null) {
+            try {
+                if (ownerPublicKey == null) {
+                    ownerPublicKey = KeyGeneration.generatePublic(ownerPublicKeyBytes);
+                }
+                result = !SignatureVerificationService.verify(hash, signature, ownerPublicKey);
+            } catch (Exception e) {
+                result = true;
             }
-            return !SignatureUtil.verify(hash, signature, ownerPublicKey);
-        } catch (Exception e) {
-            return true;
+            signatureInvalid = result;
         }
+        return result;
     }
 
     public boolean isPublicKeyHashInvalid(AuthenticatedSequentialData entryFromMap) {
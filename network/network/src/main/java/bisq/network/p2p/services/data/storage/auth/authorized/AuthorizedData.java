@@ -18,12 +18,14 @@
 package bisq.network.p2p.services.data.storage.auth.authorized;
 
 import bisq.common.encoding.Hex;
+import bisq.common.proto.SerializationCache;
 import bisq.common.validation.NetworkDataValidation;
 import bisq.network.p2p.services.data.storage.DistributedData;
 import bisq.network.p2p.services.data.storage.auth.AuthenticatedData;
-import bisq.security.SignatureUtil;
+import bisq.security.SignatureVerificationService;
 import bisq.security.keys.KeyGeneration;
 import com.google.protobuf.ByteString;
+import lombok.AccessLevel;
 import lombok.EqualsAndHashCode;
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
@@ -44,6 +46,9 @@ public final class AuthorizedData extends AuthenticatedData {
     private final Optional<byte[]> signature;
     private final byte[] authorizedPublicKeyBytes;
     transient private final PublicKey authorizedPublicKey;
+    // Cached result of the authorization check, as it requires a signature verification.
+    @Getter(AccessLevel.NONE)
+    private transient volatile Boolean notAuthorized;
 
     // At remove, we do not need to authorizedPublicKey as the normal keypair is used to verify right to remove.
     public AuthorizedData(AuthorizedDistributedData authorizedDistributedData,
@@ -78,10 +83,10 @@ public final class AuthorizedData extends AuthenticatedData {
     @Override
     public byte[] serializeForHash() {
         // We omit the signature for the hash, otherwise we would get a new map entry for the same data at each republishing
-        return getAuthenticatedDataBuilder(true).setAuthorizedData(
+        return SerializationCache.get(this).getSerialized(true, () -> getAuthenticatedDataBuilder(true).setAuthorizedData(
                         bisq.network.protobuf.AuthorizedData.newBuilder()
                                 .setAuthorizedPublicKeyBytes(ByteString.copyFrom(authorizedPublicKeyBytes)))
-                .build().toByteArray();
+                .build().toByteArray());
     }
 
     @Override
@@ -134,9 +139,18 @@ public final class AuthorizedData extends AuthenticatedData {
     }
 
     public boolean isNotAuthorized() {
+        Boolean result = notAuthorized;
+        if (result == null) {
+            result = verifyNotAuthorized();
+            notAuthorized = result;
+        }
+        return result;
+    }
+
+    private boolean verifyNotAuthorized() {
         try {
             AuthorizedDistributedData authorizedDistributedData = getAuthorizedDistributedData();
-            if (!SignatureUtil.verify(distributedData.serializeForHash(), signature.orElseThrow(), authorizedPublicKey)) {
+            if (!SignatureVerificationService.verify(distributedData.serializeForHash(), signature.orElseThrow(), authorizedPublicKey)) {
                 return true;
             }
 
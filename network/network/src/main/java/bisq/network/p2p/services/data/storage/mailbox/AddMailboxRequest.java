@@ -18,11 +18,13 @@
 package bisq.network.p2p.services.data.storage.mailbox;
 
 import bisq.common.encoding.Hex;
+import bisq.common.proto.MemoizedProto;
 import bisq.common.util.MathUtils;
 import bisq.common.validation.NetworkDataValidation;
 import bisq.network.p2p.services.data.AddDataRequest;
 import bisq.security.DigestUtil;
 import bisq.security.SignatureUtil;
+import bisq.security.SignatureVerificationService;
 import bisq.security.keys.KeyGeneration;
 import com.google.protobuf.ByteString;
 import lombok.EqualsAndHashCode;
@@ -38,7 +40,7 @@ import java.util.Optional;
 @Slf4j
 @EqualsAndHashCode
 @Getter
-public final class AddMailboxRequest implements MailboxRequest, AddDataRequest {
+public final class AddMailboxRequest implements MailboxRequest, AddDataRequest, MemoizedProto {
 
     public static AddMailboxRequest from(MailboxData mailboxData,
                                          KeyPair senderKeyPair,
@@ -131,7 +133,7 @@ public final class AddMailboxRequest implements MailboxRequest, AddDataRequest {
 
     public boolean isSignatureInvalid() {
         try {
-            return !SignatureUtil.verify(mailboxSequentialData.serializeForHash(), signature, getOwnerPublicKey());
+            return !SignatureVerificationService.verify(mailboxSequentialData.serializeForHash(), signature, getOwnerPublicKey());
         } catch (Exception e) {
             log.warn(e.toString(), e);
             return true;
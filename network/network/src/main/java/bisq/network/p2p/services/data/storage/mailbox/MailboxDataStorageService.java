@@ -26,6 +26,7 @@ import bisq.network.p2p.services.data.storage.DataStore;
 import bisq.network.p2p.services.data.storage.MetaData;
 import bisq.persistence.PersistenceService;
 import bisq.security.DigestUtil;
+import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
 
 import java.util.Map;
@@ -33,6 +34,7 @@ import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.CopyOnWriteArraySet;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -47,6 +49,10 @@ public class MailboxDataStorageService extends DataStorageService<MailboxRequest
     private final Set<Listener> listeners = new CopyOnWriteArraySet<>();
     private final Object mapAccessLock = new Object();
     private final Scheduler scheduler;
+    // All mailbox data are stored as we provide them to other peers, but only those addressed to one of our keys are
+    // passed to the listeners.
+    @Setter
+    private volatile Predicate<String> receiverKeyIdFilter = receiverKeyId -> true;
 
     public MailboxDataStorageService(PersistenceService persistenceService, String storeName, String storeKey) {
         super(persistenceService, storeName, storeKey);
@@ -103,18 +109,20 @@ public class MailboxDataStorageService extends DataStorageService<MailboxRequest
             if (request.isSignatureInvalid()) {
                 return new DataStorageResult(false).signatureInvalid();
             }
-            map.put(byteArray, request);
+            putToMap(byteArray, request);
         }
 
         persist();
 
-        listeners.forEach(listener -> {
-            try {
-                listener.onAdded(mailboxData);
-            } catch (Exception e) {
-                log.error("Calling onAdded at listener {} failed", listener, e);
-            }
-        });
+        if (isAddressedToUs(mailboxData)) {
+            listeners.forEach(listener -> {
+                try {
+                    listener.onAdded(mailboxData);
+                } catch (Exception e) {
+                    log.error("Calling onAdded at listener {} failed", listener, e);
+                }
+            });
+        }
         maybeLogMapState("add success", persistableStore);
         return new DataStorageResult(true);
     }
@@ -130,7 +138,7 @@ public class MailboxDataStorageService extends DataStorageService<MailboxRequest
             if (requestFromMap == null) {
                 // We don't have any entry, but it might be that we would receive later an add request, so we need to keep
                 // track of the sequence number
-                map.put(byteArray, request);
+                putToMap(byteArray, request);
                 persist();
                 return new DataStorageResult(true).noEntry();
             }
@@ -139,7 +147,7 @@ public class MailboxDataStorageService extends DataStorageService<MailboxRequest
                 // We have had the entry already removed.
                 if (!request.isSequenceNrInvalid(requestFromMap.getSequenceNumber())) {
                     // We update the request, so we have the latest sequence number.
-                    map.put(byteArray, request);
+                    putToMap(byteArray, request);
                     persist();
                 }
                 return new DataStorageResult(true).alreadyRemoved();
@@ -177,14 +185,16 @@ public class MailboxDataStorageService extends DataStorageService<MailboxRequest
                         metaDataFromMailboxData);
             }
 
-            map.put(byteArray, request);
-            listeners.forEach(listener -> {
-                try {
-                    listener.onRemoved(sequentialDataFromMap.getMailboxData());
-                } catch (Exception e) {
-                    log.error("Calling onRemoved at listener {} failed", listener, e);
-                }
-            });
+            putToMap(byteArray, request);
+            if (isAddressedToUs(sequentialDataFromMap.getMailboxData())) {
+                listeners.forEach(listener -> {
+                    try {
+                        listener.onRemoved(sequentialDataFromMap.getMailboxData());
+                    } catch (Exception e) {
+                        log.error("Calling onRemoved at listener {} failed", listener, e);
+                    }
+                });
+            }
         }
 
         persist();
@@ -192,6 +202,10 @@ public class MailboxDataStorageService extends DataStorageService<MailboxRequest
         return new DataStorageResult(true).removedData(sequentialDataFromMap.getMailboxData());
     }
 
+    private boolean isAddressedToUs(MailboxData mailboxData) {
+        return receiverKeyIdFilter.test(mailboxData.getConfidentialMessage().getReceiverKeyId());
+    }
+
     public void addListener(Listener listener) {
         listeners.add(listener);
     }
@@ -235,7 +249,7 @@ public class MailboxDataStorageService extends DataStorageService<MailboxRequest
                 .collect(Collectors.toSet());
         if (!expiredEntries.isEmpty()) {
             log.info("We remove {} expired entries from our map", expiredEntries.size());
-            expiredEntries.forEach(entry -> persistableStore.getMap().remove(entry.getKey()));
+            expiredEntries.forEach(entry -> removeFromMap(entry.getKey()));
         }
     }
 
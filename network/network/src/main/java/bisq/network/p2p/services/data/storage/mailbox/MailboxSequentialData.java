@@ -18,6 +18,7 @@
 package bisq.network.p2p.services.data.storage.mailbox;
 
 import bisq.common.encoding.Hex;
+import bisq.common.proto.MemoizedProto;
 import bisq.common.proto.NetworkProto;
 import bisq.common.validation.NetworkDataValidation;
 import bisq.security.keys.KeyGeneration;
@@ -30,7 +31,7 @@ import java.security.PublicKey;
 
 @Getter
 @EqualsAndHashCode
-public final class MailboxSequentialData implements NetworkProto {
+public final class MailboxSequentialData implements NetworkProto, MemoizedProto {
     private final MailboxData mailboxData;
     private final byte[] senderPublicKeyHash;
     private final byte[] receiversPublicKeyHash;
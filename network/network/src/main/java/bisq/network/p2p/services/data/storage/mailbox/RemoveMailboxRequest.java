@@ -25,6 +25,7 @@ import bisq.network.p2p.services.data.RemoveDataRequest;
 import bisq.network.p2p.services.data.storage.MetaData;
 import bisq.security.DigestUtil;
 import bisq.security.SignatureUtil;
+import bisq.security.SignatureVerificationService;
 import bisq.security.keys.KeyGeneration;
 import com.google.protobuf.ByteString;
 import lombok.EqualsAndHashCode;
@@ -179,7 +180,7 @@ public final class RemoveMailboxRequest implements MailboxRequest, RemoveDataReq
             if (receiverPublicKey == null) {
                 receiverPublicKey = KeyGeneration.generatePublic(receiverPublicKeyBytes);
             }
-            return !SignatureUtil.verify(hash, signature, receiverPublicKey);
+            return !SignatureVerificationService.verify(hash, signature, receiverPublicKey);
         } catch (Exception e) {
             return true;
         }
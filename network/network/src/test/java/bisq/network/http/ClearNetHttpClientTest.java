@@ -0,0 +1,84 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.network.http;
+
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ClearNetHttpClientTest {
+    private static final String ETAG = "\"v1\"";
+    private static final String BODY = "{\"data\":[]}";
+
+    private HttpServer server;
+    private final List<String> receivedIfNoneMatchHeaders = new CopyOnWriteArrayList<>();
+    private final AtomicInteger numNotModifiedResponses = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/prices", exchange -> {
+            String ifNoneMatch = exchange.getRequestHeaders().getFirst("If-None-Match");
+            receivedIfNoneMatchHeaders.add(String.valueOf(ifNoneMatch));
+            exchange.getResponseHeaders().add("ETag", ETAG);
+            if (ETAG.equals(ifNoneMatch)) {
+                numNotModifiedResponses.incrementAndGet();
+                exchange.sendResponseHeaders(304, -1);
+            } else {
+                byte[] body = BODY.getBytes(StandardCharsets.UTF_8);
+                exchange.sendResponseHeaders(200, body.length);
+                try (OutputStream outputStream = exchange.getResponseBody()) {
+                    outputStream.write(body);
+                }
+            }
+            exchange.close();
+        });
+        server.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+    }
+
+    @Test
+    void repeatedGetIsSentAsConditionalRequest() throws IOException {
+        String baseUrl = "http://127.0.0.1:" + server.getAddress().getPort();
+        var client = new ClearNetHttpClient(baseUrl, "test");
+
+        assertThat(client.get("prices", Optional.empty())).isEqualTo(BODY);
+        assertThat(client.get("prices", Optional.empty())).isEqualTo(BODY);
+        assertThat(client.get("prices", Optional.empty())).isEqualTo(BODY);
+
+        assertThat(receivedIfNoneMatchHeaders).containsExactly("null", ETAG, ETAG);
+        assertThat(numNotModifiedResponses.get()).isEqualTo(2);
+        assertThat(client.hasPendingRequest()).isFalse();
+    }
+}
@@ -0,0 +1,155 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.network.http;
+
+import bisq.common.data.Pair;
+import bisq.network.common.TransportType;
+import bisq.network.http.utils.HttpMethod;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class HttpClientPoolTest {
+    private static class TestHttpClient extends BaseHttpClient {
+        private boolean isShutdown;
+
+        private TestHttpClient(String baseUrl, String userAgent) {
+            super(baseUrl, userAgent);
+        }
+
+        @Override
+        protected String doRequest(String param, HttpMethod httpMethod, Optional<Pair<String, String>> optionalHeader) {
+            return baseUrl + "/" + param;
+        }
+
+        @Override
+        public CompletableFuture<Boolean> shutdown() {
+            isShutdown = true;
+            return CompletableFuture.completedFuture(true);
+        }
+    }
+
+    private final HttpClientPool pool = new HttpClientPool((url, userAgent, transportType) -> new TestHttpClient(url, userAgent));
+
+    @AfterEach
+    void tearDown() {
+        pool.shutdown().join();
+    }
+
+    @Test
+    void reusesReleasedClients() {
+        BaseHttpClient client = pool.borrow("http://a", "test", TransportType.CLEAR);
+        BaseHttpClient concurrentClient = pool.borrow("http://a", "test", TransportType.CLEAR);
+        assertThat(concurrentClient).isNotSameAs(client);
+        pool.release(client);
+        pool.release(concurrentClient);
+
+        assertThat(pool.borrow("http://a", "test", TransportType.CLEAR)).isIn(client, concurrentClient);
+        assertThat(pool.borrow("http://b", "test", TransportType.CLEAR)).isNotIn(client, concurrentClient);
+    }
+
+    @Test
+    void shutdownClosesAllClients() {
+        TestHttpClient idleClient = (TestHttpClient) pool.borrow("http://a", "test", TransportType.CLEAR);
+        pool.release(idleClient);
+        TestHttpClient borrowedClient = (TestHttpClient) pool.borrow("http://a", "test", TransportType.CLEAR);
+        TestHttpClient secondBorrowedClient = (TestHttpClient) pool.borrow("http://a", "test", TransportType.CLEAR);
+
+        pool.shutdown().join();
+
+        assertThat(borrowedClient).isSameAs(idleClient);
+        assertThat(borrowedClient.isShutdown).isTrue();
+        assertThat(secondBorrowedClient.isShutdown).isTrue();
+        assertThatThrownBy(() -> pool.borrow("http://a", "test", TransportType.CLEAR))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void hedgedRequestIsWonByFastestProvider() {
+        long ts = System.currentTimeMillis();
+        Pair<String, String> result = pool.getHedged(List.of("slow", "fast"),
+                provider -> {
+                    if (provider.equals("slow")) {
+                        sleep(5000);
+                    }
+                    return provider + "-response";
+                },
+                100,
+                TimeUnit.MILLISECONDS,
+                (provider, throwable) -> {
+                }).join();
+
+        assertThat(result.getFirst()).isEqualTo("fast");
+        assertThat(result.getSecond()).isEqualTo("fast-response");
+        assertThat(System.currentTimeMillis() - ts).isLessThan(4000);
+    }
+
+    @Test
+    void failedProviderTriggersHedgedRequestWithoutDelay() {
+        List<String> failedProviders = new CopyOnWriteArrayList<>();
+        long ts = System.currentTimeMillis();
+        Pair<String, String> result = pool.getHedged(List.of("failing", "working"),
+                provider -> {
+                    if (provider.equals("failing")) {
+                        throw new IOException("Connection refused");
+                    }
+                    return provider + "-response";
+                },
+                10,
+                TimeUnit.SECONDS,
+                (provider, throwable) -> failedProviders.add(provider)).join();
+
+        assertThat(result.getFirst()).isEqualTo("working");
+        assertThat(failedProviders).containsExactly("failing");
+        assertThat(System.currentTimeMillis() - ts).isLessThan(5000);
+    }
+
+    @Test
+    void hedgedRequestFailsIfAllProvidersFail() {
+        List<String> failedProviders = new CopyOnWriteArrayList<>();
+        CompletableFuture<Pair<String, String>> future = pool.getHedged(List.of("first", "second"),
+                provider -> {
+                    throw new IOException(provider + " failed");
+                },
+                100,
+                TimeUnit.MILLISECONDS,
+                (provider, throwable) -> failedProviders.add(provider));
+
+        assertThatThrownBy(future::join)
+                .hasRootCauseInstanceOf(IOException.class)
+                .hasRootCauseMessage("first failed");
+        assertThat(failedProviders).containsExactlyInAnyOrder("first", "second");
+    }
+
+    private static void sleep(long ms) {
+        try {
+            Thread.sleep(ms);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,65 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.network.http;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ProviderSelectionTest {
+
+    @Test
+    void backupProviderStaysCandidate() {
+        ProviderSelection<String> providerSelection = new ProviderSelection<>(Set.of("a", "b"), Set.of("fallback"));
+        String selected = providerSelection.selectNextProvider();
+        List<String> providers = providerSelection.getProvidersForHedgedRequest(selected);
+        assertThat(providers).hasSize(2);
+        assertThat(providers.get(0)).isEqualTo(selected);
+        String backupProvider = providers.get(1);
+        assertThat(backupProvider).isNotEqualTo(selected).isIn("a", "b");
+
+        assertThat(providerSelection.selectNextProvider()).isEqualTo(backupProvider);
+    }
+
+    @Test
+    void failedProvidersAreSkipped() {
+        ProviderSelection<String> providerSelection = new ProviderSelection<>(Set.of("a", "b"), Set.of("fallback"));
+        providerSelection.onFailed("a");
+        providerSelection.onFailed("b");
+        // The initial candidates from config are used up first
+        providerSelection.selectNextProvider();
+        providerSelection.selectNextProvider();
+
+        assertThat(providerSelection.selectNextProvider()).isEqualTo("fallback");
+        assertThat(providerSelection.getProvidersForHedgedRequest("fallback")).containsExactly("fallback");
+        assertThat(providerSelection.getNumFailedProviders()).isEqualTo(2);
+    }
+
+    @Test
+    void failedProvidersAreResetIfAllFailed() {
+        ProviderSelection<String> providerSelection = new ProviderSelection<>(Set.of("a"), Set.of());
+        providerSelection.selectNextProvider();
+        providerSelection.onFailed("a");
+
+        assertThat(providerSelection.selectNextProvider()).isEqualTo("a");
+        assertThat(providerSelection.getNumFailedProviders()).isZero();
+    }
+}
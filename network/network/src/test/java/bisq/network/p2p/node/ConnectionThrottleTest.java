@@ -0,0 +1,139 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.network.p2p.node;
+
+import bisq.common.timer.Scheduler;
+import bisq.network.common.TransportType;
+import bisq.network.p2p.node.network_load.NetworkLoadSnapshot;
+import bisq.network.p2p.services.peer_group.keep_alive.Ping;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ConnectionThrottleTest {
+    @Test
+    void burstThenDelay() {
+        ConnectionThrottle connectionThrottle = createConnectionThrottle();
+        Ping bulkMessage = new Ping(1);
+        // Ping is a priority message by default, so we use a throttle without priority messages
+        ConnectionThrottle throttle = new ConnectionThrottle(new NetworkLoadSnapshot(),
+                new NetworkLoadSnapshot(),
+                createConfig(),
+                Set.of());
+
+        for (int i = 0; i < 5; i++) {
+            assertThat(throttle.reserveSendSlot(bulkMessage)).isZero();
+        }
+        long firstDelay = throttle.reserveSendSlot(bulkMessage);
+        assertThat(firstDelay).isPositive();
+        long delay = firstDelay;
+        for (int i = 0; i < 10; i++) {
+            delay = throttle.reserveSendSlot(bulkMessage);
+        }
+        // Each further reservation takes the next slot
+        assertThat(delay).isGreaterThan(firstDelay);
+
+        // Receive has its own token bucket
+        assertThat(throttle.reserveReceiveSlot(bulkMessage)).isZero();
+
+        assertThat(throttle.getSendDelayHistogram().getTotalCount()).isEqualTo(16);
+        assertThat(throttle.getSendDelayHistogram().getCount(0)).isEqualTo(5);
+        assertThat(throttle.getSendDelayHistogram().getMaxDelay()).isEqualTo(delay);
+        assertThat(connectionThrottle.getSendDelayHistogram().getTotalCount()).isZero();
+    }
+
+    @Test
+    void priorityMessagesBypassThrottle() {
+        ConnectionThrottle connectionThrottle = createConnectionThrottle();
+        Ping ping = new Ping(1);
+        assertThat(connectionThrottle.isPriorityMessage(ping)).isTrue();
+        for (int i = 0; i < 100; i++) {
+            assertThat(connectionThrottle.reserveSendSlot(ping)).isZero();
+            assertThat(connectionThrottle.reserveReceiveSlot(ping)).isZero();
+        }
+        assertThat(connectionThrottle.getSendDelayHistogram().getMaxDelay()).isZero();
+    }
+
+    @Test
+    void throttleQueueKeepsOrderWithoutBlocking() throws InterruptedException {
+        List<Integer> consumed = new CopyOnWriteArrayList<>();
+        CountDownLatch allConsumed = new CountDownLatch(4);
+        ThrottleQueue<Integer> throttleQueue = new ThrottleQueue<>(item -> {
+            consumed.add(item);
+            allConsumed.countDown();
+        }, (task, delay) -> Scheduler.run(task).after(delay));
+
+        long ts = System.currentTimeMillis();
+        // Not delayed and nothing queued, so the caller passes it on directly
+        assertThat(throttleQueue.offer(0, 0)).isFalse();
+        assertThat(throttleQueue.offer(1, 100)).isTrue();
+        // Must not overtake the queued item even if not delayed
+        assertThat(throttleQueue.offer(2, 0)).isTrue();
+        assertThat(throttleQueue.offer(3, 150)).isTrue();
+        assertThat(throttleQueue.offer(4, 200)).isTrue();
+        assertThat(System.currentTimeMillis() - ts).isLessThan(100);
+        assertThat(throttleQueue.size()).isEqualTo(4);
+
+        assertThat(allConsumed.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(consumed).containsExactly(1, 2, 3, 4);
+        assertThat(System.currentTimeMillis() - ts).isGreaterThanOrEqualTo(150);
+        assertThat(throttleQueue.awaitSizeBelow(1, 1000)).isTrue();
+    }
+
+    @Test
+    void throttleQueueAwaitEmptyAndClear() throws InterruptedException {
+        List<Integer> consumed = new CopyOnWriteArrayList<>();
+        ThrottleQueue<Integer> throttleQueue = new ThrottleQueue<>(consumed::add,
+                (task, delay) -> Scheduler.run(task).after(delay));
+
+        assertThat(throttleQueue.offer(1, 50)).isTrue();
+        assertThat(throttleQueue.offer(2, 100)).isTrue();
+        assertThat(throttleQueue.awaitEmpty(5000)).isTrue();
+        assertThat(consumed).containsExactly(1, 2);
+
+        assertThat(throttleQueue.offer(3, 10_000)).isTrue();
+        assertThat(throttleQueue.offer(4, 10_000)).isTrue();
+        assertThat(throttleQueue.awaitEmpty(50)).isFalse();
+        // Cleared items are returned, so that the caller can report them as not sent
+        assertThat(throttleQueue.clear()).containsExactly(3, 4);
+        assertThat(throttleQueue.awaitEmpty(50)).isTrue();
+        assertThat(consumed).containsExactly(1, 2);
+    }
+
+    private static ConnectionThrottle createConnectionThrottle() {
+        return new ConnectionThrottle(new NetworkLoadSnapshot(), new NetworkLoadSnapshot(), createConfig());
+    }
+
+    private static Node.Config createConfig() {
+        return new Node.Config(TransportType.CLEAR,
+                Set.of(TransportType.CLEAR),
+                Set.of(),
+                null,
+                120_000,
+                120_000,
+                0,
+                200,
+                200);
+    }
+}
@@ -0,0 +1,120 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.network.p2p.node;
+
+import bisq.network.p2p.message.NetworkEnvelope;
+import bisq.network.p2p.node.authorization.token.hash_cash.HashCashToken;
+import bisq.security.pow.ProofOfWork;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class SelectableSocketTest {
+    private SelectorLoop selectorLoop;
+    private ServerSocketChannel serverSocketChannel;
+    private SocketChannel peerSocketChannel;
+    private SelectableSocket selectableSocket;
+    private final CountDownLatch closedLatch = new CountDownLatch(1);
+
+    @BeforeEach
+    void setUp() throws IOException {
+        selectorLoop = new SelectorLoop("SelectableSocketTest");
+        serverSocketChannel = ServerSocketChannel.open();
+        serverSocketChannel.bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+        SocketChannel socketChannel = SocketChannel.open(serverSocketChannel.getLocalAddress());
+        peerSocketChannel = serverSocketChannel.accept();
+        selectableSocket = new SelectableSocket(socketChannel, selectorLoop);
+        selectableSocket.register(new SelectableSocket.Listener() {
+            @Override
+            public void onNetworkEnvelopes(List<NetworkEnvelope> networkEnvelopes, long deserializeTime) {
+            }
+
+            @Override
+            public void onClosed(Exception exception) {
+                closedLatch.countDown();
+            }
+        });
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        selectableSocket.close();
+        peerSocketChannel.close();
+        serverSocketChannel.close();
+        selectorLoop.shutdown();
+    }
+
+    @Test
+    void sendCompletesWhenWritten() throws Exception {
+        CompletableFuture<Void> future = selectableSocket.send(createNetworkEnvelope());
+        future.get(10, TimeUnit.SECONDS);
+        assertThat(future).isCompleted();
+    }
+
+    @Test
+    void writeFailureFailsSendFuture() throws Exception {
+        // Closing with linger 0 resets the connection, so that writing to it fails
+        peerSocketChannel.setOption(StandardSocketOptions.SO_LINGER, 0);
+        peerSocketChannel.close();
+
+        // Depending on whether the reset is detected at writing or at reading, the future of the pending write fails,
+        // or the socket is closed already at the next send
+        Exception failure = null;
+        for (int i = 0; i < 100 && failure == null; i++) {
+            try {
+                selectableSocket.send(createNetworkEnvelope()).get(10, TimeUnit.SECONDS);
+                Thread.sleep(10);
+            } catch (ExecutionException e) {
+                assertThat(e.getCause()).isInstanceOf(IOException.class);
+                failure = e;
+            } catch (ClosedChannelException e) {
+                failure = e;
+            }
+        }
+        assertThat(failure).isNotNull();
+        assertThat(closedLatch.await(10, TimeUnit.SECONDS)).isTrue();
+        assertThat(selectableSocket.isClosed()).isTrue();
+    }
+
+    @Test
+    void sendAtClosedSocketFails() throws IOException {
+        selectableSocket.close();
+        assertThatThrownBy(() -> selectableSocket.send(createNetworkEnvelope())).isInstanceOf(ClosedChannelException.class);
+    }
+
+    private static NetworkEnvelope createNetworkEnvelope() {
+        ProofOfWork proofOfWork = new ProofOfWork(new byte[0], 0, null, 0, new byte[0], 0);
+        return new NetworkEnvelope(new HashCashToken(proofOfWork, 0), new CloseConnectionMessage(CloseReason.SHUTDOWN));
+    }
+}
@@ -0,0 +1,184 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.network.p2p.node.envelope;
+
+import bisq.network.common.PeerSocket;
+import bisq.network.p2p.message.NetworkEnvelope;
+import com.google.protobuf.ByteString;
+import com.google.protobuf.CodedOutputStream;
+import com.google.protobuf.UnknownFieldSet;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@Slf4j
+public class NetworkEnvelopeSocketTest {
+    private static final int NUM_MESSAGES = 10_000;
+
+    @Test
+    void receiveEnvelopes() throws IOException {
+        List<bisq.network.protobuf.NetworkEnvelope> envelopes = createEnvelopes(100);
+        NetworkEnvelopeSocket networkEnvelopeSocket = new NetworkEnvelopeSocket(new StreamPeerSocket(toStream(envelopes)));
+        for (bisq.network.protobuf.NetworkEnvelope envelope : envelopes) {
+            assertThat(networkEnvelopeSocket.receiveNextEnvelope()).isEqualTo(envelope);
+        }
+        assertThat(networkEnvelopeSocket.receiveNextEnvelope()).isNull();
+    }
+
+    @Test
+    void rejectTooLargeEnvelope() throws IOException {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        CodedOutputStream codedOutputStream = CodedOutputStream.newInstance(outputStream);
+        codedOutputStream.writeUInt32NoTag(NetworkEnvelope.MAX_SIZE + 1);
+        codedOutputStream.flush();
+        NetworkEnvelopeSocket networkEnvelopeSocket = new NetworkEnvelopeSocket(new StreamPeerSocket(outputStream.toByteArray()));
+        assertThatThrownBy(networkEnvelopeSocket::receiveNextEnvelope).isInstanceOf(IOException.class);
+    }
+
+    @Test
+    void rejectTruncatedEnvelope() throws IOException {
+        byte[] bytes = toStream(createEnvelopes(1));
+        byte[] truncated = new byte[bytes.length - 1];
+        System.arraycopy(bytes, 0, truncated, 0, truncated.length);
+        NetworkEnvelopeSocket networkEnvelopeSocket = new NetworkEnvelopeSocket(new StreamPeerSocket(truncated));
+        assertThatThrownBy(networkEnvelopeSocket::receiveNextEnvelope).isInstanceOf(IOException.class);
+    }
+
+    // Compares the allocations of parsing a stream of 10000 envelopes with the previous parseDelimitedFrom based
+    // implementation.
+    @Test
+    void allocations() throws IOException {
+        byte[] stream = toStream(createEnvelopes(NUM_MESSAGES));
+
+        // Warm up
+        receiveAll(stream);
+        receiveAllWithParseDelimitedFrom(stream);
+
+        long ts = System.nanoTime();
+        long allocatedBytes = getAllocatedBytes();
+        receiveAll(stream);
+        allocatedBytes = getAllocatedBytes() - allocatedBytes;
+        long durationInNanos = System.nanoTime() - ts;
+
+        long allocatedBytesWithParseDelimitedFrom = getAllocatedBytes();
+        receiveAllWithParseDelimitedFrom(stream);
+        allocatedBytesWithParseDelimitedFrom = getAllocatedBytes() - allocatedBytesWithParseDelimitedFrom;
+
+        log.info("Parsed {} envelopes at {} msg/s. Allocated bytes per envelope: {}; with parseDelimitedFrom: {}",
+                NUM_MESSAGES, NUM_MESSAGES * 1_000_000_000L / Math.max(1, durationInNanos),
+                allocatedBytes / NUM_MESSAGES, allocatedBytesWithParseDelimitedFrom / NUM_MESSAGES);
+        if (allocatedBytes >= 0) {
+            assertThat(allocatedBytes).isLessThan(allocatedBytesWithParseDelimitedFrom);
+        }
+    }
+
+    private static void receiveAll(byte[] stream) throws IOException {
+        NetworkEnvelopeSocket networkEnvelopeSocket = new NetworkEnvelopeSocket(new StreamPeerSocket(stream));
+        int numReceived = 0;
+        while (networkEnvelopeSocket.receiveNextEnvelope() != null) {
+            numReceived++;
+        }
+        assertThat(numReceived).isEqualTo(NUM_MESSAGES);
+    }
+
+    private static void receiveAllWithParseDelimitedFrom(byte[] stream) throws IOException {
+        InputStream inputStream = new ByteArrayInputStream(stream);
+        int numReceived = 0;
+        while (bisq.network.protobuf.NetworkEnvelope.parseDelimitedFrom(inputStream) != null) {
+            numReceived++;
+        }
+        assertThat(numReceived).isEqualTo(NUM_MESSAGES);
+    }
+
+    // Mostly small envelopes and every 100th envelope with a payload of 64 KB
+    private static List<bisq.network.protobuf.NetworkEnvelope> createEnvelopes(int numEnvelopes) {
+        Random random = new Random(1);
+        List<bisq.network.protobuf.NetworkEnvelope> envelopes = new ArrayList<>(numEnvelopes);
+        for (int i = 0; i < numEnvelopes; i++) {
+            byte[] payload = new byte[i % 100 == 99 ? 64 * 1024 : 200 + random.nextInt(800)];
+            random.nextBytes(payload);
+            UnknownFieldSet unknownFields = UnknownFieldSet.newBuilder()
+                    .addField(100, UnknownFieldSet.Field.newBuilder()
+                            .addLengthDelimited(ByteString.copyFrom(payload))
+                            .build())
+                    .build();
+            envelopes.add(bisq.network.protobuf.NetworkEnvelope.newBuilder()
+                    .setVersion(1)
+                    .setUnknownFields(unknownFields)
+                    .build());
+        }
+        return envelopes;
+    }
+
+    private static byte[] toStream(List<bisq.network.protobuf.NetworkEnvelope> envelopes) throws IOException {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        for (bisq.network.protobuf.NetworkEnvelope envelope : envelopes) {
+            envelope.writeDelimitedTo(outputStream);
+        }
+        return outputStream.toByteArray();
+    }
+
+    // Returns -1 if the JVM does not support measuring thread allocations
+    private static long getAllocatedBytes() {
+        if (!(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean)) {
+            return -1;
+        }
+        com.sun.management.ThreadMXBean threadMXBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        return threadMXBean.getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    private static class StreamPeerSocket implements PeerSocket {
+        private final InputStream inputStream;
+        private final OutputStream outputStream = new ByteArrayOutputStream();
+
+        private StreamPeerSocket(byte[] bytes) {
+            inputStream = new ByteArrayInputStream(bytes);
+        }
+
+        @Override
+        public InputStream getInputStream() {
+            return inputStream;
+        }
+
+        @Override
+        public OutputStream getOutputStream() {
+            return outputStream;
+        }
+
+        @Override
+        public boolean isClosed() {
+            return false;
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
@@ -0,0 +1,52 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.network.p2p.node.envelope.parser.nio;
+
+import bisq.network.p2p.message.NetworkEnvelope;
+import com.google.protobuf.CodedOutputStream;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class NetworkEnvelopeDeserializerTest {
+
+    @Test
+    void rejectTooLargeEnvelope() throws IOException {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        CodedOutputStream codedOutputStream = CodedOutputStream.newInstance(outputStream);
+        codedOutputStream.writeUInt32NoTag(NetworkEnvelope.MAX_SIZE + 1);
+        codedOutputStream.flush();
+        NetworkEnvelopeDeserializer deserializer = new NetworkEnvelopeDeserializer(ByteBuffer.wrap(outputStream.toByteArray()));
+        assertThatThrownBy(deserializer::readFromByteBuffer).isInstanceOf(IOException.class);
+    }
+
+    @Test
+    void rejectNegativeEnvelopeSize() throws IOException {
+        // A 10 byte varint which sets the sign bit of the parsed length
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        CodedOutputStream codedOutputStream = CodedOutputStream.newInstance(outputStream);
+        codedOutputStream.writeUInt64NoTag(-2L);
+        codedOutputStream.flush();
+        NetworkEnvelopeDeserializer deserializer = new NetworkEnvelopeDeserializer(ByteBuffer.wrap(outputStream.toByteArray()));
+        assertThatThrownBy(deserializer::readFromByteBuffer).isInstanceOf(IOException.class);
+    }
+}
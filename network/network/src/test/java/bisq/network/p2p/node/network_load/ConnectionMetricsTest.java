@@ -0,0 +1,111 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.network.p2p.node.network_load;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ConnectionMetricsTest {
+    private static final long MINUTE = TimeUnit.MINUTES.toMillis(1);
+
+    @Test
+    void minuteRingBufferKeepsLastMinutes() {
+        MinuteRingBuffer minuteRingBuffer = new MinuteRingBuffer(60, 1);
+        long start = 1_000 * MINUTE;
+        // 3 hours of data, 1 per minute
+        for (int minute = 0; minute < 180; minute++) {
+            minuteRingBuffer.add(start + minute * MINUTE, 0, 1);
+        }
+        long now = start + 179 * MINUTE;
+        assertThat(minuteRingBuffer.sumOfLastMinutes(now, 0, 60)).isEqualTo(60);
+        assertThat(minuteRingBuffer.sumOfLastMinutes(now, 0, 10)).isEqualTo(10);
+        assertThat(minuteRingBuffer.sumOfLastMinutes(now, 0, 1000)).isEqualTo(60);
+
+        // After 30 idle minutes only the values of the last 30 minutes are left
+        assertThat(minuteRingBuffer.sumOfLastMinutes(now + 30 * MINUTE, 0, 60)).isEqualTo(30);
+        // After an idle hour nothing is left
+        assertThat(minuteRingBuffer.sumOfLastMinutes(now + 60 * MINUTE, 0, 60)).isZero();
+    }
+
+    @Test
+    void minuteRingBufferConcurrentAdds() throws Exception {
+        MinuteRingBuffer minuteRingBuffer = new MinuteRingBuffer(60, 2);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                futures.add(executor.submit(() -> {
+                    for (int j = 0; j < 100_000; j++) {
+                        minuteRingBuffer.add(System.currentTimeMillis(), 1, 1);
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+        // The test might run over a minute boundary, so we sum up 2 minutes
+        assertThat(minuteRingBuffer.sumOfLastMinutes(System.currentTimeMillis(), 1, 2)).isEqualTo(400_000);
+        assertThat(minuteRingBuffer.sumOfLastMinutes(System.currentTimeMillis(), 0, 2)).isZero();
+    }
+
+    @Test
+    void latencyHistogram() {
+        LatencyHistogram latencyHistogram = new LatencyHistogram();
+        assertThat(latencyHistogram.getPercentile(50)).isZero();
+        for (int i = 1; i <= 1000; i++) {
+            latencyHistogram.add(i);
+        }
+        assertThat(latencyHistogram.getCount()).isEqualTo(1000);
+        assertThat(latencyHistogram.getAverage()).isEqualTo(500.5);
+        assertThat(latencyHistogram.getMax()).isEqualTo(1000);
+        // Max. relative error is 12.5%
+        assertThat(latencyHistogram.getPercentile(50)).isBetween(500L, 563L);
+        assertThat(latencyHistogram.getPercentile(99)).isBetween(990L, 1000L);
+        assertThat(latencyHistogram.getPercentile(100)).isEqualTo(1000);
+    }
+
+    @Test
+    void latencyHistogramBuckets() {
+        long previousUpperBound = -1;
+        for (long value = 0; value < 1_000_000; value++) {
+            int index = LatencyHistogram.getBucketIndex(value);
+            long upperBound = LatencyHistogram.getBucketUpperBound(index);
+            assertThat(upperBound).isGreaterThanOrEqualTo(value);
+            assertThat(upperBound).isGreaterThanOrEqualTo(previousUpperBound);
+            if (value >= 16) {
+                assertThat((double) upperBound / value).isLessThanOrEqualTo(1.125);
+            } else {
+                assertThat(upperBound).isEqualTo(value);
+            }
+            previousUpperBound = upperBound;
+        }
+        assertThat(LatencyHistogram.getBucketUpperBound(LatencyHistogram.getBucketIndex(Long.MAX_VALUE)))
+                .isEqualTo(Long.MAX_VALUE);
+    }
+}
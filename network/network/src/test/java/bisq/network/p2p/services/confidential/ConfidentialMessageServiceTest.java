@@ -0,0 +1,75 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.network.p2p.services.confidential;
+
+import bisq.common.data.ByteArray;
+import bisq.network.p2p.services.data.storage.mailbox.MailboxData;
+import com.google.common.base.Ticker;
+import com.google.common.cache.Cache;
+import com.google.common.primitives.Ints;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ConfidentialMessageServiceTest {
+    private static class TestTicker extends Ticker {
+        private long nanos;
+
+        @Override
+        public long read() {
+            return nanos;
+        }
+
+        private void advance(long millis) {
+            nanos += TimeUnit.MILLISECONDS.toNanos(millis);
+        }
+    }
+
+    @Test
+    void processedMessageIsKeptForMaxMailboxTtl() {
+        TestTicker ticker = new TestTicker();
+        Cache<ByteArray, Boolean> cache = ConfidentialMessageService.createProcessedMessagesCache(ticker);
+        ByteArray hash = new ByteArray(new byte[]{1, 2, 3});
+        cache.put(hash, true);
+
+        // The previous retention window was 1 day
+        ticker.advance(TimeUnit.DAYS.toMillis(1) + 1);
+        assertThat(cache.getIfPresent(hash)).isNotNull();
+
+        ticker.advance(MailboxData.MAX_TLL - TimeUnit.DAYS.toMillis(1) - 2);
+        assertThat(cache.getIfPresent(hash)).isNotNull();
+
+        ticker.advance(2);
+        assertThat(cache.getIfPresent(hash)).isNull();
+    }
+
+    @Test
+    void cacheIsBounded() {
+        Cache<ByteArray, Boolean> cache = ConfidentialMessageService.createProcessedMessagesCache(Ticker.systemTicker());
+        int numMessages = ConfidentialMessageService.MAX_NUM_PROCESSED_MESSAGES + 10_000;
+        for (int i = 0; i < numMessages; i++) {
+            cache.put(new ByteArray(Ints.toByteArray(i)), true);
+        }
+        cache.cleanUp();
+        assertThat(cache.size()).isLessThanOrEqualTo(ConfidentialMessageService.MAX_NUM_PROCESSED_MESSAGES);
+        // The most recent entry is kept
+        assertThat(cache.getIfPresent(new ByteArray(Ints.toByteArray(numMessages - 1)))).isNotNull();
+    }
+}
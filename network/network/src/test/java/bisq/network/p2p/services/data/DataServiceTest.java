@@ -0,0 +1,108 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.network.p2p.services.data;
+
+import bisq.network.p2p.services.data.storage.MetaData;
+import bisq.network.p2p.services.data.storage.append.AppendOnlyData;
+import bisq.persistence.PersistenceService;
+import com.google.protobuf.Message;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class DataServiceTest {
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void storeListenersOnlyGetDataOfTheirStore() {
+        DataService dataService = new DataService(new PersistenceService(tempDir.toString()));
+        List<AppendOnlyData> allData = new ArrayList<>();
+        List<AppendOnlyData> testData = new ArrayList<>();
+        List<AppendOnlyData> otherData = new ArrayList<>();
+        DataService.Listener testDataListener = new DataService.Listener() {
+            @Override
+            public void onAppendOnlyDataAdded(AppendOnlyData appendOnlyData) {
+                testData.add(appendOnlyData);
+            }
+        };
+        dataService.addListener(new DataService.Listener() {
+            @Override
+            public void onAppendOnlyDataAdded(AppendOnlyData appendOnlyData) {
+                allData.add(appendOnlyData);
+            }
+        });
+        dataService.addListener(TestData.class, testDataListener);
+        dataService.addListener("OtherData", new DataService.Listener() {
+            @Override
+            public void onAppendOnlyDataAdded(AppendOnlyData appendOnlyData) {
+                otherData.add(appendOnlyData);
+            }
+        });
+
+        TestData data = new TestData();
+        dataService.onAdded(data);
+        assertThat(allData).containsExactly(data);
+        assertThat(testData).containsExactly(data);
+        assertThat(otherData).isEmpty();
+
+        dataService.removeListener(TestData.class, testDataListener);
+        dataService.onAdded(data);
+        assertThat(allData).hasSize(2);
+        assertThat(testData).hasSize(1);
+        assertThat(otherData).isEmpty();
+    }
+
+    private static final class TestData implements AppendOnlyData {
+        private final MetaData metaData = new MetaData(getClass().getSimpleName());
+
+        @Override
+        public MetaData getMetaData() {
+            return metaData;
+        }
+
+        @Override
+        public boolean isDataInvalid(byte[] pubKeyHash) {
+            return false;
+        }
+
+        @Override
+        public double getCostFactor() {
+            return 0;
+        }
+
+        @Override
+        public void verify() {
+        }
+
+        @Override
+        public Message.Builder getBuilder(boolean serializeForHash) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Message toProto(boolean serializeForHash) {
+            throw new UnsupportedOperationException();
+        }
+    }
+}
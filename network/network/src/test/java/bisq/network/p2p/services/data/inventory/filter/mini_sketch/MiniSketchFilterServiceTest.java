@@ -0,0 +1,54 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.network.p2p.services.data.inventory.filter.mini_sketch;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class MiniSketchFilterServiceTest {
+
+    @Test
+    void acceptFilterOfOwnSize() {
+        int numEntries = 10_000;
+        int numBuckets = MiniSketchFilterService.getNumBuckets(numEntries);
+        assertTrue(MiniSketchFilterService.isFilterAccepted(createFilter(numBuckets, MiniSketchFilterService.CAPACITY), numEntries));
+        assertTrue(MiniSketchFilterService.isFilterAccepted(createFilter(MiniSketchFilterService.MIN_NUM_BUCKETS, MiniSketchFilterService.CAPACITY), numEntries));
+    }
+
+    @Test
+    void rejectOtherCapacity() {
+        int numEntries = 10_000;
+        int numBuckets = MiniSketchFilterService.getNumBuckets(numEntries);
+        assertFalse(MiniSketchFilterService.isFilterAccepted(createFilter(numBuckets, MiniSketchFilter.MAX_CAPACITY), numEntries));
+        assertFalse(MiniSketchFilterService.isFilterAccepted(createFilter(numBuckets, MiniSketchFilterService.CAPACITY - 1), numEntries));
+    }
+
+    @Test
+    void rejectMoreBucketsThanOwnStoreSizeRequires() {
+        int numEntries = 10_000;
+        int numBuckets = MiniSketchFilterService.getNumBuckets(numEntries);
+        assertFalse(MiniSketchFilterService.isFilterAccepted(createFilter(numBuckets * 2, MiniSketchFilterService.CAPACITY), numEntries));
+        assertFalse(MiniSketchFilterService.isFilterAccepted(createFilter(MiniSketchFilter.MAX_NUM_BUCKETS, MiniSketchFilterService.CAPACITY), 0));
+    }
+
+    private static MiniSketchFilter createFilter(int numBuckets, int capacity) {
+        return new MiniSketchFilter(numBuckets, capacity, new byte[numBuckets * capacity * MiniSketchFilter.BYTES_PER_ELEMENT]);
+    }
+}
@@ -0,0 +1,136 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.network.p2p.services.data.inventory.filter.mini_sketch;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Optional;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Slf4j
+public class PinSketchTest {
+
+    @Test
+    void testGaloisField() {
+        Random random = new Random(1);
+        for (int i = 0; i < 1000; i++) {
+            long a = random.nextInt() & GaloisField32.MASK;
+            if (a != 0) {
+                assertEquals(1, GaloisField32.multiply(a, GaloisField32.inverse(a)));
+            }
+        }
+    }
+
+    @Test
+    void testDecode() {
+        Random random = new Random(2);
+        for (int capacity = 1; capacity <= 40; capacity += 3) {
+            for (int numElements = 0; numElements <= capacity; numElements++) {
+                PinSketch pinSketch = new PinSketch(capacity);
+                Set<Long> elements = randomElements(random, numElements);
+                elements.forEach(pinSketch::add);
+
+                Optional<long[]> decoded = pinSketch.decode();
+                assertTrue(decoded.isPresent());
+                assertEquals(elements, toSet(decoded.get()));
+            }
+        }
+    }
+
+    @Test
+    void testMergeDecodesSymmetricDifference() {
+        Random random = new Random(3);
+        Set<Long> common = randomElements(random, 1000);
+        Set<Long> onlyA = randomElements(random, 10);
+        Set<Long> onlyB = randomElements(random, 5);
+        PinSketch a = new PinSketch(20);
+        PinSketch b = new PinSketch(20);
+        common.forEach(a::add);
+        common.forEach(b::add);
+        onlyA.forEach(a::add);
+        onlyB.forEach(b::add);
+
+        a.merge(b);
+        Set<Long> expected = new HashSet<>(onlyA);
+        expected.addAll(onlyB);
+        assertEquals(expected, toSet(a.decode().orElseThrow()));
+    }
+
+    @Test
+    void testReconcile() {
+        Random random = new Random(4);
+        int numEntries = 20_000;
+        long[] requesterHashes = new long[numEntries];
+        long[] responderHashes = new long[numEntries + 500];
+        for (int i = 0; i < numEntries; i++) {
+            requesterHashes[i] = random.nextLong();
+            responderHashes[i] = requesterHashes[i];
+        }
+        for (int i = numEntries; i < responderHashes.length; i++) {
+            responderHashes[i] = random.nextLong();
+        }
+
+        int numBuckets = MiniSketchFilterService.getNumBuckets(numEntries);
+        int capacity = MiniSketchFilterService.CAPACITY;
+        PinSketch[] pinSketches = MiniSketchFilterService.createPinSketches(requesterHashes, numBuckets, capacity);
+        MiniSketchFilter filter = new MiniSketchFilter(numBuckets, capacity, MiniSketchFilter.toBytes(pinSketches, capacity));
+        log.info(filter.getDetails());
+        // A HashSetFilter would require about 26 bytes per entry
+        assertTrue(filter.getSketches().length < numEntries * 26 / 20);
+
+        long ts = System.currentTimeMillis();
+        MiniSketchReconciliation reconciliation = MiniSketchFilterService.reconcile(filter, responderHashes);
+        log.info("Reconciliation took {} ms", System.currentTimeMillis() - ts);
+        assertEquals(0, reconciliation.getFailedBuckets().cardinality());
+        for (int i = 0; i < responderHashes.length; i++) {
+            assertEquals(i >= numEntries, reconciliation.isMissing(responderHashes[i]));
+        }
+
+        // An empty filter results in all entries being missing
+        PinSketch[] emptyPinSketches = MiniSketchFilterService.createPinSketches(new long[0], numBuckets, capacity);
+        MiniSketchFilter emptyFilter = new MiniSketchFilter(numBuckets, capacity, MiniSketchFilter.toBytes(emptyPinSketches, capacity));
+        reconciliation = MiniSketchFilterService.reconcile(emptyFilter, responderHashes);
+        for (long hash : responderHashes) {
+            assertTrue(reconciliation.isMissing(hash));
+        }
+    }
+
+    private static Set<Long> randomElements(Random random, int numElements) {
+        Set<Long> elements = new HashSet<>();
+        while (elements.size() < numElements) {
+            long element = random.nextInt() & GaloisField32.MASK;
+            if (element != 0) {
+                elements.add(element);
+            }
+        }
+        return elements;
+    }
+
+    private static Set<Long> toSet(long[] elements) {
+        Set<Long> set = new HashSet<>();
+        for (long element : elements) {
+            set.add(element);
+        }
+        return set;
+    }
+}
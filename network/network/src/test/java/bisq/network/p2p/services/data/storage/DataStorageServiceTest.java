@@ -0,0 +1,234 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.network.p2p.services.data.storage;
+
+import bisq.common.data.ByteArray;
+import bisq.network.p2p.services.data.DataRequest;
+import bisq.network.p2p.services.data.storage.mailbox.RemoveMailboxRequest;
+import bisq.persistence.PersistenceService;
+import bisq.security.DigestUtil;
+import bisq.security.SignatureUtil;
+import bisq.security.keys.KeyGeneration;
+import com.google.protobuf.ByteString;
+import com.google.protobuf.Message;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.security.GeneralSecurityException;
+import java.security.KeyPair;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class DataStorageServiceTest {
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void serializedSizeFollowsMapChanges() {
+        DataStorageService<TestDataRequest> store = createStore();
+        assertThat(store.getSerializedSize()).isZero();
+
+        store.putToMap(key(1), new TestDataRequest(100));
+        store.putToMap(key(2), new TestDataRequest(200));
+        assertThat(store.getSerializedSize()).isEqualTo(300);
+
+        // Replacing an entry only accounts the difference
+        store.putToMap(key(1), new TestDataRequest(50));
+        assertThat(store.getSerializedSize()).isEqualTo(250);
+
+        store.removeFromMap(key(2));
+        store.removeFromMap(key(3));
+        assertThat(store.getSerializedSize()).isEqualTo(50);
+
+        store.getPersistableStore().getMap().put(key(4), new TestDataRequest(1000));
+        store.recalculateSerializedSize();
+        assertThat(store.getSerializedSize()).isEqualTo(1050);
+    }
+
+    @Test
+    void serializedSizeWithConcurrentChanges() throws Exception {
+        DataStorageService<TestDataRequest> store = createStore();
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                int thread = i;
+                futures.add(executor.submit(() -> {
+                    for (int j = 0; j < 10_000; j++) {
+                        // The threads use overlapping keys
+                        ByteArray key = key((j + thread) % 100);
+                        if (j % 3 == 0) {
+                            store.removeFromMap(key);
+                        } else {
+                            store.putToMap(key, new TestDataRequest(j % 50));
+                        }
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        long expected = store.getPersistableStore().getMap().values().stream()
+                .mapToLong(DataRequest::getSerializedSize)
+                .sum();
+        assertThat(store.getSerializedSize()).isEqualTo(expected);
+    }
+
+    @Test
+    void journalReplay() throws GeneralSecurityException {
+        DataStorageService<RemoveMailboxRequest> store = createStore();
+        assertThat(store.readPersisted().join()).isEmpty();
+        RemoveMailboxRequest request1 = createRemoveMailboxRequest();
+        RemoveMailboxRequest request2 = createRemoveMailboxRequest();
+
+        store.putToMap(key(1), request1);
+        store.putToMap(key(2), request1);
+        store.putToMap(key(3), request1);
+        store.removeFromMap(key(2));
+        store.doPersist().join();
+        assertThat(store.getPersistence().getJournal().read()).hasSize(3);
+
+        // Only the changed keys are appended
+        store.putToMap(key(1), request2);
+        store.removeFromMap(key(3));
+        store.doPersist().join();
+        assertThat(store.getPersistence().getJournal().read()).hasSize(5);
+
+        // Nothing changed
+        store.doPersist().join();
+        assertThat(store.getPersistence().getJournal().read()).hasSize(5);
+
+        DataStorageService<RemoveMailboxRequest> restored = createStore();
+        assertThat(restored.readPersisted().join()).isPresent();
+        assertThat(restored.getPersistableStore().getMap()).containsOnlyKeys(key(1));
+        assertThat(restored.getPersistableStore().getMap().get(key(1))).isEqualTo(request2);
+        assertThat(restored.getSerializedSize()).isEqualTo(request2.getSerializedSize());
+    }
+
+    @Test
+    void journalCompaction() throws GeneralSecurityException {
+        DataStorageService<RemoveMailboxRequest> store = createStore();
+        store.readPersisted().join();
+        RemoveMailboxRequest request = createRemoveMailboxRequest();
+
+        for (int i = 0; i < 1100; i++) {
+            store.putToMap(key(i), request);
+        }
+        store.doPersist().join();
+        assertThat(store.getPersistence().getJournal().read()).hasSize(1100);
+
+        // Now the journal has more records than the store has entries, so we get a new snapshot
+        for (int i = 0; i < 200; i++) {
+            store.removeFromMap(key(i));
+        }
+        store.doPersist().join();
+        assertThat(store.getPersistence().getJournal().read()).isEmpty();
+
+        store.putToMap(key(0), request);
+        store.doPersist().join();
+        assertThat(store.getPersistence().getJournal().read()).hasSize(1);
+
+        DataStorageService<RemoveMailboxRequest> restored = createStore();
+        restored.readPersisted().join();
+        assertThat(restored.getPersistableStore().getMap()).hasSize(901);
+        assertThat(restored.getPersistableStore().getMap()).containsKey(key(0));
+        assertThat(restored.getPersistableStore().getMap()).doesNotContainKey(key(1));
+        assertThat(restored.getPersistableStore().getMap()).containsKey(key(200));
+    }
+
+    private <T extends DataRequest> DataStorageService<T> createStore() {
+        PersistenceService persistenceService = new PersistenceService(tempDir.toString());
+        return new DataStorageService<>(persistenceService, "TestStore", "TestData") {
+        };
+    }
+
+    private static ByteArray key(int value) {
+        return new ByteArray(ByteBuffer.allocate(4).putInt(value).array());
+    }
+
+    private static RemoveMailboxRequest createRemoveMailboxRequest() throws GeneralSecurityException {
+        KeyPair keyPair = KeyGeneration.generateKeyPair();
+        byte[] hash = DigestUtil.hash(keyPair.getPublic().getEncoded());
+        return RemoveMailboxRequest.fromProto(bisq.network.protobuf.RemoveMailboxRequest.newBuilder()
+                .setVersion(1)
+                .setMetaData(new MetaData("TestData").toProto(false))
+                .setHash(ByteString.copyFrom(hash))
+                .setReceiverPublicKeyBytes(ByteString.copyFrom(keyPair.getPublic().getEncoded()))
+                .setSignature(ByteString.copyFrom(SignatureUtil.sign(hash, keyPair.getPrivate())))
+                .setCreated(System.currentTimeMillis())
+                .build());
+    }
+
+    private static final class TestDataRequest implements DataRequest {
+        private final int serializedSize;
+
+        private TestDataRequest(int serializedSize) {
+            this.serializedSize = serializedSize;
+        }
+
+        @Override
+        public int getSerializedSize() {
+            return serializedSize;
+        }
+
+        @Override
+        public bisq.network.protobuf.DataRequest.Builder getDataRequestBuilder(boolean serializeForHash) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Message.Builder getValueBuilder(boolean serializeForHash) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public double getCostFactor() {
+            return 0;
+        }
+
+        @Override
+        public void verify() {
+        }
+
+        @Override
+        public boolean isExpired() {
+            return false;
+        }
+
+        @Override
+        public long getCreated() {
+            return 0;
+        }
+
+        @Override
+        public int getMaxMapSize() {
+            return MetaData.MAX_MAP_SIZE_100;
+        }
+    }
+}
@@ -0,0 +1,120 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.network.p2p.services.data.storage.mailbox;
+
+import bisq.common.data.ByteArray;
+import bisq.network.p2p.services.confidential.ConfidentialMessage;
+import bisq.network.p2p.services.data.storage.DataStorageResult;
+import bisq.network.p2p.services.data.storage.MetaData;
+import bisq.persistence.PersistenceService;
+import bisq.security.DigestUtil;
+import bisq.security.HybridEncryption;
+import bisq.security.keys.KeyGeneration;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.security.GeneralSecurityException;
+import java.security.KeyPair;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class MailboxDataStorageServiceTest {
+    private static final String OUR_KEY_ID = "ourKeyId";
+    private static final String FOREIGN_KEY_ID = "foreignKeyId";
+
+    @TempDir
+    Path tempDir;
+
+    private MailboxDataStorageService store;
+    private final List<MailboxData> added = new ArrayList<>();
+    private final List<MailboxData> removed = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        store = new MailboxDataStorageService(new PersistenceService(tempDir.toString()), "MailboxStore", "TestData");
+        store.setReceiverKeyIdFilter(OUR_KEY_ID::equals);
+        store.addListener(new MailboxDataStorageService.Listener() {
+            @Override
+            public void onAdded(MailboxData mailboxData) {
+                added.add(mailboxData);
+            }
+
+            @Override
+            public void onRemoved(MailboxData mailboxData) {
+                removed.add(mailboxData);
+            }
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        store.shutdown();
+    }
+
+    @Test
+    void mailboxDataForOurKeyIdIsDispatched() throws GeneralSecurityException {
+        KeyPair senderKeyPair = KeyGeneration.generateKeyPair();
+        KeyPair receiverKeyPair = KeyGeneration.generateKeyPair();
+        MailboxData mailboxData = createMailboxData(OUR_KEY_ID, senderKeyPair, receiverKeyPair);
+
+        DataStorageResult addResult = store.add(AddMailboxRequest.from(mailboxData, senderKeyPair, receiverKeyPair.getPublic()));
+        assertThat(addResult.isSuccess()).isTrue();
+        assertThat(store.contains(DigestUtil.hash(mailboxData.serializeForHash()))).isTrue();
+        assertThat(added).containsExactly(mailboxData);
+
+        DataStorageResult removeResult = store.remove(RemoveMailboxRequest.from(mailboxData, receiverKeyPair));
+        assertThat(removeResult.isSuccess()).isTrue();
+        assertThat(removed).containsExactly(mailboxData);
+    }
+
+    @Test
+    void mailboxDataForForeignKeyIdIsStoredButNotDispatched() throws GeneralSecurityException {
+        KeyPair senderKeyPair = KeyGeneration.generateKeyPair();
+        KeyPair receiverKeyPair = KeyGeneration.generateKeyPair();
+        MailboxData mailboxData = createMailboxData(FOREIGN_KEY_ID, senderKeyPair, receiverKeyPair);
+
+        DataStorageResult addResult = store.add(AddMailboxRequest.from(mailboxData, senderKeyPair, receiverKeyPair.getPublic()));
+        assertThat(addResult.isSuccess()).isTrue();
+        // We still store it as we provide it to other peers
+        assertThat(store.contains(DigestUtil.hash(mailboxData.serializeForHash()))).isTrue();
+        assertThat(added).isEmpty();
+
+        DataStorageResult removeResult = store.remove(RemoveMailboxRequest.from(mailboxData, receiverKeyPair));
+        assertThat(removeResult.isSuccess()).isTrue();
+        ByteArray key = new ByteArray(DigestUtil.hash(mailboxData.serializeForHash()));
+        assertThat(store.getPersistableStore().getMap().get(key)).isInstanceOf(RemoveMailboxRequest.class);
+        assertThat(removed).isEmpty();
+    }
+
+    private static MailboxData createMailboxData(String receiverKeyId,
+                                                 KeyPair senderKeyPair,
+                                                 KeyPair receiverKeyPair) throws GeneralSecurityException {
+        byte[] message = "test".getBytes(StandardCharsets.UTF_8);
+        bisq.network.protobuf.ConfidentialMessage proto = bisq.network.protobuf.ConfidentialMessage.newBuilder()
+                .setConfidentialData(HybridEncryption.encryptAndSign(message, receiverKeyPair.getPublic(), senderKeyPair).toProto(false))
+                .setReceiverKeyId(receiverKeyId)
+                .build();
+        return new MailboxData(new MetaData("TestData"), ConfidentialMessage.fromProto(proto));
+    }
+}
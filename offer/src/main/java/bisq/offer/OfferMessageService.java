@@ -54,14 +54,14 @@ public class OfferMessageService implements Service, DataService.Listener {
     ///////////////////////////////////////////////////////////////////////////////////////////////////
 
     public CompletableFuture<Boolean> initialize() {
-        networkService.addDataServiceListener(this);
+        networkService.addDataServiceListener(OfferMessage.class, this);
         networkService.getDataService().ifPresent(dataService ->
-                dataService.getAuthenticatedData().forEach(this::onAuthenticatedDataAdded));
+                dataService.getAuthenticatedData(OfferMessage.class).forEach(this::onAuthenticatedDataAdded));
         return CompletableFuture.completedFuture(true);
     }
 
     public CompletableFuture<Boolean> shutdown() {
-        networkService.removeDataServiceListener(this);
+        networkService.removeDataServiceListener(OfferMessage.class, this);
         return CompletableFuture.completedFuture(true);
     }
 
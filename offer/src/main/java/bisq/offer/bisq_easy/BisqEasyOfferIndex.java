@@ -0,0 +1,192 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.offer.bisq_easy;
+
+import bisq.account.payment_method.BitcoinPaymentMethod;
+import bisq.account.payment_method.FiatPaymentMethod;
+import bisq.common.currency.Market;
+import bisq.common.monetary.Monetary;
+import bisq.offer.Direction;
+import bisq.offer.amount.spec.AmountSpecUtil;
+import bisq.offer.payment_method.PaymentMethodSpec;
+import lombok.EqualsAndHashCode;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+/**
+ * Index of BisqEasy offers by market, maker's direction, fiat payment method and quote side amount.
+ * <p>
+ * The index is a pre-filter: The returned candidates contain all offers which can match the given criteria, but the
+ * caller still has to apply the exact checks. Amounts of offers with a base side amount spec depend on the price,
+ * thus those offers are always returned as candidates. The quote side amounts are compared with a tolerance of one
+ * unit at low precision, as the exact check compares the amounts at low precision.
+ */
+public class BisqEasyOfferIndex {
+    @EqualsAndHashCode
+    private static final class Key {
+        private final Market market;
+        private final Direction direction;
+        private final FiatPaymentMethod fiatPaymentMethod;
+
+        private Key(Market market, Direction direction, FiatPaymentMethod fiatPaymentMethod) {
+            this.market = market;
+            this.direction = direction;
+            this.fiatPaymentMethod = fiatPaymentMethod;
+        }
+    }
+
+    private static final class Entry {
+        private final BisqEasyOffer offer;
+        private final long quoteSideMinAmount;
+        private final long quoteSideMaxAmount;
+        private final Set<BitcoinPaymentMethod> bitcoinPaymentMethods;
+
+        private Entry(BisqEasyOffer offer) {
+            this.offer = offer;
+            String quoteCurrencyCode = offer.getMarket().getQuoteCurrencyCode();
+            Optional<Monetary> minAmount = AmountSpecUtil.findQuoteSideMinOrFixedAmountFromSpec(offer.getAmountSpec(), quoteCurrencyCode);
+            Optional<Monetary> maxAmount = AmountSpecUtil.findQuoteSideMaxOrFixedAmountFromSpec(offer.getAmountSpec(), quoteCurrencyCode);
+            quoteSideMinAmount = minAmount.map(Monetary::getValue).orElse(Long.MIN_VALUE);
+            quoteSideMaxAmount = maxAmount.map(Monetary::getValue).orElse(Long.MAX_VALUE);
+            bitcoinPaymentMethods = offer.getBaseSidePaymentMethodSpecs().stream()
+                    .map(PaymentMethodSpec::getPaymentMethod)
+                    .collect(Collectors.toSet());
+        }
+    }
+
+    private final Map<String, Entry> entryByOfferId = new HashMap<>();
+    private final Map<Key, NavigableMap<Long, Map<String, Entry>>> entriesByMinAmountByKey = new HashMap<>();
+
+    public BisqEasyOfferIndex() {
+    }
+
+    public synchronized void add(BisqEasyOffer offer) {
+        remove(offer.getId());
+        Entry entry = new Entry(offer);
+        entryByOfferId.put(offer.getId(), entry);
+        getKeys(offer).forEach(key -> entriesByMinAmountByKey.computeIfAbsent(key, k -> new TreeMap<>())
+                .computeIfAbsent(entry.quoteSideMinAmount, amount -> new HashMap<>())
+                .put(offer.getId(), entry));
+    }
+
+    public synchronized void remove(String offerId) {
+        Entry entry = entryByOfferId.remove(offerId);
+        if (entry == null) {
+            return;
+        }
+        getKeys(entry.offer).forEach(key -> {
+            NavigableMap<Long, Map<String, Entry>> entriesByMinAmount = entriesByMinAmountByKey.get(key);
+            Map<String, Entry> entries = entriesByMinAmount.get(entry.quoteSideMinAmount);
+            entries.remove(offerId);
+            if (entries.isEmpty()) {
+                entriesByMinAmount.remove(entry.quoteSideMinAmount);
+            }
+            if (entriesByMinAmount.isEmpty()) {
+                entriesByMinAmountByKey.remove(key);
+            }
+        });
+    }
+
+    public synchronized void removeIf(Predicate<BisqEasyOffer> predicate) {
+        entryByOfferId.values().stream()
+                .map(entry -> entry.offer)
+                .filter(predicate)
+                .map(BisqEasyOffer::getId)
+                .collect(Collectors.toList())
+                .forEach(this::remove);
+    }
+
+    public synchronized void clear() {
+        entryByOfferId.clear();
+        entriesByMinAmountByKey.clear();
+    }
+
+    public synchronized int size() {
+        return entryByOfferId.size();
+    }
+
+    public synchronized Optional<BisqEasyOffer> findOffer(String offerId) {
+        return Optional.ofNullable(entryByOfferId.get(offerId)).map(entry -> entry.offer);
+    }
+
+    /**
+     * @param market                   The market of the offers
+     * @param makersDirection          The direction of the offers (not the taker's direction)
+     * @param bitcoinPaymentMethods    Offers must support at least one of those bitcoin payment methods
+     * @param fiatPaymentMethods       Offers must support at least one of those fiat payment methods
+     * @param takersQuoteSideMinAmount The taker's min. or fixed quote side amount
+     * @param takersQuoteSideMaxAmount The taker's max. or fixed quote side amount
+     * @return The candidates for matching offers
+     */
+    public synchronized List<BisqEasyOffer> findCandidates(Market market,
+                                                           Direction makersDirection,
+                                                           Collection<BitcoinPaymentMethod> bitcoinPaymentMethods,
+                                                           Collection<FiatPaymentMethod> fiatPaymentMethods,
+                                                           Monetary takersQuoteSideMinAmount,
+                                                           Monetary takersQuoteSideMaxAmount) {
+        long tolerance = getTolerance(takersQuoteSideMaxAmount);
+        long maxAmount = takersQuoteSideMaxAmount.getValue() + tolerance;
+        long minAmount = takersQuoteSideMinAmount.getValue() - tolerance;
+        Set<BitcoinPaymentMethod> bitcoinPaymentMethodSet = new HashSet<>(bitcoinPaymentMethods);
+
+        // An offer with multiple fiat payment methods is found in multiple maps
+        Map<String, BisqEasyOffer> candidates = new LinkedHashMap<>();
+        for (FiatPaymentMethod fiatPaymentMethod : new HashSet<>(fiatPaymentMethods)) {
+            NavigableMap<Long, Map<String, Entry>> entriesByMinAmount = entriesByMinAmountByKey.get(
+                    new Key(market, makersDirection, fiatPaymentMethod));
+            if (entriesByMinAmount == null) {
+                continue;
+            }
+            // Offers with a min amount above our max amount cannot match
+            entriesByMinAmount.headMap(maxAmount, true).values().stream()
+                    .flatMap(entries -> entries.values().stream())
+                    .filter(entry -> entry.quoteSideMaxAmount >= minAmount)
+                    .filter(entry -> entry.bitcoinPaymentMethods.stream().anyMatch(bitcoinPaymentMethodSet::contains))
+                    .forEach(entry -> candidates.putIfAbsent(entry.offer.getId(), entry.offer));
+        }
+        return new ArrayList<>(candidates.values());
+    }
+
+    private static List<Key> getKeys(BisqEasyOffer offer) {
+        return offer.getQuoteSidePaymentMethodSpecs().stream()
+                .map(PaymentMethodSpec::getPaymentMethod)
+                .distinct()
+                .map(fiatPaymentMethod -> new Key(offer.getMarket(), offer.getDirection(), fiatPaymentMethod))
+                .collect(Collectors.toList());
+    }
+
+    private static long getTolerance(Monetary monetary) {
+        long tolerance = 1;
+        for (int i = monetary.getLowPrecision(); i < monetary.getPrecision(); i++) {
+            tolerance *= 10;
+        }
+        return tolerance;
+    }
+}
@@ -0,0 +1,217 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package bisq.offer.bisq_easy;
+
+import bisq.account.payment_method.BitcoinPaymentMethod;
+import bisq.account.payment_method.BitcoinPaymentRail;
+import bisq.account.payment_method.FiatPaymentMethod;
+import bisq.account.payment_method.FiatPaymentRail;
+import bisq.common.currency.Market;
+import bisq.common.monetary.Fiat;
+import bisq.common.monetary.Monetary;
+import bisq.offer.Direction;
+import bisq.offer.amount.spec.AmountSpec;
+import bisq.offer.amount.spec.AmountSpecUtil;
+import bisq.offer.amount.spec.QuoteSideFixedAmountSpec;
+import bisq.offer.amount.spec.QuoteSideRangeAmountSpec;
+import bisq.offer.payment_method.PaymentMethodSpec;
+import bisq.offer.price.spec.MarketPriceSpec;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@Slf4j
+public class BisqEasyOfferIndexTest {
+    private static final Market EUR_MARKET = new Market("BTC", "EUR", "Bitcoin", "Euro");
+    private static final Market USD_MARKET = new Market("BTC", "USD", "Bitcoin", "US Dollar");
+    private static final List<Market> MARKETS = List.of(EUR_MARKET, USD_MARKET);
+    private static final List<FiatPaymentMethod> FIAT_PAYMENT_METHODS = List.of(
+            FiatPaymentMethod.fromPaymentRail(FiatPaymentRail.SEPA),
+            FiatPaymentMethod.fromPaymentRail(FiatPaymentRail.ZELLE),
+            FiatPaymentMethod.fromPaymentRail(FiatPaymentRail.REVOLUT),
+            FiatPaymentMethod.fromPaymentRail(FiatPaymentRail.CASH_BY_MAIL));
+    private static final List<BitcoinPaymentMethod> BITCOIN_PAYMENT_METHODS = List.of(
+            BitcoinPaymentMethod.fromPaymentRail(BitcoinPaymentRail.MAIN_CHAIN),
+            BitcoinPaymentMethod.fromPaymentRail(BitcoinPaymentRail.LN));
+
+    @Test
+    void testFindCandidates() {
+        BisqEasyOfferIndex index = new BisqEasyOfferIndex();
+        BisqEasyOffer rangeOffer = createOffer(Direction.SELL, EUR_MARKET, new QuoteSideRangeAmountSpec(500000, 2000000),
+                List.of(FIAT_PAYMENT_METHODS.get(0), FIAT_PAYMENT_METHODS.get(2)), List.of(BITCOIN_PAYMENT_METHODS.get(0)));
+        BisqEasyOffer fixedOffer = createOffer(Direction.SELL, EUR_MARKET, new QuoteSideFixedAmountSpec(3000000),
+                List.of(FIAT_PAYMENT_METHODS.get(0)), List.of(BITCOIN_PAYMENT_METHODS.get(1)));
+        BisqEasyOffer buyOffer = createOffer(Direction.BUY, EUR_MARKET, new QuoteSideFixedAmountSpec(1000000),
+                List.of(FIAT_PAYMENT_METHODS.get(0)), BITCOIN_PAYMENT_METHODS);
+        index.add(rangeOffer);
+        index.add(fixedOffer);
+        index.add(buyOffer);
+        assertEquals(3, index.size());
+
+        // Offers with multiple fiat payment methods are only returned once
+        List<BisqEasyOffer> candidates = index.findCandidates(EUR_MARKET, Direction.SELL, BITCOIN_PAYMENT_METHODS, FIAT_PAYMENT_METHODS,
+                Fiat.fromValue(1000000, "EUR"), Fiat.fromValue(1000000, "EUR"));
+        assertEquals(List.of(rangeOffer.getId()), getIds(candidates));
+
+        candidates = index.findCandidates(EUR_MARKET, Direction.SELL, BITCOIN_PAYMENT_METHODS, FIAT_PAYMENT_METHODS,
+                Fiat.fromValue(1000000, "EUR"), Fiat.fromValue(5000000, "EUR"));
+        assertEquals(Set.of(rangeOffer.getId(), fixedOffer.getId()), Set.copyOf(getIds(candidates)));
+
+        // No matching bitcoin payment method
+        candidates = index.findCandidates(EUR_MARKET, Direction.SELL, List.of(BITCOIN_PAYMENT_METHODS.get(1)), FIAT_PAYMENT_METHODS,
+                Fiat.fromValue(1000000, "EUR"), Fiat.fromValue(1000000, "EUR"));
+        assertTrue(candidates.isEmpty());
+
+        // Amounts within the low precision tolerance are returned as candidates
+        candidates = index.findCandidates(EUR_MARKET, Direction.SELL, BITCOIN_PAYMENT_METHODS, FIAT_PAYMENT_METHODS,
+                Fiat.fromValue(2000050, "EUR"), Fiat.fromValue(2000050, "EUR"));
+        assertEquals(List.of(rangeOffer.getId()), getIds(candidates));
+
+        candidates = index.findCandidates(USD_MARKET, Direction.SELL, BITCOIN_PAYMENT_METHODS, FIAT_PAYMENT_METHODS,
+                Fiat.fromValue(1000000, "USD"), Fiat.fromValue(1000000, "USD"));
+        assertTrue(candidates.isEmpty());
+
+        index.remove(rangeOffer.getId());
+        assertEquals(2, index.size());
+        assertFalse(index.findOffer(rangeOffer.getId()).isPresent());
+        candidates = index.findCandidates(EUR_MARKET, Direction.SELL, BITCOIN_PAYMENT_METHODS, FIAT_PAYMENT_METHODS,
+                Fiat.fromValue(1000000, "EUR"), Fiat.fromValue(5000000, "EUR"));
+        assertEquals(List.of(fixedOffer.getId()), getIds(candidates));
+
+        index.removeIf(offer -> offer.getDirection() == Direction.BUY);
+        assertEquals(1, index.size());
+        index.clear();
+        assertEquals(0, index.size());
+    }
+
+    @Test
+    void testIndexMatchesLinearScan() {
+        Random random = new Random(1);
+        List<BisqEasyOffer> offers = createRandomOffers(random, 20000);
+        BisqEasyOfferIndex index = new BisqEasyOfferIndex();
+        offers.forEach(index::add);
+
+        long indexTime = 0;
+        long linearScanTime = 0;
+        int numQueries = 200;
+        for (int i = 0; i < numQueries; i++) {
+            Market market = MARKETS.get(random.nextInt(MARKETS.size()));
+            Direction direction = random.nextBoolean() ? Direction.BUY : Direction.SELL;
+            List<FiatPaymentMethod> fiatPaymentMethods = randomSubList(random, FIAT_PAYMENT_METHODS);
+            List<BitcoinPaymentMethod> bitcoinPaymentMethods = randomSubList(random, BITCOIN_PAYMENT_METHODS);
+            long min = (1 + random.nextInt(500)) * 10000L;
+            long max = min + random.nextInt(500) * 10000L;
+            Monetary takersMin = Fiat.fromValue(min, market.getQuoteCurrencyCode());
+            Monetary takersMax = Fiat.fromValue(max, market.getQuoteCurrencyCode());
+
+            long ts = System.nanoTime();
+            List<BisqEasyOffer> candidates = index.findCandidates(market, direction, bitcoinPaymentMethods, fiatPaymentMethods, takersMin, takersMax);
+            indexTime += System.nanoTime() - ts;
+
+            ts = System.nanoTime();
+            List<BisqEasyOffer> expected = offers.stream()
+                    .filter(offer -> isCandidate(offer, market, direction, bitcoinPaymentMethods, fiatPaymentMethods, takersMin, takersMax))
+                    .collect(Collectors.toList());
+            linearScanTime += System.nanoTime() - ts;
+
+            assertEquals(Set.copyOf(getIds(expected)), Set.copyOf(getIds(candidates)));
+            assertEquals(expected.size(), candidates.size());
+        }
+        log.info("Finding candidates among {} offers took on average {} µs with the index and {} µs with a linear scan",
+                offers.size(), indexTime / numQueries / 1000, linearScanTime / numQueries / 1000);
+
+        offers.subList(0, offers.size() / 2).forEach(offer -> index.remove(offer.getId()));
+        assertEquals(offers.size() - offers.size() / 2, index.size());
+    }
+
+    private static boolean isCandidate(BisqEasyOffer offer,
+                                       Market market,
+                                       Direction makersDirection,
+                                       List<BitcoinPaymentMethod> bitcoinPaymentMethods,
+                                       List<FiatPaymentMethod> fiatPaymentMethods,
+                                       Monetary takersMin,
+                                       Monetary takersMax) {
+        if (!offer.getMarket().equals(market) || offer.getDirection() != makersDirection) {
+            return false;
+        }
+        if (offer.getQuoteSidePaymentMethodSpecs().stream().map(PaymentMethodSpec::getPaymentMethod).noneMatch(fiatPaymentMethods::contains)) {
+            return false;
+        }
+        if (offer.getBaseSidePaymentMethodSpecs().stream().map(PaymentMethodSpec::getPaymentMethod).noneMatch(bitcoinPaymentMethods::contains)) {
+            return false;
+        }
+        long tolerance = 100; // Fiat has precision 4 and low precision 2
+        String code = market.getQuoteCurrencyCode();
+        long offersMin = AmountSpecUtil.findQuoteSideMinOrFixedAmountFromSpec(offer.getAmountSpec(), code).orElseThrow().getValue();
+        long offersMax = AmountSpecUtil.findQuoteSideMaxOrFixedAmountFromSpec(offer.getAmountSpec(), code).orElseThrow().getValue();
+        return offersMin <= takersMax.getValue() + tolerance && offersMax >= takersMin.getValue() - tolerance;
+    }
+
+    private static List<BisqEasyOffer> createRandomOffers(Random random, int numOffers) {
+        List<BisqEasyOffer> offers = new ArrayList<>();
+        for (int i = 0; i < numOffers; i++) {
+            long min = (1 + random.nextInt(1000)) * 10000L;
+            AmountSpec amountSpec = random.nextBoolean()
+                    ? new QuoteSideFixedAmountSpec(min)
+                    : new QuoteSideRangeAmountSpec(min, min + random.nextInt(1000) * 10000L);
+            offers.add(createOffer(random.nextBoolean() ? Direction.BUY : Direction.SELL,
+                    MARKETS.get(random.nextInt(MARKETS.size())),
+                    amountSpec,
+                    randomSubList(random, FIAT_PAYMENT_METHODS),
+                    randomSubList(random, BITCOIN_PAYMENT_METHODS)));
+        }
+        return offers;
+    }
+
+    private static <T> List<T> randomSubList(Random random, List<T> list) {
+        List<T> result = list.stream().filter(e -> random.nextBoolean()).collect(Collectors.toList());
+        return result.isEmpty() ? List.of(list.get(random.nextInt(list.size()))) : result;
+    }
+
+    private static BisqEasyOffer createOffer(Direction direction,
+                                             Market market,
+                                             AmountSpec amountSpec,
+                                             List<FiatPaymentMethod> fiatPaymentMethods,
+                                             List<BitcoinPaymentMethod> bitcoinPaymentMethods) {
+        // The maker's network ID is not used by the index
+        return new BisqEasyOffer(null,
+                direction,
+                market,
+                amountSpec,
+                new MarketPriceSpec(),
+                bitcoinPaymentMethods,
+                fiatPaymentMethods,
+                "",
+                0,
+                List.of("en"));
+    }
+
+    private static List<String> getIds(List<BisqEasyOffer> offers) {
+        return offers.stream().map(BisqEasyOffer::getId).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,109 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.persistence;
+
+import bisq.persistence.protobuf.JournalRecord;
+import com.google.protobuf.CodedInputStream;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.BufferedOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Append-only log of length-delimited add and remove records of a map based persistable store.
+ * Together with the last snapshot of the store it represents the persisted state. Persisting a change only costs the
+ * size of the change instead of rewriting the whole store.
+ * <p>
+ * If the application crashed while appending, the last record might be incomplete. At reading, we stop at the first
+ * corrupted record and truncate the file to the last complete record.
+ */
+@Slf4j
+public class PersistableStoreJournal {
+    public static final String EXTENSION = ".journal";
+
+    @Getter
+    private final Path journalFilePath;
+
+    public PersistableStoreJournal(Path journalFilePath) {
+        this.journalFilePath = journalFilePath;
+    }
+
+    public synchronized List<JournalRecord> read() {
+        List<JournalRecord> records = new ArrayList<>();
+        if (!Files.exists(journalFilePath)) {
+            return records;
+        }
+
+        int validLength = 0;
+        try {
+            byte[] bytes = Files.readAllBytes(journalFilePath);
+            CodedInputStream inputStream = CodedInputStream.newInstance(bytes);
+            try {
+                while (!inputStream.isAtEnd()) {
+                    int length = inputStream.readRawVarint32();
+                    records.add(JournalRecord.parseFrom(inputStream.readRawBytes(length)));
+                    validLength = inputStream.getTotalBytesRead();
+                }
+            } catch (IOException e) {
+                log.warn("Journal {} has a corrupted record at position {}. We truncate the journal to the last valid record.",
+                        journalFilePath, validLength);
+                truncate(validLength);
+            }
+        } catch (IOException e) {
+            log.error("Couldn't read journal " + journalFilePath, e);
+        }
+        return records;
+    }
+
+    public synchronized void append(List<JournalRecord> records) {
+        if (records.isEmpty()) {
+            return;
+        }
+
+        try (OutputStream outputStream = new BufferedOutputStream(new FileOutputStream(journalFilePath.toFile(), true))) {
+            for (JournalRecord record : records) {
+                record.writeDelimitedTo(outputStream);
+            }
+        } catch (IOException e) {
+            throw new CouldNotSerializePersistableStore(e);
+        }
+    }
+
+    public synchronized void delete() {
+        try {
+            Files.deleteIfExists(journalFilePath);
+        } catch (IOException e) {
+            log.error("Couldn't delete journal " + journalFilePath, e);
+        }
+    }
+
+    private void truncate(int length) throws IOException {
+        try (FileChannel fileChannel = FileChannel.open(journalFilePath, StandardOpenOption.WRITE)) {
+            fileChannel.truncate(length);
+        }
+    }
+}
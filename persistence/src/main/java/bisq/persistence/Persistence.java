@@ -19,10 +19,12 @@ package bisq.persistence;
 
 import bisq.common.threading.ExecutorFactory;
 import bisq.common.util.StringUtils;
+import bisq.persistence.protobuf.JournalRecord;
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 
 import java.nio.file.Path;
+import java.util.List;
 import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutorService;
@@ -39,14 +41,23 @@ public class Persistence<T extends PersistableStore<T>> {
     @Getter
     private final String fileName;
 
+    @Getter
+    private final PersistableStoreJournal journal;
+
+    @Getter
+    private volatile long readDuration;
+
     private final PersistableStoreReaderWriter<T> persistableStoreReaderWriter;
+    private final ExecutorService readExecutorService;
 
-    public Persistence(String directory, String fileName) {
+    public Persistence(String directory, String fileName, ExecutorService readExecutorService) {
         this.fileName = fileName;
+        this.readExecutorService = readExecutorService;
         String storageFileName = StringUtils.camelCaseToSnakeCase(fileName);
         storePath = Path.of(directory, storageFileName + EXTENSION);
         var storeFileManager = new PersistableStoreFileManager(storePath);
         persistableStoreReaderWriter = new PersistableStoreReaderWriter<>(storeFileManager);
+        journal = new PersistableStoreJournal(Path.of(directory, storageFileName + PersistableStoreJournal.EXTENSION));
     }
 
     public CompletableFuture<Optional<T>> readAsync(Consumer<T> consumer) {
@@ -54,7 +65,12 @@ public class Persistence<T extends PersistableStore<T>> {
     }
 
     public CompletableFuture<Optional<T>> readAsync() {
-        return CompletableFuture.supplyAsync(persistableStoreReaderWriter::read, executorService);
+        return CompletableFuture.supplyAsync(() -> {
+            long ts = System.currentTimeMillis();
+            Optional<T> result = persistableStoreReaderWriter.read();
+            readDuration = System.currentTimeMillis() - ts;
+            return result;
+        }, readExecutorService);
     }
 
     public CompletableFuture<Void> persistAsync(T serializable) {
@@ -64,6 +80,23 @@ public class Persistence<T extends PersistableStore<T>> {
         }, executorService);
     }
 
+    public CompletableFuture<Void> appendToJournalAsync(List<JournalRecord> records) {
+        return CompletableFuture.runAsync(() -> journal.append(records), executorService);
+    }
+
+    /**
+     * Writes a new snapshot and deletes the journal if the snapshot was written successfully.
+     * The journal must not contain changes which are not part of the snapshot.
+     */
+    public CompletableFuture<Void> compactJournalAsync(T snapshot) {
+        return CompletableFuture.runAsync(() -> {
+            Thread.currentThread().setName("Persistence.compactJournal-" + fileName);
+            if (persistableStoreReaderWriter.write(snapshot)) {
+                journal.delete();
+            }
+        }, executorService);
+    }
+
     public CompletableFuture<Void> flush() {
         return CompletableFuture.runAsync(() -> Thread.currentThread().setName("Flush-Persistence.persist-" + storePath), executorService);
     }
@@ -18,15 +18,19 @@
 package bisq.persistence;
 
 import bisq.common.proto.PersistableProto;
+import bisq.common.threading.ExecutorFactory;
 import bisq.common.util.CompletableFutureUtils;
+import bisq.common.util.OsUtils;
 import com.google.common.base.Joiner;
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 
 import java.io.File;
+import java.util.Comparator;
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
 import java.util.stream.Collectors;
 
 @Slf4j
@@ -36,9 +40,17 @@ public class PersistenceService {
     @Getter
     protected final List<PersistenceClient<? extends PersistableProto>> clients = new CopyOnWriteArrayList<>();
     protected final List<Persistence<? extends PersistableProto>> persistenceInstances = new CopyOnWriteArrayList<>();
+    // Used for reading (file IO and protobuf parsing) all persisted data in parallel at startup.
+    // Writes are done in a single thread by the Persistence instances.
+    private final ExecutorService readExecutorService;
 
     public PersistenceService(String baseDir) {
+        this(baseDir, OsUtils.availableProcessors());
+    }
+
+    public PersistenceService(String baseDir, int numReadThreads) {
         this.baseDir = baseDir;
+        readExecutorService = ExecutorFactory.newFixedThreadPool("Persistence-read-pool", numReadThreads);
     }
 
     public <T extends PersistableStore<T>> Persistence<T> getOrCreatePersistence(PersistenceClient<T> client,
@@ -60,7 +72,7 @@ public class PersistenceService {
                                                                                  PersistableStore<T> persistableStore) {
         PersistableStoreResolver.addResolver(persistableStore.getResolver());
         clients.add(client);
-        Persistence<T> persistence = new Persistence<>(baseDir + File.separator + subDir, fileName);
+        Persistence<T> persistence = new Persistence<>(baseDir + File.separator + subDir, fileName, readExecutorService);
         persistenceInstances.add(persistence);
         return persistence;
     }
@@ -72,14 +84,21 @@ public class PersistenceService {
                 .sorted()
                 .collect(Collectors.toList());
         log.info("Read persisted data from:\n{}", Joiner.on("\n").join(storagePaths));
-        return CompletableFutureUtils.allOf(clients.stream()
+        long ts = System.currentTimeMillis();
+        // The read tasks are queued in the order of their priority. As they get executed in parallel, clients with
+        // lower priority will not wait until all clients with higher priority are completed.
+        List<PersistenceClient<? extends PersistableProto>> sortedClients = clients.stream()
+                .sorted(Comparator.comparing(persistenceClient -> persistenceClient.getReadPriority()))
+                .collect(Collectors.toList());
+        return CompletableFutureUtils.allOf(sortedClients.stream()
                         .map(persistenceClient -> persistenceClient.readPersisted()
                                 .whenComplete((optionalResult, throwable) -> {
                                     String storagePath = persistenceClient.getPersistence().getStorePath()
                                             .toAbsolutePath().toString();
                                     if (throwable == null) {
                                         if (optionalResult.isPresent()) {
-                                            log.debug("Read persisted data from {}", storagePath);
+                                            log.debug("Read persisted data from {} in {} ms",
+                                                    storagePath, persistenceClient.getPersistence().getReadDuration());
                                         } else {
                                             log.debug("No persisted data at {} found", storagePath);
                                         }
@@ -87,7 +106,21 @@ public class PersistenceService {
                                         log.error("Error at read persisted data from: {}", storagePath, throwable);
                                     }
                                 })))
-                .thenApply(list -> true);
+                .thenApply(list -> {
+                    String slowestReads = sortedClients.stream()
+                            .map(PersistenceClient::getPersistence)
+                            .sorted(Comparator.comparingLong((Persistence<?> persistence) -> persistence.getReadDuration()).reversed())
+                            .limit(10)
+                            .map(persistence -> persistence.getFileName() + ": " + persistence.getReadDuration() + " ms")
+                            .collect(Collectors.joining("\n"));
+                    log.info("Read all persisted data in {} ms. Slowest reads:\n{}",
+                            System.currentTimeMillis() - ts, slowestReads);
+                    return true;
+                });
+    }
+
+    public CompletableFuture<Boolean> shutdown() {
+        return CompletableFuture.supplyAsync(() -> ExecutorFactory.shutdownAndAwaitTermination(readExecutorService));
     }
 
     public CompletableFuture<Boolean> persistAllClients() {
@@ -55,8 +55,7 @@ public abstract class RateLimitedPersistenceClient<T extends PersistableStore<T>
             lastWrite = System.currentTimeMillis();
             writeInProgress = true;
             dropped = false;
-            return getPersistence()
-                    .persistAsync(getPersistableStore().getClone())
+            return doPersist()
                     .handle((r, t) -> {
                         writeInProgress = false;
                         return true;
@@ -68,10 +67,18 @@ public abstract class RateLimitedPersistenceClient<T extends PersistableStore<T>
         return 1000;
     }
 
+    protected CompletableFuture<Void> doPersist() {
+        return getPersistence().persistAsync(getPersistableStore().getClone());
+    }
+
+    protected void doPersistOnShutdown() {
+        getPersistence().persist(getPersistableStore().getClone());
+    }
+
     private void persistOnShutdown() {
         if (dropped) {
             dropped = false;
-            getPersistence().persist(getPersistableStore().getClone());
+            doPersistOnShutdown();
         }
     }
 }
\ No newline at end of file
@@ -0,0 +1,86 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.persistence;
+
+import bisq.persistence.protobuf.JournalRecord;
+import com.google.protobuf.ByteString;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class PersistableStoreJournalTests {
+
+    @Test
+    void readNotExistingJournal(@TempDir Path tempDir) {
+        var journal = new PersistableStoreJournal(tempDir.resolve("store.journal"));
+        assertThat(journal.read()).isEmpty();
+    }
+
+    @Test
+    void appendAndRead(@TempDir Path tempDir) {
+        var journal = new PersistableStoreJournal(tempDir.resolve("store.journal"));
+        journal.append(List.of(createRecord("A", "1"), createRecord("B", "2")));
+        journal.append(List.of(createRemoveRecord("A")));
+
+        List<JournalRecord> records = journal.read();
+        assertThat(records).containsExactly(createRecord("A", "1"), createRecord("B", "2"), createRemoveRecord("A"));
+
+        journal.delete();
+        assertThat(tempDir.resolve("store.journal")).doesNotExist();
+    }
+
+    @Test
+    void truncateIncompleteRecord(@TempDir Path tempDir) throws IOException {
+        Path journalFilePath = tempDir.resolve("store.journal");
+        var journal = new PersistableStoreJournal(journalFilePath);
+        journal.append(List.of(createRecord("A", "1"), createRecord("B", "2")));
+        long validSize = Files.size(journalFilePath);
+        journal.append(List.of(createRecord("C", "3")));
+
+        // Simulate a crash while appending the last record
+        byte[] bytes = Files.readAllBytes(journalFilePath);
+        Files.write(journalFilePath, Arrays.copyOf(bytes, bytes.length - 1));
+
+        assertThat(journal.read()).containsExactly(createRecord("A", "1"), createRecord("B", "2"));
+        assertThat(Files.size(journalFilePath)).isEqualTo(validSize);
+
+        journal.append(List.of(createRecord("D", "4")));
+        assertThat(journal.read()).containsExactly(createRecord("A", "1"), createRecord("B", "2"), createRecord("D", "4"));
+    }
+
+    private static JournalRecord createRecord(String key, String value) {
+        return JournalRecord.newBuilder()
+                .setKey(ByteString.copyFromUtf8(key))
+                .setValue(ByteString.copyFromUtf8(value))
+                .build();
+    }
+
+    private static JournalRecord createRemoveRecord(String key) {
+        return JournalRecord.newBuilder()
+                .setKey(ByteString.copyFromUtf8(key))
+                .setIsRemoved(true)
+                .build();
+    }
+}
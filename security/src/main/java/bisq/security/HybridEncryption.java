@@ -57,7 +57,7 @@ public class HybridEncryption {
         byte[] signature = confidentialData.getSignature();
 
         PublicKey senderPublicKey = KeyGeneration.generatePublic(encodedSenderPublicKey);
-        checkArgument(SignatureUtil.verify(cipherText, signature, senderPublicKey), "Invalid signature");
+        checkArgument(SignatureVerificationService.verify(cipherText, signature, senderPublicKey), "Invalid signature");
 
         // Create shared secret with our private key and senders public key
         SecretKey sharedAesSecretKey = AesGcm.generateSharedAesSecretKey(receiversKeyPair.getPrivate(), senderPublicKey);
@@ -0,0 +1,140 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.security;
+
+import bisq.common.data.ByteArray;
+import org.bouncycastle.jce.provider.BouncyCastleProvider;
+
+import java.nio.ByteBuffer;
+import java.security.*;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Verifies SHA256withECDSA signatures with thread-local Signature instances and keeps a bounded LRU cache of the
+ * digests of already verified (message, signature, public key) triples. The same triples are verified repeatedly
+ * (e.g. inventory data received from multiple peers, re-broadcasts or mailbox messages sent in 2 versions).
+ * <p>
+ * Signatures are verified from inside the data objects (e.g. AddAuthenticatedDataRequest) which do not have access to
+ * service instances, therefore the cache is shared by the whole process. Verifications run on the caller's thread;
+ * parallel verification of inbound data is done by the StorageService on its verification executor.
+ * Only successful verifications are cached.
+ */
+public class SignatureVerificationService {
+    private static final int MAX_CACHE_SIZE = 20_000;
+
+    private static final ThreadLocal<Signature> SIGNATURE = ThreadLocal.withInitial(() -> {
+        try {
+            return Signature.getInstance(SignatureUtil.SHA256withECDSA, "BC");
+        } catch (GeneralSecurityException e) {
+            throw new RuntimeException(e);
+        }
+    });
+    private static final ThreadLocal<MessageDigest> CACHE_KEY_DIGEST = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new RuntimeException(e);
+        }
+    });
+    // LinkedHashMap with access order is used as LRU cache
+    private static final Map<ByteArray, Boolean> VERIFIED = Collections.synchronizedMap(
+            new LinkedHashMap<ByteArray, Boolean>(1024, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<ByteArray, Boolean> eldest) {
+                    return size() > MAX_CACHE_SIZE;
+                }
+            });
+
+    private static final LongAdder numCacheHits = new LongAdder();
+    private static final LongAdder numVerifications = new LongAdder();
+    private static final LongAdder verificationTimeInNanos = new LongAdder();
+
+    static {
+        if (Security.getProvider(BouncyCastleProvider.PROVIDER_NAME) == null) {
+            Security.addProvider(new BouncyCastleProvider());
+        }
+    }
+
+    public static boolean verify(byte[] message, byte[] signature, PublicKey publicKey) throws GeneralSecurityException {
+        ByteArray cacheKey = getCacheKey(message, signature, publicKey);
+        if (VERIFIED.get(cacheKey) != null) {
+            numCacheHits.increment();
+            return true;
+        }
+
+        long ts = System.nanoTime();
+        boolean isValid;
+        Signature sig = SIGNATURE.get();
+        try {
+            // initVerify resets the state of the reused signature object
+            sig.initVerify(publicKey);
+            sig.update(message);
+            isValid = sig.verify(signature);
+        } finally {
+            verificationTimeInNanos.add(System.nanoTime() - ts);
+            numVerifications.increment();
+        }
+
+        if (isValid) {
+            VERIFIED.put(cacheKey, true);
+        }
+        return isValid;
+    }
+
+    public static long getNumCacheHits() {
+        return numCacheHits.sum();
+    }
+
+    public static long getNumVerifications() {
+        return numVerifications.sum();
+    }
+
+    public static double getCacheHitRate() {
+        long hits = getNumCacheHits();
+        long total = hits + getNumVerifications();
+        return total == 0 ? 0 : hits / (double) total;
+    }
+
+    public static double getAverageVerificationTimeInMicros() {
+        long numVerifications = getNumVerifications();
+        return numVerifications == 0 ? 0 : verificationTimeInNanos.sum() / (double) numVerifications / 1000;
+    }
+
+    public static String getMetricsAsString() {
+        return String.format("Signature verifications: %d; cache hits: %d; cache hit rate: %.2f; average verification time: %.1f µs",
+                getNumVerifications(), getNumCacheHits(), getCacheHitRate(), getAverageVerificationTimeInMicros());
+    }
+
+    private static ByteArray getCacheKey(byte[] message, byte[] signature, PublicKey publicKey) {
+        MessageDigest digest = CACHE_KEY_DIGEST.get();
+        byte[] encodedPublicKey = publicKey.getEncoded();
+        // We add the lengths to avoid ambiguity of the concatenated data
+        digest.update(ByteBuffer.allocate(12)
+                .putInt(message.length)
+                .putInt(signature.length)
+                .putInt(encodedPublicKey.length)
+                .array());
+        digest.update(message);
+        digest.update(signature);
+        digest.update(encodedPublicKey);
+        return new ByteArray(digest.digest());
+    }
+}
@@ -147,6 +147,14 @@ public class KeyBundleService implements PersistenceClient<KeyBundleStore> {
         return findKeyBundle(keyId).map(KeyBundle::getKeyPair);
     }
 
+    /**
+     * Cheap lookup if we are the owner of the given key ID. Does not validate the key ID, thus it can be used for
+     * filtering data addressed to other users.
+     */
+    public boolean hasKeyBundle(String keyId) {
+        return persistableStore.containsKeyBundle(keyId);
+    }
+
     public KeyBundle createKeyBundle(String keyId) {
         return createKeyBundle(keyId, TorKeyGeneration.generateKeyPair());
     }
@@ -98,6 +98,11 @@ public final class KeyBundleStore implements PersistableStore<KeyBundleStore> {
         }
     }
 
+    // The map is a ConcurrentHashMap, so we do not need to synchronize for that lookup
+    public boolean containsKeyBundle(String keyId) {
+        return keyBundleById.containsKey(keyId);
+    }
+
     public void putKeyBundle(String keyId, KeyBundle keyBundle) {
         synchronized (keyBundleById) {
             if (keyBundleById.put(keyId, keyBundle) != null) {
@@ -0,0 +1,91 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.security.pow;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BooleanSupplier;
+import java.util.function.LongPredicate;
+import java.util.function.Supplier;
+
+/**
+ * Searches the lowest nonce matching a predicate with all workers of a dedicated ForkJoinPool.
+ * Each instance has its own pool, so that searches with different costs per nonce (e.g. memory-heavy Equihash solves
+ * and hashcash minting) do not compete for the same workers and can be limited separately.
+ * <p>
+ * The workers claim blocks of consecutive nonces in ascending order and stop claiming once a block starts above the
+ * lowest nonce found so far. As all blocks below that nonce get fully searched, the result is the same as with a
+ * sequential search, thus minting stays deterministic.
+ */
+public final class ParallelNonceSearch {
+    public static final int PARALLELISM = Math.max(1, Runtime.getRuntime().availableProcessors() - 1);
+
+    private final int parallelism;
+    // Worker threads of a ForkJoinPool are daemon threads and are created on demand
+    private final ForkJoinPool pool;
+
+    public ParallelNonceSearch(int parallelism) {
+        this.parallelism = parallelism;
+        pool = new ForkJoinPool(parallelism);
+    }
+
+    /**
+     * @param firstNonce    The first nonce to test
+     * @param blockSize     Number of consecutive nonces a worker claims at once
+     * @param workerFactory Creates the predicate for each worker. The predicate is only called from that worker's
+     *                      thread, so it can reuse its buffers without synchronisation.
+     * @param isCancelled   Checked before each block. If it returns true the search ends with a CancellationException.
+     * @return The lowest nonce for which the predicate returned true
+     */
+    public long findLowestNonce(long firstNonce,
+                                int blockSize,
+                                Supplier<LongPredicate> workerFactory,
+                                BooleanSupplier isCancelled) {
+        AtomicLong nextBlock = new AtomicLong();
+        AtomicLong lowestNonce = new AtomicLong(Long.MAX_VALUE);
+        List<ForkJoinTask<?>> tasks = new ArrayList<>(parallelism);
+        for (int i = 0; i < parallelism; i++) {
+            tasks.add(pool.submit(() -> {
+                LongPredicate predicate = workerFactory.get();
+                while (!isCancelled.getAsBoolean()) {
+                    long blockStart = firstNonce + nextBlock.getAndIncrement() * blockSize;
+                    if (blockStart > lowestNonce.get()) {
+                        return;
+                    }
+                    long blockEnd = blockStart + blockSize;
+                    for (long nonce = blockStart; nonce < blockEnd; nonce++) {
+                        if (predicate.test(nonce)) {
+                            lowestNonce.accumulateAndGet(nonce, Math::min);
+                            break;
+                        }
+                    }
+                }
+            }));
+        }
+        tasks.forEach(ForkJoinTask::join);
+
+        if (isCancelled.getAsBoolean()) {
+            throw new CancellationException("Nonce search got cancelled");
+        }
+        return lowestNonce.get();
+    }
+}
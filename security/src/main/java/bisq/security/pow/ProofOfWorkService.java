@@ -25,6 +25,7 @@ import java.util.Arrays;
 import java.util.List;
 import java.util.Random;
 import java.util.concurrent.CompletableFuture;
+import java.util.function.BooleanSupplier;
 
 // Borrowed from: https://github.com/bisq-network/bisq
 @Slf4j
@@ -32,13 +33,31 @@ public abstract class ProofOfWorkService {
     public ProofOfWorkService() {
     }
 
+    /**
+     * Cancelling the returned future stops the minting.
+     */
     public CompletableFuture<ProofOfWork> mintAsync(byte[] payload,
                                                     byte[] challenge,
                                                     double difficulty) {
-        return CompletableFuture.supplyAsync(() -> mint(payload, challenge, difficulty));
+        CompletableFuture<ProofOfWork> future = new CompletableFuture<>();
+        CompletableFuture.runAsync(() -> {
+            try {
+                future.complete(mint(payload, challenge, difficulty, future::isCancelled));
+            } catch (Throwable throwable) {
+                future.completeExceptionally(throwable);
+            }
+        });
+        return future;
+    }
+
+    public ProofOfWork mint(byte[] payload, byte[] challenge, double difficulty) {
+        return mint(payload, challenge, difficulty, () -> false);
     }
 
-    public abstract ProofOfWork mint(byte[] payload, byte[] challenge, double difficulty);
+    /**
+     * @param isCancelled Polled while minting. If it returns true minting ends with a CancellationException.
+     */
+    public abstract ProofOfWork mint(byte[] payload, byte[] challenge, double difficulty, BooleanSupplier isCancelled);
 
     public abstract boolean verify(ProofOfWork proofOfWork);
 
@@ -18,6 +18,7 @@
 package bisq.security.pow.equihash;
 
 import bisq.common.util.ByteArrayUtils;
+import bisq.security.pow.ParallelNonceSearch;
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.collect.ListMultimap;
 import com.google.common.collect.MultimapBuilder;
@@ -29,6 +30,8 @@ import java.math.BigInteger;
 import java.nio.ByteBuffer;
 import java.nio.IntBuffer;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BooleanSupplier;
 import java.util.stream.IntStream;
 import java.util.stream.Stream;
 
@@ -73,6 +76,12 @@ public class Equihash {
      * Mean solution count per nonce for Equihash puzzles with unit difficulty.
      */
     private static final double MEAN_SOLUTION_COUNT_PER_NONCE = 2.0;
+    /**
+     * Each solver allocates large tables, so we run fewer solvers in parallel than the hashcash minting uses workers.
+     * The solvers have their own pool, so they do not compete with the hashcash minting.
+     */
+    private static final int MAX_PARALLEL_SOLVERS = Math.max(1, Math.min(4, ParallelNonceSearch.PARALLELISM / 2));
+    private static final ParallelNonceSearch NONCE_SEARCH = new ParallelNonceSearch(MAX_PARALLEL_SOLVERS);
 
     private final int k, N;
     private final int tableCapacity;
@@ -208,6 +217,19 @@ public class Equihash {
             }
         }
 
+        /**
+         * Searches the nonces in parallel. Finds the same solution as findSolution().
+         */
+        public Solution findSolutionInParallel(BooleanSupplier isCancelled) {
+            Map<Long, int[]> inputsByNonce = new ConcurrentHashMap<>();
+            long nonce = NONCE_SEARCH.findLowestNonce(0, 1, () -> candidate -> {
+                Optional<int[]> inputs = withHashPrefix(seed, candidate).findInputs();
+                inputs.ifPresent(value -> inputsByNonce.put(candidate, value));
+                return inputs.isPresent();
+            }, isCancelled);
+            return new Solution(nonce, inputsByNonce.get(nonce));
+        }
+
         @VisibleForTesting
         int countAllSolutionsForNonce(long nonce) {
             return (int) withHashPrefix(seed, nonce).streamInputsHits()
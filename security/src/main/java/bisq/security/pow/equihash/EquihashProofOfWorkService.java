@@ -27,6 +27,7 @@ import lombok.extern.slf4j.Slf4j;
 
 import javax.annotation.Nullable;
 import java.util.Arrays;
+import java.util.function.BooleanSupplier;
 
 // TODO the scaling of the difficulty does not provide the expected results
 // Borrowed from: https://github.com/bisq-network/bisq
@@ -42,13 +43,16 @@ public class EquihashProofOfWorkService extends ProofOfWorkService {
     }
 
     @Override
-    public ProofOfWork mint(byte[] payload, @Nullable byte[] challenge, double difficulty) {
+    public ProofOfWork mint(byte[] payload,
+                            @Nullable byte[] challenge,
+                            double difficulty,
+                            BooleanSupplier isCancelled) {
         double scaledDifficulty = scaledDifficulty(difficulty);
         log.debug("Got scaled & adjusted difficulty: {}", scaledDifficulty);
 
         long ts = System.currentTimeMillis();
         byte[] seed = getSeed(payload, challenge);
-        byte[] solution = new Equihash(90, 5, scaledDifficulty).puzzle(seed).findSolution().serialize();
+        byte[] solution = new Equihash(90, 5, scaledDifficulty).puzzle(seed).findSolutionInParallel(isCancelled).serialize();
         long counter = Longs.fromByteArray(Arrays.copyOf(solution, 8));
         long duration = System.currentTimeMillis() - ts;
         var proofOfWork = new ProofOfWork(payload, counter, challenge, difficulty, solution, duration);
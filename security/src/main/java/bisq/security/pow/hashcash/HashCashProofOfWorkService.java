@@ -19,36 +19,77 @@ package bisq.security.pow.hashcash;
 
 import bisq.security.DigestUtil;
 import bisq.security.pow.ProofOfWork;
+import bisq.security.pow.ParallelNonceSearch;
 import bisq.security.pow.ProofOfWorkService;
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.primitives.Longs;
 import lombok.extern.slf4j.Slf4j;
+import org.bouncycastle.crypto.digests.SHA256Digest;
 
 import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CancellationException;
+import java.util.function.BooleanSupplier;
+import java.util.function.LongPredicate;
 
 /**
  * HashCash implementation for proof of work
  * It doubles required work by log2Difficulty increase (adding one leading zero).
  * <p>
+ * The payload and challenge are hashed only once per mint. For each counter the digest state is reset to that prefix
+ * state and only the counter bytes are added. Above MIN_LOG2_DIFFICULTY_FOR_PARALLEL_MINTING the counters are
+ * searched in parallel. Both modes find the same lowest counter.
+ * <p>
  * See <a href="https://www.hashcash.org/papers/hashcash.pdf">hashcash.pdf</a>
  */
 @Slf4j
 public class HashCashProofOfWorkService extends ProofOfWorkService {
+    // Below about 16k expected iterations (a few ms) the overhead of the parallel search is not worth it
+    @VisibleForTesting
+    static final int MIN_LOG2_DIFFICULTY_FOR_PARALLEL_MINTING = 14;
+    private static final int BLOCK_SIZE = 4096;
+    private static final int CANCEL_CHECK_INTERVAL = 4096;
+    private static final ParallelNonceSearch NONCE_SEARCH = new ParallelNonceSearch(ParallelNonceSearch.PARALLELISM);
+
     public HashCashProofOfWorkService() {
     }
 
     @Override
     public ProofOfWork mint(byte[] payload,
                             byte[] challenge,
-                            double difficulty) {
+                            double difficulty,
+                            BooleanSupplier isCancelled) {
+        int log2Difficulty = toNumLeadingZeros(difficulty);
+        boolean parallel = log2Difficulty >= MIN_LOG2_DIFFICULTY_FOR_PARALLEL_MINTING &&
+                ParallelNonceSearch.PARALLELISM > 1;
+        return mint(payload, challenge, difficulty, isCancelled, parallel);
+    }
+
+    @VisibleForTesting
+    ProofOfWork mint(byte[] payload,
+                     byte[] challenge,
+                     double difficulty,
+                     BooleanSupplier isCancelled,
+                     boolean parallel) {
         long ts = System.currentTimeMillis();
         int log2Difficulty = toNumLeadingZeros(difficulty);
-        byte[] hash;
-        long counter = 0;
-        do {
-            hash = toSha256Hash(payload, challenge, ++counter);
+        SHA256Digest prefixDigest = createPrefixDigest(payload, challenge);
+        long counter;
+        if (parallel) {
+            counter = NONCE_SEARCH.findLowestNonce(1,
+                    BLOCK_SIZE,
+                    () -> new CounterHasher(prefixDigest, log2Difficulty),
+                    isCancelled);
+        } else {
+            CounterHasher counterHasher = new CounterHasher(prefixDigest, log2Difficulty);
+            counter = 0;
+            do {
+                counter++;
+                if (counter % CANCEL_CHECK_INTERVAL == 0 && isCancelled.getAsBoolean()) {
+                    throw new CancellationException("Minting got cancelled");
+                }
+            }
+            while (!counterHasher.test(counter));
         }
-        while (numberOfLeadingZeros(hash) <= log2Difficulty);
         byte[] solution = Longs.toByteArray(counter);
         return new ProofOfWork(payload, counter, challenge, difficulty, solution, System.currentTimeMillis() - ts);
     }
@@ -87,8 +128,14 @@ public class HashCashProofOfWorkService extends ProofOfWorkService {
         return numberOfLeadingZeros;
     }
 
-    private static byte[] toSha256Hash(byte[] payload, byte[] challenge, long counter) {
-        return toSha256Hash(payload, challenge, Longs.toByteArray(counter));
+    private static SHA256Digest createPrefixDigest(byte[] payload, byte[] challenge) {
+        SHA256Digest digest = new SHA256Digest();
+        digest.update(payload, 0, payload.length);
+        // Like Arrays.concatenate in toSha256Hash we treat a null challenge as empty
+        if (challenge != null) {
+            digest.update(challenge, 0, challenge.length);
+        }
+        return digest;
     }
 
     private static byte[] toSha256Hash(byte[] payload, byte[] challenge, byte[] solution) {
@@ -121,4 +168,35 @@ public class HashCashProofOfWorkService extends ProofOfWorkService {
     static int toNumLeadingZeros(double difficulty) {
         return Math.getExponent(Math.max(Math.nextDown(difficulty), 0.5)) + 1;
     }
+
+    /**
+     * Tests counters with a digest and buffers reused for all counters. Not thread safe, each thread needs its own
+     * instance. The prefix digest is only read and can be shared.
+     */
+    private static final class CounterHasher implements LongPredicate {
+        private final SHA256Digest prefixDigest;
+        private final SHA256Digest digest;
+        private final int log2Difficulty;
+        private final byte[] counterBytes = new byte[Long.BYTES];
+        private final byte[] hash;
+
+        private CounterHasher(SHA256Digest prefixDigest, int log2Difficulty) {
+            this.prefixDigest = prefixDigest;
+            this.log2Difficulty = log2Difficulty;
+            digest = new SHA256Digest(prefixDigest);
+            hash = new byte[digest.getDigestSize()];
+        }
+
+        @Override
+        public boolean test(long counter) {
+            digest.reset(prefixDigest);
+            for (int i = Long.BYTES - 1; i >= 0; i--) {
+                counterBytes[i] = (byte) counter;
+                counter >>= 8;
+            }
+            digest.update(counterBytes, 0, counterBytes.length);
+            digest.doFinal(hash, 0);
+            return numberOfLeadingZeros(hash) > log2Difficulty;
+        }
+    }
 }
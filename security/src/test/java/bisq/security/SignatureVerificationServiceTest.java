@@ -0,0 +1,47 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.security;
+
+import bisq.security.keys.KeyGeneration;
+import org.junit.jupiter.api.Test;
+
+import java.security.GeneralSecurityException;
+import java.security.KeyPair;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SignatureVerificationServiceTest {
+
+    @Test
+    public void testVerifyUsesCache() throws GeneralSecurityException {
+        byte[] message = "hello".getBytes();
+        KeyPair keyPair = KeyGeneration.generateKeyPair();
+        byte[] signature = SignatureUtil.sign(message, keyPair.getPrivate());
+
+        long numCacheHits = SignatureVerificationService.getNumCacheHits();
+        assertTrue(SignatureVerificationService.verify(message, signature, keyPair.getPublic()));
+        assertTrue(SignatureVerificationService.verify(message, signature, keyPair.getPublic()));
+        assertEquals(numCacheHits + 1, SignatureVerificationService.getNumCacheHits());
+
+        // Invalid signatures are not cached
+        byte[] otherMessage = "other".getBytes();
+        assertFalse(SignatureVerificationService.verify(otherMessage, signature, keyPair.getPublic()));
+        assertFalse(SignatureVerificationService.verify(otherMessage, signature, keyPair.getPublic()));
+        assertEquals(numCacheHits + 1, SignatureVerificationService.getNumCacheHits());
+    }
+}
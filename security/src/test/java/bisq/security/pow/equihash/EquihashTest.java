@@ -0,0 +1,61 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.security.pow.equihash;
+
+import bisq.security.pow.ProofOfWork;
+import org.apache.commons.lang3.RandomStringUtils;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class EquihashTest {
+
+    @Test
+    public void testParallelSolutionIsSameAsSequential() {
+        // Small parameters and a low difficulty, so that a solution needs a few nonces and is found quickly
+        Equihash equihash = new Equihash(48, 5, 4.0);
+        for (int i = 0; i < 8; i++) {
+            byte[] seed = new byte[32];
+            seed[0] = (byte) i;
+            Equihash.Puzzle puzzle = equihash.puzzle(seed);
+            Equihash.Puzzle.Solution sequential = puzzle.findSolution();
+            Equihash.Puzzle.Solution parallel = puzzle.findSolutionInParallel(() -> false);
+            assertArrayEquals(sequential.serialize(), parallel.serialize());
+            assertTrue(parallel.verify());
+        }
+    }
+
+    @Test
+    public void testCancelMint() {
+        EquihashProofOfWorkService service = new EquihashProofOfWorkService();
+        byte[] payload = RandomStringUtils.random(50, true, true).getBytes(StandardCharsets.UTF_8);
+        // Would take years to mint
+        double difficulty = Math.scalb(1.0, 100);
+        assertThrows(CancellationException.class, () -> service.mint(payload, null, difficulty, () -> true));
+
+        CompletableFuture<ProofOfWork> future = service.mintAsync(payload, null, difficulty);
+        future.cancel(true);
+        assertThrows(CancellationException.class, future::join);
+    }
+}
@@ -28,11 +28,14 @@ import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
 
 import static bisq.security.pow.hashcash.HashCashProofOfWorkService.numberOfLeadingZeros;
 import static bisq.security.pow.hashcash.HashCashProofOfWorkService.toNumLeadingZeros;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 class HashCashProofOfWorkServiceTest {
@@ -82,6 +85,61 @@ class HashCashProofOfWorkServiceTest {
 //        Minting 1000 tokens with > 8 leading zeros  took 0.318 ms per token and 526 iterations in average. Verification took 0.001 ms per token.
     }
 
+    @Test
+    public void testParallelMintFindsSameCounter() {
+        HashCashProofOfWorkService service = new HashCashProofOfWorkService();
+        for (int log2Difficulty = 0; log2Difficulty < 14; log2Difficulty++) {
+            double difficulty = Math.scalb(1.0, log2Difficulty);
+            byte[] payload = RandomStringUtils.random(50, true, true).getBytes(StandardCharsets.UTF_8);
+            byte[] challenge = log2Difficulty % 2 == 0 ? null : DigestUtil.sha256(payload);
+            ProofOfWork sequential = service.mint(payload, challenge, difficulty, () -> false, false);
+            ProofOfWork parallel = service.mint(payload, challenge, difficulty, () -> false, true);
+            assertEquals(sequential.getCounter(), parallel.getCounter());
+            assertTrue(service.verify(sequential));
+            assertTrue(service.verify(parallel));
+        }
+    }
+
+    @Test
+    public void testCancelMint() {
+        HashCashProofOfWorkService service = new HashCashProofOfWorkService();
+        byte[] payload = RandomStringUtils.random(50, true, true).getBytes(StandardCharsets.UTF_8);
+        // Would take years to mint
+        double difficulty = Math.scalb(1.0, 100);
+        assertThrows(CancellationException.class, () -> service.mint(payload, null, difficulty, () -> true, false));
+        assertThrows(CancellationException.class, () -> service.mint(payload, null, difficulty, () -> true, true));
+
+        CompletableFuture<ProofOfWork> future = service.mintAsync(payload, null, difficulty);
+        future.cancel(true);
+        assertThrows(CancellationException.class, future::join);
+    }
+
+    @Test
+    public void testParallelMintDuration() {
+        StringBuilder stringBuilder = new StringBuilder();
+        HashCashProofOfWorkService service = new HashCashProofOfWorkService();
+        for (int log2Difficulty = 10; log2Difficulty <= 18; log2Difficulty += 2) {
+            double difficulty = Math.scalb(1.0, log2Difficulty);
+            int numTokens = 10;
+            long sequentialDuration = 0;
+            long parallelDuration = 0;
+            for (int i = 0; i < numTokens; i++) {
+                byte[] payload = RandomStringUtils.random(50, true, true).getBytes(StandardCharsets.UTF_8);
+                long ts = System.nanoTime();
+                service.mint(payload, null, difficulty, () -> false, false);
+                sequentialDuration += System.nanoTime() - ts;
+                ts = System.nanoTime();
+                service.mint(payload, null, difficulty, () -> false, true);
+                parallelDuration += System.nanoTime() - ts;
+            }
+            stringBuilder.append("\nMinting with > ").append(log2Difficulty)
+                    .append(" leading zeros took ").append(sequentialDuration / numTokens / 1_000_000d)
+                    .append(" ms sequential and ").append(parallelDuration / numTokens / 1_000_000d)
+                    .append(" ms parallel in average.");
+        }
+        log.info(stringBuilder.toString());
+    }
+
     private void run(int log2Difficulty, StringBuilder stringBuilder) throws ExecutionException, InterruptedException {
         double difficulty = Math.scalb(1.0, log2Difficulty);
         int numTokens = 1000;
@@ -31,6 +31,7 @@ import bisq.persistence.DbSubDirectory;
 import bisq.persistence.Persistence;
 import bisq.persistence.PersistenceClient;
 import bisq.persistence.PersistenceService;
+import bisq.persistence.ReadPriority;
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 
@@ -60,6 +61,11 @@ public class SettingsService implements PersistenceClient<SettingsStore>, Servic
         SettingsService.instance = this;
     }
 
+    @Override
+    public ReadPriority getReadPriority() {
+        return ReadPriority.HIGH;
+    }
+
 
     ///////////////////////////////////////////////////////////////////////////////////////////////////
     // Service
@@ -29,6 +29,7 @@ import bisq.persistence.DbSubDirectory;
 import bisq.persistence.Persistence;
 import bisq.persistence.PersistenceClient;
 import bisq.persistence.PersistenceService;
+import bisq.persistence.ReadPriority;
 import bisq.security.AesSecretKey;
 import bisq.security.EncryptedData;
 import bisq.security.SecurityService;
@@ -72,6 +73,11 @@ public class UserIdentityService implements PersistenceClient<UserIdentityStore>
         this.networkService = networkService;
     }
 
+    @Override
+    public ReadPriority getReadPriority() {
+        return ReadPriority.HIGH;
+    }
+
     public CompletableFuture<Boolean> initialize() {
         log.info("initialize");
         return CompletableFuture.completedFuture(true);
@@ -90,6 +96,13 @@ public class UserIdentityService implements PersistenceClient<UserIdentityStore>
         return hashCashProofOfWorkService.mint(pubKeyHash, null, MINT_NYM_DIFFICULTY);
     }
 
+    /**
+     * Cancelling the returned future stops the minting.
+     */
+    public CompletableFuture<ProofOfWork> mintNymProofOfWorkAsync(byte[] pubKeyHash) {
+        return hashCashProofOfWorkService.mintAsync(pubKeyHash, null, MINT_NYM_DIFFICULTY);
+    }
+
     public CompletableFuture<AesSecretKey> deriveKeyFromPassword(CharSequence password) {
         return persistableStore.deriveKeyFromPassword(password)
                 .whenComplete((aesKey, throwable) -> {
@@ -19,7 +19,9 @@ package bisq.user.profile;
 
 import bisq.common.application.Service;
 import bisq.common.observable.Observable;
+import bisq.common.observable.Pin;
 import bisq.common.observable.collection.ObservableSet;
+import bisq.common.observable.map.HashMapObserver;
 import bisq.common.observable.map.ObservableHashMap;
 import bisq.network.NetworkService;
 import bisq.network.p2p.node.Node;
@@ -63,13 +65,13 @@ public class UserProfileService implements PersistenceClient<UserProfileStore>,
 
     public CompletableFuture<Boolean> initialize() {
         log.info("initialize");
-        networkService.addDataServiceListener(this);
-        networkService.getDataService().ifPresent(ds -> ds.getAuthenticatedData().forEach(this::onAuthenticatedDataAdded));
+        networkService.addDataServiceListener(UserProfile.class, this);
+        networkService.getDataService().ifPresent(ds -> ds.getAuthenticatedData(UserProfile.class).forEach(this::onAuthenticatedDataAdded));
         return CompletableFuture.completedFuture(true);
     }
 
     public CompletableFuture<Boolean> shutdown() {
-        networkService.removeDataServiceListener(this);
+        networkService.removeDataServiceListener(UserProfile.class, this);
         return CompletableFuture.completedFuture(true);
     }
 
@@ -209,6 +211,13 @@ public class UserProfileService implements PersistenceClient<UserProfileStore>,
         return persistableStore.getUserProfileById();
     }
 
+    public Pin addUserProfileByIdObserver(HashMapObserver<String, UserProfile> observer) {
+        // The observer gets called with all existing entries, so we need to sync with processUserProfileAdded
+        synchronized (persistableStore) {
+            return getUserProfileById().addObserver(observer);
+        }
+    }
+
 
     private void addNymToNickNameHashMap(String nym, String nickName) {
         Map<String, Set<String>> nymsByNickName = getNymsByNickName();
@@ -28,6 +28,7 @@ import bisq.user.identity.UserIdentityService;
 import bisq.user.profile.UserProfile;
 import bisq.user.profile.UserProfileService;
 import com.google.common.annotations.VisibleForTesting;
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 
@@ -44,6 +45,8 @@ public class ReputationService implements Service {
     private final SignedWitnessService signedWitnessService;
     private final Observable<String> changedUserProfileScore = new Observable<>();
     private final Map<String, Long> scoreByUserProfileId = new ConcurrentHashMap<>();
+    @Getter(AccessLevel.NONE)
+    private final ScoreRankIndex scoreRankIndex = new ScoreRankIndex();
     private final ProfileAgeService profileAgeService;
     private final NetworkService networkService;
 
@@ -138,8 +141,10 @@ public class ReputationService implements Service {
         }
         long score = scoreByUserProfileId.get(userProfileId);
         double fiveSystemScore = getFiveSystemScore(score);
-        int index = getIndex(score, scoreByUserProfileId.values());
-        int rank = scoreByUserProfileId.size() - index;
+        int rank;
+        synchronized (scoreRankIndex) {
+            rank = scoreRankIndex.getRank(score);
+        }
         return Optional.of(new ReputationScore(score, fiveSystemScore, rank));
     }
 
@@ -153,7 +158,14 @@ public class ReputationService implements Service {
                 accountAgeService.getScore(userProfileId) +
                 signedWitnessService.getScore(userProfileId) +
                 profileAgeService.getScore(userProfileId);
-        scoreByUserProfileId.put(userProfileId, score);
+        synchronized (scoreRankIndex) {
+            Long previousScore = scoreByUserProfileId.put(userProfileId, score);
+            if (previousScore == null) {
+                scoreRankIndex.add(score);
+            } else {
+                scoreRankIndex.update(previousScore, score);
+            }
+        }
         changedUserProfileScore.set(userProfileId);
     }
 
@@ -0,0 +1,179 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.user.reputation;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Order-statistic index over the reputation scores of all user profiles.
+ * Implemented as a treap where each node holds a distinct score, the number of profiles having that score and the
+ * total number of profiles in its subtree. Updates and rank queries are O(log n) expected.
+ * <p>
+ * Not thread safe. Callers need to synchronize access.
+ */
+class ScoreRankIndex {
+    private static final class Node {
+        private final long score;
+        private final int priority;
+        private int count;
+        private int size;
+        private Node left;
+        private Node right;
+
+        private Node(long score) {
+            this.score = score;
+            this.priority = ThreadLocalRandom.current().nextInt();
+            this.count = 1;
+            this.size = 1;
+        }
+
+        private void updateSize() {
+            size = count + size(left) + size(right);
+        }
+    }
+
+    private Node root;
+
+    void add(long score) {
+        root = insert(root, score);
+    }
+
+    /**
+     * @return false if the score was not present
+     */
+    boolean remove(long score) {
+        int sizeBefore = size();
+        root = delete(root, score);
+        return size() < sizeBefore;
+    }
+
+    void update(long previousScore, long newScore) {
+        if (previousScore == newScore) {
+            return;
+        }
+        remove(previousScore);
+        add(newScore);
+    }
+
+    int size() {
+        return size(root);
+    }
+
+    /**
+     * @return The number of scores strictly lower than the given score. This is the same as the index of the first
+     * occurrence of the score in a sorted list of all scores.
+     */
+    int getNumLowerScores(long score) {
+        int result = 0;
+        Node node = root;
+        while (node != null) {
+            if (score <= node.score) {
+                node = node.left;
+            } else {
+                result += size(node.left) + node.count;
+                node = node.right;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @return The rank of the given score, where 1 is the highest score.
+     */
+    int getRank(long score) {
+        return size() - getNumLowerScores(score);
+    }
+
+    private static int size(Node node) {
+        return node == null ? 0 : node.size;
+    }
+
+    private static Node insert(Node node, long score) {
+        if (node == null) {
+            return new Node(score);
+        }
+        if (score == node.score) {
+            node.count++;
+        } else if (score < node.score) {
+            node.left = insert(node.left, score);
+            if (node.left.priority > node.priority) {
+                node = rotateRight(node);
+            }
+        } else {
+            node.right = insert(node.right, score);
+            if (node.right.priority > node.priority) {
+                node = rotateLeft(node);
+            }
+        }
+        node.updateSize();
+        return node;
+    }
+
+    private static Node delete(Node node, long score) {
+        if (node == null) {
+            return null;
+        }
+        if (score < node.score) {
+            node.left = delete(node.left, score);
+        } else if (score > node.score) {
+            node.right = delete(node.right, score);
+        } else if (node.count > 1) {
+            node.count--;
+        } else {
+            return merge(node.left, node.right);
+        }
+        node.updateSize();
+        return node;
+    }
+
+    private static Node merge(Node left, Node right) {
+        if (left == null) {
+            return right;
+        }
+        if (right == null) {
+            return left;
+        }
+        if (left.priority > right.priority) {
+            left.right = merge(left.right, right);
+            left.updateSize();
+            return left;
+        } else {
+            right.left = merge(left, right.left);
+            right.updateSize();
+            return right;
+        }
+    }
+
+    private static Node rotateRight(Node node) {
+        Node left = node.left;
+        node.left = left.right;
+        left.right = node;
+        node.updateSize();
+        left.updateSize();
+        return left;
+    }
+
+    private static Node rotateLeft(Node node) {
+        Node right = node.right;
+        node.right = right.left;
+        right.left = node;
+        node.updateSize();
+        right.updateSize();
+        return right;
+    }
+}
@@ -23,6 +23,8 @@ import bisq.common.application.Service;
 import bisq.common.data.ByteArray;
 import bisq.common.data.Pair;
 import bisq.common.observable.Observable;
+import bisq.common.observable.Pin;
+import bisq.common.observable.map.HashMapObserver;
 import bisq.network.NetworkService;
 import bisq.network.p2p.message.EnvelopePayloadMessage;
 import bisq.network.p2p.services.data.storage.auth.authorized.AuthorizedData;
@@ -38,7 +40,6 @@ import lombok.extern.slf4j.Slf4j;
 import java.util.*;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.TimeUnit;
 
 import static com.google.common.base.Preconditions.checkArgument;
@@ -63,6 +64,10 @@ public abstract class SourceReputationService<T extends AuthorizedDistributedDat
     protected final Map<String, Long> scoreByUserProfileId = new ConcurrentHashMap<>();
     @Getter
     protected final Observable<Pair<String, Long>> userProfileIdScorePair = new Observable<>();
+    // Reverse index for looking up the user profiles matching the key of a provided data
+    private final Map<ByteArray, Set<String>> userProfileIdsByUserProfileKey = new ConcurrentHashMap<>();
+    private final Map<String, ByteArray> userProfileKeyByUserProfileId = new ConcurrentHashMap<>();
+    private Pin userProfileByIdPin;
 
     public SourceReputationService(NetworkService networkService,
                                    UserIdentityService userIdentityService,
@@ -77,12 +82,39 @@ public abstract class SourceReputationService<T extends AuthorizedDistributedDat
     }
 
     public CompletableFuture<Boolean> initialize() {
+        userProfileByIdPin = userProfileService.addUserProfileByIdObserver(new HashMapObserver<>() {
+            @Override
+            public void put(String userProfileId, UserProfile userProfile) {
+                addToUserProfileKeyIndex(userProfileId, userProfile);
+            }
+
+            @Override
+            public void putAll(Map<? extends String, ? extends UserProfile> map) {
+                map.forEach(this::put);
+            }
+
+            @Override
+            public void remove(Object userProfileId) {
+                if (userProfileId instanceof String) {
+                    removeFromUserProfileKeyIndex((String) userProfileId);
+                }
+            }
+
+            @Override
+            public void clear() {
+                userProfileIdsByUserProfileKey.clear();
+                userProfileKeyByUserProfileId.clear();
+            }
+        });
         authorizedBondedRolesService.addListener(this);
         return CompletableFuture.completedFuture(true);
     }
 
     public CompletableFuture<Boolean> shutdown() {
         authorizedBondedRolesService.removeListener(this);
+        if (userProfileByIdPin != null) {
+            userProfileByIdPin.unbind();
+        }
         return CompletableFuture.completedFuture(true);
     }
 
@@ -96,24 +128,46 @@ public abstract class SourceReputationService<T extends AuthorizedDistributedDat
                 .ifPresent(data -> {
                     if (isAuthorized(authorizedData) && isValidVersion(data)) {
                         ByteArray providedHash = getDataKey(data);
-                        // To avoid ConcurrentModificationException
-                        Collection<UserProfile> values = userProfileService.getUserProfileById().values();
-                        List<UserProfile> userProfiles = new CopyOnWriteArrayList<>(values);
-                        userProfiles.stream()
-                                .filter(userProfile -> getUserProfileKey(userProfile).equals(providedHash))
-                                .forEach(userProfile -> {
-                                    ByteArray hash = getUserProfileKey(userProfile);
-                                    if (!dataSetByHash.containsKey(hash)) {
-                                        dataSetByHash.put(hash, new HashSet<>());
-                                    }
-                                    Set<T> dataSet = dataSetByHash.get(hash);
-                                    addToDataSet(dataSet, data);
-                                    putScore(userProfile.getId(), dataSet);
-                                });
+                        Set<String> userProfileIds = userProfileIdsByUserProfileKey.get(providedHash);
+                        if (userProfileIds == null) {
+                            return;
+                        }
+                        userProfileIds.forEach(userProfileId -> {
+                            if (!dataSetByHash.containsKey(providedHash)) {
+                                dataSetByHash.put(providedHash, new HashSet<>());
+                            }
+                            Set<T> dataSet = dataSetByHash.get(providedHash);
+                            addToDataSet(dataSet, data);
+                            putScore(userProfileId, dataSet);
+                        });
                     }
                 });
     }
 
+    private void addToUserProfileKeyIndex(String userProfileId, UserProfile userProfile) {
+        ByteArray userProfileKey = getUserProfileKey(userProfile);
+        ByteArray previousKey = userProfileKeyByUserProfileId.put(userProfileId, userProfileKey);
+        if (previousKey != null && !previousKey.equals(userProfileKey)) {
+            removeUserProfileIdFromKey(previousKey, userProfileId);
+        }
+        userProfileIdsByUserProfileKey.computeIfAbsent(userProfileKey, key -> ConcurrentHashMap.newKeySet())
+                .add(userProfileId);
+    }
+
+    private void removeFromUserProfileKeyIndex(String userProfileId) {
+        ByteArray userProfileKey = userProfileKeyByUserProfileId.remove(userProfileId);
+        if (userProfileKey != null) {
+            removeUserProfileIdFromKey(userProfileKey, userProfileId);
+        }
+    }
+
+    private void removeUserProfileIdFromKey(ByteArray userProfileKey, String userProfileId) {
+        userProfileIdsByUserProfileKey.computeIfPresent(userProfileKey, (key, userProfileIds) -> {
+            userProfileIds.remove(userProfileId);
+            return userProfileIds.isEmpty() ? null : userProfileIds;
+        });
+    }
+
     protected boolean isValidVersion(T data) {
         return true;
     }
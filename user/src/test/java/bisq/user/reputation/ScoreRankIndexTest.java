@@ -0,0 +1,76 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.user.reputation;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ScoreRankIndexTest {
+
+    @Test
+    void testGetNumLowerScores() {
+        ScoreRankIndex index = new ScoreRankIndex();
+        assertEquals(0, index.getNumLowerScores(1));
+        List.of(1L, 2L, 2L, 4L, 5L).forEach(index::add);
+        assertEquals(5, index.size());
+        assertEquals(0, index.getNumLowerScores(1));
+        assertEquals(1, index.getNumLowerScores(2));
+        assertEquals(3, index.getNumLowerScores(4));
+        assertEquals(4, index.getNumLowerScores(5));
+        assertEquals(5, index.getRank(1));
+        assertEquals(1, index.getRank(5));
+
+        assertTrue(index.remove(2));
+        assertFalse(index.remove(3));
+        assertEquals(4, index.size());
+        assertEquals(2, index.getNumLowerScores(4));
+
+        index.update(1, 10);
+        assertEquals(1, index.getRank(10));
+        assertEquals(4, index.getRank(2));
+    }
+
+    @Test
+    void testMatchesGetIndex() {
+        Random random = new Random(42);
+        ScoreRankIndex index = new ScoreRankIndex();
+        List<Long> scores = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            long score = random.nextInt(500);
+            if (!scores.isEmpty() && random.nextInt(3) == 0) {
+                int position = random.nextInt(scores.size());
+                index.update(scores.get(position), score);
+                scores.set(position, score);
+            } else {
+                index.add(score);
+                scores.add(score);
+            }
+        }
+        assertEquals(scores.size(), index.size());
+        for (long score : scores) {
+            assertEquals(ReputationService.getIndex(score, scores), index.getNumLowerScores(score));
+        }
+    }
+}
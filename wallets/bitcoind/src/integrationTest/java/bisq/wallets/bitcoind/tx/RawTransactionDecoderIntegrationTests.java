@@ -0,0 +1,101 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.wallets.bitcoind.tx;
+
+import bisq.common.encoding.Hex;
+import bisq.wallets.bitcoind.regtest.BitcoindExtension;
+import bisq.wallets.bitcoind.rpc.BitcoindDaemon;
+import bisq.wallets.bitcoind.rpc.BitcoindWallet;
+import bisq.wallets.bitcoind.rpc.responses.BitcoindDecodeRawTransactionResponse;
+import bisq.wallets.bitcoind.rpc.responses.BitcoindVin;
+import bisq.wallets.bitcoind.rpc.responses.BitcoindVout;
+import bisq.wallets.core.model.AddressType;
+import bisq.wallets.regtest.bitcoind.BitcoindRegtestSetup;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@ExtendWith(BitcoindExtension.class)
+public class RawTransactionDecoderIntegrationTests {
+
+    private final BitcoindRegtestSetup regtestSetup;
+    private final BitcoindDaemon daemon;
+    private final BitcoindWallet minerWallet;
+
+    public RawTransactionDecoderIntegrationTests(BitcoindRegtestSetup regtestSetup) {
+        this.regtestSetup = regtestSetup;
+        this.daemon = regtestSetup.getDaemon();
+        this.minerWallet = regtestSetup.getMinerWallet();
+    }
+
+    @Test
+    public void decodeLikeBitcoind() throws Exception {
+        BitcoindWallet receiverWallet = regtestSetup.createAndInitializeNewWallet("receiver_wallet_raw_tx_decoder");
+        var decoder = new RawTransactionDecoder(BitcoindChain.fromName(daemon.getBlockchainInfo().getChain()));
+
+        for (AddressType addressType : AddressType.values()) {
+            String receiverAddress = receiverWallet.getNewAddress(addressType, "");
+            String txId = minerWallet.sendToAddress(Optional.of(BitcoindRegtestSetup.WALLET_PASSPHRASE), receiverAddress, 1);
+            String txInHex = daemon.getRawTransaction(txId);
+
+            BitcoindDecodeRawTransactionResponse.Result expected = daemon.decodeRawTransaction(txInHex).getResult();
+            BitcoindDecodeRawTransactionResponse.Result decoded = decoder.decode(Hex.decode(txInHex));
+            assertSameAsBitcoind(decoded, expected);
+            assertThat(decoded.getVout())
+                    .anySatisfy(vout -> assertThat(vout.getAddresses()).containsExactly(receiverAddress));
+        }
+        regtestSetup.mineOneBlock();
+    }
+
+    private static void assertSameAsBitcoind(BitcoindDecodeRawTransactionResponse.Result decoded,
+                                             BitcoindDecodeRawTransactionResponse.Result expected) {
+        assertThat(decoded.getTxId()).isEqualTo(expected.getTxId());
+        assertThat(decoded.getHash()).isEqualTo(expected.getHash());
+        assertThat(decoded.getSize()).isEqualTo(expected.getSize());
+        assertThat(decoded.getVsize()).isEqualTo(expected.getVsize());
+        assertThat(decoded.getWeight()).isEqualTo(expected.getWeight());
+        assertThat(decoded.getVersion()).isEqualTo(expected.getVersion());
+        assertThat(decoded.getLocktime()).isEqualTo(expected.getLocktime());
+
+        assertThat(decoded.getVin()).hasSameSizeAs(expected.getVin());
+        for (int i = 0; i < expected.getVin().size(); i++) {
+            BitcoindVin decodedVin = decoded.getVin().get(i);
+            BitcoindVin expectedVin = expected.getVin().get(i);
+            assertThat(decodedVin.getCoinbase()).isEqualTo(expectedVin.getCoinbase());
+            assertThat(decodedVin.getTxId()).isEqualTo(expectedVin.getTxId());
+            assertThat(decodedVin.getVout()).isEqualTo(expectedVin.getVout());
+            assertThat(decodedVin.getScriptSig().getHex()).isEqualTo(expectedVin.getScriptSig().getHex());
+            assertThat(decodedVin.getTxInWitness()).isEqualTo(expectedVin.getTxInWitness());
+            assertThat(decodedVin.getSequence()).isEqualTo(expectedVin.getSequence());
+        }
+
+        assertThat(decoded.getVout()).hasSameSizeAs(expected.getVout());
+        for (int i = 0; i < expected.getVout().size(); i++) {
+            BitcoindVout decodedVout = decoded.getVout().get(i);
+            BitcoindVout expectedVout = expected.getVout().get(i);
+            assertThat(decodedVout.getValue()).isEqualTo(expectedVout.getValue());
+            assertThat(decodedVout.getN()).isEqualTo(expectedVout.getN());
+            assertThat(decodedVout.getScriptPubKey().getHex()).isEqualTo(expectedVout.getScriptPubKey().getHex());
+            assertThat(decodedVout.getScriptPubKey().getType()).isEqualTo(expectedVout.getScriptPubKey().getType());
+            assertThat(decodedVout.getAddresses()).isEqualTo(expectedVout.getAddresses());
+        }
+    }
+}
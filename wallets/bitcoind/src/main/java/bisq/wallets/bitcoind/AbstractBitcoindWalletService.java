@@ -17,6 +17,7 @@
 
 package bisq.wallets.bitcoind;
 
+import bisq.common.data.Pair;
 import bisq.common.monetary.Coin;
 import bisq.common.observable.Observable;
 import bisq.common.observable.collection.ObservableSet;
@@ -68,6 +69,7 @@ public abstract class AbstractBitcoindWalletService<T extends Wallet & ZmqWallet
     protected Optional<T> wallet = Optional.empty();
     protected Optional<ZmqConnection> zmqConnection = Optional.empty();
     protected final Set<String> utxoTxIds = new HashSet<>();
+    private volatile boolean utxoTxIdsInitialized;
     @Getter
     protected final ObservableSet<String> walletAddresses = new ObservableSet<>();
     @Getter
@@ -234,7 +236,7 @@ public abstract class AbstractBitcoindWalletService<T extends Wallet & ZmqWallet
 
     protected abstract void persistRpcConfig(RpcConfig rpcConfig);
 
-    protected Wallet getWalletOrThrowException() {
+    protected T getWalletOrThrowException() {
         return wallet.orElseThrow(() -> new WalletNotInitializedException("Call WalletService.initialize(...) first."));
     }
 
@@ -256,23 +258,39 @@ public abstract class AbstractBitcoindWalletService<T extends Wallet & ZmqWallet
         return false;
     }
 
+    /**
+     * Wallets which support batch requests override this to request the balance and the utxos with one request.
+     * Only used for the first balance update, as later updates request the utxos only if the balance has changed.
+     */
+    protected Pair<Double, List<? extends Utxo>> getBalanceAndListUnspent(T wallet) {
+        return new Pair<>(wallet.getBalance(), wallet.listUnspent());
+    }
+
     private void updateBalance() {
         CompletableFuture.runAsync(() -> {
-            Wallet wallet = getWalletOrThrowException();
-            double balance = wallet.getBalance();
-            Coin coin = Coin.fromFaceValue(balance, currencyCode);
+            T wallet = getWalletOrThrowException();
+            if (!utxoTxIdsInitialized) {
+                Pair<Double, List<? extends Utxo>> balanceAndUtxos = getBalanceAndListUnspent(wallet);
+                observableBalanceAsCoin.set(Coin.fromFaceValue(balanceAndUtxos.getFirst(), currencyCode));
+                setUtxoTxIds(balanceAndUtxos.getSecond());
+                utxoTxIdsInitialized = true;
+                return;
+            }
+
+            Coin coin = Coin.fromFaceValue(wallet.getBalance(), currencyCode);
 
             // Balance changed?
             if (!observableBalanceAsCoin.get().equals(coin)) {
                 observableBalanceAsCoin.set(coin);
-
-                listUnspent().thenAccept(utxos -> {
-                    utxoTxIds.clear();
-                    utxos.stream()
-                            .map(Utxo::getTxId)
-                            .forEach(utxoTxIds::add);
-                });
+                setUtxoTxIds(wallet.listUnspent());
             }
         });
     }
+
+    private void setUtxoTxIds(List<? extends Utxo> utxos) {
+        utxoTxIds.clear();
+        utxos.stream()
+                .map(Utxo::getTxId)
+                .forEach(utxoTxIds::add);
+    }
 }
@@ -17,6 +17,7 @@
 
 package bisq.wallets.bitcoind;
 
+import bisq.common.data.Pair;
 import bisq.common.monetary.Coin;
 import bisq.common.observable.collection.ObservableSet;
 import bisq.wallets.bitcoind.rpc.BitcoindDaemon;
@@ -120,6 +121,11 @@ public class BitcoinWallet implements Wallet, ZmqWallet {
         return wallet.listUnspent();
     }
 
+    public Pair<Double, List<? extends Utxo>> getBalanceAndListUnspent() {
+        var balanceAndUnspent = wallet.getBalanceAndListUnspent();
+        return new Pair<>(balanceAndUnspent.getFirst(), balanceAndUnspent.getSecond());
+    }
+
     @Override
     public String sendToAddress(Optional<String> passphrase, String address, double amount) {
         return wallet.sendToAddress(passphrase, address, amount);
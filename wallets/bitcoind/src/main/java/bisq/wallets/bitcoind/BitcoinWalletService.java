@@ -17,15 +17,18 @@
 
 package bisq.wallets.bitcoind;
 
+import bisq.common.data.Pair;
 import bisq.common.monetary.Coin;
 import bisq.common.observable.Observable;
 import bisq.persistence.DbSubDirectory;
 import bisq.persistence.Persistence;
 import bisq.persistence.PersistenceService;
+import bisq.wallets.core.model.Utxo;
 import bisq.wallets.json_rpc.RpcConfig;
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 
+import java.util.List;
 import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
 
@@ -77,6 +80,11 @@ public class BitcoinWalletService extends AbstractBitcoindWalletService<BitcoinW
         return persistableStore.getRpcConfig();
     }
 
+    @Override
+    protected Pair<Double, List<? extends Utxo>> getBalanceAndListUnspent(BitcoinWallet wallet) {
+        return wallet.getBalanceAndListUnspent();
+    }
+
     @Override
     public CompletableFuture<Coin> requestBalance() {
         if (wallet.isEmpty()) {
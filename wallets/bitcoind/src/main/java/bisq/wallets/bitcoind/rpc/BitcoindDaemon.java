@@ -20,6 +20,7 @@ package bisq.wallets.bitcoind.rpc;
 import bisq.wallets.bitcoind.rpc.calls.*;
 import bisq.wallets.bitcoind.rpc.responses.BitcoindDecodeRawTransactionResponse;
 import bisq.wallets.bitcoind.rpc.responses.BitcoindFinalizePsbtResponse;
+import bisq.wallets.bitcoind.rpc.responses.BitcoindGetBlockchainInfoResponse;
 import bisq.wallets.bitcoind.rpc.responses.BitcoindGetZmqNotificationsResponse;
 import bisq.wallets.json_rpc.RpcConfig;
 import bisq.wallets.json_rpc.RpcClientFactory;
@@ -89,6 +90,11 @@ public class BitcoindDaemon {
         return rpcClient.call(rpcCall).getResult();
     }
 
+    public BitcoindGetBlockchainInfoResponse.Result getBlockchainInfo() {
+        var rpcCall = new BitcoindGetBlockchainInfoRpcCall();
+        return rpcClient.call(rpcCall).getResult();
+    }
+
     public String getRawTransaction(String txId) {
         var request = new BitcoindGetRawTransactionRpcCall.Request(txId);
         var rpcCall = new BitcoindGetRawTransactionRpcCall(request);
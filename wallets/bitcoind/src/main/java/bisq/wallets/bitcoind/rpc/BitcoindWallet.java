@@ -17,6 +17,7 @@
 
 package bisq.wallets.bitcoind.rpc;
 
+import bisq.common.data.Pair;
 import bisq.wallets.bitcoind.rpc.calls.*;
 import bisq.wallets.bitcoind.rpc.calls.requests.BitcoindImportDescriptorRequestEntry;
 import bisq.wallets.bitcoind.rpc.calls.requests.BitcoindImportMultiRequest;
@@ -25,6 +26,7 @@ import bisq.wallets.bitcoind.rpc.responses.*;
 import bisq.wallets.json_rpc.RpcConfig;
 import bisq.wallets.core.model.AddressType;
 import bisq.wallets.json_rpc.RpcClientFactory;
+import bisq.wallets.json_rpc.JsonRpcBatch;
 import bisq.wallets.json_rpc.JsonRpcClient;
 
 import java.util.List;
@@ -80,6 +82,21 @@ public class BitcoindWallet {
     public double getBalance() {
         var rpcCall = new BitcoindGetBalancesRpcCall();
         BitcoindGetBalancesResponse response = rpcClient.call(rpcCall);
+        return toBalance(response);
+    }
+
+    /**
+     * Requests the balance and the unspent outputs with a single batch request.
+     */
+    public Pair<Double, List<BitcoindListUnspentResponse.Entry>> getBalanceAndListUnspent() {
+        var batch = new JsonRpcBatch();
+        JsonRpcBatch.Entry<BitcoindGetBalancesResponse> balances = batch.add(new BitcoindGetBalancesRpcCall());
+        JsonRpcBatch.Entry<BitcoindListUnspentResponse> unspent = batch.add(new BitcoindListUnspentRpcCall());
+        rpcClient.call(batch);
+        return new Pair<>(toBalance(balances.getResponse()), unspent.getResponse().getResult());
+    }
+
+    private static double toBalance(BitcoindGetBalancesResponse response) {
         BitcoindGetMineBalancesResponse mineBalancesResponse = response.getResult().getMine();
         return mineBalancesResponse.getTrusted() + mineBalancesResponse.getUntrustedPending();
     }
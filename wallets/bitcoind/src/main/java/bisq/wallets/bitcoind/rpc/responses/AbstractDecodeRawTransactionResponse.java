@@ -19,10 +19,12 @@ package bisq.wallets.bitcoind.rpc.responses;
 
 import com.squareup.moshi.Json;
 import lombok.Getter;
+import lombok.Setter;
 
 import java.util.List;
 
 @Getter
+@Setter
 public class AbstractDecodeRawTransactionResponse<S extends AbstractVin, T extends AbstractVout<?>> {
     @Json(name = "txid")
     private String txId;
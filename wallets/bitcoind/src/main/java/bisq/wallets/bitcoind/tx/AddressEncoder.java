@@ -0,0 +1,138 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.wallets.bitcoind.tx;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigInteger;
+import java.util.Arrays;
+
+/**
+ * Base58Check (BIP 13) and Bech32/Bech32m (BIP 173/350) address encoding.
+ */
+final class AddressEncoder {
+    private static final char[] BASE58_ALPHABET = "123456789ABCDEFGHJKLMNPQRSTUVWXYZabcdefghijkmnopqrstuvwxyz".toCharArray();
+    private static final BigInteger FIFTY_EIGHT = BigInteger.valueOf(58);
+    private static final String BECH32_CHARSET = "qpzry9x8gf2tvdw0s3jn54khce6mua7l";
+    private static final int BECH32_CONST = 1;
+    private static final int BECH32M_CONST = 0x2bc830a3;
+
+    private AddressEncoder() {
+    }
+
+    static String toBase58CheckAddress(int version, byte[] hash) {
+        byte[] payload = new byte[hash.length + 5];
+        payload[0] = (byte) version;
+        System.arraycopy(hash, 0, payload, 1, hash.length);
+        byte[] checksum = RawTransactionDecoder.doubleSha256(payload, 0, hash.length + 1);
+        System.arraycopy(checksum, 0, payload, hash.length + 1, 4);
+        return toBase58(payload);
+    }
+
+    static String toSegwitAddress(String hrp, int witnessVersion, byte[] program) {
+        byte[] fiveBitProgram = convertBits(program, 8, 5);
+        byte[] data = new byte[fiveBitProgram.length + 1];
+        data[0] = (byte) witnessVersion;
+        System.arraycopy(fiveBitProgram, 0, data, 1, fiveBitProgram.length);
+        return toBech32(hrp, data, witnessVersion == 0 ? BECH32_CONST : BECH32M_CONST);
+    }
+
+    static String toBase58(byte[] bytes) {
+        StringBuilder sb = new StringBuilder();
+        BigInteger value = new BigInteger(1, bytes);
+        while (value.signum() > 0) {
+            BigInteger[] divAndRem = value.divideAndRemainder(FIFTY_EIGHT);
+            sb.append(BASE58_ALPHABET[divAndRem[1].intValue()]);
+            value = divAndRem[0];
+        }
+        // Each leading zero byte is encoded as the first character of the alphabet
+        for (int i = 0; i < bytes.length && bytes[i] == 0; i++) {
+            sb.append(BASE58_ALPHABET[0]);
+        }
+        return sb.reverse().toString();
+    }
+
+    private static String toBech32(String hrp, byte[] data, int checksumConstant) {
+        byte[] checksum = createBech32Checksum(hrp, data, checksumConstant);
+        StringBuilder sb = new StringBuilder(hrp.length() + 1 + data.length + checksum.length);
+        sb.append(hrp).append('1');
+        for (byte value : data) {
+            sb.append(BECH32_CHARSET.charAt(value));
+        }
+        for (byte value : checksum) {
+            sb.append(BECH32_CHARSET.charAt(value));
+        }
+        return sb.toString();
+    }
+
+    private static byte[] createBech32Checksum(String hrp, byte[] data, int checksumConstant) {
+        byte[] expandedHrp = expandHrp(hrp);
+        byte[] values = Arrays.copyOf(expandedHrp, expandedHrp.length + data.length + 6);
+        System.arraycopy(data, 0, values, expandedHrp.length, data.length);
+        int polymod = bech32Polymod(values) ^ checksumConstant;
+        byte[] checksum = new byte[6];
+        for (int i = 0; i < 6; i++) {
+            checksum[i] = (byte) ((polymod >>> 5 * (5 - i)) & 31);
+        }
+        return checksum;
+    }
+
+    static int bech32Polymod(byte[] values) {
+        int[] generator = {0x3b6a57b2, 0x26508e6d, 0x1ea119fa, 0x3d4233dd, 0x2a1462b3};
+        int checksum = 1;
+        for (byte value : values) {
+            int top = checksum >>> 25;
+            checksum = (checksum & 0x1ffffff) << 5 ^ value;
+            for (int i = 0; i < 5; i++) {
+                if (((top >>> i) & 1) != 0) {
+                    checksum ^= generator[i];
+                }
+            }
+        }
+        return checksum;
+    }
+
+    static byte[] expandHrp(String hrp) {
+        int length = hrp.length();
+        byte[] result = new byte[length * 2 + 1];
+        for (int i = 0; i < length; i++) {
+            char c = hrp.charAt(i);
+            result[i] = (byte) (c >>> 5);
+            result[i + length + 1] = (byte) (c & 31);
+        }
+        return result;
+    }
+
+    private static byte[] convertBits(byte[] data, int fromBits, int toBits) {
+        int accumulator = 0;
+        int bits = 0;
+        int maxValue = (1 << toBits) - 1;
+        ByteArrayOutputStream out = new ByteArrayOutputStream(data.length * fromBits / toBits + 1);
+        for (byte value : data) {
+            accumulator = accumulator << fromBits | (value & 0xff);
+            bits += fromBits;
+            while (bits >= toBits) {
+                bits -= toBits;
+                out.write((accumulator >>> bits) & maxValue);
+            }
+        }
+        if (bits > 0) {
+            out.write((accumulator << (toBits - bits)) & maxValue);
+        }
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,56 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.wallets.bitcoind.tx;
+
+import lombok.Getter;
+
+/**
+ * The chains reported by bitcoind's getblockchaininfo with their address prefixes.
+ */
+public enum BitcoindChain {
+    MAIN("main", 0x00, 0x05, "bc"),
+    TEST("test", 0x6f, 0xc4, "tb"),
+    TESTNET4("testnet4", 0x6f, 0xc4, "tb"),
+    SIGNET("signet", 0x6f, 0xc4, "tb"),
+    REGTEST("regtest", 0x6f, 0xc4, "bcrt");
+
+    @Getter
+    private final String name;
+    @Getter
+    private final int pubKeyHashAddressVersion;
+    @Getter
+    private final int scriptHashAddressVersion;
+    @Getter
+    private final String bech32Hrp;
+
+    BitcoindChain(String name, int pubKeyHashAddressVersion, int scriptHashAddressVersion, String bech32Hrp) {
+        this.name = name;
+        this.pubKeyHashAddressVersion = pubKeyHashAddressVersion;
+        this.scriptHashAddressVersion = scriptHashAddressVersion;
+        this.bech32Hrp = bech32Hrp;
+    }
+
+    public static BitcoindChain fromName(String name) {
+        for (BitcoindChain chain : values()) {
+            if (chain.name.equals(name)) {
+                return chain;
+            }
+        }
+        throw new IllegalArgumentException("Unknown chain: " + name);
+    }
+}
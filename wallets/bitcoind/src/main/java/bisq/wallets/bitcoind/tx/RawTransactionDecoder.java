@@ -0,0 +1,412 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.wallets.bitcoind.tx;
+
+import bisq.common.encoding.Hex;
+import bisq.wallets.bitcoind.rpc.responses.BitcoindDecodeRawTransactionResponse;
+import bisq.wallets.bitcoind.rpc.responses.BitcoindScriptPubKey;
+import bisq.wallets.bitcoind.rpc.responses.BitcoindScriptSig;
+import bisq.wallets.bitcoind.rpc.responses.BitcoindVin;
+import bisq.wallets.bitcoind.rpc.responses.BitcoindVout;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Decodes serialized (segwit) transactions into the same view as bitcoind's decoderawtransaction RPC call.
+ * <p>
+ * The asm and desc fields of scripts are not set, as we do not need them.
+ * Throws an IllegalArgumentException if the transaction cannot be decoded.
+ */
+public class RawTransactionDecoder {
+    private static final int WITNESS_SCALE_FACTOR = 4;
+    private static final double SATOSHIS_PER_BTC = 100_000_000d;
+
+    private static final int OP_0 = 0x00;
+    private static final int OP_PUSHDATA1 = 0x4c;
+    private static final int OP_PUSHDATA2 = 0x4d;
+    private static final int OP_PUSHDATA4 = 0x4e;
+    private static final int OP_1 = 0x51;
+    private static final int OP_16 = 0x60;
+    private static final int OP_RETURN = 0x6a;
+    private static final int OP_DUP = 0x76;
+    private static final int OP_EQUAL = 0x87;
+    private static final int OP_EQUALVERIFY = 0x88;
+    private static final int OP_HASH160 = 0xa9;
+    private static final int OP_CHECKSIG = 0xac;
+    private static final int OP_CHECKMULTISIG = 0xae;
+
+    private final BitcoindChain chain;
+
+    public RawTransactionDecoder(BitcoindChain chain) {
+        this.chain = chain;
+    }
+
+    public BitcoindDecodeRawTransactionResponse.Result decode(byte[] serializedTx) {
+        try {
+            return doDecode(serializedTx);
+        } catch (BufferUnderflowException e) {
+            throw new IllegalArgumentException("Unexpected end of transaction data", e);
+        }
+    }
+
+    private BitcoindDecodeRawTransactionResponse.Result doDecode(byte[] serializedTx) {
+        ByteBuffer buffer = ByteBuffer.wrap(serializedTx).order(ByteOrder.LITTLE_ENDIAN);
+        int version = buffer.getInt();
+
+        // Same as in bitcoind's UnserializeTransaction: An empty input list is the segwit marker followed by the flags
+        int inputsStart = buffer.position();
+        List<BitcoindVin> vin = readInputs(buffer);
+        List<BitcoindVout> vout;
+        int flags = 0;
+        if (vin.isEmpty()) {
+            flags = buffer.get() & 0xff;
+            if (flags != 0) {
+                inputsStart = buffer.position();
+                vin = readInputs(buffer);
+                vout = readOutputs(buffer);
+            } else {
+                // The flags byte was the number of outputs
+                vout = new ArrayList<>();
+            }
+        } else {
+            vout = readOutputs(buffer);
+        }
+        int outputsEnd = buffer.position();
+
+        boolean hasWitness = false;
+        if ((flags & 1) != 0) {
+            flags ^= 1;
+            for (BitcoindVin input : vin) {
+                List<String> witness = readWitness(buffer);
+                if (!witness.isEmpty()) {
+                    input.setTxInWitness(witness);
+                    hasWitness = true;
+                }
+            }
+            if (!hasWitness) {
+                throw new IllegalArgumentException("Superfluous witness record");
+            }
+        }
+        if (flags != 0) {
+            throw new IllegalArgumentException("Unknown transaction optional data");
+        }
+        int lockTime = buffer.getInt();
+        if (buffer.hasRemaining()) {
+            throw new IllegalArgumentException("Transaction has " + buffer.remaining() + " unexpected trailing bytes");
+        }
+
+        int size = serializedTx.length;
+        int strippedSize = hasWitness ? 4 + (outputsEnd - inputsStart) + 4 : size;
+        int weight = strippedSize * (WITNESS_SCALE_FACTOR - 1) + size;
+        byte[] txId = hasWitness ? computeTxIdOfWitnessTx(serializedTx, inputsStart, outputsEnd) : doubleSha256(serializedTx, 0, size);
+
+        BitcoindDecodeRawTransactionResponse.Result result = new BitcoindDecodeRawTransactionResponse.Result();
+        result.setTxId(toReversedHex(txId));
+        result.setHash(hasWitness ? toReversedHex(doubleSha256(serializedTx, 0, size)) : result.getTxId());
+        result.setSize(size);
+        result.setVsize((weight + WITNESS_SCALE_FACTOR - 1) / WITNESS_SCALE_FACTOR);
+        result.setWeight(weight);
+        result.setVersion(version);
+        result.setLocktime(lockTime);
+        result.setVin(vin);
+        result.setVout(vout);
+        return result;
+    }
+
+    private List<BitcoindVin> readInputs(ByteBuffer buffer) {
+        // Each input has at least 41 bytes
+        int numInputs = readCount(buffer, 41);
+        List<BitcoindVin> inputs = new ArrayList<>(numInputs);
+        for (int i = 0; i < numInputs; i++) {
+            byte[] prevTxId = readBytes(buffer, 32);
+            long prevOutIndex = Integer.toUnsignedLong(buffer.getInt());
+            byte[] scriptSig = readBytes(buffer, readCount(buffer, 1));
+            long sequence = Integer.toUnsignedLong(buffer.getInt());
+
+            BitcoindVin input = new BitcoindVin();
+            if (prevOutIndex == 0xffffffffL && isAllZeros(prevTxId)) {
+                input.setCoinbase(Hex.encode(scriptSig));
+            } else {
+                input.setTxId(toReversedHex(prevTxId));
+                input.setVout((int) prevOutIndex);
+                BitcoindScriptSig bitcoindScriptSig = new BitcoindScriptSig();
+                bitcoindScriptSig.setHex(Hex.encode(scriptSig));
+                input.setScriptSig(bitcoindScriptSig);
+            }
+            input.setSequence(sequence);
+            inputs.add(input);
+        }
+        return inputs;
+    }
+
+    private List<BitcoindVout> readOutputs(ByteBuffer buffer) {
+        // Each output has at least 9 bytes
+        int numOutputs = readCount(buffer, 9);
+        List<BitcoindVout> outputs = new ArrayList<>(numOutputs);
+        for (int i = 0; i < numOutputs; i++) {
+            long satoshis = buffer.getLong();
+            byte[] script = readBytes(buffer, readCount(buffer, 1));
+
+            BitcoindVout output = new BitcoindVout();
+            output.setValue(satoshis / SATOSHIS_PER_BTC);
+            output.setN(i);
+            output.setScriptPubKey(toScriptPubKey(script));
+            outputs.add(output);
+        }
+        return outputs;
+    }
+
+    private List<String> readWitness(ByteBuffer buffer) {
+        int numItems = readCount(buffer, 1);
+        List<String> items = new ArrayList<>(numItems);
+        for (int i = 0; i < numItems; i++) {
+            items.add(Hex.encode(readBytes(buffer, readCount(buffer, 1))));
+        }
+        return items;
+    }
+
+    private BitcoindScriptPubKey toScriptPubKey(byte[] script) {
+        BitcoindScriptPubKey scriptPubKey = new BitcoindScriptPubKey();
+        scriptPubKey.setHex(Hex.encode(script));
+        int length = script.length;
+        if (length == 25 && op(script, 0) == OP_DUP && op(script, 1) == OP_HASH160 && op(script, 2) == 20 &&
+                op(script, 23) == OP_EQUALVERIFY && op(script, 24) == OP_CHECKSIG) {
+            scriptPubKey.setType("pubkeyhash");
+            scriptPubKey.setAddress(AddressEncoder.toBase58CheckAddress(chain.getPubKeyHashAddressVersion(),
+                    Arrays.copyOfRange(script, 3, 23)));
+        } else if (length == 23 && op(script, 0) == OP_HASH160 && op(script, 1) == 20 && op(script, 22) == OP_EQUAL) {
+            scriptPubKey.setType("scripthash");
+            scriptPubKey.setAddress(AddressEncoder.toBase58CheckAddress(chain.getScriptHashAddressVersion(),
+                    Arrays.copyOfRange(script, 2, 22)));
+        } else if (isWitnessProgram(script)) {
+            int witnessVersion = op(script, 0) == OP_0 ? 0 : op(script, 0) - OP_1 + 1;
+            byte[] program = Arrays.copyOfRange(script, 2, length);
+            String type = getWitnessProgramType(witnessVersion, program);
+            scriptPubKey.setType(type);
+            if (!type.equals("nonstandard")) {
+                scriptPubKey.setAddress(AddressEncoder.toSegwitAddress(chain.getBech32Hrp(), witnessVersion, program));
+            }
+        } else if (length >= 1 && op(script, 0) == OP_RETURN && isPushOnly(script, 1)) {
+            scriptPubKey.setType("nulldata");
+        } else if (isPayToPubKey(script)) {
+            scriptPubKey.setType("pubkey");
+        } else if (isMultiSig(script)) {
+            scriptPubKey.setType("multisig");
+        } else {
+            scriptPubKey.setType("nonstandard");
+        }
+        return scriptPubKey;
+    }
+
+    private static String getWitnessProgramType(int witnessVersion, byte[] program) {
+        if (witnessVersion == 0) {
+            if (program.length == 20) {
+                return "witness_v0_keyhash";
+            } else if (program.length == 32) {
+                return "witness_v0_scripthash";
+            } else {
+                return "nonstandard";
+            }
+        } else if (witnessVersion == 1 && program.length == 32) {
+            return "witness_v1_taproot";
+        } else if (witnessVersion == 1 && program.length == 2 && program[0] == 0x4e && program[1] == 0x73) {
+            return "anchor";
+        } else {
+            return "witness_unknown";
+        }
+    }
+
+    private static boolean isWitnessProgram(byte[] script) {
+        int length = script.length;
+        if (length < 4 || length > 42) {
+            return false;
+        }
+        int versionOp = op(script, 0);
+        return (versionOp == OP_0 || (versionOp >= OP_1 && versionOp <= OP_16)) && op(script, 1) == length - 2;
+    }
+
+    private static boolean isPayToPubKey(byte[] script) {
+        int length = script.length;
+        if (length == 35 || length == 67) {
+            int pubKeyLength = op(script, 0);
+            return pubKeyLength == length - 2 &&
+                    pubKeyLength == getPubKeyLength(op(script, 1)) &&
+                    op(script, length - 1) == OP_CHECKSIG;
+        }
+        return false;
+    }
+
+    private static boolean isMultiSig(byte[] script) {
+        int length = script.length;
+        if (length < 1 || op(script, length - 1) != OP_CHECKMULTISIG) {
+            return false;
+        }
+        int requiredOp = op(script, 0);
+        if (requiredOp < OP_1 || requiredOp > OP_16) {
+            return false;
+        }
+        int position = 1;
+        int numPubKeys = 0;
+        while (position < length - 2) {
+            int pushLength = op(script, position);
+            if ((pushLength != 33 && pushLength != 65) || position + 1 + pushLength > length - 2 ||
+                    pushLength != getPubKeyLength(op(script, position + 1))) {
+                return false;
+            }
+            position += 1 + pushLength;
+            numPubKeys++;
+        }
+        if (position != length - 2) {
+            return false;
+        }
+        int totalOp = op(script, position);
+        if (totalOp < OP_1 || totalOp > OP_16) {
+            return false;
+        }
+        int required = requiredOp - OP_1 + 1;
+        int total = totalOp - OP_1 + 1;
+        return total == numPubKeys && required <= total;
+    }
+
+    // The valid pubkey length for the pubkey header byte as in bitcoind's CPubKey::GetLen
+    private static int getPubKeyLength(int header) {
+        if (header == 2 || header == 3) {
+            return 33;
+        } else if (header == 4 || header == 6 || header == 7) {
+            return 65;
+        }
+        return 0;
+    }
+
+    private static boolean isPushOnly(byte[] script, int position) {
+        int length = script.length;
+        while (position < length) {
+            int opCode = op(script, position++);
+            if (opCode > OP_16) {
+                return false;
+            }
+            long pushLength;
+            if (opCode < OP_PUSHDATA1) {
+                pushLength = opCode;
+            } else if (opCode == OP_PUSHDATA1) {
+                if (position + 1 > length) {
+                    return false;
+                }
+                pushLength = op(script, position);
+                position += 1;
+            } else if (opCode == OP_PUSHDATA2) {
+                if (position + 2 > length) {
+                    return false;
+                }
+                pushLength = op(script, position) | op(script, position + 1) << 8;
+                position += 2;
+            } else if (opCode == OP_PUSHDATA4) {
+                if (position + 4 > length) {
+                    return false;
+                }
+                pushLength = Integer.toUnsignedLong(op(script, position) | op(script, position + 1) << 8 |
+                        op(script, position + 2) << 16 | op(script, position + 3) << 24);
+                position += 4;
+            } else {
+                pushLength = 0;
+            }
+            if (position + pushLength > length) {
+                return false;
+            }
+            position += (int) pushLength;
+        }
+        return true;
+    }
+
+    private static int op(byte[] script, int index) {
+        return script[index] & 0xff;
+    }
+
+    // Reads a CompactSize count and checks that the remaining data can hold count entries of the given min. size
+    private static int readCount(ByteBuffer buffer, int minEntrySize) {
+        int first = buffer.get() & 0xff;
+        long count;
+        if (first < 0xfd) {
+            count = first;
+        } else if (first == 0xfd) {
+            count = buffer.getShort() & 0xffff;
+        } else if (first == 0xfe) {
+            count = Integer.toUnsignedLong(buffer.getInt());
+        } else {
+            count = buffer.getLong();
+        }
+        if (count < 0 || count * minEntrySize > buffer.remaining()) {
+            throw new IllegalArgumentException("Invalid count " + count + " with " + buffer.remaining() +
+                    " remaining bytes");
+        }
+        return (int) count;
+    }
+
+    private static byte[] readBytes(ByteBuffer buffer, int length) {
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return bytes;
+    }
+
+    private static boolean isAllZeros(byte[] bytes) {
+        for (byte value : bytes) {
+            if (value != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // The txId is the hash of the serialization without the segwit marker, flags and the witnesses
+    private static byte[] computeTxIdOfWitnessTx(byte[] serializedTx, int inputsStart, int outputsEnd) {
+        MessageDigest digest = getSha256Digest();
+        digest.update(serializedTx, 0, 4);
+        digest.update(serializedTx, inputsStart, outputsEnd - inputsStart);
+        digest.update(serializedTx, serializedTx.length - 4, 4);
+        return digest.digest(digest.digest());
+    }
+
+    static byte[] doubleSha256(byte[] bytes, int offset, int length) {
+        MessageDigest digest = getSha256Digest();
+        digest.update(bytes, offset, length);
+        return digest.digest(digest.digest());
+    }
+
+    private static MessageDigest getSha256Digest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String toReversedHex(byte[] hash) {
+        byte[] reversed = new byte[hash.length];
+        for (int i = 0; i < hash.length; i++) {
+            reversed[i] = hash[hash.length - 1 - i];
+        }
+        return Hex.encode(reversed);
+    }
+}
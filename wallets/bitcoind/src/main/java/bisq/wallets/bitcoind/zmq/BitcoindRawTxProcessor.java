@@ -18,13 +18,29 @@
 package bisq.wallets.bitcoind.zmq;
 
 import bisq.common.encoding.Hex;
+import bisq.common.util.ExceptionUtil;
 import bisq.wallets.bitcoind.rpc.BitcoindDaemon;
 import bisq.wallets.bitcoind.rpc.responses.BitcoindDecodeRawTransactionResponse;
+import bisq.wallets.bitcoind.tx.BitcoindChain;
+import bisq.wallets.bitcoind.tx.RawTransactionDecoder;
+import lombok.extern.slf4j.Slf4j;
 
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Decodes the raw transactions locally instead of calling decoderawtransaction for each of them. Only if the local
+ * decoding fails we let bitcoind decode the transaction.
+ */
+@Slf4j
 public class BitcoindRawTxProcessor implements ZmqRawTxProcessor {
+    private static final long DECODER_CREATION_RETRY_INTERVAL = TimeUnit.MINUTES.toMillis(1);
 
     private final BitcoindDaemon daemon;
     private final ZmqListeners listeners;
+    private volatile RawTransactionDecoder rawTransactionDecoder;
+    private volatile long lastDecoderCreationFailure;
+    private volatile boolean decoderCreationFailureLogged;
 
     public BitcoindRawTxProcessor(BitcoindDaemon daemon, ZmqListeners listeners) {
         this.daemon = daemon;
@@ -33,9 +49,48 @@ public class BitcoindRawTxProcessor implements ZmqRawTxProcessor {
 
     @Override
     public void processRawTx(byte[] serializedTx, byte[] sequenceNumber) {
-        String txInHex = Hex.encode(serializedTx);
-        BitcoindDecodeRawTransactionResponse.Result rawTransaction = daemon.decodeRawTransaction(txInHex).getResult();
+        BitcoindDecodeRawTransactionResponse.Result rawTransaction = decodeRawTransaction(serializedTx);
         listeners.fireTxOutputAddressesListeners(rawTransaction);
         listeners.fireTxIdInputListeners(rawTransaction);
     }
+
+    private BitcoindDecodeRawTransactionResponse.Result decodeRawTransaction(byte[] serializedTx) {
+        Optional<RawTransactionDecoder> decoder = findRawTransactionDecoder();
+        if (decoder.isPresent()) {
+            try {
+                return decoder.get().decode(serializedTx);
+            } catch (Exception e) {
+                log.warn("Could not decode raw transaction locally. We request bitcoind to decode it.", e);
+            }
+        }
+        String txInHex = Hex.encode(serializedTx);
+        return daemon.decodeRawTransaction(txInHex).getResult();
+    }
+
+    private Optional<RawTransactionDecoder> findRawTransactionDecoder() {
+        if (rawTransactionDecoder == null) {
+            // After a failed request of the chain we let bitcoind decode the transactions for a while, instead of
+            // requesting the chain again for each transaction.
+            if (System.currentTimeMillis() - lastDecoderCreationFailure < DECODER_CREATION_RETRY_INTERVAL) {
+                return Optional.empty();
+            }
+            try {
+                // The addresses depend on the chain, which we request only once
+                String chain = daemon.getBlockchainInfo().getChain();
+                rawTransactionDecoder = new RawTransactionDecoder(BitcoindChain.fromName(chain));
+            } catch (Exception e) {
+                lastDecoderCreationFailure = System.currentTimeMillis();
+                if (!decoderCreationFailureLogged) {
+                    decoderCreationFailureLogged = true;
+                    log.warn("Could not create the local raw transaction decoder. Until it can be created, we request " +
+                            "bitcoind to decode the transactions. Error: {}", ExceptionUtil.getRootCauseMessage(e));
+                } else {
+                    log.debug("Could not create the local raw transaction decoder. Error: {}",
+                            ExceptionUtil.getRootCauseMessage(e));
+                }
+                return Optional.empty();
+            }
+        }
+        return Optional.of(rawTransactionDecoder);
+    }
 }
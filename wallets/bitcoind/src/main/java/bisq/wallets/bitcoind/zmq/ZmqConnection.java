@@ -40,24 +40,42 @@ public class ZmqConnection implements AutoCloseable {
 
     private static final int ERROR_CODE_SOCKET_CLOSED = 4;
     private static final int ERROR_CODE_CONTEXT_TERMINATED = 156384765;
+    // While our pipeline applies back-pressure the messages queue up in the socket. ZMQ defaults to 1000 messages.
+    private static final int RECEIVE_HIGH_WATER_MARK = 100_000;
 
     private final ZmqTopicProcessors topicProcessors;
     @Getter
     private final ZmqListeners listeners;
 
-    private final ExecutorService executorService = ExecutorFactory
-            .newFixedThreadPool("wallet-zeromq-notification-thread-pool", 2);
+    private final ExecutorService receiverExecutor = ExecutorFactory.newSingleThreadExecutor("wallet-zeromq-receiver");
+    @Getter
+    private final ZmqMessagePipeline pipeline;
 
     private ZContext context;
 
     public ZmqConnection(ZmqTopicProcessors topicProcessors, ZmqListeners listeners) {
+        this(topicProcessors, listeners,
+                ZmqMessagePipeline.DEFAULT_QUEUE_CAPACITY, ZmqMessagePipeline.DEFAULT_NUM_WORKERS);
+    }
+
+    /**
+     * @param queueCapacity Number of received messages which can wait for processing before the receiver blocks
+     * @param numWorkers    Number of processing threads. With more than one thread messages can get processed
+     *                      out of order.
+     */
+    public ZmqConnection(ZmqTopicProcessors topicProcessors,
+                         ZmqListeners listeners,
+                         int queueCapacity,
+                         int numWorkers) {
         this.topicProcessors = topicProcessors;
         this.listeners = listeners;
+        pipeline = new ZmqMessagePipeline(this.topicProcessors::process, queueCapacity, numWorkers);
     }
 
     public void initialize(List<BitcoindGetZmqNotificationsResponse.Entry> zmqConnectionEndpoints) {
         context = new ZContext();
-        executorService.execute(() -> {
+        pipeline.start();
+        receiverExecutor.execute(() -> {
             String zmqAddress = findZmqAddress(zmqConnectionEndpoints);
             ZMQ.Socket socket = createSocket(zmqAddress);
             try {
@@ -78,12 +96,14 @@ public class ZmqConnection implements AutoCloseable {
     @Override
     public void close() {
         listeners.clearAll();
-        executorService.shutdownNow();
+        receiverExecutor.shutdownNow();
+        pipeline.shutdown();
         context.close();
     }
 
     private ZMQ.Socket createSocket(String zmqAddress) {
         ZMQ.Socket socket = context.createSocket(SocketType.SUB);
+        socket.setRcvHWM(RECEIVE_HIGH_WATER_MARK);
 
         // Subscribe to all topics
         Arrays.stream(BitcoindZmqTopic.values())
@@ -100,11 +120,13 @@ public class ZmqConnection implements AutoCloseable {
             byte[] secondPart = socket.recv();
             byte[] thirdPart = socket.recv();
 
-            executorService.execute(() -> {
-                BitcoindZmqTopic zmqTopic = BitcoindZmqTopic.parse(topicName);
-                var message = new BitcoindZmqMessage(zmqTopic, secondPart, thirdPart);
-                topicProcessors.process(message);
-            });
+            BitcoindZmqTopic zmqTopic = BitcoindZmqTopic.parse(topicName);
+            var message = new BitcoindZmqMessage(zmqTopic, secondPart, thirdPart);
+            try {
+                pipeline.put(message);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
         }
     }
 
@@ -0,0 +1,201 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.wallets.bitcoind.zmq;
+
+import bisq.common.threading.ExecutorFactory;
+import lombok.Getter;
+import lombok.ToString;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * Decouples receiving ZMQ messages from processing them. The receive thread puts the messages into a bounded queue,
+ * which gets drained by the worker threads.
+ * <p>
+ * If the queue is full the receive thread waits until there is space (back-pressure). The messages then queue up
+ * in the ZMQ socket buffers, and only once those are full ZMQ drops messages. Bitcoind numbers the messages of each
+ * topic, so we detect and count such drops by gaps in the sequence numbers.
+ */
+@Slf4j
+public class ZmqMessagePipeline {
+    public static final int DEFAULT_QUEUE_CAPACITY = 10_000;
+    public static final int DEFAULT_NUM_WORKERS = 1;
+    // Half of the uint32 range. A larger gap is much more likely a backwards jump than that many dropped messages.
+    static final long MAX_SEQUENCE_NUMBER_GAP = 1L << 31;
+
+    @Getter
+    @ToString
+    public static final class Metrics {
+        private final int queueDepth;
+        private final long maxQueueDepth;
+        private final long numReceived;
+        private final long numProcessed;
+        private final long numFailed;
+        private final long numDropped;
+        private final long numBackPressureWaits;
+        private final long backPressureWaitTimeMs;
+        private final long lastLagMs;
+        private final long maxLagMs;
+        private final double averageLagMs;
+
+        private Metrics(ZmqMessagePipeline pipeline) {
+            queueDepth = pipeline.queue.size();
+            maxQueueDepth = pipeline.maxQueueDepth.get();
+            numReceived = pipeline.numReceived.sum();
+            numProcessed = pipeline.numProcessed.sum();
+            numFailed = pipeline.numFailed.sum();
+            numDropped = pipeline.numDropped.sum();
+            numBackPressureWaits = pipeline.numBackPressureWaits.sum();
+            backPressureWaitTimeMs = TimeUnit.NANOSECONDS.toMillis(pipeline.backPressureWaitTimeNanos.sum());
+            lastLagMs = TimeUnit.NANOSECONDS.toMillis(pipeline.lastLagNanos.get());
+            maxLagMs = TimeUnit.NANOSECONDS.toMillis(pipeline.maxLagNanos.get());
+            long numLagSamples = numProcessed + numFailed;
+            averageLagMs = numLagSamples == 0 ? 0 :
+                    pipeline.totalLagNanos.sum() / (double) numLagSamples / TimeUnit.MILLISECONDS.toNanos(1);
+        }
+    }
+
+    private static final class QueuedMessage {
+        private final BitcoindZmqMessage message;
+        private final long receiveTimeNanos;
+
+        private QueuedMessage(BitcoindZmqMessage message, long receiveTimeNanos) {
+            this.message = message;
+            this.receiveTimeNanos = receiveTimeNanos;
+        }
+    }
+
+    private final Consumer<BitcoindZmqMessage> processor;
+    private final int numWorkers;
+    private final BlockingQueue<QueuedMessage> queue;
+    private final ExecutorService workerExecutor;
+    // Only accessed by the receive thread
+    private final Map<BitcoindZmqTopic, Long> lastSequenceNumberByTopic = new EnumMap<>(BitcoindZmqTopic.class);
+
+    private final AtomicLong maxQueueDepth = new AtomicLong();
+    private final LongAdder numReceived = new LongAdder();
+    private final LongAdder numProcessed = new LongAdder();
+    private final LongAdder numFailed = new LongAdder();
+    private final LongAdder numDropped = new LongAdder();
+    private final LongAdder numBackPressureWaits = new LongAdder();
+    private final LongAdder backPressureWaitTimeNanos = new LongAdder();
+    private final AtomicLong lastLagNanos = new AtomicLong();
+    private final AtomicLong maxLagNanos = new AtomicLong();
+    private final LongAdder totalLagNanos = new LongAdder();
+
+    public ZmqMessagePipeline(Consumer<BitcoindZmqMessage> processor, int queueCapacity, int numWorkers) {
+        this.processor = processor;
+        this.numWorkers = numWorkers;
+        queue = new ArrayBlockingQueue<>(queueCapacity);
+        workerExecutor = ExecutorFactory.newFixedThreadPool("wallet-zeromq-processor", numWorkers);
+    }
+
+    public void start() {
+        for (int i = 0; i < numWorkers; i++) {
+            workerExecutor.execute(this::processLoop);
+        }
+    }
+
+    public void shutdown() {
+        // The workers block on the queue, so we interrupt them right away and wait only for the current messages
+        workerExecutor.shutdownNow();
+        ExecutorFactory.shutdownAndAwaitTermination(workerExecutor, 1000);
+        log.info("Shut down ZMQ message pipeline. {}", getMetrics());
+    }
+
+    /**
+     * Must be called only from the receive thread. Blocks while the queue is full.
+     */
+    public void put(BitcoindZmqMessage message) throws InterruptedException {
+        numReceived.increment();
+        accountSequenceNumber(message);
+
+        var queuedMessage = new QueuedMessage(message, System.nanoTime());
+        if (!queue.offer(queuedMessage)) {
+            numBackPressureWaits.increment();
+            long ts = System.nanoTime();
+            queue.put(queuedMessage);
+            backPressureWaitTimeNanos.add(System.nanoTime() - ts);
+        }
+        maxQueueDepth.accumulateAndGet(queue.size(), Math::max);
+    }
+
+    public Metrics getMetrics() {
+        return new Metrics(this);
+    }
+
+    private void processLoop() {
+        while (!Thread.currentThread().isInterrupted()) {
+            QueuedMessage queuedMessage;
+            try {
+                queuedMessage = queue.take();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+
+            long lagNanos = System.nanoTime() - queuedMessage.receiveTimeNanos;
+            lastLagNanos.set(lagNanos);
+            maxLagNanos.accumulateAndGet(lagNanos, Math::max);
+            totalLagNanos.add(lagNanos);
+            try {
+                processor.accept(queuedMessage.message);
+                numProcessed.increment();
+            } catch (Exception e) {
+                numFailed.increment();
+                log.error("Processing ZMQ message {} failed", queuedMessage.message.getTopic(), e);
+            }
+        }
+    }
+
+    // Bitcoind sends a little endian uint32 sequence number per topic as the last message part.
+    // Gaps of at least MAX_SEQUENCE_NUMBER_GAP are treated as a reset of the sequence numbers.
+    private void accountSequenceNumber(BitcoindZmqMessage message) {
+        byte[] sequenceNumberBytes = message.getThirdPart();
+        if (sequenceNumberBytes == null || sequenceNumberBytes.length != 4) {
+            return;
+        }
+        long sequenceNumber = (sequenceNumberBytes[0] & 0xffL) |
+                (sequenceNumberBytes[1] & 0xffL) << 8 |
+                (sequenceNumberBytes[2] & 0xffL) << 16 |
+                (sequenceNumberBytes[3] & 0xffL) << 24;
+        Long lastSequenceNumber = lastSequenceNumberByTopic.put(message.getTopic(), sequenceNumber);
+        if (lastSequenceNumber != null) {
+            long numMissed = (sequenceNumber - lastSequenceNumber - 1) & 0xffffffffL;
+            if (numMissed >= MAX_SEQUENCE_NUMBER_GAP) {
+                // A large gap is a backwards jump. Bitcoind starts again at 0 after a restart, so we only take the
+                // new sequence number as the base for the following messages.
+                log.info("ZMQ {} sequence number got reset from {} to {}. Bitcoind was probably restarted.",
+                        message.getTopic().getTopicName(), lastSequenceNumber, sequenceNumber);
+            } else if (numMissed > 0) {
+                numDropped.add(numMissed);
+                log.warn("{} ZMQ {} messages got dropped before we received them. {}",
+                        numMissed, message.getTopic().getTopicName(), getMetrics());
+            }
+        }
+    }
+}
@@ -0,0 +1,153 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.wallets.bitcoind.tx;
+
+import bisq.common.encoding.Hex;
+import bisq.wallets.bitcoind.rpc.responses.BitcoindDecodeRawTransactionResponse;
+import bisq.wallets.bitcoind.rpc.responses.BitcoindVin;
+import bisq.wallets.bitcoind.rpc.responses.BitcoindVout;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@Slf4j
+public class RawTransactionDecoderTest {
+    private static final String GENESIS_COINBASE_TX = "01000000010000000000000000000000000000000000000000000000000000000000000000ffffffff4d04ffff001d0104455468652054696d65732030332f4a616e2f32303039204368616e63656c6c6f72206f6e206272696e6b206f66207365636f6e64206261696c6f757420666f722062616e6b73ffffffff0100f2052a01000000434104678afdb0fe5548271967f1a67130b7105cd6a828e03909a67962e0ea1f61deb649f6bc3f4cef38c4f35504e51ec112de5c384df7ba0b8d578a4c702b6bf11d5fac00000000";
+
+    // Transaction with one input spending 1111...:1, a P2WPKH output of 0.001 BTC and an OP_RETURN output
+    private static final String VERSION = "02000000";
+    private static final String INPUTS = "01" + "11".repeat(32) + "01000000" + "00" + "fdffffff";
+    private static final String OUTPUTS = "02" +
+            "a086010000000000" + "16" + "0014751e76e8199196d454941c45d1b3a323f1433bd6" +
+            "0000000000000000" + "06" + "6a04deadbeef";
+    private static final String WITNESS = "02" + "03aabbcc" + "00";
+    private static final String LOCKTIME = "65000000";
+    private static final String LEGACY_TX = VERSION + INPUTS + OUTPUTS + LOCKTIME;
+    private static final String SEGWIT_TX = VERSION + "0001" + INPUTS + OUTPUTS + WITNESS + LOCKTIME;
+
+    @Test
+    void decodeGenesisCoinbaseTx() {
+        var decoder = new RawTransactionDecoder(BitcoindChain.MAIN);
+        BitcoindDecodeRawTransactionResponse.Result tx = decoder.decode(Hex.decode(GENESIS_COINBASE_TX));
+
+        assertThat(tx.getTxId()).isEqualTo("4a5e1e4baab89f3a32518a88c31bc87f618f76673e2cc77ab2127b7afdeda33b");
+        assertThat(tx.getHash()).isEqualTo(tx.getTxId());
+        assertThat(tx.getSize()).isEqualTo(204);
+        assertThat(tx.getVsize()).isEqualTo(204);
+        assertThat(tx.getWeight()).isEqualTo(816);
+        assertThat(tx.getVersion()).isEqualTo(1);
+        assertThat(tx.getLocktime()).isZero();
+
+        BitcoindVin vin = tx.getVin().get(0);
+        assertThat(vin.getCoinbase()).startsWith("04ffff001d0104455468652054696d6573");
+        assertThat(vin.getTxId()).isNull();
+        assertThat(vin.getSequence()).isEqualTo(0xffffffffL);
+
+        BitcoindVout vout = tx.getVout().get(0);
+        assertThat(vout.getValue()).isEqualTo(50);
+        assertThat(vout.getScriptPubKey().getType()).isEqualTo("pubkey");
+        assertThat(vout.getAddresses()).isEmpty();
+    }
+
+    @Test
+    void decodeSegwitTx() {
+        var decoder = new RawTransactionDecoder(BitcoindChain.REGTEST);
+        BitcoindDecodeRawTransactionResponse.Result segwitTx = decoder.decode(Hex.decode(SEGWIT_TX));
+        BitcoindDecodeRawTransactionResponse.Result legacyTx = decoder.decode(Hex.decode(LEGACY_TX));
+
+        // The txId does not commit to the witness
+        assertThat(segwitTx.getTxId()).isEqualTo(legacyTx.getTxId());
+        assertThat(segwitTx.getHash()).isNotEqualTo(segwitTx.getTxId());
+        assertThat(legacyTx.getHash()).isEqualTo(legacyTx.getTxId());
+        assertThat(segwitTx.getSize()).isEqualTo(105);
+        assertThat(segwitTx.getWeight()).isEqualTo(97 * 3 + 105);
+        assertThat(segwitTx.getVsize()).isEqualTo(99);
+        assertThat(segwitTx.getVersion()).isEqualTo(2);
+        assertThat(segwitTx.getLocktime()).isEqualTo(101);
+
+        BitcoindVin vin = segwitTx.getVin().get(0);
+        assertThat(vin.getTxId()).isEqualTo("11".repeat(32));
+        assertThat(vin.getVout()).isEqualTo(1);
+        assertThat(vin.getScriptSig().getHex()).isEmpty();
+        assertThat(vin.getTxInWitness()).containsExactly("aabbcc", "");
+        assertThat(vin.getSequence()).isEqualTo(0xfffffffdL);
+        assertThat(legacyTx.getVin().get(0).getTxInWitness()).isNull();
+
+        List<BitcoindVout> vout = segwitTx.getVout();
+        assertThat(vout.get(0).getValue()).isEqualTo(0.001);
+        assertThat(vout.get(0).getScriptPubKey().getType()).isEqualTo("witness_v0_keyhash");
+        assertThat(vout.get(0).getAddresses()).containsExactly("bcrt1qw508d6qejxtdg4y5r3zarvary0c5xw7kygt080");
+        assertThat(vout.get(1).getN()).isEqualTo(1);
+        assertThat(vout.get(1).getScriptPubKey().getType()).isEqualTo("nulldata");
+        assertThat(vout.get(1).getAddresses()).isEmpty();
+    }
+
+    @Test
+    void rejectMalformedTx() {
+        var decoder = new RawTransactionDecoder(BitcoindChain.MAIN);
+        assertThatThrownBy(() -> decoder.decode(Hex.decode(SEGWIT_TX + "00")))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> decoder.decode(Hex.decode(SEGWIT_TX.substring(0, 60))))
+                .isInstanceOf(IllegalArgumentException.class);
+        // Claims more inputs than the data can hold
+        assertThatThrownBy(() -> decoder.decode(Hex.decode("02000000ffffffffffffffffff")))
+                .isInstanceOf(IllegalArgumentException.class);
+        // Witness flag without any witness data
+        String superfluousWitnessTx = VERSION + "0001" + INPUTS + OUTPUTS + "00" + LOCKTIME;
+        assertThatThrownBy(() -> decoder.decode(Hex.decode(superfluousWitnessTx)))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void addresses() {
+        // Address of the genesis block output pubkey
+        assertThat(AddressEncoder.toBase58CheckAddress(0x00, Hex.decode("62e907b15cbf27d5425399ebf6f0fb50ebb88f18")))
+                .isEqualTo("1A1zP1eP5QGefi2DMPTfTL5SLmv7DivfNa");
+        // Test vectors from BIP 173 and BIP 350
+        assertThat(AddressEncoder.toSegwitAddress("bc", 0, Hex.decode("751e76e8199196d454941c45d1b3a323f1433bd6")))
+                .isEqualTo("bc1qw508d6qejxtdg4y5r3zarvary0c5xw7kv8f3t4");
+        assertThat(AddressEncoder.toSegwitAddress("bc", 1,
+                Hex.decode("79be667ef9dcbbac55a06295ce870b07029bfcdb2dce28d959f2815b16f81798")))
+                .isEqualTo("bc1p0xlxvlhemja6c4dqv22uapctqupfhlxm9h8z3k2e72q4k9hcz7vqzk5jj0");
+        // Pay to anchor
+        assertThat(AddressEncoder.toSegwitAddress("bc", 1, Hex.decode("4e73")))
+                .isEqualTo("bc1pfeessrawgf");
+    }
+
+    @Test
+    void decodeThroughput() {
+        var decoder = new RawTransactionDecoder(BitcoindChain.REGTEST);
+        byte[] serializedTx = Hex.decode(SEGWIT_TX);
+        // Warm up
+        for (int i = 0; i < 10_000; i++) {
+            decoder.decode(serializedTx);
+        }
+        int numTxs = 100_000;
+        long ts = System.nanoTime();
+        for (int i = 0; i < numTxs; i++) {
+            decoder.decode(serializedTx);
+        }
+        long duration = System.nanoTime() - ts;
+        log.info("Decoding {} transactions took {} ms ({} transactions per second)",
+                numTxs, duration / 1_000_000, numTxs * 1_000_000_000L / duration);
+    }
+}
@@ -0,0 +1,161 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.wallets.bitcoind.zmq;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Slf4j
+public class ZmqMessagePipelineTest {
+    private static BitcoindZmqMessage message(BitcoindZmqTopic topic, long sequenceNumber) {
+        byte[] sequenceNumberBytes = new byte[]{
+                (byte) sequenceNumber,
+                (byte) (sequenceNumber >> 8),
+                (byte) (sequenceNumber >> 16),
+                (byte) (sequenceNumber >> 24)};
+        return new BitcoindZmqMessage(topic, new byte[32], sequenceNumberBytes);
+    }
+
+    @Test
+    void processesAllMessagesInOrderUnderBackPressure() throws InterruptedException {
+        int numMessages = 1000;
+        List<BitcoindZmqMessage> processed = new CopyOnWriteArrayList<>();
+        CountDownLatch allProcessed = new CountDownLatch(numMessages);
+        CountDownLatch release = new CountDownLatch(1);
+        var pipeline = new ZmqMessagePipeline(message -> {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            processed.add(message);
+            allProcessed.countDown();
+        }, 10, 1);
+        pipeline.start();
+
+        Thread receiver = new Thread(() -> {
+            try {
+                for (int i = 0; i < numMessages; i++) {
+                    pipeline.put(message(BitcoindZmqTopic.TOPIC_RAWTX, i));
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        receiver.start();
+
+        // The worker is blocked, so the receiver must block once the queue is full
+        Thread.sleep(200);
+        assertThat(receiver.isAlive()).isTrue();
+        assertThat(pipeline.getMetrics().getQueueDepth()).isEqualTo(10);
+
+        release.countDown();
+        assertThat(allProcessed.await(10, TimeUnit.SECONDS)).isTrue();
+        receiver.join();
+        pipeline.shutdown();
+
+        ZmqMessagePipeline.Metrics metrics = pipeline.getMetrics();
+        log.info("{}", metrics);
+        assertThat(metrics.getNumReceived()).isEqualTo(numMessages);
+        assertThat(metrics.getNumProcessed()).isEqualTo(numMessages);
+        assertThat(metrics.getNumDropped()).isZero();
+        assertThat(metrics.getNumBackPressureWaits()).isPositive();
+        assertThat(metrics.getMaxQueueDepth()).isEqualTo(10);
+        assertThat(metrics.getMaxLagMs()).isGreaterThanOrEqualTo(200);
+        for (int i = 0; i < numMessages; i++) {
+            assertThat(processed.get(i)).isEqualTo(message(BitcoindZmqTopic.TOPIC_RAWTX, i));
+        }
+    }
+
+    @Test
+    void countsSequenceNumberGapsPerTopic() throws InterruptedException {
+        CountDownLatch allProcessed = new CountDownLatch(7);
+        var pipeline = new ZmqMessagePipeline(message -> allProcessed.countDown(), 100, 2);
+        pipeline.start();
+
+        pipeline.put(message(BitcoindZmqTopic.TOPIC_RAWTX, 5));
+        pipeline.put(message(BitcoindZmqTopic.TOPIC_HASHBLOCK, 0xfffffffeL));
+        pipeline.put(message(BitcoindZmqTopic.TOPIC_RAWTX, 6));
+        pipeline.put(message(BitcoindZmqTopic.TOPIC_HASHBLOCK, 0xffffffffL));
+        pipeline.put(message(BitcoindZmqTopic.TOPIC_RAWTX, 9));
+        // Sequence numbers wrap around at 2^32
+        pipeline.put(message(BitcoindZmqTopic.TOPIC_HASHBLOCK, 0));
+        pipeline.put(message(BitcoindZmqTopic.TOPIC_HASHBLOCK, 2));
+
+        assertThat(allProcessed.await(10, TimeUnit.SECONDS)).isTrue();
+        pipeline.shutdown();
+
+        // rawtx misses 7 and 8, hashblock misses 1
+        ZmqMessagePipeline.Metrics metrics = pipeline.getMetrics();
+        assertThat(metrics.getNumDropped()).isEqualTo(3);
+        assertThat(metrics.getNumProcessed()).isEqualTo(7);
+    }
+
+    @Test
+    void sequenceNumberResetIsNotCountedAsDrops() throws InterruptedException {
+        CountDownLatch allProcessed = new CountDownLatch(6);
+        var pipeline = new ZmqMessagePipeline(message -> allProcessed.countDown(), 100, 1);
+        pipeline.start();
+
+        pipeline.put(message(BitcoindZmqTopic.TOPIC_RAWTX, 1000));
+        pipeline.put(message(BitcoindZmqTopic.TOPIC_RAWTX, 1001));
+        // Bitcoind got restarted and starts again at 0
+        pipeline.put(message(BitcoindZmqTopic.TOPIC_RAWTX, 0));
+        pipeline.put(message(BitcoindZmqTopic.TOPIC_RAWTX, 1));
+        // Second restart before any message got sent after the first one
+        pipeline.put(message(BitcoindZmqTopic.TOPIC_HASHBLOCK, 0));
+        pipeline.put(message(BitcoindZmqTopic.TOPIC_HASHBLOCK, 0));
+
+        assertThat(allProcessed.await(10, TimeUnit.SECONDS)).isTrue();
+        pipeline.shutdown();
+
+        ZmqMessagePipeline.Metrics metrics = pipeline.getMetrics();
+        assertThat(metrics.getNumDropped()).isEqualTo(0);
+        assertThat(metrics.getNumProcessed()).isEqualTo(6);
+    }
+
+    @Test
+    void failingProcessorDoesNotStopPipeline() throws InterruptedException {
+        CountDownLatch allProcessed = new CountDownLatch(3);
+        var pipeline = new ZmqMessagePipeline(message -> {
+            allProcessed.countDown();
+            if (message.getTopic() == BitcoindZmqTopic.TOPIC_HASHBLOCK) {
+                throw new RuntimeException("Processing failed");
+            }
+        }, 100, 1);
+        pipeline.start();
+
+        pipeline.put(message(BitcoindZmqTopic.TOPIC_RAWTX, 0));
+        pipeline.put(message(BitcoindZmqTopic.TOPIC_HASHBLOCK, 0));
+        pipeline.put(message(BitcoindZmqTopic.TOPIC_RAWTX, 1));
+
+        assertThat(allProcessed.await(10, TimeUnit.SECONDS)).isTrue();
+        pipeline.shutdown();
+
+        ZmqMessagePipeline.Metrics metrics = pipeline.getMetrics();
+        assertThat(metrics.getNumFailed()).isEqualTo(1);
+        assertThat(metrics.getNumProcessed()).isEqualTo(2);
+    }
+}
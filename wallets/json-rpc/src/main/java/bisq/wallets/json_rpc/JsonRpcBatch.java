@@ -0,0 +1,92 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.wallets.json_rpc;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Collects RPC calls which get sent with a single JSON-RPC 2.0 batch request by JsonRpcClient.call(JsonRpcBatch).
+ * The responses are available at the entries returned by add() once the batch got executed.
+ */
+public class JsonRpcBatch {
+    private final List<Entry<?>> entries = new ArrayList<>();
+
+    public <R extends JsonRpcResponse<?>> Entry<R> add(RpcCall<?, R> rpcCall) {
+        Entry<R> entry = new Entry<>(rpcCall);
+        entries.add(entry);
+        return entry;
+    }
+
+    public boolean isEmpty() {
+        return entries.isEmpty();
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    List<Entry<?>> getEntries() {
+        return Collections.unmodifiableList(entries);
+    }
+
+    public static class Entry<R extends JsonRpcResponse<?>> {
+        private final RpcCall<?, R> rpcCall;
+        private final JsonRpcCall jsonRpcCall;
+        private R response;
+        private RpcCallFailureException failure;
+
+        private Entry(RpcCall<?, R> rpcCall) {
+            this.rpcCall = rpcCall;
+            jsonRpcCall = new JsonRpcCall(rpcCall.getRpcMethodName(), rpcCall.request);
+        }
+
+        /**
+         * @return The response of the call
+         * @throws RpcCallFailureException if the call failed
+         * @throws IllegalStateException   if the batch was not executed yet
+         */
+        public R getResponse() {
+            if (failure != null) {
+                throw failure;
+            }
+            if (response == null) {
+                throw new IllegalStateException("Batch containing '" + rpcCall.getRpcMethodName() +
+                        "' was not executed yet");
+            }
+            return response;
+        }
+
+        RpcCall<?, R> getRpcCall() {
+            return rpcCall;
+        }
+
+        JsonRpcCall getJsonRpcCall() {
+            return jsonRpcCall;
+        }
+
+        void setResponse(R response) {
+            this.response = response;
+        }
+
+        void setFailure(RpcCallFailureException failure) {
+            this.failure = failure;
+        }
+    }
+}
@@ -30,4 +30,8 @@ public class JsonRpcCall {
         this.method = method;
         this.params = params;
     }
+
+    String getId() {
+        return id;
+    }
 }
@@ -19,14 +19,20 @@ package bisq.wallets.json_rpc;
 
 import bisq.wallets.json_rpc.exceptions.InvalidRpcCredentialsException;
 import com.squareup.moshi.JsonAdapter;
+import com.squareup.moshi.JsonDataException;
 import com.squareup.moshi.Moshi;
+import com.squareup.moshi.Types;
 import lombok.extern.slf4j.Slf4j;
 import okhttp3.*;
 import okhttp3.logging.HttpLoggingInterceptor;
 
 import java.io.IOException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
 
 @Slf4j
 public class JsonRpcClient {
@@ -41,16 +47,15 @@ public class JsonRpcClient {
 
     private final Moshi moshi = new Moshi.Builder().build();
     private final JsonAdapter<JsonRpcCall> jsonRpcCallJsonAdapter = moshi.adapter(JsonRpcCall.class);
+    private final JsonAdapter<List<JsonRpcCall>> jsonRpcCallListJsonAdapter =
+            moshi.adapter(Types.newParameterizedType(List.class, JsonRpcCall.class));
+    private final JsonAdapter<Object> jsonValueAdapter = moshi.adapter(Object.class);
 
     public JsonRpcClient(JsonRpcEndpointSpec rpcEndpointSpec) {
         this.rpcEndpointSpec = rpcEndpointSpec;
 
-        var loggingInterceptor = new HttpLoggingInterceptor(log::info);
-        loggingInterceptor.setLevel(HttpLoggingInterceptor.Level.BODY);
-        loggingInterceptor.redactHeader(AUTHORIZATION_HEADER_NAME);
-
         this.client = new OkHttpClient.Builder()
-                .addInterceptor(loggingInterceptor)
+                .addInterceptor(createLoggingInterceptor())
                 .connectTimeout(1, TimeUnit.MINUTES)
                 .writeTimeout(1, TimeUnit.MINUTES)
                 .readTimeout(1, TimeUnit.MINUTES)
@@ -92,6 +97,91 @@ public class JsonRpcClient {
         }
     }
 
+    /**
+     * Sends all calls of the batch with a single JSON-RPC 2.0 batch request. The responses are matched by their id
+     * and set at the batch entries. A failed call (error response, invalid or missing response) does not fail the
+     * other calls, but RpcCallFailureException gets thrown when its response is requested from the entry.
+     * If the whole request fails, RpcCallFailureException or InvalidRpcCredentialsException gets thrown here.
+     */
+    public void call(JsonRpcBatch batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        List<JsonRpcBatch.Entry<?>> entries = batch.getEntries();
+        String methodNames = entries.stream()
+                .map(entry -> entry.getRpcCall().getRpcMethodName())
+                .collect(Collectors.joining(", "));
+        List<JsonRpcCall> jsonRpcCalls = entries.stream()
+                .map(JsonRpcBatch.Entry::getJsonRpcCall)
+                .collect(Collectors.toList());
+        Request request = buildRequest(jsonRpcCallListJsonAdapter.toJson(jsonRpcCalls));
+
+        try (Response response = client.newCall(request).execute()) {
+            if (response.code() == HTTP_CODE_UNAUTHORIZED) {
+                throw new InvalidRpcCredentialsException();
+            }
+
+            ResponseBody responseBody = response.body();
+            Objects.requireNonNull(responseBody);
+
+            Object jsonValue = jsonValueAdapter.fromJson(responseBody.source());
+            if (!(jsonValue instanceof List)) {
+                // The server rejected the whole batch, e.g. because it does not support batch requests
+                throw new RpcCallFailureException("RPC batch call to '" + methodNames + "' failed. " + jsonValue);
+            }
+
+            Map<String, JsonRpcBatch.Entry<?>> entriesById = new HashMap<>();
+            entries.forEach(entry -> entriesById.put(entry.getJsonRpcCall().getId(), entry));
+            for (Object responseJsonValue : (List<?>) jsonValue) {
+                Object id = responseJsonValue instanceof Map ? ((Map<?, ?>) responseJsonValue).get("id") : null;
+                JsonRpcBatch.Entry<?> entry = entriesById.remove(String.valueOf(id));
+                if (entry != null) {
+                    applyBatchResponse(entry, responseJsonValue);
+                } else {
+                    log.warn("Received batch response with unknown id. response={}", responseJsonValue);
+                }
+            }
+            entriesById.values().forEach(entry -> entry.setFailure(new RpcCallFailureException(
+                    "RPC Call to '" + entry.getRpcCall().getRpcMethodName() + "' failed. No response received.")));
+
+        } catch (IOException | JsonDataException e) {
+            throw new RpcCallFailureException("RPC batch call to '" + methodNames + "' failed. ", e);
+        }
+    }
+
+    private <R extends JsonRpcResponse<?>> void applyBatchResponse(JsonRpcBatch.Entry<R> entry,
+                                                                   Object responseJsonValue) {
+        RpcCall<?, R> rpcCall = entry.getRpcCall();
+        try {
+            R parsedJsonResponse = rpcCall.getJsonAdapter().fromJsonValue(responseJsonValue);
+            if (parsedJsonResponse == null ||
+                    parsedJsonResponse.getError() != null ||
+                    !rpcCall.isResponseValid(parsedJsonResponse)) {
+                String message = "RPC Call to '" + rpcCall.getRpcMethodName() + "' failed. ";
+                if (parsedJsonResponse != null && parsedJsonResponse.getError() != null) {
+                    message += parsedJsonResponse.getError().toString();
+                }
+                entry.setFailure(new RpcCallFailureException(message));
+            } else {
+                entry.setResponse(parsedJsonResponse);
+            }
+        } catch (JsonDataException e) {
+            entry.setFailure(new RpcCallFailureException(
+                    "RPC Call to '" + rpcCall.getRpcMethodName() + "' failed. ", e));
+        }
+    }
+
+    // Capturing the bodies is expensive for large responses, so we only do it if debug logging is enabled.
+    private static Interceptor createLoggingInterceptor() {
+        var bodyLoggingInterceptor = new HttpLoggingInterceptor(log::debug);
+        bodyLoggingInterceptor.setLevel(HttpLoggingInterceptor.Level.BODY);
+        bodyLoggingInterceptor.redactHeader(AUTHORIZATION_HEADER_NAME);
+        return chain -> log.isDebugEnabled() ?
+                bodyLoggingInterceptor.intercept(chain) :
+                chain.proceed(chain.request());
+    }
+
     private Request buildRequest(String body) {
         return new Request.Builder()
                 .url(rpcEndpointSpec.getUrl())
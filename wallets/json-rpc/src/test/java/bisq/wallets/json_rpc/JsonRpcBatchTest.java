@@ -0,0 +1,127 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.wallets.json_rpc;
+
+import bisq.wallets.json_rpc.exceptions.InvalidRpcCredentialsException;
+import com.squareup.moshi.Moshi;
+import com.squareup.moshi.Types;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class JsonRpcBatchTest {
+
+    private final MockWebServer server = new MockWebServer();
+    private JsonRpcClient jsonRpcClient;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server.start();
+        JsonRpcEndpointSpec endpointSpec = new JsonRpcEndpointSpec(server.url("/"), "bisq", "bisq");
+        jsonRpcClient = new JsonRpcClient(endpointSpec);
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        server.shutdown();
+    }
+
+    @Test
+    void responsesAreMatchedById() throws Exception {
+        var batch = new JsonRpcBatch();
+        JsonRpcBatch.Entry<DummyJsonRpcResponse> first = batch.add(new DummyGetBlockChainInfoRpcCall());
+        JsonRpcBatch.Entry<DummyJsonRpcResponse> second = batch.add(new DummyGetBlockChainInfoRpcCall());
+        JsonRpcBatch.Entry<DummyJsonRpcResponse> failing = batch.add(new DummyGetBlockChainInfoRpcCall());
+        JsonRpcBatch.Entry<DummyJsonRpcResponse> missing = batch.add(new DummyGetBlockChainInfoRpcCall());
+        assertThatThrownBy(first::getResponse).isInstanceOf(IllegalStateException.class);
+
+        String firstId = first.getJsonRpcCall().getId();
+        String secondId = second.getJsonRpcCall().getId();
+        String failingId = failing.getJsonRpcCall().getId();
+        // The server might respond in any order
+        server.enqueue(new MockResponse().setBody("[" +
+                "{\"result\":{\"chain\":\"main\"},\"error\":null,\"id\":\"" + secondId + "\"}," +
+                "{\"result\":null,\"error\":{\"code\":-32601,\"message\":\"Method not found\"},\"id\":\"" + failingId + "\"}," +
+                "{\"result\":{\"chain\":\"regtest\"},\"error\":null,\"id\":\"" + firstId + "\"}," +
+                "{\"result\":{\"chain\":\"test\"},\"error\":null,\"id\":\"unknown\"}" +
+                "]"));
+
+        jsonRpcClient.call(batch);
+
+        assertThat(first.getResponse().getResult().chain).isEqualTo("regtest");
+        assertThat(second.getResponse().getResult().chain).isEqualTo("main");
+        assertThatThrownBy(failing::getResponse)
+                .isInstanceOf(RpcCallFailureException.class)
+                .hasMessageContaining("Method not found");
+        assertThatThrownBy(missing::getResponse)
+                .isInstanceOf(RpcCallFailureException.class)
+                .hasMessageContaining("No response received");
+
+        // All calls were sent with a single request
+        assertThat(server.getRequestCount()).isEqualTo(1);
+        RecordedRequest recordedRequest = server.takeRequest();
+        List<Map<String, Object>> sentCalls = new Moshi.Builder().build()
+                .<List<Map<String, Object>>>adapter(Types.newParameterizedType(List.class, Map.class))
+                .fromJson(recordedRequest.getBody().readUtf8());
+        assertThat(sentCalls).hasSize(4);
+        assertThat(sentCalls).allSatisfy(call -> {
+            assertThat(call.get("jsonrpc")).isEqualTo("2.0");
+            assertThat(call.get("method")).isEqualTo("getblockchaininfo");
+        });
+        assertThat(recordedRequest.getHeader(JsonRpcClient.AUTHORIZATION_HEADER_NAME)).isNotNull();
+    }
+
+    @Test
+    void emptyBatchSendsNoRequest() {
+        jsonRpcClient.call(new JsonRpcBatch());
+        assertThat(server.getRequestCount()).isZero();
+    }
+
+    @Test
+    void rejectedBatch() {
+        var batch = new JsonRpcBatch();
+        batch.add(new DummyGetBlockChainInfoRpcCall());
+        server.enqueue(new MockResponse()
+                .setResponseCode(500)
+                .setBody("{\"result\":null,\"error\":{\"code\":-32700,\"message\":\"Parse error\"},\"id\":null}"));
+
+        assertThatThrownBy(() -> jsonRpcClient.call(batch))
+                .isInstanceOf(RpcCallFailureException.class)
+                .hasMessageContaining("Parse error");
+    }
+
+    @Test
+    void invalidCredentials() {
+        var batch = new JsonRpcBatch();
+        batch.add(new DummyGetBlockChainInfoRpcCall());
+        server.enqueue(new MockResponse().setResponseCode(401));
+
+        assertThatThrownBy(() -> jsonRpcClient.call(batch))
+                .isInstanceOf(InvalidRpcCredentialsException.class);
+    }
+}